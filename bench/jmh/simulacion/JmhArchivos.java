@@ -0,0 +1,81 @@
+package simulacion;
+import java.io.*;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*****************************************************************************/
+/* Benchmark JMH de guardar y abrir corridas: GenObsAlet.GuardarBinario      */
+/* (comprimido o no), GuardarTexto y ControlSim.AbrirArc, con archivos en un */
+/* directorio temporal que se borra al terminar. El tiempo es por archivo    */
+/* completo; el rendimiento en MB/s es 8*CantObs/tiempo.                     */
+/*****************************************************************************/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=2)
+@Measurement(iterations=5)
+@Fork(value=1, jvmArgsAppend={ "-Xmx2g" })
+public class JmhArchivos {
+
+  @Param({ "1000000", "10000000" })
+  public int CantObs;
+
+  /* 1 geometrica (se comprime mucho), 4 exponencial (casi nada) */
+  @Param({ "1", "4" })
+  public int TipoDistr;
+
+  @Param({ "bin", "comprimido", "txt" })
+  public String Formato;
+
+  private File Dir;
+  private File Escrito;
+  private File Leido;
+  private GenObsAlet Obs;
+
+  @Setup(Level.Trial)
+  public void Preparar() throws IOException
+  {
+  this.Dir=Files.createTempDirectory("jmh-simuldp").toFile();
+  this.Obs=new GenObsAlet(this.TipoDistr, this.CantObs, MotorAleatorio.XOSHIRO, 12345L);
+  if(this.TipoDistr==1)
+     this.Obs.GenObsDisc(0.7, 0);
+  else
+     this.Obs.GenObsCont(0, 0, 4, 0);
+  this.Obs.SetComprimir(this.Formato.equals("comprimido"));
+  this.Escrito=new File(this.Dir, "escrito."+this.Formato);
+  this.Leido=new File(this.Dir, "leido."+this.Formato);
+  Guardar(this.Leido);
+  new ControlSim().AbrirArc(this.Leido.getAbsolutePath());
+  }
+
+  @TearDown(Level.Trial)
+  public void Borrar()
+  {
+  this.Escrito.delete();
+  this.Leido.delete();
+  this.Dir.delete();
+  }
+
+  private void Guardar(File Archivo) throws IOException
+  {
+  if(this.Formato.equals("txt"))
+     this.Obs.GuardarTexto(Archivo);
+  else
+     this.Obs.GuardarBinario(Archivo);
+  }
+
+  @Benchmark
+  public long Guardar() throws IOException
+  {
+  Guardar(this.Escrito);
+  return this.Escrito.length();
+  }
+
+  @Benchmark
+  public GenObsAlet Abrir() throws IOException
+  {
+  return new ControlSim().AbrirArc(this.Leido.getAbsolutePath());
+  }
+}
@@ -0,0 +1,88 @@
+package simulacion;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*****************************************************************************/
+/* Benchmark JMH de los muestreadores: observaciones por segundo de cada     */
+/* distribucion en varios rangos de parametros, llenando un bloque de        */
+/* GenObsAlet.BLOQUE con Muestreador.Llenar (lo mismo que hace cada hilo de  */
+/* GenObsAlet). El caso se escribe dist:param:param, por ejemplo geo:0.95    */
+/* (q, inicio 1), poi:50, uni:2:5, exp:4, nor:0:1:1 (media, dstd y metodo de */
+/* Nor) o emp:1000 (tabla de alias con esa cantidad de valores). El score es */
+/* en observaciones por segundo. Uni y Exp pasan por NucleosLote: con        */
+/* -p Motor=philox,xoshiro -jvmArgsAppend --add-modules=jdk.incubator.vector */
+/* se miden los nucleos vectoriales y el motor Philox por lotes.             */
+/*****************************************************************************/
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class JmhMuestreadores {
+
+  @Param({ "geo:0.3", "geo:0.95", "geo:0.999",
+           "poi:3", "poi:50", "poi:5000",
+           "uni:0:1", "uni:-1000:1000",
+           "exp:0.5", "exp:1000",
+           "nor:0:1:1", "nor:0:1:2", "nor:0:1:3", "nor:0:1:4",
+           "emp:10", "emp:10000" })
+  public String Caso;
+
+  @Param({ "xoshiro" })
+  public String Motor;
+
+  private Muestreador Muestreo;
+  private MotorAleatorio Generador;
+  private double[] Datos;
+
+  @Setup(Level.Trial)
+  public void Preparar()
+  {
+  this.Muestreo=CrearMuestreador(this.Caso);
+  this.Generador=MotorAleatorio.Crear(MotorAleatorio.TipoDeNombre(this.Motor), 12345L);
+  this.Datos=new double[GenObsAlet.BLOQUE];
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(GenObsAlet.BLOQUE)
+  public double[] Llenar()
+  {
+  this.Muestreo.Llenar(this.Datos, 0, this.Datos.length, this.Generador);
+  return this.Datos;
+  }
+
+  /************************************************************************/
+  /* Arma el muestreador de un caso dist:param:param                      */
+  /************************************************************************/
+  static Muestreador CrearMuestreador(String Caso)
+  {
+  String[] p=Caso.split(":");
+  String Dist=p[0];
+  if(Dist.equals("geo"))
+     return Geo.CrearMuestreador(Double.parseDouble(p[1]), Geo.INICIO_UNO);
+  if(Dist.equals("poi"))
+     return Poi.CrearMuestreador(Double.parseDouble(p[1]));
+  if(Dist.equals("uni"))
+     return Uni.CrearMuestreador(Double.parseDouble(p[1]), Double.parseDouble(p[2]));
+  if(Dist.equals("exp"))
+     return Exp.CrearMuestreador(Double.parseDouble(p[1]));
+  if(Dist.equals("nor"))
+     return Nor.CrearMuestreador(Double.parseDouble(p[1]), Double.parseDouble(p[2]), Integer.parseInt(p[3]));
+  if(Dist.equals("emp"))
+     return TablaEmpirica(Integer.parseInt(p[1]));
+  throw new IllegalArgumentException("caso desconocido: "+Caso);
+  }
+
+  /* Tabla de alias con Valores valores de pesos desparejos */
+  static TablaAlias TablaEmpirica(int Valores)
+  {
+  double[] x=new double[Valores], w=new double[Valores];
+  for(int i=0; i<Valores; i++){
+     x[i]=i;
+     w[i]=1.0/(i+1);
+  }
+  return new TablaAlias(x, w);
+  }
+}
@@ -0,0 +1,54 @@
+package simulacion;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*****************************************************************************/
+/* Benchmark JMH de NorMultivariada: genera un bloque con Llenar, lo que     */
+/* hace cada hilo de Generar. El score es en bloques por segundo; un bloque  */
+/* son GetVectoresBloque()=65536/Dim vectores, unos 65536 valores. La        */
+/* covarianza es AR(1), Cov[j][k]=Rho^|j-k|, con el factor de Cholesky       */
+/* lleno. El costo por valor crece con Dim; con                              */
+/* -jvmArgsAppend --add-modules=jdk.incubator.vector se mide el producto     */
+/* L*Z vectorial de NucleosLote.                                             */
+/*****************************************************************************/
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class JmhNorMultivariada {
+
+  @Param({ "10", "50", "100", "300", "500" })
+  public int Dim;
+
+  @Param({ "0.7" })
+  public double Rho;
+
+  @Param({ "xoshiro" })
+  public String Motor;
+
+  private NorMultivariada Dist;
+  private MotorAleatorio Generador;
+  private double[][] Columnas;
+
+  @Setup(Level.Trial)
+  public void Preparar()
+  {
+  double[][] Cov=new double[this.Dim][this.Dim];
+  for(int j=0; j<this.Dim; j++)
+     for(int k=0; k<this.Dim; k++)
+        Cov[j][k]=Math.pow(this.Rho, Math.abs(j-k));
+  this.Dist=new NorMultivariada(new double[this.Dim], Cov);
+  this.Generador=MotorAleatorio.Crear(MotorAleatorio.TipoDeNombre(this.Motor), 12345L);
+  this.Columnas=new double[this.Dim][this.Dist.GetVectoresBloque()];
+  }
+
+  @Benchmark
+  public double[][] Llenar()
+  {
+  this.Dist.Llenar(this.Columnas, 0, this.Columnas[0].length, this.Generador);
+  return this.Columnas;
+  }
+}
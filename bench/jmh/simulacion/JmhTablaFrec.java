@@ -0,0 +1,59 @@
+package simulacion;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*****************************************************************************/
+/* Benchmark JMH de la tabla de frecuencias (GenObsAlet.CrearTFrec) sobre    */
+/* muestras de 10^4 a 10^8 observaciones. La muestra se genera una vez por   */
+/* corrida; antes de cada medicion se descarta el histograma guardado        */
+/* (SetReglaClases) para que CrearTFrec lo vuelva a contar. Con 10^8 la      */
+/* muestra ocupa 800 MB, de ahi el -Xmx del fork.                            */
+/*****************************************************************************/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(value=1, jvmArgsAppend={ "-Xmx3g" })
+public class JmhTablaFrec {
+
+  @Param({ "10000", "1000000", "100000000" })
+  public long CantObs;
+
+  /* 1 geometrica (discreta), 5 normal (continua) */
+  @Param({ "1", "5" })
+  public int TipoDistr;
+
+  @Param({ "1" })
+  public int Hilos;
+
+  @Param({ "1" })
+  public int ReglaClases;
+
+  private GenObsAlet Obs;
+
+  @Setup(Level.Trial)
+  public void Generar()
+  {
+  this.Obs=new GenObsAlet(this.TipoDistr, this.CantObs, MotorAleatorio.XOSHIRO, 12345L);
+  this.Obs.SetHilos(Runtime.getRuntime().availableProcessors());
+  if(this.TipoDistr==1)
+     this.Obs.GenObsDisc(0.7, 0);
+  else
+     this.Obs.GenObsCont(0, 0, 0, 1);
+  this.Obs.SetHilos(this.Hilos);
+  }
+
+  @Setup(Level.Invocation)
+  public void Descartar()
+  {
+  this.Obs.SetReglaClases(this.ReglaClases);
+  }
+
+  @Benchmark
+  public Object[][] CrearTFrec()
+  {
+  return this.Obs.CrearTFrec(this.Obs.EsDiscreta() ? 1 : 2);
+  }
+}
@@ -0,0 +1,39 @@
+package simulacion;
+import java.util.Arrays;
+
+/*****************************************************************************/
+/* Benchmark de generacion paralela: genera la misma corrida con 1, 2, 4...  */
+/* hilos, mide el tiempo y verifica que el resultado sea identico bit a bit. */
+/* Uso: java simulacion.BenchGenParalelo [CantObs] [TipoDist] [Semilla]      */
+/*****************************************************************************/
+
+public class BenchGenParalelo {
+
+  public static void main(String[] args)
+  {
+  int CantObs=args.length>0 ? Integer.parseInt(args[0]) : 20000000;
+  int TipoDist=args.length>1 ? Integer.parseInt(args[1]) : 4;
+  long Semilla=args.length>2 ? Long.parseLong(args[2]) : 12345L;
+  int MaxHilos=Runtime.getRuntime().availableProcessors();
+
+  double[] Referencia=null;
+  for(int Hilos=1; Hilos<=MaxHilos; Hilos*=2){
+     GenObsAlet Gen=new GenObsAlet(TipoDist, CantObs, MotorAleatorio.XOSHIRO, Semilla);
+     Gen.SetHilos(Hilos);
+     long Ini=System.nanoTime();
+     if(TipoDist<=2)
+        Gen.GenObsDisc(0.5, 4);
+     else
+        Gen.GenObsCont(0, 1, 1, 1);
+     double Seg=(System.nanoTime()-Ini)/1e9;
+     double[] Datos=Gen.ObsDistrib.GetCopia();
+     boolean Igual=true;
+     if(Referencia==null)
+        Referencia=Datos;
+     else
+        Igual=Arrays.equals(Referencia, Datos);
+     System.out.println(Hilos+" hilos: "+Math.round(CantObs/Seg/1e6*10)/10.0+
+                        " M obs/s, identico="+Igual);
+  }
+  }
+}
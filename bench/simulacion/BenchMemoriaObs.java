@@ -0,0 +1,59 @@
+package simulacion;
+import java.util.Vector;
+
+/*****************************************************************************/
+/* Benchmark de memoria: compara los bytes por observacion que ocupa la      */
+/* coleccion anterior (Vector de objetos DistProb) contra AlmacenObs.        */
+/* Uso: java -Xmx2g simulacion.BenchMemoriaObs [CantObs]                     */
+/*****************************************************************************/
+
+public class BenchMemoriaObs {
+
+  public static void main(String[] args)
+  {
+  int CantObs=args.length>0 ? Integer.parseInt(args[0]) : 2000000;
+
+  long Antes=MemoriaUsada();
+  Vector Anterior=new Vector();
+  for(int i=0; i<CantObs; i++)
+     Anterior.addElement(new Exp(i+1, i*0.5));
+  long Despues=MemoriaUsada();
+  double BytesVector=(double)(Despues-Antes)/CantObs;
+  System.out.println("Vector<DistProb>: "+Anterior.size()+" obs, "+
+                     Format(BytesVector)+" bytes/obs");
+  Anterior=null;
+
+  Antes=MemoriaUsada();
+  AlmacenObs Almacen=new AlmacenObs(CantObs);
+  for(int i=0; i<CantObs; i++)
+     Almacen.Agregar(i*0.5);
+  Despues=MemoriaUsada();
+  double BytesAlmacen=(double)(Despues-Antes)/CantObs;
+  System.out.println("AlmacenObs:       "+Almacen.GetTamano()+" obs, "+
+                     Format(BytesAlmacen)+" bytes/obs");
+  System.out.println("Reduccion: "+Format(BytesVector/BytesAlmacen)+"x");
+  }
+
+  /*************************************************************************/
+  /* Fuerza varias recolecciones para estabilizar la medicion del heap     */
+  /*************************************************************************/
+  static long MemoriaUsada()
+  {
+  Runtime rt=Runtime.getRuntime();
+  for(int i=0; i<4; i++){
+     System.gc();
+     try{
+        Thread.sleep(50);
+     }
+     catch(InterruptedException e){
+        Thread.currentThread().interrupt();
+     }
+  }
+  return rt.totalMemory()-rt.freeMemory();
+  }
+
+  static String Format(double Valor)
+  {
+  return String.valueOf(Math.round(Valor*10)/10.0);
+  }
+}
@@ -0,0 +1,104 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Benchmark de los muestreadores por lotes: para cada distribucion mide los */
+/* nanosegundos por observacion creando un objeto por observacion (como lo   */
+/* hacia GenObsAlet) y llenando un bloque con Muestreador.Llenar. Cada caso  */
+/* se calienta antes de medir y se repite Rondas veces; se informa la media  */
+/* y la mejor ronda, como haria un benchmark con JMH.                        */
+/* Uso: java simulacion.BenchMuestreador [CantObs] [Rondas] [Semilla]        */
+/*****************************************************************************/
+
+public class BenchMuestreador {
+
+  private static final String[] NOMBRES={ "Geo", "Poi(3)", "Poi(50)", "Uni", "Exp", "Nor" };
+
+  private static double Sumidero;   /* evita que el JIT elimine el trabajo medido */
+
+  public static void main(String[] args)
+  {
+  int CantObs=args.length>0 ? Integer.parseInt(args[0]) : 5000000;
+  int Rondas=args.length>1 ? Integer.parseInt(args[1]) : 5;
+  long Semilla=args.length>2 ? Long.parseLong(args[2]) : 12345L;
+
+  double[] Datos=new double[GenObsAlet.BLOQUE];
+  for(int d=0; d<NOMBRES.length; d++){
+     Medir(d, false, CantObs/5, Semilla, Datos);
+     Medir(d, true, CantObs/5, Semilla, Datos);
+     double[] Objeto=new double[Rondas];
+     double[] Lote=new double[Rondas];
+     for(int r=0; r<Rondas; r++){
+        Objeto[r]=Medir(d, false, CantObs, Semilla+r, Datos);
+        Lote[r]=Medir(d, true, CantObs, Semilla+r, Datos);
+     }
+     System.out.println(NOMBRES[d]+": objeto "+Formato(Objeto)+" ns/obs, lote "+Formato(Lote)+
+                        " ns/obs, aceleracion x"+(float)(Media(Objeto)/Media(Lote)));
+  }
+  if(Sumidero==42)
+     System.out.println();
+  }
+
+  /************************************************************************/
+  /* Retorna los ns por observacion de una ronda                          */
+  /************************************************************************/
+  private static double Medir(int d, boolean PorLote, int CantObs, long Semilla, double[] Datos)
+  {
+  MotorAleatorio Motor=MotorAleatorio.Crear(MotorAleatorio.XOSHIRO, Semilla);
+  Muestreador Muestreo=CrearMuestreador(d);
+  double Suma=0;
+  long Ini=System.nanoTime();
+  for(int Hechas=0; Hechas<CantObs; Hechas+=Datos.length){
+     int Cant=Math.min(Datos.length, CantObs-Hechas);
+     if(PorLote)
+        Muestreo.Llenar(Datos, 0, Cant, Motor);
+     else{
+        for(int i=0; i<Cant; i++)
+           Datos[i]=CrearObjeto(d, Motor).GetObserv();
+     }
+     Suma+=Datos[Cant-1];
+  }
+  double Ns=(double)(System.nanoTime()-Ini)/CantObs;
+  Sumidero+=Suma;
+  return Ns;
+  }
+
+  private static Muestreador CrearMuestreador(int d)
+  {
+  switch(d){
+     case 0: return Geo.CrearMuestreador(0.7, Geo.INICIO_UNO);
+     case 1: return Poi.CrearMuestreador(3);
+     case 2: return Poi.CrearMuestreador(50);
+     case 3: return Uni.CrearMuestreador(2, 5);
+     case 4: return Exp.CrearMuestreador(4);
+     default: return Nor.CrearMuestreador(0, 1, Nor.ZIGGURAT);
+  }
+  }
+
+  private static DistProb CrearObjeto(int d, MotorAleatorio Motor)
+  {
+  switch(d){
+     case 0: return new Geo(0.7, Motor);
+     case 1: return new Poi(3, Motor);
+     case 2: return new Poi(50, Motor);
+     case 3: return new Uni(2, 5, Motor);
+     case 4: return new Exp(4, Motor);
+     default: return new Nor(0, 1, Motor);
+  }
+  }
+
+  private static double Media(double[] x)
+  {
+  double Suma=0;
+  for(int i=0; i<x.length; i++)
+     Suma+=x[i];
+  return Suma/x.length;
+  }
+
+  private static String Formato(double[] x)
+  {
+  double Min=x[0];
+  for(int i=1; i<x.length; i++)
+     Min=Math.min(Min, x[i]);
+  return (float)Media(x)+" (mejor "+(float)Min+")";
+  }
+}
@@ -0,0 +1,143 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase AlmacenObs: coleccion compacta de observaciones aleatorias.         */
+/* Guarda los valores en un arreglo primitivo double[] que crece por         */
+/* bloques, evitando crear un objeto DistProb por cada observacion.          */
+/*****************************************************************************/
+
+public class AlmacenObs {
+
+  private double[] Datos;
+  private int Tamano;
+
+  /**************************************************************************/
+  /* Constructor, recibe la capacidad inicial esperada (CantObs).           */
+  /**************************************************************************/
+  public AlmacenObs(int Capacidad)
+  {
+  if(Capacidad<16)
+     Capacidad=16;
+  this.Datos=new double[Capacidad];
+  this.Tamano=0;
+  }
+
+  public AlmacenObs()
+  {
+  this(16);
+  }
+
+  /**************************************************************************/
+  /* Agrega una observacion al final del almacen.                           */
+  /**************************************************************************/
+  public void Agregar(double Obs)
+  {
+  if(this.Tamano==this.Datos.length)
+     Reservar(this.Tamano+1);
+  this.Datos[this.Tamano++]=Obs;
+  }
+
+  /**************************************************************************/
+  /* Agrega Cant observaciones del arreglo Obs a partir de la posicion Ini. */
+  /**************************************************************************/
+  public void Agregar(double[] Obs, int Ini, int Cant)
+  {
+  Reservar(this.Tamano+Cant);
+  System.arraycopy(Obs, Ini, this.Datos, this.Tamano, Cant);
+  this.Tamano+=Cant;
+  }
+
+  /**************************************************************************/
+  /* Agrega Cant posiciones al final del almacen y retorna el indice de la  */
+  /* primera; el llamador las llena directamente sobre GetArreglo(). Se usa */
+  /* para que varios hilos escriban rangos distintos sin sincronizar.       */
+  /**************************************************************************/
+  public int Extender(int Cant)
+  {
+  int Ini=this.Tamano;
+  Reservar(this.Tamano+Cant);
+  this.Tamano+=Cant;
+  return Ini;
+  }
+
+  /**************************************************************************/
+  /* Garantiza espacio para al menos Capacidad observaciones. El arreglo    */
+  /* crece en un 50% para que el costo de agregar sea constante amortizado. */
+  /**************************************************************************/
+  public void Reservar(int Capacidad)
+  {
+  if(Capacidad<0)
+     throw new OutOfMemoryError("Demasiadas observaciones para un arreglo");
+  if(Capacidad>this.Datos.length){
+     int Nueva=this.Datos.length+(this.Datos.length>>1);
+     if(Nueva<Capacidad || Nueva<0)
+        Nueva=Capacidad;
+     double[] Aux=new double[Nueva];
+     System.arraycopy(this.Datos, 0, Aux, 0, this.Tamano);
+     this.Datos=Aux;
+  }
+  }
+
+  /************************************************************************/
+  /* Retorna la observacion i (comenzando en 0)                           */
+  /************************************************************************/
+  public double GetObs(int i)
+  {
+  if(i<0 || i>=this.Tamano)
+     throw new IndexOutOfBoundsException("Observacion "+i+" de "+this.Tamano);
+  return this.Datos[i];
+  }
+
+  public int GetTamano()
+  {
+  return this.Tamano;
+  }
+
+  public boolean EstaVacio()
+  {
+  return this.Tamano==0;
+  }
+
+  /************************************************************************/
+  /* Retorna el arreglo interno; solo las primeras GetTamano() posiciones */
+  /* son validas. Se usa para recorridos rapidos sin copiar los datos.    */
+  /************************************************************************/
+  public double[] GetArreglo()
+  {
+  return this.Datos;
+  }
+
+  /************************************************************************/
+  /* Retorna una copia exacta de las observaciones almacenadas            */
+  /************************************************************************/
+  public double[] GetCopia()
+  {
+  double[] Copia=new double[this.Tamano];
+  System.arraycopy(this.Datos, 0, Copia, 0, this.Tamano);
+  return Copia;
+  }
+
+  /************************************************************************/
+  /* Ajusta el arreglo interno a la cantidad de observaciones guardadas   */
+  /************************************************************************/
+  public void Compactar()
+  {
+  if(this.Datos.length>this.Tamano)
+     this.Datos=GetCopia();
+  }
+
+  /************************************************************************/
+  /* Deja solo las primeras Tamano observaciones (la capacidad no cambia) */
+  /************************************************************************/
+  public void Truncar(int Tamano)
+  {
+  if(Tamano<0 || Tamano>this.Tamano)
+     throw new IndexOutOfBoundsException("Tamano "+Tamano+" de "+this.Tamano);
+  this.Tamano=Tamano;
+  }
+
+  public void Limpiar()
+  {
+  this.Tamano=0;
+  }
+}
@@ -0,0 +1,386 @@
+package simulacion;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/*****************************************************************************/
+/* Clase ArchivoObs: formato binario versionado de los archivos de           */
+/* observaciones. El archivo es una cabecera con los datos de la corrida     */
+/* seguida de una columna de CantObs doubles en little-endian:               */
+/*                                                                           */
+/*   0  int    MAGICO ("SDPB")          48  double ProbFrac                  */
+/*   4  int    VERSION                  56  double Media                     */
+/*   8  int    LargoCab (inicio datos)  64  double LimInf                    */
+/*  12  int    TipoDistr                72  double LimSup                    */
+/*  16  long   CantObs                  80  double DStd                      */
+/*  24  long   Semilla                  88  int    MetodoNormal              */
+/*  32  int    TipoMotor                92  int    largo del titulo          */
+/*  36  int    InicioGeo                96  titulo en UTF-8, relleno a 8     */
+/*  40  long   Fecha (ms)                                                    */
+/*                                                                           */
+/* Las versiones futuras agregan campos despues del titulo; LargoCab indica  */
+/* donde empiezan los datos, asi un lector viejo puede saltarlos. Los datos  */
+/* se leen con un mapeo de memoria (FileChannel.map) por tramos.             */
+/*                                                                           */
+/* La version 2 es la comprimida: despues del titulo van int Compresion e    */
+/* int ObsPorBloque, y la columna se guarda por bloques comprimidos con un   */
+/* indice al final (ver ColumnaComprimida). Los archivos sin comprimir se    */
+/* siguen escribiendo en la version 1.                                       */
+/*                                                                           */
+/* La version 3 guarda ademas el modo de muestreo, sin el cual la semilla y  */
+/* el motor no bastan para reproducir la corrida: despues del titulo van     */
+/* int Compresion, int ObsPorBloque (0 y 0 si no esta comprimido), int       */
+/* TipoQMC e int TipoReduccion. Solo se escribe para las corridas que no son */
+/* de Monte Carlo simple.                                                    */
+/*****************************************************************************/
+
+public class ArchivoObs {
+
+  public static final int MAGICO=0x42504453;   /* "SDPB" leido en little-endian */
+  public static final int VERSION=1;
+  public static final int VERSION_COMPRIMIDA=2;
+  public static final int VERSION_MUESTREO=3;
+
+  /* Codigos de Compresion */
+  public static final int SIN_COMPRESION=0;
+  public static final int DEFLATE=1;
+
+  /* Posicion de CantObs, que se completa al cerrar un archivo en modo flujo */
+  static final int POS_CANT=16;
+  private static final int POS_TITULO=96;
+
+  /* Tramo maximo de cada mapeo, multiplo de 8 */
+  private static final long TRAMO=1L<<30;
+
+  private int TipoDistr;
+  private long CantObs;
+  private long Semilla;
+  private int TipoMotor;
+  private int InicioGeo;
+  private long Fecha;
+  private double ProbFrac, Media, LimInf, LimSup, DStd;
+  private int MetodoNormal;
+  private String Titulo="";
+  private int LargoCab;
+  private int Compresion=SIN_COMPRESION;
+  private int ObsPorBloque;
+  private int TipoQMC=SecuenciaQMC.NINGUNA;
+  private int TipoReduccion=ReduccionVarianza.NINGUNA;
+
+  public ArchivoObs(int TipoDistr, long CantObs, long Semilla, int TipoMotor, String Titulo)
+  {
+  this.TipoDistr=TipoDistr;
+  this.CantObs=CantObs;
+  this.Semilla=Semilla;
+  this.TipoMotor=TipoMotor;
+  this.Titulo=Titulo;
+  this.Fecha=System.currentTimeMillis();
+  }
+
+  private ArchivoObs()
+  {
+  }
+
+  public void SetParametros(double ProbFrac, double Media, double LimInf, double LimSup, double DStd)
+  {
+  this.ProbFrac=ProbFrac;
+  this.Media=Media;
+  this.LimInf=LimInf;
+  this.LimSup=LimSup;
+  this.DStd=DStd;
+  }
+
+  public void SetMetodos(int InicioGeo, int MetodoNormal)
+  {
+  this.InicioGeo=InicioGeo;
+  this.MetodoNormal=MetodoNormal;
+  }
+
+  /************************************************************************/
+  /* Indica que la columna se guarda comprimida por bloques de            */
+  /* GenObsAlet.BLOQUE observaciones                                      */
+  /************************************************************************/
+  public void SetCompresion(boolean Comprimir)
+  {
+  this.Compresion=Comprimir ? DEFLATE : SIN_COMPRESION;
+  this.ObsPorBloque=Comprimir ? GenObsAlet.BLOQUE : 0;
+  }
+
+  public boolean EsComprimido(){
+      return this.Compresion!=SIN_COMPRESION;
+  }
+
+  /************************************************************************/
+  /* Sucesion de baja discrepancia de la corrida (ver SecuenciaQMC)       */
+  /************************************************************************/
+  public void SetQMC(int TipoQMC)
+  {
+  this.TipoQMC=TipoQMC;
+  }
+
+  /************************************************************************/
+  /* Tecnica de reduccion de varianza de la corrida (ver                  */
+  /* ReduccionVarianza)                                                   */
+  /************************************************************************/
+  public void SetReduccion(int TipoReduccion)
+  {
+  this.TipoReduccion=TipoReduccion;
+  }
+
+  /* Version con que se escribe la cabecera: la mas vieja que alcanza */
+  private int GetVersion()
+  {
+  if(this.TipoQMC!=SecuenciaQMC.NINGUNA || this.TipoReduccion!=ReduccionVarianza.NINGUNA)
+     return VERSION_MUESTREO;
+  return EsComprimido() ? VERSION_COMPRIMIDA : VERSION;
+  }
+
+  int GetObsPorBloque(){
+      return this.ObsPorBloque;
+  }
+
+  /************************************************************************/
+  /* Retorna la cabecera codificada, con el largo ajustado a 8 bytes para */
+  /* que la columna de datos quede alineada                               */
+  /************************************************************************/
+  ByteBuffer Codificar()
+  {
+  byte[] Texto=this.Titulo.getBytes(StandardCharsets.UTF_8);
+  int FinTitulo=(POS_TITULO+Texto.length+7)&~7;
+  int Version=GetVersion();
+  int Largo=FinTitulo+LargoExtra(Version);
+  ByteBuffer Buf=ByteBuffer.allocate(Largo).order(ByteOrder.LITTLE_ENDIAN);
+  Buf.putInt(MAGICO).putInt(Version).putInt(Largo).putInt(this.TipoDistr);
+  Buf.putLong(this.CantObs).putLong(this.Semilla);
+  Buf.putInt(this.TipoMotor).putInt(this.InicioGeo).putLong(this.Fecha);
+  Buf.putDouble(this.ProbFrac).putDouble(this.Media).putDouble(this.LimInf);
+  Buf.putDouble(this.LimSup).putDouble(this.DStd);
+  Buf.putInt(this.MetodoNormal).putInt(Texto.length).put(Texto);
+  if(Version>=VERSION_COMPRIMIDA){
+     Buf.position(FinTitulo);
+     Buf.putInt(this.Compresion).putInt(this.ObsPorBloque);
+  }
+  if(Version>=VERSION_MUESTREO)
+     Buf.putInt(this.TipoQMC).putInt(this.TipoReduccion);
+  Buf.position(0);
+  this.LargoCab=Largo;
+  return Buf;
+  }
+
+  /* Bytes de campos que la version agrega despues del titulo */
+  private static int LargoExtra(int Version)
+  {
+  if(Version>=VERSION_MUESTREO)
+     return 16;
+  return Version>=VERSION_COMPRIMIDA ? 8 : 0;
+  }
+
+  /************************************************************************/
+  /* Indica si el archivo esta en el formato binario (si no, es un        */
+  /* archivo de texto de las versiones anteriores)                        */
+  /************************************************************************/
+  public static boolean EsBinario(File Archivo)
+  {
+  try(DataInputStream Ent=new DataInputStream(new FileInputStream(Archivo))){
+     return Integer.reverseBytes(Ent.readInt())==MAGICO;
+  }
+  catch(IOException ioe){
+     return false;
+  }
+  }
+
+  /************************************************************************/
+  /* Lee solo la cabecera                                                 */
+  /************************************************************************/
+  public static ArchivoObs LeerCabecera(File Archivo) throws IOException
+  {
+  try(FileChannel Canal=FileChannel.open(Archivo.toPath())){
+     ByteBuffer Buf=ByteBuffer.allocate(POS_TITULO).order(ByteOrder.LITTLE_ENDIAN);
+     while(Buf.hasRemaining() && Canal.read(Buf)>=0);
+     if(Buf.hasRemaining())
+        throw new IOException(Archivo+": cabecera incompleta");
+     Buf.flip();
+     if(Buf.getInt()!=MAGICO)
+        throw new IOException(Archivo+": no es un archivo de observaciones binario");
+     int Version=Buf.getInt();
+     if(Version<1 || Version>VERSION_MUESTREO)
+        throw new IOException(Archivo+": version "+Version+" no soportada");
+     ArchivoObs Cab=new ArchivoObs();
+     Cab.LargoCab=Buf.getInt();
+     Cab.TipoDistr=Buf.getInt();
+     Cab.CantObs=Buf.getLong();
+     Cab.Semilla=Buf.getLong();
+     Cab.TipoMotor=Buf.getInt();
+     Cab.InicioGeo=Buf.getInt();
+     Cab.Fecha=Buf.getLong();
+     Cab.ProbFrac=Buf.getDouble();
+     Cab.Media=Buf.getDouble();
+     Cab.LimInf=Buf.getDouble();
+     Cab.LimSup=Buf.getDouble();
+     Cab.DStd=Buf.getDouble();
+     Cab.MetodoNormal=Buf.getInt();
+     int LargoTitulo=Buf.getInt();
+     if(LargoTitulo<0 || POS_TITULO+LargoTitulo>Cab.LargoCab)
+        throw new IOException(Archivo+": cabecera danada");
+     ByteBuffer Texto=ByteBuffer.allocate(LargoTitulo);
+     Canal.position(POS_TITULO);
+     while(Texto.hasRemaining() && Canal.read(Texto)>=0);
+     Cab.Titulo=new String(Texto.array(), 0, Texto.position(), StandardCharsets.UTF_8);
+     if(Version>=VERSION_COMPRIMIDA){
+        int FinTitulo=(POS_TITULO+LargoTitulo+7)&~7;
+        ByteBuffer Extra=ByteBuffer.allocate(LargoExtra(Version)).order(ByteOrder.LITTLE_ENDIAN);
+        Canal.position(FinTitulo);
+        while(Extra.hasRemaining() && Canal.read(Extra)>=0);
+        if(Extra.hasRemaining() || FinTitulo+Extra.capacity()>Cab.LargoCab)
+           throw new IOException(Archivo+": cabecera danada");
+        Extra.flip();
+        Cab.Compresion=Extra.getInt();
+        Cab.ObsPorBloque=Extra.getInt();
+        if(Version>=VERSION_MUESTREO){
+           Cab.TipoQMC=Extra.getInt();
+           if(Cab.TipoQMC<SecuenciaQMC.NINGUNA || Cab.TipoQMC>=SecuenciaQMC.NOMBRES.length)
+              throw new IOException(Archivo+": muestreo QMC "+Cab.TipoQMC+" no soportado");
+           Cab.TipoReduccion=Extra.getInt();
+           if(Cab.TipoReduccion<ReduccionVarianza.NINGUNA || Cab.TipoReduccion>=ReduccionVarianza.NOMBRES.length)
+              throw new IOException(Archivo+": reduccion de varianza "+Cab.TipoReduccion+" no soportada");
+        }
+        if(Version==VERSION_COMPRIMIDA || Cab.Compresion!=SIN_COMPRESION){
+           if(Cab.Compresion!=DEFLATE || Cab.ObsPorBloque<=0)
+              throw new IOException(Archivo+": compresion "+Cab.Compresion+" no soportada");
+           /* Sin CantObs la escritura no llego a cerrar y falta el indice */
+           if(Cab.CantObs<0)
+              throw new IOException(Archivo+": archivo comprimido incompleto");
+           return Cab;
+        }
+     }
+     /* Un archivo en modo flujo interrumpido no tiene CantObs; se deduce del largo */
+     long Disponibles=(Canal.size()-Cab.LargoCab)/8;
+     if(Cab.CantObs<0 || Cab.CantObs>Disponibles)
+        Cab.CantObs=Disponibles;
+     return Cab;
+  }
+  }
+
+  /************************************************************************/
+  /* Lee las observaciones del archivo al final de Destino. La columna se */
+  /* mapea en memoria por tramos y se copia en bloque al arreglo; si esta */
+  /* comprimida los bloques se descomprimen en paralelo.                  */
+  /************************************************************************/
+  public void LeerDatos(File Archivo, AlmacenObs Destino) throws IOException
+  {
+  if(Destino.GetTamano()+this.CantObs>GenObsAlet.MAX_EN_MEMORIA)
+     throw new IOException(Archivo+": "+this.CantObs+" observaciones no caben en memoria");
+  int Ini=Destino.Extender((int)this.CantObs);
+  LeerColumna(Archivo, 0, (int)this.CantObs, Destino.GetArreglo(), Ini);
+  }
+
+  /************************************************************************/
+  /* Lee solo las observaciones [Desde, Desde+Cant) del archivo; en uno   */
+  /* comprimido se descomprimen unicamente los bloques que las contienen  */
+  /************************************************************************/
+  public double[] LeerTramo(File Archivo, long Desde, int Cant) throws IOException
+  {
+  if(Desde<0 || Cant<0 || Desde+Cant>this.CantObs)
+     throw new IndexOutOfBoundsException("tramo "+Desde+"+"+Cant+" de "+this.CantObs+" observaciones");
+  double[] Datos=new double[Cant];
+  LeerColumna(Archivo, Desde, Cant, Datos, 0);
+  return Datos;
+  }
+
+  private void LeerColumna(File Archivo, long Desde, int Cant, double[] Datos, int Ini) throws IOException
+  {
+  try(FileChannel Canal=FileChannel.open(Archivo.toPath())){
+     if(EsComprimido()){
+        ColumnaComprimida.LeerIndice(Canal, this.ObsPorBloque, this.CantObs, Archivo)
+                         .LeerTramo(Canal, Desde, Cant, Datos, Ini);
+        return;
+     }
+     long Pos=this.LargoCab+8*Desde, Fin=Pos+8L*Cant;
+     while(Pos<Fin){
+        long Largo=Math.min(TRAMO, Fin-Pos);
+        MappedByteBuffer Mapa=Canal.map(FileChannel.MapMode.READ_ONLY, Pos, Largo);
+        DoubleBuffer Col=Mapa.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        int Leidas=Col.remaining();
+        Col.get(Datos, Ini, Leidas);
+        Ini+=Leidas;
+        Pos+=Largo;
+     }
+  }
+  }
+
+  /************************************************************************/
+  /* Lee un archivo binario completo en un nuevo generador                */
+  /************************************************************************/
+  public static GenObsAlet Abrir(File Archivo) throws IOException
+  {
+  ArchivoObs Cab=LeerCabecera(Archivo);
+  GenObsAlet Gen=new GenObsAlet(Cab);
+  Cab.LeerDatos(Archivo, Gen.ObsDistrib);
+  return Gen;
+  }
+
+  public int GetTipoDistr(){
+      return this.TipoDistr;
+  }
+
+  public long GetCantObs(){
+      return this.CantObs;
+  }
+
+  public long GetSemilla(){
+      return this.Semilla;
+  }
+
+  public int GetTipoMotor(){
+      return this.TipoMotor;
+  }
+
+  public int GetInicioGeo(){
+      return this.InicioGeo;
+  }
+
+  public int GetMetodoNormal(){
+      return this.MetodoNormal;
+  }
+
+  public Date GetFecha(){
+      return new Date(this.Fecha);
+  }
+
+  public double GetProbFrac(){
+      return this.ProbFrac;
+  }
+
+  public double GetMedia(){
+      return this.Media;
+  }
+
+  public double GetLimInf(){
+      return this.LimInf;
+  }
+
+  public double GetLimSup(){
+      return this.LimSup;
+  }
+
+  public double GetDStd(){
+      return this.DStd;
+  }
+
+  public String GetTitulo(){
+      return this.Titulo;
+  }
+
+  public int GetQMC(){
+      return this.TipoQMC;
+  }
+
+  public int GetReduccion(){
+      return this.TipoReduccion;
+  }
+}
@@ -0,0 +1,340 @@
+package simulacion;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/*****************************************************************************/
+/* Clase CatalogoObs: indice de los archivos guardados en los directorios de */
+/* observaciones, con los datos de la cabecera de cada uno (EntradaCatalogo).*/
+/* El indice se guarda en un archivo de texto junto con la fecha de          */
+/* modificacion de cada directorio; al arrancar, los directorios que no      */
+/* cambiaron se toman del indice sin listarlos, y en los demas solo se leen  */
+/* las cabeceras de los archivos nuevos o modificados.                       */
+/*                                                                           */
+/* Vigilar() arranca un hilo con un WatchService que mantiene el catalogo al */
+/* dia archivo por archivo y avisa cada alta y baja a un Oyente, desde ese   */
+/* hilo. Los eventos que llegan juntos se atienden en una sola pasada para   */
+/* no releer muchas veces un archivo que se esta escribiendo. Los errores    */
+/* del vigilante y del indice no detienen el catalogo: se avisan al Oyente,  */
+/* o a System.err mientras no haya uno.                                      */
+/*****************************************************************************/
+
+public class CatalogoObs {
+
+  /************************************************************************/
+  /* Recibe las altas y bajas del catalogo. Un archivo que cambia llega   */
+  /* como una baja de la entrada vieja y un alta de la nueva. Error       */
+  /* recibe la descripcion de un problema al vigilar o al guardar o leer  */
+  /* el indice.                                                           */
+  /************************************************************************/
+  public interface Oyente {
+     void Agregado(int Dir, EntradaCatalogo Entrada);
+     void Quitado(int Dir, EntradaCatalogo Entrada);
+     void Error(String Mensaje);
+  }
+
+  private static final String ENCABEZADO="SimulDP catalogo 3";
+
+  /* Espera para juntar los eventos de un archivo que se esta escribiendo */
+  private static final long ESPERA_EVENTOS=250;
+
+  private final File[] Directorios;
+  private final File ArchivoIndice;
+  private final List<TreeMap<String, EntradaCatalogo>> Entradas;
+  private final long[] ModificadoDir;
+  private boolean Cambiado;
+  private Oyente Oyente;
+  private WatchService Vigilante;
+  private Thread Hilo;
+
+  public CatalogoObs(File[] Directorios, File ArchivoIndice)
+  {
+  this.Directorios=Directorios.clone();
+  this.ArchivoIndice=ArchivoIndice;
+  this.Entradas=new ArrayList<TreeMap<String, EntradaCatalogo>>();
+  for(int d=0; d<Directorios.length; d++)
+     this.Entradas.add(new TreeMap<String, EntradaCatalogo>(EntradaCatalogo.ORDEN_NOMBRES));
+  this.ModificadoDir=new long[Directorios.length];
+  Arrays.fill(this.ModificadoDir, -1);
+  }
+
+  /************************************************************************/
+  /* Carga el indice guardado y lo pone al dia con los directorios        */
+  /************************************************************************/
+  public synchronized void Cargar()
+  {
+  LeerIndice();
+  Sincronizar();
+  }
+
+  public int GetNumDirectorios(){
+      return this.Directorios.length;
+  }
+
+  /************************************************************************/
+  /* Entradas de un directorio ordenadas por nombre (una copia)           */
+  /************************************************************************/
+  public synchronized List<EntradaCatalogo> GetEntradas(int Dir)
+  {
+  return new ArrayList<EntradaCatalogo>(this.Entradas.get(Dir).values());
+  }
+
+  /************************************************************************/
+  /* Pone al dia los directorios cuya fecha de modificacion cambio y      */
+  /* guarda el indice si hubo cambios. Sirve tambien cuando no se puede   */
+  /* vigilar el sistema de archivos.                                      */
+  /************************************************************************/
+  public synchronized void Sincronizar()
+  {
+  for(int d=0; d<this.Directorios.length; d++)
+     if(this.Directorios[d].lastModified()!=this.ModificadoDir[d])
+        SincronizarDir(d);
+  Guardar();
+  }
+
+  /* Compara el directorio con el catalogo y relee solo lo que cambio */
+  private void SincronizarDir(int d)
+  {
+  File Dir=this.Directorios[d];
+  this.ModificadoDir[d]=Dir.lastModified();
+  this.Cambiado=true;
+  String[] Nombres=Dir.list();
+  Set<String> Presentes=new HashSet<String>();
+  if(Nombres!=null)
+     Presentes.addAll(Arrays.asList(Nombres));
+  Iterator<EntradaCatalogo> It=this.Entradas.get(d).values().iterator();
+  while(It.hasNext()){
+     EntradaCatalogo E=It.next();
+     if(!Presentes.contains(E.GetNombre())){
+        It.remove();
+        Avisar(d, E, false);
+     }
+  }
+  for(String Nombre : Presentes)
+     Actualizar(d, Nombre);
+  }
+
+  /************************************************************************/
+  /* Pone al dia la entrada de un archivo                                 */
+  /************************************************************************/
+  private void Actualizar(int d, String Nombre)
+  {
+  File Archivo=new File(this.Directorios[d], Nombre);
+  TreeMap<String, EntradaCatalogo> Mapa=this.Entradas.get(d);
+  EntradaCatalogo Vieja=Mapa.get(Nombre);
+  if(!Archivo.isFile()){
+     if(Vieja!=null){
+        Mapa.remove(Nombre);
+        Avisar(d, Vieja, false);
+        this.Cambiado=true;
+     }
+     return;
+  }
+  if(Vieja!=null && Vieja.Vigente(Archivo))
+     return;
+  EntradaCatalogo Nueva=EntradaCatalogo.Leer(Archivo);
+  Mapa.put(Nombre, Nueva);
+  if(Vieja!=null)
+     Avisar(d, Vieja, false);
+  Avisar(d, Nueva, true);
+  this.Cambiado=true;
+  }
+
+  private void Avisar(int d, EntradaCatalogo E, boolean Alta)
+  {
+  if(this.Oyente==null)
+     return;
+  if(Alta)
+     this.Oyente.Agregado(d, E);
+  else
+     this.Oyente.Quitado(d, E);
+  }
+
+  private void Reportar(String Mensaje)
+  {
+  if(this.Oyente!=null)
+     this.Oyente.Error(Mensaje);
+  else
+     System.err.println(Mensaje);
+  }
+
+  /************************************************************************/
+  /* Empieza a vigilar los directorios. Retorna false si el sistema de    */
+  /* archivos no lo permite; en ese caso se puede llamar a Sincronizar()  */
+  /* despues de cada cambio.                                              */
+  /************************************************************************/
+  public synchronized boolean Vigilar(Oyente Oyente)
+  {
+  this.Oyente=Oyente;
+  if(this.Hilo!=null)
+     return true;
+  final Map<WatchKey, Integer> Claves=new HashMap<WatchKey, Integer>();
+  final WatchService Vigilante;
+  try{
+     Vigilante=FileSystems.getDefault().newWatchService();
+     for(int d=0; d<this.Directorios.length; d++){
+        if(!this.Directorios[d].isDirectory())
+           continue;
+        WatchKey Clave=this.Directorios[d].toPath().register(Vigilante,
+              StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+              StandardWatchEventKinds.ENTRY_MODIFY);
+        Claves.put(Clave, d);
+     }
+  }
+  catch(IOException ioe){
+     Reportar("No se pueden vigilar los directorios: "+ioe);
+     return false;
+  }
+  this.Vigilante=Vigilante;
+  this.Hilo=new Thread(new Runnable() {
+     public void run(){
+        Atender(Vigilante, Claves);
+     }
+  }, "CatalogoObs");
+  this.Hilo.setDaemon(true);
+  this.Hilo.start();
+  return true;
+  }
+
+  /************************************************************************/
+  /* Ciclo del hilo de vigilancia: espera un evento, junta los que llegan */
+  /* enseguida y actualiza cada archivo una vez                           */
+  /************************************************************************/
+  private void Atender(WatchService Vigilante, Map<WatchKey, Integer> Claves)
+  {
+  try{
+     while(true){
+        WatchKey Clave=Vigilante.take();
+        Map<Integer, Set<String>> Pendientes=new HashMap<Integer, Set<String>>();
+        Set<Integer> Desbordados=new HashSet<Integer>();
+        while(Clave!=null){
+           Integer d=Claves.get(Clave);
+           for(WatchEvent<?> Evento : Clave.pollEvents()){
+              if(d==null)
+                 continue;
+              if(Evento.kind()==StandardWatchEventKinds.OVERFLOW)
+                 Desbordados.add(d);
+              else{
+                 if(!Pendientes.containsKey(d))
+                    Pendientes.put(d, new HashSet<String>());
+                 Pendientes.get(d).add(Evento.context().toString());
+              }
+           }
+           Clave.reset();
+           Clave=Vigilante.poll(ESPERA_EVENTOS, TimeUnit.MILLISECONDS);
+        }
+        synchronized(this){
+           for(Integer d : Desbordados)
+              SincronizarDir(d);
+           for(Map.Entry<Integer, Set<String>> P : Pendientes.entrySet()){
+              if(Desbordados.contains(P.getKey()))
+                 continue;
+              for(String Nombre : P.getValue())
+                 Actualizar(P.getKey(), Nombre);
+              this.ModificadoDir[P.getKey()]=this.Directorios[P.getKey()].lastModified();
+           }
+           Guardar();
+        }
+     }
+  }
+  catch(InterruptedException ie){
+  }
+  catch(ClosedWatchServiceException cwse){
+  }
+  }
+
+  /************************************************************************/
+  /* Deja de vigilar los directorios y guarda el indice                   */
+  /************************************************************************/
+  public synchronized void Detener()
+  {
+  if(this.Vigilante!=null){
+     try{
+        this.Vigilante.close();
+     }
+     catch(IOException ioe){
+     }
+     this.Vigilante=null;
+     this.Hilo=null;
+  }
+  Guardar();
+  }
+
+  /************************************************************************/
+  /* Lee el indice guardado; si no existe o esta danado se arma de nuevo  */
+  /* desde los directorios                                                */
+  /************************************************************************/
+  private void LeerIndice()
+  {
+  if(this.ArchivoIndice==null || !this.ArchivoIndice.canRead())
+     return;
+  try(BufferedReader Ent=new BufferedReader(new InputStreamReader(
+         new FileInputStream(this.ArchivoIndice), StandardCharsets.UTF_8))){
+     if(!ENCABEZADO.equals(Ent.readLine()))
+        return;
+     String Linea;
+     int d=-1;
+     while((Linea=Ent.readLine())!=null){
+        if(Linea.startsWith("#")){
+           /* "#<TAB>ruta del directorio<TAB>fecha de modificacion" */
+           String[] c=Linea.split("\t");
+           d=Indice(c[1]);
+           if(d>=0)
+              this.ModificadoDir[d]=Long.parseLong(c[2]);
+        }
+        else if(d>=0){
+           EntradaCatalogo E=EntradaCatalogo.DeLinea(Linea);
+           this.Entradas.get(d).put(E.GetNombre(), E);
+        }
+     }
+  }
+  catch(IOException | RuntimeException e){
+     Reportar("Indice de archivos danado, se arma de nuevo: "+e);
+     for(int d=0; d<this.Directorios.length; d++){
+        this.Entradas.get(d).clear();
+        this.ModificadoDir[d]=-1;
+     }
+  }
+  }
+
+  private int Indice(String Ruta)
+  {
+  for(int d=0; d<this.Directorios.length; d++)
+     if(this.Directorios[d].getPath().equals(Ruta))
+        return d;
+  return -1;
+  }
+
+  /************************************************************************/
+  /* Escribe el indice si hubo cambios, en un archivo temporal que luego  */
+  /* reemplaza al anterior                                                */
+  /************************************************************************/
+  private void Guardar()
+  {
+  if(!this.Cambiado || this.ArchivoIndice==null)
+     return;
+  File Temporal=new File(this.ArchivoIndice.getPath()+".tmp");
+  try{
+     File Padre=this.ArchivoIndice.getAbsoluteFile().getParentFile();
+     if(Padre!=null)
+        Padre.mkdirs();
+     try(Writer Sal=new BufferedWriter(new OutputStreamWriter(new FileOutputStream(Temporal), StandardCharsets.UTF_8))){
+        Sal.write(ENCABEZADO+"\n");
+        for(int d=0; d<this.Directorios.length; d++){
+           Sal.write("#\t"+this.Directorios[d].getPath()+"\t"+this.ModificadoDir[d]+"\n");
+           for(EntradaCatalogo E : this.Entradas.get(d).values())
+              Sal.write(E.ALinea()+"\n");
+        }
+     }
+     Files.move(Temporal.toPath(), this.ArchivoIndice.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+     this.Cambiado=false;
+  }
+  catch(IOException ioe){
+     Reportar("No se pudo guardar el indice de archivos: "+ioe);
+     Temporal.delete();
+  }
+  }
+}
@@ -0,0 +1,248 @@
+package simulacion;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*****************************************************************************/
+/* Clase ColumnaComprimida: la columna de observaciones de los archivos      */
+/* binarios comprimidos (version 2 de ArchivoObs). Despues de la cabecera    */
+/* van los bloques, cada uno con ObsPorBloque observaciones (el ultimo puede */
+/* tener menos) comprimido por separado con deflate, y al final el indice:   */
+/*                                                                           */
+/*   por bloque:  long posicion en el archivo, int largo comprimido          */
+/*   cola:        long posicion del indice, long cantidad de bloques,        */
+/*                int MAGICO_INDICE, int 0                                   */
+/*                                                                           */
+/* Antes de comprimir, los bytes de cada bloque se reordenan por posicion    */
+/* dentro del double (todos los bytes 0, luego todos los 1, ...): los        */
+/* exponentes y los bytes altos de la mantisa quedan juntos y deflate los    */
+/* comprime mucho mejor. Con el indice se puede leer un tramo del archivo    */
+/* descomprimiendo solo sus bloques, y los bloques se descomprimen en        */
+/* paralelo.                                                                 */
+/*****************************************************************************/
+
+class ColumnaComprimida {
+
+  static final int MAGICO_INDICE=0x49504453;   /* "SDPI" leido en little-endian */
+  static final int LARGO_COLA=24;
+
+  /* Nivel de deflate: los mas altos casi no ganan con los bytes reordenados */
+  static final int NIVEL=Deflater.BEST_SPEED;
+
+  /************************************************************************/
+  /* Estrategia de deflate para la distribucion: en las continuas (Uni,   */
+  /* Exp, Nor) solo se repiten los bytes altos y basta Huffman, que es    */
+  /* unas tres veces mas rapido e igual de chico; en las discretas los    */
+  /* valores se repiten enteros y conviene buscar coincidencias.          */
+  /************************************************************************/
+  static int Estrategia(int TipoDistr)
+  {
+  return TipoDistr>=3 && TipoDistr<=5 ? Deflater.HUFFMAN_ONLY : Deflater.DEFAULT_STRATEGY;
+  }
+
+  private final long[] Posicion;
+  private final int[] Largo;
+  private final int ObsPorBloque;
+  private final long CantObs;
+
+  private ColumnaComprimida(long[] Posicion, int[] Largo, int ObsPorBloque, long CantObs)
+  {
+  this.Posicion=Posicion;
+  this.Largo=Largo;
+  this.ObsPorBloque=ObsPorBloque;
+  this.CantObs=CantObs;
+  }
+
+  /************************************************************************/
+  /* Comprime n observaciones de Datos desde Ini con el Deflater dado     */
+  /************************************************************************/
+  static byte[] Comprimir(double[] Datos, int Ini, int n, Deflater Compresor, int Estrategia)
+  {
+  byte[] Bytes=new byte[8*n];
+  for(int i=0; i<n; i++){
+     long v=Double.doubleToRawLongBits(Datos[Ini+i]);
+     for(int k=0; k<8; k++)
+        Bytes[k*n+i]=(byte)(v>>>(8*k));
+  }
+  Compresor.reset();
+  Compresor.setStrategy(Estrategia);
+  Compresor.setInput(Bytes);
+  Compresor.finish();
+  byte[] Salida=new byte[Bytes.length+Bytes.length/100+64];
+  int Total=0;
+  while(!Compresor.finished()){
+     if(Total==Salida.length)
+        Salida=java.util.Arrays.copyOf(Salida, 2*Salida.length);
+     Total+=Compresor.deflate(Salida, Total, Salida.length-Total);
+  }
+  return java.util.Arrays.copyOf(Salida, Total);
+  }
+
+  /************************************************************************/
+  /* Descomprime un bloque de n observaciones en Destino desde Ini        */
+  /************************************************************************/
+  static void Descomprimir(byte[] Comprimido, int Largo, double[] Destino, int Ini, int n, Inflater Descompresor)
+         throws IOException
+  {
+  byte[] Bytes=new byte[8*n];
+  Descompresor.reset();
+  Descompresor.setInput(Comprimido, 0, Largo);
+  try{
+     int Total=0;
+     while(Total<Bytes.length){
+        int k=Descompresor.inflate(Bytes, Total, Bytes.length-Total);
+        if(k==0 && (Descompresor.finished() || Descompresor.needsInput()))
+           throw new IOException("bloque comprimido incompleto");
+        Total+=k;
+     }
+  }
+  catch(DataFormatException dfe){
+     throw new IOException("bloque comprimido danado", dfe);
+  }
+  for(int i=0; i<n; i++){
+     long v=0;
+     for(int k=0; k<8; k++)
+        v|=(Bytes[k*n+i]&0xFFL)<<(8*k);
+     Destino[Ini+i]=Double.longBitsToDouble(v);
+  }
+  }
+
+  /************************************************************************/
+  /* Escribe el indice y la cola al final del canal                       */
+  /************************************************************************/
+  static void EscribirIndice(FileChannel Canal, long[] Posicion, int[] Largo, int Bloques) throws IOException
+  {
+  long PosIndice=Canal.position();
+  ByteBuffer Buf=ByteBuffer.allocate(12*Bloques+LARGO_COLA).order(ByteOrder.LITTLE_ENDIAN);
+  for(int b=0; b<Bloques; b++)
+     Buf.putLong(Posicion[b]).putInt(Largo[b]);
+  Buf.putLong(PosIndice).putLong(Bloques).putInt(MAGICO_INDICE).putInt(0);
+  Buf.flip();
+  while(Buf.hasRemaining())
+     Canal.write(Buf);
+  }
+
+  /************************************************************************/
+  /* Lee el indice del archivo. Un archivo sin cola (escritura            */
+  /* interrumpida) no se puede leer                                       */
+  /************************************************************************/
+  static ColumnaComprimida LeerIndice(FileChannel Canal, int ObsPorBloque, long CantObs, File Archivo)
+         throws IOException
+  {
+  long Tam=Canal.size();
+  if(Tam<LARGO_COLA)
+     throw new IOException(Archivo+": archivo comprimido incompleto");
+  ByteBuffer Cola=Leer(Canal, Tam-LARGO_COLA, LARGO_COLA);
+  long PosIndice=Cola.getLong(), Bloques=Cola.getLong();
+  if(Cola.getInt()!=MAGICO_INDICE || Bloques<0 || PosIndice+12*Bloques!=Tam-LARGO_COLA
+     || ObsPorBloque<=0 || CantObs<0 || (CantObs+ObsPorBloque-1)/ObsPorBloque!=Bloques)
+     throw new IOException(Archivo+": archivo comprimido incompleto o danado");
+  ByteBuffer Ind=Leer(Canal, PosIndice, (int)(12*Bloques));
+  long[] Posicion=new long[(int)Bloques];
+  int[] Largo=new int[(int)Bloques];
+  for(int b=0; b<Bloques; b++){
+     Posicion[b]=Ind.getLong();
+     Largo[b]=Ind.getInt();
+  }
+  return new ColumnaComprimida(Posicion, Largo, ObsPorBloque, CantObs);
+  }
+
+  private static ByteBuffer Leer(FileChannel Canal, long Pos, int Cant) throws IOException
+  {
+  ByteBuffer Buf=ByteBuffer.allocate(Cant).order(ByteOrder.LITTLE_ENDIAN);
+  while(Buf.hasRemaining()){
+     if(Canal.read(Buf, Pos+Buf.position())<0)
+        throw new EOFException();
+  }
+  Buf.flip();
+  return Buf;
+  }
+
+  /************************************************************************/
+  /* Lee las observaciones [Desde, Desde+Cant) en Destino desde Ini,      */
+  /* descomprimiendo solo los bloques que las contienen, en paralelo      */
+  /************************************************************************/
+  void LeerTramo(FileChannel Canal, long Desde, int Cant, double[] Destino, int Ini) throws IOException
+  {
+  if(Cant<=0)
+     return;
+  int Primero=(int)(Desde/this.ObsPorBloque);
+  int Ultimo=(int)((Desde+Cant-1)/this.ObsPorBloque);
+  TareaBloques Tarea=new TareaBloques(Canal, Desde, Cant, Destino, Ini, Primero, Ultimo+1);
+  if(Ultimo>Primero)
+     ForkJoinPool.commonPool().invoke(Tarea);
+  else
+     Tarea.compute();
+  if(Tarea.Error!=null)
+     throw Tarea.Error;
+  }
+
+  /* Descomprime un bloque y copia la parte que cae en el tramo */
+  private void LeerBloque(FileChannel Canal, int b, long Desde, int Cant, double[] Destino, int Ini,
+                          Inflater Descompresor) throws IOException
+  {
+  long Inicio=(long)b*this.ObsPorBloque;
+  int n=(int)Math.min(this.ObsPorBloque, this.CantObs-Inicio);
+  ByteBuffer Comp=Leer(Canal, this.Posicion[b], this.Largo[b]);
+  long Desde0=Math.max(Desde, Inicio), Hasta0=Math.min(Desde+Cant, Inicio+n);
+  if(Desde0==Inicio && Hasta0==Inicio+n){
+     Descomprimir(Comp.array(), this.Largo[b], Destino, (int)(Ini+Inicio-Desde), n, Descompresor);
+     return;
+  }
+  double[] Aux=new double[n];
+  Descomprimir(Comp.array(), this.Largo[b], Aux, 0, n, Descompresor);
+  System.arraycopy(Aux, (int)(Desde0-Inicio), Destino, (int)(Ini+Desde0-Desde), (int)(Hasta0-Desde0));
+  }
+
+  /**************************************************************************/
+  /* Tarea ForkJoin sobre los bloques [Desde, Hasta) del tramo; las lecturas*/
+  /* posicionales del FileChannel se pueden hacer desde varios hilos        */
+  /**************************************************************************/
+  private class TareaBloques extends RecursiveAction {
+
+     private static final long serialVersionUID=1L;
+
+     private final FileChannel Canal;
+     private final long Tramo;
+     private final int Cant, Ini, BDesde, BHasta;
+     private final double[] Destino;
+     IOException Error;
+
+     TareaBloques(FileChannel Canal, long Tramo, int Cant, double[] Destino, int Ini, int BDesde, int BHasta){
+        this.Canal=Canal;
+        this.Tramo=Tramo;
+        this.Cant=Cant;
+        this.Destino=Destino;
+        this.Ini=Ini;
+        this.BDesde=BDesde;
+        this.BHasta=BHasta;
+     }
+
+     protected void compute(){
+        if(this.BHasta-this.BDesde>1){
+           int Medio=(this.BDesde+this.BHasta)>>>1;
+           TareaBloques Izq=new TareaBloques(this.Canal, this.Tramo, this.Cant, this.Destino, this.Ini, this.BDesde, Medio);
+           TareaBloques Der=new TareaBloques(this.Canal, this.Tramo, this.Cant, this.Destino, this.Ini, Medio, this.BHasta);
+           invokeAll(Izq, Der);
+           this.Error=Izq.Error!=null ? Izq.Error : Der.Error;
+           return;
+        }
+        Inflater Descompresor=new Inflater();
+        try{
+           LeerBloque(this.Canal, this.BDesde, this.Tramo, this.Cant, this.Destino, this.Ini, Descompresor);
+        }
+        catch(IOException ioe){
+           this.Error=ioe;
+        }
+        finally{
+           Descompresor.end();
+        }
+     }
+  }
+}
@@ -0,0 +1,15 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Interfaz de los consumidores del modo flujo: reciben las observaciones    */
+/* por bloques a medida que se generan, sin que la muestra completa llegue   */
+/* a guardarse en memoria.                                                   */
+/*****************************************************************************/
+
+public interface ConsumidorObs {
+
+  /************************************************************************/
+  /* Procesa Cant observaciones de Datos a partir de la posicion Ini      */
+  /************************************************************************/
+  public void Consumir(double[] Datos, int Ini, int Cant);
+}
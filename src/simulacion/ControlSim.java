@@ -11,62 +11,52 @@ import javax.swing.JOptionPane;
 
 public class ControlSim {
 
-  int ContGeo=1;//Contador Generador de correlativo Geo
-  int ContPoi=1;//Contador Generador de correlativo Poi
-  int ContUni=1;//Contador Generador de correlativo Uni
-  int ContExp=1;//Contador Generador de correlativo Exp
-  int ContNor=1;//Contador Generador de correlativo Nor
-
-
   /**************************************************************************/
   /* Constructor de la clase ControlSim, crea el neevo vector que contendra */
-  /* la colecciones de objetos Gen. de Obs. Aleatorias, adémas              */
-  /* carga los contadores de las secuencias de archivos.                    */
+  /* la colecciones de objetos Gen. de Obs. Aleatorias. Los numeros de los  */
+  /* archivos los asigna SecuenciaArchivos al guardar.                      */
   /**************************************************************************/
   
   public ControlSim() {
-     this.GenObsAlea=new Vector();
-     this.CargarCont();
+     this.GenObsAlea=new Vector<GenObsAlet>();
   }
   
    /**
    * Colección de Objetos
    * Generador de Observaciones Aleatorias
    */
-  public Vector  GenObsAlea;
+  public Vector<GenObsAlet> GenObsAlea;
 
   /***********************************************************************/
   /* Metodo que permite asignarle la responsabilidad de guardar las      */
   /* observaciones aleatorias al Generador de Observaciones aleatorias.  */  
-  /* Funcionamiento: Por medio del codigo de distribucion asigna la      */
-  /* responsabilidad de guardado, y aumenta el contador de archivos.     */
+  /* Funcionamiento: el archivo es el siguiente de la secuencia de su    */
+  /* distribucion, que SecuenciaArchivos reserva sin chocar con otros    */
+  /* procesos que guarden a la vez. Los errores de escritura o de la     */
+  /* reserva se lanzan al que llama.                                     */
+  /***********************************************************************/
+
+  public void GuardarObs() throws IOException {
+  GuardarObs(null);
+  }
+
+  /***********************************************************************/
+  /* Igual que el anterior; Monitor recibe el avance de la escritura. Si */
+  /* se cancela se borra el archivo y se lanza CancellationException.    */
+  /***********************************************************************/
+
+  public void GuardarObs(MonitorProgreso Monitor) throws IOException {
+  GuardarObs(this.GetObs(), Monitor);
+  }
+
+  /***********************************************************************/
+  /* Igual que el anterior pero con la corrida Obs, que no tiene que ser */
+  /* la ultima: un dialogo de resultados guarda la suya aunque despues   */
+  /* se haya creado otra.                                                */
   /***********************************************************************/
 
-  public boolean GuardarObs() {
-  switch(this.GetObs().GetTipoDist()){
-     case 1:
-        this.GetObs().Guardar(ContGeo);
-        ContGeo++;
-        break;
-     case 2:
-        this.GetObs().Guardar(ContPoi);
-        ContPoi++;
-        break;
-     case 3:
-        this.GetObs().Guardar(ContUni);
-        ContUni++;
-        break;
-     case 4:
-        this.GetObs().Guardar(ContExp);
-        ContExp++;
-        break;
-      case 5:
-        this.GetObs().Guardar(ContNor);
-        ContNor++;
-        break;
-  }
-  this.GuardarCont();
-  return true;
+  public void GuardarObs(GenObsAlet Obs, MonitorProgreso Monitor) throws IOException {
+  Obs.Guardar(Monitor);
   }
 
   /***************************************************************************/
@@ -88,127 +78,139 @@ public class ControlSim {
      this.GenObsAlea.addElement(new GenObsAlet(TipoDist, NumObs));         
   }
 
+  /***************************************************************************/
+  /*Igual que el anterior pero indicando el motor aleatorio y la semilla     */
+  /***************************************************************************/
+
+  public void CrearObs(int TipoDist, long NumObs, int TipoMotor, long Semilla) {
+     this.GenObsAlea.addElement(new GenObsAlet(TipoDist, NumObs, TipoMotor, Semilla));         
+  }
+
   /***************************************************************************/
   /*Metodo que permite obtener el último objeto GenObsAlet de la collecion   */
   /*GenObsAlea                                                               */
   /***************************************************************************/
   public GenObsAlet GetObs(){
-     return ((GenObsAlet)this.GenObsAlea.lastElement());     
+     return this.GenObsAlea.lastElement();
   }
 
   /***************************************************************************/
-  /* Carga los distintos contadores almacenados en un archivo de texto, con el*/
-  /* proposito de generar la siguiente estensión de archivo de observaciones. */
+  /*Vuelve a dejar Obs como ultimo elemento de la coleccion, para cuando una */
+  /*tarea de fondo termina despues de que se creo o abrio otra corrida       */
   /***************************************************************************/
-  public void CargarCont() {
-  File archivo=new File("C:\\SimulDP\\Otros\\Contador.txt");
-  try{
-     BufferedReader in=new BufferedReader(new FileReader(archivo));
-     String data="";
-     data=in.readLine();
-     this.ContGeo = Integer.parseInt(data);//Pasa String a Entero
-     data=in.readLine();
-     this.ContPoi = Integer.parseInt(data);
-     data=in.readLine();
-     this.ContUni = Integer.parseInt(data);
-     data=in.readLine();
-     this.ContExp = Integer.parseInt(data);
-     data=in.readLine();
-     this.ContNor = Integer.parseInt(data);
-  }
-  catch(IOException e){
-      System.out.println("no se encontro!");
+  public void Activar(GenObsAlet Obs){
+     if(this.GenObsAlea.lastElement()!=Obs){
+        this.GenObsAlea.removeElement(Obs);
+        this.GenObsAlea.addElement(Obs);
+     }
   }
+
+  /***************************************************************************/
+  /*Quita Obs de la coleccion, para una corrida cancelada o que fallo        */
+  /***************************************************************************/
+  public void Quitar(GenObsAlet Obs){
+     this.GenObsAlea.removeElement(Obs);
   }
 
-  /**************************************************************************/
-  /* Metodo que almacena los contadores de las secuencia de extensiones     */
-  /* sugueridas por la catedra para la creacion de archivos de              */
-  /* observaciones.                                                         */
-  /**************************************************************************/
+  private CatalogoObs Catalogo;
 
-  public void GuardarCont(){
-  try {// Guarda archivo txt con su contador "i" aumentado en 1
-      String Archivoo="C:\\SimulDP\\Otros\\Contador.txt";
-      String AUXi;
-      FileWriter Guardxx=new FileWriter(Archivoo);
-      AUXi= Integer.toString(this.ContGeo);//Pasa Entero a String
-      Guardxx.write(AUXi+"\n");
-      AUXi= Integer.toString(this.ContPoi);//Pasa Entero a String
-      Guardxx.write(AUXi+"\n");
-      AUXi= Integer.toString(this.ContUni);//Pasa Entero a String
-      Guardxx.write(AUXi+"\n");
-      AUXi= Integer.toString(this.ContExp);//Pasa Entero a String
-      Guardxx.write(AUXi+"\n");
-      AUXi= Integer.toString(this.ContNor);//Pasa Entero a String
-      Guardxx.write(AUXi+"\n");
-      Guardxx.close();
-  }
-  catch(IOException e){
-     System.out.println("no se encontro!");
+  /*************************************************************************/
+  /* Catalogo de los archivos guardados, con un directorio por elemento de */
+  /* RutasSim.DirectoriosArchivos() (los seis de observaciones y el de     */
+  /* resultados). Crea los directorios que falten y se carga del indice la */
+  /* primera vez que se pide.                                              */
+  /*************************************************************************/
+  public CatalogoObs GetCatalogo(){
+  if(this.Catalogo==null){
+     RutasSim.CrearDirectorios();
+     this.Catalogo=new CatalogoObs(RutasSim.DirectoriosArchivos(), new File(RutasSim.DirOtros(), "Catalogo.txt"));
+     this.Catalogo.Cargar();
   }
+  return this.Catalogo;
   }
 
   /*************************************************************************/
-  /* Abre un archivo de texto que contiene las observaciones aleatorias    */
-  /* generadas por cualquier distribucion de probabilidad.                 */
-  /* Recibimos el nombre del archivo NomArc y retornamos el titulo de la   */
-  /* distribucion correspondiente.                                         */
+  /* Ubica el archivo NomArc: el prefijo del nombre (Geo.001, Nor.012...)  */
+  /* indica su directorio; si no coincide se busca en los demas. Una ruta  */
+  /* a un archivo existente se toma tal cual. Retorna null si no se        */
+  /* encuentra.                                                            */
   /*************************************************************************/
+  private File UbicarArchivo(String NomArc){
+  File Directo=new File(NomArc);
+  if(NomArc.indexOf(File.separatorChar)>=0 && Directo.isFile() && Directo.canRead())
+     return Directo;
+  String Prefijo=NomArc.indexOf('.')>0 ? NomArc.substring(0, NomArc.indexOf('.')) : NomArc;
+  File[] Dirs=RutasSim.DirectoriosArchivos();
+  for(int i=0; i<RutasSim.PREFIJOS.length; i++){
+     File Arc=new File(Dirs[i], NomArc);
+     if(RutasSim.PREFIJOS[i].equalsIgnoreCase(Prefijo) && Arc.canRead())
+        return Arc;
+  }
+  for(int i=0; i<Dirs.length; i++){
+     File Arc=new File(Dirs[i], NomArc);
+     if(Arc.canRead())
+        return Arc;
+  }
+  return null;
+  }
 
-  public String AbrirArc(String NomArc){
-  String Text="", Titulo="";
-  String[] ArreDirec={ "C:\\SimulDP\\ObsData\\Geo\\","C:\\SimulDP\\ObsData\\Poi\\",
-                       "C:\\SimulDP\\ObsData\\Uni\\", "C:\\SimulDP\\ObsData\\Exp\\",
-                       "C:\\SimulDP\\ObsData\\Nor\\", "C:\\SimulDP\\Resultados\\" };
-  int TipoD=0, ContLine=0;
-  Object[] DatosObs; /*Aqui vamos a guardar los datos numericos de las Observaciones */
-  File ArcAbrir=new File("");
-  try
-  {
-     for(int i=0; i<ArreDirec.length ; i++){ /* Buscamos el archivo en los directorios*/
-         ArcAbrir=new File(ArreDirec[i]+NomArc); /*Generamos la direccion absoluta */
-
-         if(ArcAbrir.canRead()){
-            FileReader Fichero=new FileReader(ArcAbrir);
-            BufferedReader leer=new BufferedReader(Fichero);
-            while((Text=leer.readLine())!=null){
+  /*************************************************************************/
+  /* Abre un archivo que contiene las observaciones aleatorias generadas   */
+  /* por cualquier distribucion de probabilidad. Los archivos binarios     */
+  /* (ver ArchivoObs) se leen con un mapeo de memoria, o descomprimiendo   */
+  /* sus bloques en paralelo si se guardaron comprimidos; los de texto de  */
+  /* las versiones anteriores se leen en una sola pasada con               */
+  /* LectorTextoObs.                                                       */
+  /* Recibimos el nombre del archivo NomArc y retornamos la corrida que    */
+  /* se cargo, que queda ademas como ultima de la coleccion. Si el archivo */
+  /* no se encuentra se lanza FileNotFoundException, y si no se puede leer */
+  /* la IOException de la lectura; la coleccion queda como estaba.         */
+  /*************************************************************************/
 
-                  if(ContLine==1) /*Capturamos el titulo en la primera linea de ArcAbrir*/
-                     Titulo=Text;
+  public GenObsAlet AbrirArc(String NomArc) throws IOException {
+  return AbrirArc(NomArc, null);
+  }
 
-                  if(ContLine==3) /*¿ Tipo de distribución ? en la linea 3*/
-                     TipoD=Integer.parseInt(Text);
+  /*************************************************************************/
+  /* Igual que el anterior; Monitor recibe el avance de la lectura de los  */
+  /* archivos de texto (bytes leidos del total). La corrida se arma y se   */
+  /* carga antes de agregarla a la coleccion, asi una tarea de fondo no    */
+  /* depende de cual es la ultima corrida mientras otra se crea.           */
+  /*************************************************************************/
 
-                  ContLine++; /* Conteo de lineas */
-            }
-            leer.close();            
-         }
-         /*De acuerdo al número de lineas instanciamos DatosObs */
-         DatosObs=new Object[ContLine];
-         ContLine=0;
-         String  Val="";
-         if(ArcAbrir.canRead()){
-            FileReader Fichero=new FileReader(ArcAbrir);
-            BufferedReader leer=new BufferedReader(Fichero);
-            while((Text=leer.readLine())!=null){
-               /* Los datos numericos comienzan en la linea 6 */
-               if(ContLine>5){                                  
-                   Val=Text.substring(Text.indexOf('\t')+1);                                                    
-                   DatosObs[ContLine]=new Double(Val);                 
-               }                
-               ContLine++;               
-            }
-            /*Cargamos los datos haciendo referencia al metodo de esta clase*/
-            this.CargarData(TipoD, DatosObs.length, Titulo, DatosObs);
-         }         
-     }
+  public GenObsAlet AbrirArc(String NomArc, MonitorProgreso Monitor) throws IOException {
+  File ArcAbrir=UbicarArchivo(NomArc);
+  if(ArcAbrir==null)
+     throw new FileNotFoundException(NomArc+": no se encontro");
+  GenObsAlet Obs;
+  if(ArchivoObs.EsBinario(ArcAbrir)){
+     Obs=ArchivoObs.Abrir(ArcAbrir);
   }
-  catch(IOException ioe)
-  {
-     System.out.println(ioe);
+  else{
+     LectorTextoObs Lector=new LectorTextoObs();
+     AlmacenObs Datos=new AlmacenObs();
+     Lector.Leer(ArcAbrir, Datos, Monitor);
+     if(Lector.GetTipoMotor()>0)
+        Obs=new GenObsAlet(Lector.GetTipoDistr(), Datos.GetTamano(), Lector.GetTipoMotor(), Lector.GetSemilla());
+     else
+        Obs=new GenObsAlet(Lector.GetTipoDistr(), Datos.GetTamano());
+     Obs.SetQMC(Lector.GetQMC());
+     Obs.SetReduccion(Lector.GetReduccion());
+     Obs.CargarArchivo(Datos, Lector.GetTitulo());
   }
-  return Titulo;
+  this.GenObsAlea.addElement(Obs);
+  return Obs;
+  }
+
+  /*************************************************************************/
+  /* Arma una tabla empirica (valores distintos y sus frecuencias) con las */
+  /* observaciones de un archivo guardado, que se abre con AbrirArc y      */
+  /* lanza sus mismas excepciones.                                         */
+  /*************************************************************************/
+
+  public TablaAlias TablaDeArchivo(String NomArc) throws IOException {
+  AlmacenObs Obs=AbrirArc(NomArc).ObsDistrib;
+  return TablaAlias.DesdeObservaciones(Obs.GetArreglo(), Obs.GetTamano());
   }
 
   /*************************************************************************/
@@ -217,19 +219,14 @@ public class ControlSim {
   
   public void Borrador (String NomArc)
   {
-  String Text="", Titulo="";
-  String[] ArreDirec={ "C:\\SimulDP\\ObsData\\Geo\\","C:\\SimulDP\\ObsData\\Poi\\",
-                       "C:\\SimulDP\\ObsData\\Uni\\", "C:\\SimulDP\\ObsData\\Exp\\",
-                       "C:\\SimulDP\\ObsData\\Nor\\", "C:\\SimulDP\\Resultados\\" };
-
-
   File ArcElim=new File("");  
-  for(int i=0; i<ArreDirec.length ; i++){
-     ArcElim=new File(ArreDirec[i]+NomArc);
+  File[] Dirs=RutasSim.DirectoriosArchivos();
+  for(int i=0; i<Dirs.length ; i++){
+     ArcElim=new File(Dirs[i], NomArc);
      if(ArcElim.canRead()){
          if(JOptionPane.showConfirmDialog(null,"¿Desea Eliminar el archivo?", "Atencion Eliminar",  JOptionPane.INFORMATION_MESSAGE)==0){
              if (ArcElim.delete())
-                JOptionPane.showMessageDialog(null,"El fichero " + ArreDirec[i]+NomArc + " ha sido borrado correctamente");
+                JOptionPane.showMessageDialog(null,"El fichero " + ArcElim + " ha sido borrado correctamente");
          }
       }
    }  
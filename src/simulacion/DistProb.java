@@ -1,5 +1,5 @@
 package simulacion;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /******************************************************************************/
 /*Clase abstracta que sirve como molde para generar las demas distribuciones de*/
@@ -13,6 +13,9 @@ public abstract class DistProb{
   public double Media;  
   public double ProbExito;
 
+  /* Motor aleatorio de la corrida; si es null se usa el del hilo actual */
+  protected MotorAleatorio Motor;
+
   /************************************/
   /*Obtenemos la observacion generada */
   /************************************/
@@ -28,12 +31,32 @@ public abstract class DistProb{
   }
 
   /**********************************************************************/
-  /*Creamos un número aleatorio por medio de las clases Random de java. */
-  /* y lo retornamos                                                    */
+  /*Obtenemos un número aleatorio uniforme en [0,1) del motor de la     */
+  /*corrida y lo retornamos. Sin motor asignado se usa ThreadLocalRandom*/
   /* ********************************************************************/
   public double Aleatorio(){
-      Random AleaT=new Random();
-      return AleaT.nextDouble();
+      if(this.Motor!=null)
+         return this.Motor.SigDouble();
+      return ThreadLocalRandom.current().nextDouble();
+  }
+
+  /**********************************************************************/
+  /*Retorna el motor de la corrida; sin motor asignado se crea uno con  */
+  /*una semilla tomada de ThreadLocalRandom                             */
+  /**********************************************************************/
+  protected MotorAleatorio GetMotor(){
+      if(this.Motor==null)
+         this.Motor=new MotorSplittable(ThreadLocalRandom.current().nextLong());
+      return this.Motor;
+  }
+
+  /**********************************************************************/
+  /*Retorna un entero aleatorio de 64 bits del mismo motor              */
+  /**********************************************************************/
+  public long AleatorioLong(){
+      if(this.Motor!=null)
+         return this.Motor.SigLong();
+      return ThreadLocalRandom.current().nextLong();
   }
   
 }
\ No newline at end of file
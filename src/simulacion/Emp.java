@@ -0,0 +1,31 @@
+package simulacion;
+
+  /**************************************************************************/
+  /*Clase que genera una observación aleatoria de una distribucion empirica */
+  /*(tabla de valores y probabilidades) usando su tabla de alias            */
+  /**************************************************************************/
+
+public class Emp extends DistProb{
+
+  public Emp(TablaAlias Tabla) 
+  {
+  this(Tabla, null);
+  }
+
+  public Emp(TablaAlias Tabla, MotorAleatorio Motor) 
+  {
+  this.Motor=Motor;
+  this.Media=Tabla.GetMedia();
+  this.ProbExito=Aleatorio();
+  this.Observacion=Tabla.Muestra(this.ProbExito);
+  }
+
+  /***************************************************************************************/
+  /*Contructor para generar las observaciones a partir de datos cargados desde un archivo*/
+  /*es decir, estas observaciones ya existen y solo se crean los objetos de nuevo.       */
+  /**************************************************************************************/
+  public Emp(double Num, double Observ){
+     this.Observacion=Observ;
+     this.NumObs=Num;
+  }
+}
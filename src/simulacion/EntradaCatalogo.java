@@ -0,0 +1,206 @@
+package simulacion;
+import java.io.*;
+import java.text.SimpleDateFormat;
+import java.util.Comparator;
+import java.util.Date;
+
+/*****************************************************************************/
+/* Clase EntradaCatalogo: datos de un archivo guardado tomados de su         */
+/* cabecera (distribucion, titulo con los parametros, cantidad de            */
+/* observaciones, fecha, semilla, motor, sucesion QMC y reduccion de        */
+/* varianza) junto con el largo y la fecha de modificacion del archivo, que  */
+/* indican si hay que volver a leerla. Es inmutable; toString() es el nombre */
+/* del archivo, que es lo que muestra el arbol de SimulDPView.               */
+/*****************************************************************************/
+
+public class EntradaCatalogo {
+
+  /************************************************************************/
+  /* Orden de los nombres de archivo: las cifras seguidas se comparan     */
+  /* como numero, asi Geo.1000 queda despues de Geo.999                   */
+  /************************************************************************/
+  public static final Comparator<String> ORDEN_NOMBRES=new Comparator<String>() {
+     public int compare(String a, String b){
+        int i=0, j=0;
+        while(i<a.length() && j<b.length()){
+           char ca=a.charAt(i), cb=b.charAt(j);
+           if(EsCifra(ca) && EsCifra(cb)){
+              int Fa=FinCifras(a, i), Fb=FinCifras(b, j);
+              int Ia=i, Ib=j;
+              while(Ia<Fa-1 && a.charAt(Ia)=='0')
+                 Ia++;
+              while(Ib<Fb-1 && b.charAt(Ib)=='0')
+                 Ib++;
+              int c=Integer.compare(Fa-Ia, Fb-Ib);
+              if(c==0)
+                 c=a.substring(Ia, Fa).compareTo(b.substring(Ib, Fb));
+              if(c==0)
+                 c=Integer.compare(Fa-i, Fb-j);
+              if(c!=0)
+                 return c;
+              i=Fa;
+              j=Fb;
+           }
+           else{
+              if(ca!=cb)
+                 return ca-cb;
+              i++;
+              j++;
+           }
+        }
+        return Integer.compare(a.length()-i, b.length()-j);
+     }
+  };
+
+  private static boolean EsCifra(char c)
+  {
+  return c>='0' && c<='9';
+  }
+
+  private static int FinCifras(String s, int i)
+  {
+  while(i<s.length() && EsCifra(s.charAt(i)))
+     i++;
+  return i;
+  }
+
+  private final String Nombre;
+  private final long Largo;
+  private final long Modificado;
+  private final int TipoDistr;     /* 0 si no es un archivo de observaciones */
+  private final long CantObs;
+  private final long Fecha;
+  private final long Semilla;
+  private final int TipoMotor;
+  private final int TipoQMC;
+  private final int TipoReduccion;
+  private final String Titulo;
+
+  EntradaCatalogo(String Nombre, long Largo, long Modificado, int TipoDistr, long CantObs,
+                  long Fecha, long Semilla, int TipoMotor, int TipoQMC, int TipoReduccion, String Titulo)
+  {
+  this.Nombre=Nombre;
+  this.Largo=Largo;
+  this.Modificado=Modificado;
+  this.TipoDistr=TipoDistr;
+  this.CantObs=CantObs;
+  this.Fecha=Fecha;
+  this.Semilla=Semilla;
+  this.TipoMotor=TipoMotor;
+  this.TipoQMC=TipoQMC;
+  this.TipoReduccion=TipoReduccion;
+  this.Titulo=Titulo;
+  }
+
+  /************************************************************************/
+  /* Lee la cabecera del archivo (binario o de texto). Si no es un        */
+  /* archivo de observaciones la entrada queda solo con el nombre         */
+  /************************************************************************/
+  public static EntradaCatalogo Leer(File Archivo)
+  {
+  long Largo=Archivo.length(), Modificado=Archivo.lastModified();
+  try{
+     if(ArchivoObs.EsBinario(Archivo)){
+        ArchivoObs Cab=ArchivoObs.LeerCabecera(Archivo);
+        return new EntradaCatalogo(Archivo.getName(), Largo, Modificado, Cab.GetTipoDistr(), Cab.GetCantObs(),
+                                   Cab.GetFecha().getTime(), Cab.GetSemilla(), Cab.GetTipoMotor(), Cab.GetQMC(),
+                                   Cab.GetReduccion(), Cab.GetTitulo());
+     }
+     LectorTextoObs Lector=new LectorTextoObs();
+     long Cant=Lector.LeerEncabezado(Archivo);
+     return new EntradaCatalogo(Archivo.getName(), Largo, Modificado, Lector.GetTipoDistr(), Cant,
+                                Modificado, Lector.GetSemilla(), Lector.GetTipoMotor(), Lector.GetQMC(),
+                                Lector.GetReduccion(), Lector.GetTitulo());
+  }
+  catch(IOException | RuntimeException e){
+     return new EntradaCatalogo(Archivo.getName(), Largo, Modificado, 0, 0, Modificado, 0, 0,
+                                SecuenciaQMC.NINGUNA, ReduccionVarianza.NINGUNA, "");
+  }
+  }
+
+  /* Indica si el archivo cambio desde que se leyo la entrada */
+  boolean Vigente(File Archivo)
+  {
+  return Archivo.length()==this.Largo && Archivo.lastModified()==this.Modificado;
+  }
+
+  /************************************************************************/
+  /* Linea del indice: campos separados por tabuladores, el titulo al     */
+  /* final y sin tabuladores ni saltos                                    */
+  /************************************************************************/
+  String ALinea()
+  {
+  return this.Nombre+"\t"+this.Largo+"\t"+this.Modificado+"\t"+this.TipoDistr+"\t"+this.CantObs+"\t"
+         +this.Fecha+"\t"+this.Semilla+"\t"+this.TipoMotor+"\t"+this.TipoQMC+"\t"+this.TipoReduccion+"\t"
+         +this.Titulo.replaceAll("[\t\r\n]", " ");
+  }
+
+  static EntradaCatalogo DeLinea(String Linea)
+  {
+  String[] c=Linea.split("\t", 11);
+  if(c.length<11)
+     throw new IllegalArgumentException("linea de indice incompleta");
+  return new EntradaCatalogo(c[0], Long.parseLong(c[1]), Long.parseLong(c[2]), Integer.parseInt(c[3]),
+                             Long.parseLong(c[4]), Long.parseLong(c[5]), Long.parseLong(c[6]),
+                             Integer.parseInt(c[7]), Integer.parseInt(c[8]), Integer.parseInt(c[9]), c[10]);
+  }
+
+  /************************************************************************/
+  /* Descripcion de varias lineas para mostrar junto al nombre            */
+  /************************************************************************/
+  public String GetDescripcion()
+  {
+  if(this.TipoDistr==0)
+     return this.Nombre;
+  StringBuffer Texto=new StringBuffer(this.Titulo);
+  Texto.append("\nObservaciones: ").append(String.format("%,d", this.CantObs));
+  Texto.append("\nFecha: ").append(new SimpleDateFormat("dd/MM/yyyy HH:mm").format(new Date(this.Fecha)));
+  if(this.TipoMotor>=1 && this.TipoMotor<=MotorAleatorio.NOMBRES.length)
+     Texto.append("\nSemilla: ").append(this.Semilla).append("  Motor: ").append(MotorAleatorio.NOMBRES[this.TipoMotor-1]);
+  if(this.TipoQMC!=SecuenciaQMC.NINGUNA)
+     Texto.append("\nMuestreo QMC: ").append(SecuenciaQMC.NOMBRES[this.TipoQMC]);
+  if(this.TipoReduccion!=ReduccionVarianza.NINGUNA)
+     Texto.append("\nReduccion de varianza: ").append(ReduccionVarianza.NOMBRES[this.TipoReduccion]);
+  return Texto.toString();
+  }
+
+  public String GetNombre(){
+      return this.Nombre;
+  }
+
+  public int GetTipoDistr(){
+      return this.TipoDistr;
+  }
+
+  public long GetCantObs(){
+      return this.CantObs;
+  }
+
+  public long GetFecha(){
+      return this.Fecha;
+  }
+
+  public long GetSemilla(){
+      return this.Semilla;
+  }
+
+  public int GetTipoMotor(){
+      return this.TipoMotor;
+  }
+
+  public int GetQMC(){
+      return this.TipoQMC;
+  }
+
+  public int GetReduccion(){
+      return this.TipoReduccion;
+  }
+
+  public String GetTitulo(){
+      return this.Titulo;
+  }
+
+  public String toString(){
+      return this.Nombre;
+  }
+}
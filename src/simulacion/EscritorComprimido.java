@@ -0,0 +1,170 @@
+package simulacion;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.zip.Deflater;
+
+/*****************************************************************************/
+/* Clase EscritorComprimido: EscritorObs que guarda la columna comprimida    */
+/* por bloques (version 2 de ArchivoObs, ver ColumnaComprimida). Consumir    */
+/* junta las observaciones en bloques y los entrega a un grupo de hilos de   */
+/* fondo que los comprimen, asi la generacion en modo flujo y el guardado no */
+/* esperan a deflate; los bloques ya comprimidos se escriben en orden desde  */
+/* el hilo que consume. Se mantienen a lo sumo PENDIENTES bloques en vuelo.  */
+/*****************************************************************************/
+
+class EscritorComprimido extends EscritorObs {
+
+  private static final int HILOS=Math.max(1, Runtime.getRuntime().availableProcessors()-1);
+  private static final int PENDIENTES=2*HILOS+2;
+
+  private static ExecutorService Compresores;
+
+  /* Un Deflater por hilo compresor; los hilos viven mientras la aplicacion */
+  private static final ThreadLocal<Deflater> DEFLATER=new ThreadLocal<Deflater>() {
+     protected Deflater initialValue(){
+        return new Deflater(ColumnaComprimida.NIVEL);
+     }
+  };
+
+  private static synchronized ExecutorService GetCompresores()
+  {
+  if(Compresores==null){
+     Compresores=Executors.newFixedThreadPool(HILOS, new ThreadFactory() {
+        private int Numero=0;
+        public synchronized Thread newThread(Runnable r){
+           Thread t=new Thread(r, "Compresor-"+(++this.Numero));
+           t.setDaemon(true);
+           return t;
+        }
+     });
+  }
+  return Compresores;
+  }
+
+  private final int ObsPorBloque;
+  private final int Estrategia;
+  private double[] Bloque;
+  private int EnBloque;
+  private long Escritas;
+  private final ArrayDeque<Future<byte[]>> EnVuelo=new ArrayDeque<Future<byte[]>>();
+  private long[] Posicion=new long[16];
+  private int[] Largo=new int[16];
+  private int Bloques;
+
+  /* Interrupcion recibida mientras se escribia, se restaura al volver */
+  private boolean Interrumpido;
+
+  EscritorComprimido(File Archivo, ArchivoObs Cabecera) throws IOException
+  {
+  super(Archivo, Cabecera);
+  this.ObsPorBloque=Cabecera.GetObsPorBloque();
+  this.Estrategia=ColumnaComprimida.Estrategia(Cabecera.GetTipoDistr());
+  this.Bloque=new double[this.ObsPorBloque];
+  }
+
+  /************************************************************************/
+  /* Una interrupcion (cancelacion) no corta la escritura a medias: el    */
+  /* bloque se entrega igual y quien genera ve la interrupcion al volver, */
+  /* asi el archivo tiene las mismas observaciones que el resumen.        */
+  /************************************************************************/
+  public void Consumir(double[] Datos, int Ini, int Cant)
+  {
+  this.Interrumpido=Thread.interrupted();
+  try{
+     while(Cant>0){
+        int Parte=Math.min(Cant, this.ObsPorBloque-this.EnBloque);
+        System.arraycopy(Datos, Ini, this.Bloque, this.EnBloque, Parte);
+        this.EnBloque+=Parte;
+        Ini+=Parte;
+        Cant-=Parte;
+        this.Escritas+=Parte;
+        if(this.EnBloque==this.ObsPorBloque)
+           Enviar();
+     }
+  }
+  catch(IOException ioe){
+     throw new UncheckedIOException(ioe);
+  }
+  finally{
+     if(this.Interrumpido)
+        Thread.currentThread().interrupt();
+  }
+  }
+
+  /* Entrega el bloque lleno a los compresores; si hay demasiados en vuelo */
+  /* espera y escribe el mas viejo                                         */
+  private void Enviar() throws IOException
+  {
+  final double[] Datos=this.Bloque;
+  final int n=this.EnBloque;
+  final int Estrategia=this.Estrategia;
+  this.EnVuelo.addLast(GetCompresores().submit(new Callable<byte[]>() {
+     public byte[] call(){
+        return ColumnaComprimida.Comprimir(Datos, 0, n, DEFLATER.get(), Estrategia);
+     }
+  }));
+  this.Bloque=new double[this.ObsPorBloque];
+  this.EnBloque=0;
+  if(this.EnVuelo.size()>=PENDIENTES)
+     EscribirPrimero();
+  }
+
+  private void EscribirPrimero() throws IOException
+  {
+  byte[] Comp=null;
+  while(Comp==null){
+     try{
+        Comp=this.EnVuelo.peekFirst().get();
+     }
+     catch(InterruptedException ie){
+        this.Interrumpido=true;
+     }
+     catch(ExecutionException ee){
+        throw new IOException("fallo la compresion de un bloque", ee.getCause());
+     }
+  }
+  this.EnVuelo.removeFirst();
+  if(this.Bloques==this.Posicion.length){
+     this.Posicion=Arrays.copyOf(this.Posicion, 2*this.Bloques);
+     this.Largo=Arrays.copyOf(this.Largo, 2*this.Bloques);
+  }
+  this.Posicion[this.Bloques]=GetSalida().position();
+  this.Largo[this.Bloques]=Comp.length;
+  this.Bloques++;
+  Escribir(ByteBuffer.wrap(Comp));
+  }
+
+  public long GetEscritas(){
+      return this.Escritas;
+  }
+
+  /************************************************************************/
+  /* Comprime el ultimo bloque, escribe los pendientes, el indice y       */
+  /* CantObs, y cierra. Si el hilo fue interrumpido (cancelacion en modo  */
+  /* flujo) igual termina, para que el archivo quede legible, y despues   */
+  /* restaura la interrupcion.                                            */
+  /************************************************************************/
+  public void Cerrar() throws IOException
+  {
+  this.Interrumpido=Thread.interrupted();
+  try{
+     if(this.EnBloque>0)
+        Enviar();
+     while(!this.EnVuelo.isEmpty())
+        EscribirPrimero();
+     ColumnaComprimida.EscribirIndice(GetSalida(), this.Posicion, this.Largo, this.Bloques);
+     CompletarCantidad(this.Escritas);
+  }
+  finally{
+     for(Future<byte[]> f : this.EnVuelo)
+        f.cancel(false);
+     this.EnVuelo.clear();
+     GetSalida().close();
+     if(this.Interrumpido)
+        Thread.currentThread().interrupt();
+  }
+  }
+}
@@ -0,0 +1,114 @@
+package simulacion;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/*****************************************************************************/
+/* Clase EscritorObs: consumidor que vuelca las observaciones a un archivo   */
+/* en el formato binario de ArchivoObs. Lo usan GenObsAlet.Guardar y el modo */
+/* flujo, de modo que el archivo puede abrirse despues como cualquier otra   */
+/* corrida. La cantidad de observaciones se completa en la cabecera al       */
+/* cerrar, porque en modo flujo no se conoce de antemano. Si la cabecera     */
+/* pide compresion, Crear retorna un EscritorComprimido.                     */
+/*****************************************************************************/
+
+public class EscritorObs implements ConsumidorObs {
+
+  private FileChannel Salida;
+  private ByteBuffer Buf;
+  private DoubleBuffer Vista;
+  private long Escritas;
+
+  /************************************************************************/
+  /* Retorna el escritor que corresponde a la cabecera                    */
+  /************************************************************************/
+  public static EscritorObs Crear(File Archivo, ArchivoObs Cabecera) throws IOException
+  {
+  if(Cabecera.EsComprimido())
+     return new EscritorComprimido(Archivo, Cabecera);
+  return new EscritorObs(Archivo, Cabecera);
+  }
+
+  /************************************************************************/
+  /* Abre el archivo y escribe la cabecera recibida                       */
+  /************************************************************************/
+  public EscritorObs(File Archivo, ArchivoObs Cabecera) throws IOException
+  {
+  if(Cabecera.EsComprimido() && !(this instanceof EscritorComprimido))
+     throw new IllegalArgumentException("la cabecera comprimida se escribe con EscritorObs.Crear");
+  File Padre=Archivo.getAbsoluteFile().getParentFile();
+  if(Padre!=null)
+     Padre.mkdirs();
+  this.Salida=FileChannel.open(Archivo.toPath(), StandardOpenOption.CREATE,
+                               StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+  Escribir(Cabecera.Codificar());
+  this.Buf=ByteBuffer.allocateDirect(1<<16).order(ByteOrder.LITTLE_ENDIAN);
+  this.Vista=this.Buf.asDoubleBuffer();
+  this.Escritas=0;
+  }
+
+  public void Consumir(double[] Datos, int Ini, int Cant)
+  {
+  try{
+     while(Cant>0){
+        int Parte=Math.min(Cant, this.Vista.remaining());
+        this.Vista.put(Datos, Ini, Parte);
+        Ini+=Parte;
+        Cant-=Parte;
+        this.Escritas+=Parte;
+        if(!this.Vista.hasRemaining())
+           Vaciar();
+     }
+  }
+  catch(IOException ioe){
+     throw new UncheckedIOException(ioe);
+  }
+  }
+
+  private void Vaciar() throws IOException
+  {
+  this.Buf.position(0).limit(8*this.Vista.position());
+  Escribir(this.Buf);
+  this.Buf.clear();
+  this.Vista.clear();
+  }
+
+  void Escribir(ByteBuffer Origen) throws IOException
+  {
+  while(Origen.hasRemaining())
+     this.Salida.write(Origen);
+  }
+
+  public long GetEscritas(){
+      return this.Escritas;
+  }
+
+  FileChannel GetSalida(){
+      return this.Salida;
+  }
+
+  /************************************************************************/
+  /* Escribe lo pendiente, completa CantObs en la cabecera y cierra       */
+  /************************************************************************/
+  public void Cerrar() throws IOException
+  {
+  try{
+     Vaciar();
+     CompletarCantidad(this.Escritas);
+  }
+  finally{
+     this.Salida.close();
+  }
+  }
+
+  void CompletarCantidad(long CantObs) throws IOException
+  {
+  ByteBuffer Cant=ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+  Cant.putLong(CantObs).flip();
+  while(Cant.hasRemaining())
+     this.Salida.write(Cant, ArchivoObs.POS_CANT+Cant.position());
+  }
+}
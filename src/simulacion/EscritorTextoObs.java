@@ -0,0 +1,66 @@
+package simulacion;
+import java.io.*;
+import java.nio.charset.Charset;
+
+/*****************************************************************************/
+/* Clase EscritorTextoObs: consumidor que escribe las observaciones en el    */
+/* formato de texto de las versiones anteriores (seis lineas de encabezado y */
+/* una linea "i<TAB>x" por observacion), el que lee LectorTextoObs. Sirve    */
+/* para pasar corridas a otros programas; el formato normal es el binario    */
+/* de EscritorObs.                                                           */
+/*****************************************************************************/
+
+public class EscritorTextoObs implements ConsumidorObs {
+
+  private Writer Salida;
+  private long Escritas;
+
+  /************************************************************************/
+  /* Abre el archivo y escribe el encabezado con los datos de Cabecera    */
+  /************************************************************************/
+  public EscritorTextoObs(File Archivo, ArchivoObs Cabecera) throws IOException
+  {
+  File Padre=Archivo.getAbsoluteFile().getParentFile();
+  if(Padre!=null)
+     Padre.mkdirs();
+  this.Salida=new BufferedWriter(new OutputStreamWriter(new FileOutputStream(Archivo),
+                                 Charset.defaultCharset()), 1<<20);
+  int Motor=Cabecera.GetTipoMotor();
+  this.Salida.write("/**************************************************/\n");
+  this.Salida.write(Cabecera.GetTitulo()+"\n"+Cabecera.GetFecha()+"\n"+Cabecera.GetTipoDistr());
+  this.Salida.write("\nArchivo: "+Archivo.getName()+"\tSemilla: "+Cabecera.GetSemilla());
+  if(Motor>=1 && Motor<=MotorAleatorio.NOMBRES.length)
+     this.Salida.write("\tMotor: "+MotorAleatorio.NOMBRES[Motor-1]);
+  if(Cabecera.GetQMC()!=SecuenciaQMC.NINGUNA)
+     this.Salida.write("\tQMC: "+SecuenciaQMC.NOMBRES[Cabecera.GetQMC()]);
+  if(Cabecera.GetReduccion()!=ReduccionVarianza.NINGUNA)
+     this.Salida.write("\tReduccion: "+ReduccionVarianza.NOMBRES[Cabecera.GetReduccion()]);
+  this.Salida.write("\n/************************************************/");
+  this.Escritas=0;
+  }
+
+  public void Consumir(double[] Datos, int Ini, int Cant)
+  {
+  try{
+     for(int i=Ini; i<Ini+Cant; i++){
+        this.Escritas++;
+        this.Salida.write("\n");
+        this.Salida.write(Double.toString(this.Escritas));
+        this.Salida.write('\t');
+        this.Salida.write(Double.toString(Datos[i]));
+     }
+  }
+  catch(IOException ioe){
+     throw new UncheckedIOException(ioe);
+  }
+  }
+
+  public long GetEscritas(){
+      return this.Escritas;
+  }
+
+  public void Cerrar() throws IOException
+  {
+  this.Salida.close();
+  }
+}
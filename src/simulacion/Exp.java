@@ -2,10 +2,16 @@ package simulacion;
 public class Exp extends DistProb{
 
   public Exp(double Media) {
+  this(Media, null);
+  }
+
+  /*************************************************************************/
+  /*Genera la observacion usando el motor aleatorio de la corrida          */
+  /*************************************************************************/
+  public Exp(double Media, MotorAleatorio Motor) {
+  this.Motor=Motor;
   this.Media=Media;
-  double AleatR=Aleatorio();
-  this.Observacion=(-1)*(this.Media*Math.log(AleatR));
-  this.ProbExito=AleatR;  
+  this.Observacion=CrearMuestreador(Media).Muestra(GetMotor());
   }
 
   /***************************************************************************************/
@@ -17,4 +23,41 @@ public class Exp extends DistProb{
      this.NumObs=Num;
      this.Observacion=Observ;
   }
-}
\ No newline at end of file
+
+  /*************************************************************************/
+  /*Muestreador por lotes: X=-Media*ln(1-U), con U en [0,1) para que el    */
+  /*logaritmo sea siempre finito. El lote se llena primero de uniformes y  */
+  /*luego se transforma entero con NucleosLote (vectorial si se puede).    */
+  /*************************************************************************/
+  public static Muestreador CrearMuestreador(final double Media) {
+  return new Muestreador() {
+     public double Muestra(MotorAleatorio Motor){
+        return -Media*Math.log(1-Motor.SigDouble());
+     }
+
+     public void Llenar(double[] Datos, int Ini, int Cant, MotorAleatorio Motor){
+        Motor.LlenarUniformes(Datos, Ini, Cant);
+        NucleosLote.Get().Exponencial(Datos, Ini, Cant, Media);
+     }
+  };
+  }
+
+  /*************************************************************************/
+  /*Funcion de distribucion: F(x)=1-exp(-x/Media); inversa -Media ln(1-p)  */
+  /*************************************************************************/
+  public static FdaTeorica CrearFda(final double Media) {
+  return new FdaTeorica() {
+     public double Acumulada(double x){
+        return x<=0 ? 0 : -Math.expm1(-x/Media);
+     }
+
+     public double Cola(double x){
+        return x<=0 ? 1 : Math.exp(-x/Media);
+     }
+
+     public double Inversa(double p){
+        return -Media*Math.log1p(-p);
+     }
+  };
+  }
+}
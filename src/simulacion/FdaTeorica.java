@@ -0,0 +1,28 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Interfaz FdaTeorica: funcion de distribucion acumulada de una             */
+/* distribucion con sus parametros ya fijados, contra la que se prueban las  */
+/* muestras (ver PruebasAjuste). Cola se pide aparte porque 1-Acumulada      */
+/* pierde toda la precision en la cola derecha. Inversa permite generar por  */
+/* transformacion inversa (ver SecuenciaQMC). Cada distribucion entrega la   */
+/* suya con CrearFda.                                                        */
+/*****************************************************************************/
+
+public interface FdaTeorica {
+
+  /************************************************************************/
+  /* P(X <= x)                                                            */
+  /************************************************************************/
+  double Acumulada(double x);
+
+  /************************************************************************/
+  /* P(X > x)                                                             */
+  /************************************************************************/
+  double Cola(double x);
+
+  /************************************************************************/
+  /* El menor x con P(X <= x) >= p, para p en (0,1)                       */
+  /************************************************************************/
+  double Inversa(double p);
+}
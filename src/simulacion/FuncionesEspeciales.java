@@ -0,0 +1,244 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase FuncionesEspeciales: funciones numericas que necesitan las          */
+/* funciones de distribucion y las pruebas de ajuste (gamma incompleta,      */
+/* normal acumulada y las distribuciones de los estadisticos de Kolmogorov-  */
+/* Smirnov y Anderson-Darling). Todas son estaticas y sin estado.            */
+/*****************************************************************************/
+
+public class FuncionesEspeciales {
+
+  private static final double EPS=1e-15;
+  private static final int MAX_ITER=100000;
+
+  /* Coeficientes de Lanczos (g=7, n=9) */
+  private static final double[] LANCZOS={
+     0.99999999999980993, 676.5203681218851, -1259.1392167224028,
+     771.32342877765313, -176.61502916214059, 12.507343278686905,
+     -0.13857109526572012, 9.9843695780195716e-6, 1.5056327351493116e-7 };
+
+  private FuncionesEspeciales()
+  {
+  }
+
+  /************************************************************************/
+  /* ln Gamma(x) para x>0 por la aproximacion de Lanczos                  */
+  /************************************************************************/
+  public static double LnGamma(double x)
+  {
+  if(x<0.5)
+     return Math.log(Math.PI/Math.abs(Math.sin(Math.PI*x)))-LnGamma(1-x);
+  x-=1;
+  double Suma=LANCZOS[0];
+  for(int i=1; i<LANCZOS.length; i++)
+     Suma+=LANCZOS[i]/(x+i);
+  double t=x+7.5;
+  return 0.5*Math.log(2*Math.PI)+(x+0.5)*Math.log(t)-t+Math.log(Suma);
+  }
+
+  /************************************************************************/
+  /* Gamma incompleta regularizada inferior P(a,x)                        */
+  /************************************************************************/
+  public static double GammaInf(double a, double x)
+  {
+  if(x<=0)
+     return 0;
+  if(x<a+1)
+     return SerieGamma(a, x);
+  return 1-FraccionGamma(a, x);
+  }
+
+  /************************************************************************/
+  /* Gamma incompleta regularizada superior Q(a,x)=1-P(a,x), calculada    */
+  /* directamente para no perder precision cuando es chica                */
+  /************************************************************************/
+  public static double GammaSup(double a, double x)
+  {
+  if(x<=0)
+     return 1;
+  if(x<a+1)
+     return 1-SerieGamma(a, x);
+  return FraccionGamma(a, x);
+  }
+
+  /* Serie de P(a,x), converge rapido para x<a+1 */
+  private static double SerieGamma(double a, double x)
+  {
+  double Ap=a, Termino=1/a, Suma=Termino;
+  for(int n=0; n<MAX_ITER; n++){
+     Ap+=1;
+     Termino*=x/Ap;
+     Suma+=Termino;
+     if(Math.abs(Termino)<Math.abs(Suma)*EPS)
+        break;
+  }
+  return Suma*Math.exp(-x+a*Math.log(x)-LnGamma(a));
+  }
+
+  /* Fraccion continua de Q(a,x) por Lentz modificado, para x>=a+1 */
+  private static double FraccionGamma(double a, double x)
+  {
+  final double Chico=1e-300;
+  double b=x+1-a, c=1/Chico, d=1/b, h=d;
+  for(int i=1; i<MAX_ITER; i++){
+     double an=-i*(i-a);
+     b+=2;
+     d=an*d+b;
+     if(Math.abs(d)<Chico)
+        d=Chico;
+     c=b+an/c;
+     if(Math.abs(c)<Chico)
+        c=Chico;
+     d=1/d;
+     double Delta=d*c;
+     h*=Delta;
+     if(Math.abs(Delta-1)<EPS)
+        break;
+  }
+  return Math.exp(-x+a*Math.log(x)-LnGamma(a))*h;
+  }
+
+  /************************************************************************/
+  /* P(Z > z) de la normal estandar con el algoritmo de Hart (West, 2005),*/
+  /* con error relativo del orden de 1e-14 tambien en la cola             */
+  /************************************************************************/
+  public static double ColaNormal(double z)
+  {
+  double Abs=Math.abs(z);
+  double Cola;
+  if(Abs>37)
+     Cola=0;
+  else{
+     double e=Math.exp(-Abs*Abs/2);
+     if(Abs<7.07106781186547){
+        double Num=3.52624965998911e-02*Abs+0.700383064443688;
+        Num=Num*Abs+6.37396220353165;
+        Num=Num*Abs+33.912866078383;
+        Num=Num*Abs+112.079291497871;
+        Num=Num*Abs+221.213596169931;
+        Num=Num*Abs+220.206867912376;
+        double Den=8.83883476483184e-02*Abs+1.75566716318264;
+        Den=Den*Abs+16.064177579207;
+        Den=Den*Abs+86.7807322029461;
+        Den=Den*Abs+296.564248779674;
+        Den=Den*Abs+637.333633378831;
+        Den=Den*Abs+793.826512519948;
+        Den=Den*Abs+440.413735824752;
+        Cola=e*Num/Den;
+     }
+     else{
+        double f=Abs+0.65;
+        f=Abs+4/f;
+        f=Abs+3/f;
+        f=Abs+2/f;
+        f=Abs+1/f;
+        Cola=e/f/2.506628274631;
+     }
+  }
+  return z>0 ? Cola : 1-Cola;
+  }
+
+  /************************************************************************/
+  /* P(Z <= z) de la normal estandar                                      */
+  /************************************************************************/
+  public static double Normal(double z)
+  {
+  return ColaNormal(-z);
+  }
+
+  /************************************************************************/
+  /* Cuantil de la normal estandar: aproximacion racional de Acklam       */
+  /* (error relativo 1.15e-9) y un paso de Halley contra ColaNormal, que  */
+  /* deja el error en el orden de 1e-15                                   */
+  /************************************************************************/
+  public static double InversaNormal(double p)
+  {
+  if(p<=0)
+     return Double.NEGATIVE_INFINITY;
+  if(p>=1)
+     return Double.POSITIVE_INFINITY;
+  double x;
+  if(p<0.02425 || p>1-0.02425){
+     double q=Math.sqrt(-2*Math.log(p<0.5 ? p : 1-p));
+     x=(((((-7.784894002430293e-03*q-3.223964580411365e-01)*q-2.400758277161838e+00)*q
+         -2.549732539343734e+00)*q+4.374664141464968e+00)*q+2.938163982698783e+00)/
+       ((((7.784695709041462e-03*q+3.224671290700398e-01)*q+2.445134137142996e+00)*q
+         +3.754408661907416e+00)*q+1);
+     if(p>0.5)
+        x=-x;
+  }
+  else{
+     double q=p-0.5, r=q*q;
+     x=(((((-3.969683028665376e+01*r+2.209460984245205e+02)*r-2.759285104469687e+02)*r
+         +1.383577518672690e+02)*r-3.066479806614716e+01)*r+2.506628277459239e+00)*q/
+       (((((-5.447609879822406e+01*r+1.615858368580409e+02)*r-1.556989798598866e+02)*r
+         +6.680131188771972e+01)*r-1.328068155288572e+01)*r+1);
+  }
+  /* Halley: el error se mide en la cola mas chica para no perder precision */
+  double e=p<0.5 ? Normal(x)-p : (1-p)-ColaNormal(x);
+  double u=e*Math.sqrt(2*Math.PI)*Math.exp(x*x/2);
+  return x-u/(1+x*u/2);
+  }
+
+  /************************************************************************/
+  /* P(K > Lambda) de la distribucion de Kolmogorov; para Lambda chico se */
+  /* usa la serie de la funcion theta, que converge mejor ahi             */
+  /************************************************************************/
+  public static double ColaKolmogorov(double Lambda)
+  {
+  if(Lambda<=0)
+     return 1;
+  if(Lambda<1.18){
+     double y=-Math.PI*Math.PI/(8*Lambda*Lambda), Suma=0;
+     for(int k=1; k<=9; k+=2)
+        Suma+=Math.exp(k*k*y);
+     return Math.max(0, 1-Math.sqrt(2*Math.PI)/Lambda*Suma);
+  }
+  double Suma=0, Signo=1;
+  for(int k=1; k<=100; k++){
+     double Termino=Math.exp(-2.0*k*k*Lambda*Lambda);
+     Suma+=Signo*Termino;
+     if(Termino<1e-17)
+        break;
+     Signo=-Signo;
+  }
+  return Math.min(1, Math.max(0, 2*Suma));
+  }
+
+  /************************************************************************/
+  /* P(A2 <= z) del estadistico de Anderson-Darling con n observaciones y */
+  /* parametros conocidos (Marsaglia y Marsaglia, 2004): la distribucion  */
+  /* asintotica mas una correccion para n finito                          */
+  /************************************************************************/
+  public static double AndersonDarling(long n, double z)
+  {
+  if(z<=0)
+     return 0;
+  double x=AndersonDarlingInf(z);
+  return Math.min(1, Math.max(0, x+ErrorAD(n, x)));
+  }
+
+  private static double AndersonDarlingInf(double z)
+  {
+  if(z<2)
+     return Math.exp(-1.2337141/z)/Math.sqrt(z)
+            *(2.00012+(0.247105-(0.0649821-(0.0347962-(0.011672-0.00168691*z)*z)*z)*z)*z);
+  return Math.exp(-Math.exp(1.0776-(2.30695-(0.43424-(0.082433-(0.008056-0.0003146*z)*z)*z)*z)*z));
+  }
+
+  private static double ErrorAD(long n, double x)
+  {
+  if(x>0.8)
+     return (-130.2137+(745.2337-(1705.091-(1950.646-(1116.360-255.7844*x)*x)*x)*x)*x)/n;
+  double c=0.01265+0.1757/n;
+  if(x<c){
+     double t=x/c;
+     t=Math.sqrt(t)*(1-t)*(49*t-102);
+     return t*(0.0037/((double)n*n)+0.00078/n+0.00006)/n;
+  }
+  double t=(x-c)/(0.8-c);
+  t=-0.00022633+(6.54034-(14.6538-(14.458-(8.259-1.91864*t)*t)*t)*t)*t;
+  return t*(0.04213/n+0.01365/((double)n*n));
+  }
+}
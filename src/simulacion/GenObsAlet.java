@@ -1,11 +1,9 @@
 package simulacion;
-import java.util.Vector;
 import java.util.Date;
-import java.util.Random;
-import org.opensourcephysics.frames.PlotFrame;
-import org.opensourcephysics.display.*;
-import java.awt.Color;
-import java.util.Enumeration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 import java.io.*;
 
 /*****************************************************************************/
@@ -15,29 +13,135 @@ import java.io.*;
 
   private String Evento;
   private Date FechaCrea;
-  private int CantObs;
+  private long CantObs;
   private int TipoDistr;  
   private double XMax;  
   private double XMin;   
-  private int TotalX;
+  private long TotalX;
+
+  /* Parametros de la distribucion, se guardan una sola vez por corrida */
+  private double ProbFrac;
+  private double Media;
+  private double LimInf;
+  private double LimSup;
+  private double DStd;
+
+  /* Indica si los parametros son conocidos (corrida generada o archivo binario) */
+  private boolean ConParametros;
+
+  /* Motor aleatorio propio de la corrida y la semilla con que se creo */
+  private MotorAleatorio Motor;
+  private long Semilla;
+
+  /* Hilos de generacion; BLOQUE es la cantidad de observaciones por subflujo */
+  private int Hilos=1;
+  public static final int BLOQUE=65536;
+
+  /* Bloques por lote: cada lote termina con un aviso al monitor */
+  private static final int LOTE=64;
+
+  /* Recibe el avance y los momentos parciales de la generacion (puede ser null) */
+  private MonitorGeneracion Monitor;
+
+  /* Maximo de observaciones que caben en el almacen en memoria */
+  public static final long MAX_EN_MEMORIA=Integer.MAX_VALUE-8;
+
+  /* Modo flujo: no se guarda la muestra, solo el resumen en linea. ModoFlujo */
+  /* es el pedido con SetFlujo y Flujo el de la ultima corrida generada, que  */
+  /* tambien va en flujo si no cabe en memoria                                */
+  private boolean ModoFlujo;
+  private boolean Flujo;
+  private File Derrame;
+  private ResumenObs Resumen;
+
+  /* Guardar la columna comprimida por bloques (ver ColumnaComprimida) */
+  private boolean Comprimir;
+
+  /* Regla para la cantidad de clases y el histograma de la muestra en memoria */
+  private int ReglaClases=HistogramaObs.STURGES;
+  private HistogramaObs Histograma;
+
+  /* Ultimas pruebas de ajuste y el tipo de tabla con que se hicieron */
+  private PruebasAjuste Pruebas;
+  private int TipoPruebas;
+
+  /* Metodo de generacion de la normal (ver Nor) */
+  private int MetodoNormal=Nor.ZIGGURAT;
+
+  /* Convencion del soporte de la geometrica (ver Geo) */
+  private int InicioGeo=Geo.INICIO_UNO;
+
+  /* Tabla de la distribucion empirica (codigo 6) */
+  private TablaAlias Tabla;
+
+  /* Muestreador de la corrida, con sus constantes ya calculadas */
+  private Muestreador Muestreo;
+
+  /* Muestreo cuasi Monte Carlo (ver SecuenciaQMC): si TipoQMC no es NINGUNA */
+  /* las observaciones salen de la sucesion por transformacion inversa       */
+  private int TipoQMC=SecuenciaQMC.NINGUNA;
+  private SecuenciaQMC Secuencia;
+  private FdaTeorica FdaQMC;
+
+  /* Tecnica de reduccion de varianza (ver ReduccionVarianza); Reduccion es */
+  /* el modelo del que sale el estimador de cada bloque                     */
+  private int TipoReduccion=ReduccionVarianza.NINGUNA;
+  private ReduccionVarianza Reduccion;
+
+  /* Titulo guardado en el archivo de una corrida abierta */
+  private String TituloArchivo;
   
     /**
    * 
    * Colección de Observaciones aleatorias para una distribucion especifica;
+   * se almacenan como valores primitivos en un arreglo double[].
    */
-  public Vector  ObsDistrib;   
+  public AlmacenObs  ObsDistrib;   
 
 
   /**************************************************************************************/
   /*Constructor de la clase GenObsAlet recibe un codigo de distribucion TipoDist        */
-  /*Que equivale a 1: Geometrica 2: Poisson 3. Uniforme 4. Exponencial 5.Normal         */
+  /*Que equivale a 1: Geometrica 2: Poisson 3.Uniforme 4.Exponencial 5.Normal 6.Empirica*/
   /*Crea ademas un vector de observaciones. CantObs cantidad de observaciones a generar */
   /**************************************************************************************/
   public GenObsAlet(int TipoDistr, int CantObs) 
   {
+  this(TipoDistr, CantObs, MotorAleatorio.SPLITTABLE, MotorAleatorio.SemillaNueva());
+  }
+
+  /**************************************************************************************/
+  /*Constructor que ademas recibe el tipo de motor aleatorio (ver MotorAleatorio) y la  */
+  /*semilla explicita con la que se reproducira la corrida.                             */
+  /**************************************************************************************/
+  public GenObsAlet(int TipoDistr, long CantObs, int TipoMotor, long Semilla) 
+  {
   this.TipoDistr=TipoDistr;
   this.CantObs=CantObs;      
-  this.ObsDistrib=new Vector();
+  this.ObsDistrib=new AlmacenObs();
+  this.Semilla=Semilla;
+  this.Motor=MotorAleatorio.Crear(TipoMotor, Semilla);
+  }
+
+  /**************************************************************************************/
+  /*Constructor de una corrida guardada en formato binario: toma de la cabecera el tipo,*/
+  /*los parametros, la semilla y el motor. Las observaciones las carga ArchivoObs.      */
+  /**************************************************************************************/
+  GenObsAlet(ArchivoObs Cab)
+  {
+  this(Cab.GetTipoDistr(), Cab.GetCantObs(), Cab.GetTipoMotor(), Cab.GetSemilla());
+  this.ProbFrac=Cab.GetProbFrac();
+  this.Media=Cab.GetMedia();
+  this.LimInf=Cab.GetLimInf();
+  this.LimSup=Cab.GetLimSup();
+  this.DStd=Cab.GetDStd();
+  this.InicioGeo=Cab.GetInicioGeo();
+  this.MetodoNormal=Cab.GetMetodoNormal();
+  this.FechaCrea=Cab.GetFecha();
+  this.TituloArchivo=Cab.GetTitulo();
+  this.ConParametros=Cab.GetTipoDistr()!=6;
+  this.Comprimir=Cab.EsComprimido();
+  this.TipoQMC=Cab.GetQMC();
+  this.TipoReduccion=Cab.GetReduccion();
   }
 
   /*************************************************************************************/
@@ -46,16 +150,9 @@ import java.io.*;
   /*************************************************************************************/
   public void GenObsDisc(double ProbFracaso, double Media)
   {  
-  for(int i=0; i<this.CantObs; i++){
-     switch(this.TipoDistr){
-        case 1:
-           this.ObsDistrib.addElement(new Geo(ProbFracaso));           
-           break;
-        case 2:
-           this.ObsDistrib.addElement(new Poi(Media));
-           break;       
-     }
-  }  
+  this.ProbFrac=ProbFracaso;
+  this.Media=Media;
+  Generar();
   }
 
   /************************************************************************/
@@ -66,6 +163,198 @@ import java.io.*;
       return this.TipoDistr;
   }
 
+  /************************************************************************/
+  /* Retornamos la semilla y el motor aleatorio de la corrida             */
+  /************************************************************************/
+
+  public long GetSemilla(){
+      return this.Semilla;
+  }
+
+  public MotorAleatorio GetMotor(){
+      return this.Motor;
+  }
+
+  /************************************************************************/
+  /* Cantidad de hilos para la generacion (1 = secuencial)                */
+  /************************************************************************/
+
+  public void SetHilos(int Hilos){
+      this.Hilos=Math.max(1, Hilos);
+  }
+
+  public int GetHilos(){
+      return this.Hilos;
+  }
+
+  /************************************************************************/
+  /* Activa el modo flujo: la muestra no se guarda en ObsDistrib, solo su */
+  /* resumen (momentos, histograma y cuantiles). Si Derrame no es null las*/
+  /* observaciones se escriben ademas en ese archivo a medida que salen.  */
+  /************************************************************************/
+
+  public void SetFlujo(boolean Flujo, File Derrame){
+      this.ModoFlujo=Flujo;
+      this.Derrame=Flujo ? Derrame : null;
+  }
+
+  /************************************************************************/
+  /* Indica si la ultima corrida se genero en modo flujo                  */
+  /************************************************************************/
+
+  public boolean EsFlujo(){
+      return this.Flujo;
+  }
+
+  /************************************************************************/
+  /* Los archivos binarios que se escriban (Guardar y el derrame del modo */
+  /* flujo) van comprimidos; la compresion corre en hilos de fondo.       */
+  /************************************************************************/
+
+  public void SetComprimir(boolean Comprimir){
+      this.Comprimir=Comprimir;
+  }
+
+  public boolean GetComprimir(){
+      return this.Comprimir;
+  }
+
+  /************************************************************************/
+  /* Elige la sucesion de baja discrepancia de las proximas corridas      */
+  /* (SecuenciaQMC.SOBOL, ...) o SecuenciaQMC.NINGUNA para usar el motor. */
+  /* Con una sucesion toda distribucion se genera con la inversa de su    */
+  /* funcion de distribucion y el bloque b toma los puntos desde          */
+  /* b*BLOQUE, asi el resultado tampoco depende de los hilos.             */
+  /************************************************************************/
+
+  public void SetQMC(int TipoQMC){
+      this.TipoQMC=TipoQMC;
+  }
+
+  public int GetQMC(){
+      return this.TipoQMC;
+  }
+
+  /************************************************************************/
+  /* Elige la tecnica de reduccion de varianza de las proximas corridas   */
+  /* (ReduccionVarianza.ANTITETICAS, ...). Las observaciones salen de la  */
+  /* inversa de la funcion de distribucion y el resumen incluye la media  */
+  /* estimada con su error y el factor de reduccion. No se combina con    */
+  /* el muestreo QMC.                                                     */
+  /************************************************************************/
+
+  public void SetReduccion(int TipoReduccion){
+      this.TipoReduccion=TipoReduccion;
+  }
+
+  public int GetReduccion(){
+      return this.TipoReduccion;
+  }
+
+  /************************************************************************/
+  /* Monitor que recibe el avance de la generacion (null para ninguno)    */
+  /************************************************************************/
+
+  public void SetMonitor(MonitorGeneracion Monitor){
+      this.Monitor=Monitor;
+  }
+
+  /******************************************************************************************/
+  /*Resumen en linea de la corrida (momentos, minimo, maximo y cuantiles). Se calcula       */
+  /*mientras se genera; para una corrida abierta de un archivo se arma la primera vez que   */
+  /*se pide, en una sola pasada por bloques.                                                */
+  /******************************************************************************************/
+  public ResumenObs GetResumen(){
+      if(this.Resumen==null && !this.Flujo)
+         this.Resumen=RecorrerBloques(this.ObsDistrib.GetArreglo(), 0, this.ObsDistrib.GetTamano(), false);
+      return this.Resumen;
+  }
+
+  public long GetCantObs(){
+      return this.CantObs;
+  }
+
+  /******************************************************************************************/
+  /*Momentos teoricos de la distribucion con los parametros de la corrida: media, varianza, */
+  /*asimetria y exceso de curtosis. Retorna null si los parametros no se conocen (corrida   */
+  /*leida de un archivo de texto o empirica sin su tabla).                                  */
+  /******************************************************************************************/
+  public double[] GetMomentosTeoricos()
+  {
+  if(!this.ConParametros)
+     return null;
+  switch(this.TipoDistr){
+     case 1: {
+        double q=this.ProbFrac, p=1-q;
+        if(p<=0 || q<=0)
+           return null;
+        double Med=this.InicioGeo==Geo.INICIO_CERO ? q/p : 1/p;
+        return new double[]{ Med, q/(p*p), (2-p)/Math.sqrt(q), 6+p*p/q };
+     }
+     case 2:
+        if(this.Media<=0)
+           return null;
+        return new double[]{ this.Media, this.Media, 1/Math.sqrt(this.Media), 1/this.Media };
+     case 3: {
+        double Ancho=this.LimSup-this.LimInf;
+        return new double[]{ (this.LimInf+this.LimSup)/2, Ancho*Ancho/12, 0, -1.2 };
+     }
+     case 4:
+        return new double[]{ this.Media, this.Media*this.Media, 2, 6 };
+     case 5:
+        return new double[]{ this.Media, this.DStd*this.DStd, 0, 0 };
+     case 6: {
+        if(this.Tabla==null)
+           return null;
+        double Med=this.Tabla.GetMedia(), M2=0, M3=0, M4=0;
+        for(int i=0; i<this.Tabla.GetNumCategorias(); i++){
+           double d=this.Tabla.GetValor(i)-Med, d2=d*d, p=this.Tabla.GetProbabilidad(i);
+           M2+=p*d2;
+           M3+=p*d2*d;
+           M4+=p*d2*d2;
+        }
+        if(M2==0)
+           return new double[]{ Med, 0, 0, 0 };
+        return new double[]{ Med, M2, M3/Math.pow(M2, 1.5), M4/(M2*M2)-3 };
+     }
+     default:
+        return null;
+  }
+  }
+
+  /******************************************************************************************/
+  /*Genera observaciones de la distribucion empirica (codigo 6) descrita por Tabla          */
+  /******************************************************************************************/
+  public void GenObsEmp(TablaAlias Tabla)
+  {
+     this.Tabla=Tabla;
+     this.Media=Tabla.GetMedia();
+     Generar();
+  }
+
+  public TablaAlias GetTabla(){
+      return this.Tabla;
+  }
+
+  /******************************************************************************************/
+  /*Indica si la distribucion es discreta: Geometrica, Poisson o una empirica de valores    */
+  /*enteros (si se cargo de un archivo se revisan las observaciones).                       */
+  /******************************************************************************************/
+  public boolean EsDiscreta()
+  {
+  if(this.TipoDistr<=2)
+     return true;
+  if(this.TipoDistr!=6)
+     return false;
+  if(this.Tabla!=null)
+     return this.Tabla.EsEntera();
+  double[] Datos=this.ObsDistrib.GetArreglo();
+  for(int i=0; i<this.ObsDistrib.GetTamano(); i++)
+     if(Datos[i]!=Math.rint(Datos[i]))
+        return false;
+  return true;
+  }
+
   /******************************************************************************************/
   /*Generamos una cantidad de observaciones, y se almacenan en la colección de objetos      */
   /* ObsDisTrib, estas observaciones son continuas.                                         */
@@ -73,41 +362,389 @@ import java.io.*;
   /******************************************************************************************/
   public void GenObsCont(double LimInf, double LimSup, double Media, double DStd)
   {
-     for(int i=0; i<this.CantObs; i++){
-     switch(this.TipoDistr){
-        case 3:
-           this.ObsDistrib.addElement(new Uni(LimInf, LimSup));
-           break;
-        case 4:
-           this.ObsDistrib.addElement(new Exp(Media));
-           break;       
-        case 5:
-           this.ObsDistrib.addElement(new Nor(Media, DStd));
+     this.LimInf=LimInf;
+     this.LimSup=LimSup;
+     this.Media=Media;
+     this.DStd=DStd;
+     Generar();
+  }
+
+  /******************************************************************************************/
+  /*Genera las CantObs observaciones por bloques de tamaño BLOQUE. El bloque b usa siempre  */
+  /*el subflujo b del motor de la corrida, por lo que el resultado es identico bit a bit    */
+  /*sin importar cuantos hilos se usen. Con mas de un hilo los bloques se reparten en un    */
+  /*ForkJoinPool; cada bloque escribe en su propio rango del arreglo de observaciones.      */
+  /*Cada corrida es una muestra: reemplaza a las observaciones de la anterior. Si la        */
+  /*corrida es en modo flujo (o no cabe en memoria) se usa GenerarFlujo.                    */
+  /******************************************************************************************/
+  private void Generar()
+  {
+  this.ConParametros=true;
+  this.Histograma=null;
+  this.Pruebas=null;
+  this.Muestreo=CrearMuestreador();
+  this.Secuencia=null;
+  if(this.TipoQMC!=SecuenciaQMC.NINGUNA){
+     SecuenciaQMC Sec=SecuenciaQMC.Crear(this.TipoQMC, this.Semilla);
+     if(this.CantObs>Sec.GetMaxPuntos())
+        throw new IllegalArgumentException(Sec.GetNombre()+": admite hasta "+Sec.GetMaxPuntos()+" observaciones");
+     this.FdaQMC=GetFdaTeorica();
+     this.Secuencia=Sec;
+  }
+  this.Reduccion=null;
+  if(this.TipoReduccion!=ReduccionVarianza.NINGUNA){
+     if(this.Secuencia!=null)
+        throw new IllegalArgumentException("La reduccion de varianza no se combina con el muestreo QMC");
+     this.Reduccion=new ReduccionVarianza(this.TipoReduccion, GetFdaTeorica(), this.CantObs);
+  }
+  this.ObsDistrib.Limpiar();
+  this.Flujo=this.ModoFlujo || this.CantObs>MAX_EN_MEMORIA;
+  if(this.Flujo){
+     GenerarFlujo();
+     return;
+  }
+  this.ObsDistrib.Extender((int)this.CantObs);
+  this.Resumen=RecorrerBloques(this.ObsDistrib.GetArreglo(), 0, (int)this.CantObs, true);
+  }
+
+  /******************************************************************************************/
+  /*Modo flujo: genera la corrida por lotes de bloques sin guardar la muestra. Cada bloque  */
+  /*se resume en su propio ResumenObs y los resumenes se combinan en el orden de los        */
+  /*bloques, asi el resultado tampoco depende de la cantidad de hilos. La memoria usada es  */
+  /*de un bloque por hilo. Si hay archivo de derrame los bloques se escriben en orden.      */
+  /*Como en RecorrerBloques, si el hilo es interrumpido la corrida termina en el ultimo     */
+  /*lote completo y se lanza CancellationException. Un error al escribir el derrame se      */
+  /*lanza como UncheckedIOException para que lo vea quien pidio la corrida.                 */
+  /******************************************************************************************/
+  private void GenerarFlujo()
+  {
+  long Bloques=(this.CantObs+BLOQUE-1)/BLOQUE;
+  int Ranuras=(int)Math.max(1, Math.min(this.Hilos, Bloques));
+  double[][] Buffers=new double[Ranuras][BLOQUE];
+  int[] Cant=new int[Ranuras];
+
+  /* El primer bloque sirve de piloto para fijar el rango y las clases del histograma */
+  int Piloto=Bloques>0 ? GenerarBloque(Buffers[0], 0, 0, null) : 0;
+  MomentosObs Mom=new MomentosObs();
+  Mom.Consumir(Buffers[0], 0, Piloto);
+  double Min=0, Max=1, RIC=0;
+  if(Piloto>0){
+     Min=Mom.GetMin();
+     Max=Mom.GetMax();
+     double[] Orden=java.util.Arrays.copyOf(Buffers[0], Piloto);
+     java.util.Arrays.sort(Orden);
+     RIC=Orden[(3*(Piloto-1))/4]-Orden[(Piloto-1)/4];
+  }
+  double Margen=Max>Min ? (Max-Min)*0.25 : 0.5;
+  double Desde=Min-Margen;
+  if(this.TipoDistr<=2)
+     Desde=Math.max(Desde, 0); /* Geometrica y Poisson no toman valores negativos */
+  HistogramaObs Modelo=DefinirHistograma(EsDiscreta(), this.CantObs,
+                                         Desde, Max+Margen, Mom.GetDesvEst(), RIC);
+  this.Resumen=CrearResumen(Modelo);
+  ResumenObs[] Parciales=new ResumenObs[Ranuras];
+  for(int j=0; j<Ranuras; j++)
+     Parciales[j]=CrearResumen(Modelo);
+
+  EscritorObs Escritor=null;
+  boolean Cancelada=false;
+  IOException ErrorCierre=null;
+  ForkJoinPool Pool=Ranuras>1 ? new ForkJoinPool(Ranuras) : null;
+  try{
+     if(this.Derrame!=null)
+        Escritor=EscritorObs.Crear(this.Derrame, GetCabecera(-1));
+     long Avisado=0;
+     for(long b0=0; b0<Bloques; b0+=Ranuras){
+        int EnLote=(int)Math.min(Ranuras, Bloques-b0);
+        if(Pool==null || EnLote==1){
+           for(int j=0; j<EnLote; j++)
+              ProcesarBloque(Buffers[j], Parciales[j], Cant, j, b0+j);
+        }
+        else
+           Pool.invoke(new TareaLote(Buffers, Parciales, Cant, b0, 0, EnLote));
+        for(int j=0; j<EnLote; j++){
+           if(Escritor!=null)
+              Escritor.Consumir(Buffers[j], 0, Cant[j]);
+           this.Resumen.Combinar(Parciales[j]);
+        }
+        long Hechos=b0+EnLote;
+        if(this.Monitor!=null && (Hechos-Avisado>=LOTE || Hechos==Bloques)){
+           this.Monitor.Progreso(this.Resumen.GetMomentos().GetCantidad(), this.CantObs);
+           this.Monitor.Parcial(this.Resumen.GetMomentos());
+           Avisado=Hechos;
+        }
+        if(Hechos<Bloques && Thread.currentThread().isInterrupted()){
+           this.CantObs=this.Resumen.GetMomentos().GetCantidad();
+           Cancelada=true;
            break;
+        }
      }
-  }     
   }
-  
-  /**************************************************************************/
-  /*Retorna un arreglo bidimensional de objetos con las observaciones hechas*/
-  /**************************************************************************/
+  catch(IOException ioe){
+     if(!Thread.currentThread().isInterrupted())
+        throw new UncheckedIOException(ioe);
+     this.CantObs=this.Resumen.GetMomentos().GetCantidad();
+     Cancelada=true;
+  }
+  catch(UncheckedIOException uioe){
+     /* Un hilo interrumpido cierra el canal del archivo de derrame */
+     if(!Thread.currentThread().isInterrupted())
+        throw uioe;
+     this.CantObs=this.Resumen.GetMomentos().GetCantidad();
+     Cancelada=true;
+  }
+  finally{
+     if(Pool!=null)
+        Pool.shutdown();
+     if(Escritor!=null){
+        try{
+           Escritor.Cerrar();
+        }
+        catch(IOException ioe){
+           ErrorCierre=ioe;
+        }
+     }
+  }
+  if(Cancelada)
+     throw new CancellationException("Cancelado despues de "+this.CantObs+" observaciones");
+  if(ErrorCierre!=null)
+     throw new UncheckedIOException(ErrorCierre);
+  }
+
+  /******************************************************************************************/
+  /*Genera el bloque b en la ranura j y lo resume en su ResumenObs parcial                  */
+  /******************************************************************************************/
+  private void ProcesarBloque(double[] Buffer, ResumenObs Parcial, int[] Cant, int j, long b)
+  {
+  Parcial.Reiniciar();
+  Cant[j]=GenerarBloque(Buffer, 0, b, Parcial.GetReduccion());
+  Parcial.Consumir(Buffer, 0, Cant[j]);
+  }
+
+  /******************************************************************************************/
+  /*Genera las observaciones del bloque b en Datos a partir de la posicion Pos y retorna la */
+  /*cantidad generada (BLOQUE, o menos en el ultimo bloque). Con reduccion de varianza el   */
+  /*estimador del bloque se acumula en Est (null para descartarlo).                         */
+  /******************************************************************************************/
+  private int GenerarBloque(double[] Datos, int Pos, long b, ReduccionVarianza Est)
+  {
+  int Cant=(int)Math.min(BLOQUE, this.CantObs-b*BLOQUE);
+  if(this.Reduccion!=null)
+     (Est!=null ? Est : this.Reduccion.CrearVacio()).Llenar(Datos, Pos, Cant, b*BLOQUE, this.Motor.Subflujo(b));
+  else if(this.Secuencia!=null)
+     this.Secuencia.LlenarInversa(Datos, Pos, Cant, b*BLOQUE, this.FdaQMC);
+  else
+     this.Muestreo.Llenar(Datos, Pos, Cant, this.Motor.Subflujo(b));
+  return Cant;
+  }
+
+  /******************************************************************************************/
+  /*Resumen vacio de una corrida en modo flujo, con el estimador si hay reduccion           */
+  /******************************************************************************************/
+  private ResumenObs CrearResumen(HistogramaObs Modelo)
+  {
+  ResumenObs Res=new ResumenObs(Modelo);
+  Res.SetMuestreo(this.CantObs);
+  if(this.Reduccion!=null)
+     Res.SetReduccion(this.Reduccion.CrearVacio());
+  return Res;
+  }
 
-  public Object[][] GetObser(){ 
-  DistProb AuxElem;
-  Object[][] TablaObs=new Object[this.ObsDistrib.size()][2];
-  int i=0;
-  /*Recorremos la coleccion */
-  for (Enumeration e = this.ObsDistrib.elements() ; e.hasMoreElements(); ) { 
-     if(e.hasMoreElements()){         
-        AuxElem=(DistProb)e.nextElement();
-        TablaObs[i][0]=new Double(i+1);
-        TablaObs[i][1]=new Double(AuxElem.GetObserv()); 
-        i++;
-     }            
+  /******************************************************************************************/
+  /*Crea el muestreador de la distribucion de la corrida. Se crea una vez por corrida y lo  */
+  /*comparten todos los hilos: solo guarda parametros, el estado esta en cada subflujo.     */
+  /******************************************************************************************/
+  private Muestreador CrearMuestreador()
+  {
+  switch(this.TipoDistr){
+     case 1:
+        return Geo.CrearMuestreador(this.ProbFrac, this.InicioGeo);
+     case 2:
+        return Poi.CrearMuestreador(this.Media);
+     case 3:
+        return Uni.CrearMuestreador(this.LimInf, this.LimSup);
+     case 4:
+        return Exp.CrearMuestreador(this.Media);
+     case 5:
+        return Nor.CrearMuestreador(this.Media, this.DStd, this.MetodoNormal);
+     case 6:
+        return this.Tabla;
+  }
+  throw new IllegalStateException("Tipo de distribucion desconocido: "+this.TipoDistr);
+  }
+
+  /******************************************************************************************/
+  /*Funcion de distribucion teorica de la corrida, o null si no se conocen los parametros   */
+  /******************************************************************************************/
+  public FdaTeorica GetFdaTeorica()
+  {
+  if(!this.ConParametros)
+     return null;
+  switch(this.TipoDistr){
+     case 1:
+        return Geo.CrearFda(this.ProbFrac, this.InicioGeo);
+     case 2:
+        return Poi.CrearFda(this.Media);
+     case 3:
+        return Uni.CrearFda(this.LimInf, this.LimSup);
+     case 4:
+        return Exp.CrearFda(this.Media);
+     case 5:
+        return Nor.CrearFda(this.Media, this.DStd);
+     case 6:
+        return this.Tabla!=null ? this.Tabla.CrearFda() : null;
+  }
+  return null;
+  }
+
+  /******************************************************************************************/
+  /*Pruebas de bondad de ajuste de la muestra contra la distribucion teorica: chi-cuadrado  */
+  /*sobre las clases del histograma (DistTipo como en GetHistograma) y, si la muestra esta  */
+  /*en memoria, Kolmogorov-Smirnov y Anderson-Darling. Retorna null si no se conocen los    */
+  /*parametros de la distribucion. El resultado se guarda hasta que cambien los datos.      */
+  /******************************************************************************************/
+  public PruebasAjuste ProbarAjuste(int DistTipo)
+  {
+  if(this.Pruebas!=null && this.TipoPruebas==DistTipo)
+     return this.Pruebas;
+  FdaTeorica F=GetFdaTeorica();
+  if(F==null)
+     return null;
+  boolean Discreta=this.TipoDistr<=2 || this.TipoDistr==6;
+  HistogramaObs Hist=GetHistograma(DistTipo);
+  if(this.Flujo)
+     this.Pruebas=PruebasAjuste.Probar(F, Discreta, Hist, null, 0, this.Hilos);
+  else
+     this.Pruebas=PruebasAjuste.Probar(F, Discreta, Hist, this.ObsDistrib.GetArreglo(),
+                                       this.ObsDistrib.GetTamano(), this.Hilos);
+  this.TipoPruebas=DistTipo;
+  return this.Pruebas;
   }
-  return TablaObs; 
+
+  /******************************************************************************************/
+  /*Tarea ForkJoin que divide el rango de bloques [Desde, Hasta) a la mitad hasta llegar    */
+  /*a un solo bloque, que se genera en el hilo que lo toma.                                 */
+  /******************************************************************************************/
+  private class TareaBloques extends RecursiveTask<ResumenObs> {
+
+     private static final long serialVersionUID=1L;
+
+     private final double[] Datos;
+     private final int Ini, Tam, Desde, Hasta;
+     private final boolean Generar;
+
+     TareaBloques(double[] Datos, int Ini, int Tam, int Desde, int Hasta, boolean Generar){
+        this.Datos=Datos;
+        this.Ini=Ini;
+        this.Tam=Tam;
+        this.Desde=Desde;
+        this.Hasta=Hasta;
+        this.Generar=Generar;
+     }
+
+     protected ResumenObs compute(){
+        if(this.Hasta-this.Desde<=1){
+           int Pos=this.Ini+this.Desde*BLOQUE;
+           ResumenObs Parcial=new ResumenObs();
+           Parcial.SetMuestreo(this.Tam);
+           if(this.Generar && Reduccion!=null)
+              Parcial.SetReduccion(Reduccion.CrearVacio());
+           int Cant=this.Generar ? GenerarBloque(this.Datos, Pos, this.Desde, Parcial.GetReduccion())
+                                 : Math.min(BLOQUE, this.Tam-this.Desde*BLOQUE);
+           Parcial.Consumir(this.Datos, Pos, Math.max(Cant, 0));
+           return Parcial;
+        }
+        int Medio=(this.Desde+this.Hasta)>>>1;
+        TareaBloques Der=new TareaBloques(this.Datos, this.Ini, this.Tam, Medio, this.Hasta, this.Generar);
+        Der.fork();
+        ResumenObs Parcial=new TareaBloques(this.Datos, this.Ini, this.Tam, this.Desde, Medio, this.Generar).compute();
+        Parcial.Combinar(Der.join());
+        return Parcial;
+     }
   }
 
+  /******************************************************************************************/
+  /*Recorre Tam posiciones de Datos desde Ini por bloques, generandolos si Generar es true, */
+  /*y retorna el resumen de todos. Los bloques se procesan en lotes de LOTE; dentro de un   */
+  /*lote los resumenes se combinan siempre con el mismo arbol (mitades del rango) y los de  */
+  /*los lotes en orden, por lo que el resultado no depende de la cantidad de hilos. Al      */
+  /*terminar cada lote se informa al monitor y se revisa si el hilo fue interrumpido; en    */
+  /*ese caso la corrida queda con los lotes ya generados y se lanza CancellationException. */
+  /******************************************************************************************/
+  private ResumenObs RecorrerBloques(double[] Datos, int Ini, int Tam, boolean Generar)
+  {
+  int Bloques=(int)((Tam+(long)BLOQUE-1)/BLOQUE);
+  ForkJoinPool Pool=Bloques>1 ? new ForkJoinPool(Math.max(this.Hilos, 1)) : null;
+  ResumenObs Total=null;
+  try{
+     int b=0;
+     do{
+        int Fin=Math.min(b+LOTE, Bloques);
+        TareaBloques Tarea=new TareaBloques(Datos, Ini, Tam, b, Fin, Generar);
+        ResumenObs Parcial=Pool==null ? Tarea.compute() : Pool.invoke(Tarea);
+        if(Total==null)
+           Total=Parcial;
+        else
+           Total.Combinar(Parcial);
+        b=Fin;
+        int Hechas=(int)Math.min((long)b*BLOQUE, Tam);
+        if(this.Monitor!=null){
+           this.Monitor.Progreso(Hechas, Tam);
+           this.Monitor.Parcial(Total.GetMomentos());
+        }
+        if(b<Bloques && Thread.currentThread().isInterrupted()){
+           if(Generar){
+              this.ObsDistrib.Truncar(Ini+Hechas);
+              this.CantObs=Hechas;
+              this.Resumen=Total;
+           }
+           throw new CancellationException("Cancelado despues de "+Hechas+" de "+Tam+" observaciones");
+        }
+     }while(b<Bloques);
+  }
+  finally{
+     if(Pool!=null)
+        Pool.shutdown();
+  }
+  return Total;
+  }
+
+  /******************************************************************************************/
+  /*Tarea ForkJoin del modo flujo: procesa las ranuras [Desde, Hasta) de un lote que        */
+  /*comienza en el bloque B0.                                                               */
+  /******************************************************************************************/
+  private class TareaLote extends RecursiveAction {
+
+     private static final long serialVersionUID=1L;
+
+     private final double[][] Buffers;
+     private final ResumenObs[] Parciales;
+     private final int[] Cant;
+     private final long B0;
+     private final int Desde, Hasta;
+
+     TareaLote(double[][] Buffers, ResumenObs[] Parciales, int[] Cant, long B0, int Desde, int Hasta){
+        this.Buffers=Buffers;
+        this.Parciales=Parciales;
+        this.Cant=Cant;
+        this.B0=B0;
+        this.Desde=Desde;
+        this.Hasta=Hasta;
+     }
+
+     protected void compute(){
+        if(this.Hasta-this.Desde<=1){
+           int j=this.Desde;
+           ProcesarBloque(this.Buffers[j], this.Parciales[j], this.Cant, j, this.B0+j);
+        }
+        else{
+           int Medio=(this.Desde+this.Hasta)>>>1;
+           invokeAll(new TareaLote(this.Buffers, this.Parciales, this.Cant, this.B0, this.Desde, Medio),
+                     new TareaLote(this.Buffers, this.Parciales, this.Cant, this.B0, Medio, this.Hasta));
+        }
+     }
+  }
+  
   /***************************************************************************/
   /*Carga de datos. Metodo con la responsabilidad de cargar en memoria un    */
   /* arreglo Data de objetos con observaciones.                              */
@@ -115,87 +752,179 @@ import java.io.*;
 
   public void CargarD(Object[] Data)
   {
-  double Dato;
+  this.Histograma=null;
+  this.Pruebas=null;
+  this.Resumen=null;
+  this.ObsDistrib.Reservar(this.ObsDistrib.GetTamano()+Data.length);
   for(int i=0; i<Data.length; i++){
      if(Data[i]!=null){
-        Dato=((Double)Data[i]).doubleValue(); /*Se extrae el dato*/
-        switch(this.TipoDistr){
-           case 1:  /* Se sigue con la codificación del tipo de Distribucion de Prob*/          
-              this.ObsDistrib.addElement(new  Geo( Dato , Dato )); /*Se inserta en la coleccion */
-           break;
-           case 2:            
-              this.ObsDistrib.addElement(new  Poi(Dato, Dato));           
-           break;
-           case 3:             
-              this.ObsDistrib.addElement(new  Uni( Dato ));
-           break;
-           case 4:            
-              this.ObsDistrib.addElement(new Exp(Dato, Dato));
-           break;
-           case 5:             
-              this.ObsDistrib.addElement(new  Nor(Dato));
-           break;
-         }
+        /*Se extrae el dato y se inserta en la coleccion */
+        this.ObsDistrib.Agregar(((Double)Data[i]).doubleValue());
      }
   }
   }
 
+  /**************************************************************************/
+  /*Toma las observaciones y el titulo de una corrida leida de un archivo   */
+  /*de texto; Obs reemplaza al almacen sin copiar los datos.                */
+  /**************************************************************************/
+  void CargarArchivo(AlmacenObs Obs, String Titulo)
+  {
+  this.Histograma=null;
+  this.Pruebas=null;
+  this.Resumen=null;
+  this.ObsDistrib=Obs;
+  this.CantObs=Obs.GetTamano();
+  this.TituloArchivo=Titulo;
+  }
+
   /**************************************************************************/
   /*Metodo responsable de crear la tabla de frecuencia, recibe un parametro */
-  /* para conocer si se realizara */
+  /* para conocer si la distribucion es discreta (1). La tabla se toma del  */
+  /* histograma de la muestra, que se cuenta una sola vez.                  */
   /**************************************************************************/
   public Object[][] CrearTFrec(int DistTipo){
-  double Longitud=this.XMax-this.XMin;  
-  double TamInter=Longitud/9;
-  
-  Object[][] TablaFre=new Object[16][3];
-  int Suma, i=0;
-  DistProb AuxElem;
-  Suma=0;
-
-  for(double x=this.XMin, dx=TamInter; x<=this.XMax; x=x+dx){
-     for (Enumeration e = this.ObsDistrib.elements() ; e.hasMoreElements(); ){
-        if(e.hasMoreElements()){      
-           AuxElem=(DistProb)e.nextElement(); 
-           if(AuxElem.GetObserv()>=x && AuxElem.GetObserv()< (x+dx))
-                  Suma=Suma+1;  
-        }                        
-      }                 
-      if(i<13){        
-        TablaFre[i][0]=new Double(x);
-        TablaFre[i][1]=new Double(x+dx);
-        TablaFre[i][2]=new Double(Suma);
-      }        
-     Suma=0;
-     i++;                  
+  HistogramaObs Hist=GetHistograma(DistTipo);
+  Object[][] TablaFre=new Object[Hist.GetNumClases()][3];
+  for(int i=0; i<Hist.GetNumClases(); i++){
+     TablaFre[i][0]=Double.valueOf(Hist.GetLimInf(i));
+     TablaFre[i][1]=Double.valueOf(Hist.GetLimSup(i));
+     TablaFre[i][2]=Double.valueOf(Hist.GetFrec(i));
   }
   return TablaFre;  
   }
+
+  /**************************************************************************/
+  /*Retorna el histograma de la corrida. En modo flujo es el del resumen;   */
+  /*si no, se cuenta la muestra en una pasada (en paralelo si hay varios    */
+  /*hilos) y se guarda hasta que cambien las observaciones.                 */
+  /**************************************************************************/
+  public HistogramaObs GetHistograma(int DistTipo){
+  if(this.Flujo)
+     return this.Resumen.GetHistograma();
+  if(this.Histograma!=null)
+     return this.Histograma;
+  int Tam=this.ObsDistrib.GetTamano();
+  double[] Datos=this.ObsDistrib.GetArreglo();
+  MomentosObs Mom=GetResumen().GetMomentos();
+  double RIC=0;
+  if(this.ReglaClases==HistogramaObs.FREEDMAN && Tam>0){
+     /* El rango intercuartil solo fija el ancho: basta una submuestra ordenada */
+     int Paso=(Tam+BLOQUE-1)/BLOQUE;
+     double[] Sub=new double[(Tam+Paso-1)/Paso];
+     for(int i=0, j=0; i<Tam; i+=Paso, j++)
+        Sub[j]=Datos[i];
+     java.util.Arrays.sort(Sub);
+     RIC=Sub[(3*(Sub.length-1))/4]-Sub[(Sub.length-1)/4];
+  }
+  HistogramaObs Hist=DefinirHistograma(DistTipo==1, Tam, Tam>0 ? Mom.GetMin() : 0,
+                                       Tam>0 ? Mom.GetMax() : 0, Mom.GetDesvEst(), RIC);
+  if(this.Hilos<=1 || Tam<2*BLOQUE)
+     Hist.Consumir(Datos, 0, Tam);
+  else{
+     ForkJoinPool Pool=new ForkJoinPool(this.Hilos);
+     try{
+        Hist=Pool.invoke(new TareaHistograma(Hist, Datos, 0, Tam));
+     }
+     finally{
+        Pool.shutdown();
+     }
+  }
+  this.Histograma=Hist;
+  return Hist;
+  }
+
+  /**************************************************************************/
+  /*Define los intervalos del histograma sobre [Min, Max] segun la regla de */
+  /*clases. En las distribuciones discretas las clases tienen ancho entero  */
+  /*y quedan centradas en los valores enteros.                              */
+  /**************************************************************************/
+  private HistogramaObs DefinirHistograma(boolean Discreta, long n, double Min, double Max,
+                                          double DesvEst, double RIC){
+  double Ancho=HistogramaObs.AnchoClase(this.ReglaClases, n, Max-Min, DesvEst, RIC);
+  if(Discreta){
+     Ancho=Math.max(1, Math.ceil(Ancho));
+     Min=Math.floor(Min)-0.5;
+     Max=Math.floor(Max)+0.5;
+  }
+  int Clases=(int)Math.max(1, Math.ceil((Max-Min)/Ancho));
+  if(Discreta)
+     Max=Min+Clases*Ancho;
+  return new HistogramaObs(Min, Max, Clases);
+  }
+
+  /******************************************************************************************/
+  /*Tarea ForkJoin que cuenta el rango [Desde, Hasta) de la muestra en un histograma vacio  */
+  /*con los mismos intervalos del modelo y combina los resultados de las dos mitades.       */
+  /******************************************************************************************/
+  private static class TareaHistograma extends RecursiveTask<HistogramaObs> {
+
+     private static final long serialVersionUID=1L;
+
+     private final HistogramaObs Modelo;
+     private final double[] Datos;
+     private final int Desde, Hasta;
+
+     TareaHistograma(HistogramaObs Modelo, double[] Datos, int Desde, int Hasta){
+        this.Modelo=Modelo;
+        this.Datos=Datos;
+        this.Desde=Desde;
+        this.Hasta=Hasta;
+     }
+
+     protected HistogramaObs compute(){
+        if(this.Hasta-this.Desde<=BLOQUE){
+           HistogramaObs Parcial=this.Modelo.CrearVacio();
+           Parcial.Consumir(this.Datos, this.Desde, this.Hasta-this.Desde);
+           return Parcial;
+        }
+        int Medio=(this.Desde+this.Hasta)>>>1;
+        TareaHistograma Izq=new TareaHistograma(this.Modelo, this.Datos, this.Desde, Medio);
+        Izq.fork();
+        HistogramaObs Parcial=new TareaHistograma(this.Modelo, this.Datos, Medio, this.Hasta).compute();
+        Parcial.Combinar(Izq.join());
+        return Parcial;
+     }
+  }
+
+  public void SetMetodoNormal(int MetodoNormal){
+      this.MetodoNormal=MetodoNormal;
+  }
+
+  public int GetMetodoNormal(){
+      return this.MetodoNormal;
+  }
+
+  public void SetInicioGeo(int InicioGeo){
+      this.InicioGeo=InicioGeo;
+  }
+
+  public int GetInicioGeo(){
+      return this.InicioGeo;
+  }
+
+  public void SetReglaClases(int ReglaClases){
+      this.ReglaClases=ReglaClases;
+      this.Histograma=null;
+      this.Pruebas=null;
+  }
+
+  public int GetReglaClases(){
+      return this.ReglaClases;
+  }
+
   /*************************************************************************/
   /* Obtiene la menor y mayor observacion generada                         */
   /*************************************************************************/
 
   public void ObsMaxMin(){
-  DistProb AuxElem;
-  double mayor, menor, numAux;
-  mayor=menor=((DistProb)this.ObsDistrib.firstElement()).GetObserv();
-  /*Recoremos la coleccion de elemntos elementos*/
-  for (Enumeration e = this.ObsDistrib.elements() ; e.hasMoreElements(); ) {     
-     if(e.hasMoreElements())
-     {      
-        AuxElem=(DistProb)e.nextElement();              
-        numAux=AuxElem.GetObserv();        
-        if(numAux>mayor){
-           mayor=numAux;
-        }
-        else{
-           if(numAux<menor)
-              menor=numAux;
-        }             
-    }
-  }  
-  this.XMax=mayor;
-  this.XMin=menor; 
+  MomentosObs Mom=GetResumen().GetMomentos();
+  if(Mom.GetCantidad()==0){
+     this.XMax=this.XMin=0;
+     return;
+  }
+  this.XMax=Mom.GetMax();
+  this.XMin=Mom.GetMin();
   }
 
   /***************************************************************************/
@@ -203,23 +932,12 @@ import java.io.*;
   /*distribución a partir de la distribucion Axumulada de frecuencias        */
   /**************************************************************************/
   public Object[][]  GetPxDis(int TipoDist) {
-  Object[][] TablaFre, TablaPro;
-  TablaFre=GetFxDis(TipoDist);
-  TablaPro=new Object[TablaFre.length][2];
-  double XObs, Prob=0.000, NumeObs=0.0;
-  for(int i=0; i<TablaFre.length; i++)
+  TablaDistribucion Tabla=GetTablaDistribucion(TipoDist);
+  Object[][] TablaPro=new Object[Tabla.GetFilas()][2];
+  for(int i=0; i<Tabla.GetFilas(); i++)
   {
-     if(TablaFre[i][0]!=null){
-        XObs=((Double)TablaFre[i][0]).doubleValue();
-        if(i!=0)
-           NumeObs=((Double)TablaFre[i][1]).doubleValue()-((Double)TablaFre[i-1][1]).doubleValue();
-        else
-           NumeObs=((Double)TablaFre[i][1]).doubleValue();
-        
-        Prob=NumeObs/TotalX;
-        TablaPro[i][0]=new Double(XObs);
-        TablaPro[i][1]=new Double(Prob);
-     }
+     TablaPro[i][0]=Double.valueOf(Tabla.GetYi(i));
+     TablaPro[i][1]=Double.valueOf(Tabla.GetProb(i));
   }
   return TablaPro;
   }
@@ -230,185 +948,163 @@ import java.io.*;
   /******************************************************************************/
 
   public Object[][]  GetFxDis(int TipoDist) {
-  Object[][] TablaFre, TablaFrecA;
-  TablaFre=CrearTFrec(TipoDist);
-  TablaFrecA=new Object[TablaFre.length][2];
-  double LimS, LimI, Suma=0.000;
-  int IndiceNuevo=0;
-  for(int i=0; i<TablaFre.length; i++)
-  {
-     if(TablaFre[i][0]!=null){
-        LimI=((Double)TablaFre[i][0]).doubleValue();
-        LimS=((Double)TablaFre[i][1]).doubleValue();
-        Suma=(((Double)TablaFre[i][2]).doubleValue())+Suma;
-        /*Obtenemos el Yi para la tabla */
-        if(TipoDist==1)
-           TablaFrecA[IndiceNuevo][0]=new Double(Math.round((LimI+LimS)/2));
-        else
-           TablaFrecA[IndiceNuevo][0]=new Double((LimI+LimS)/2.0);
-        /*Sumamos los valores y devolvemos su acumulado */
-        if(i!=0){
-            if(Suma!=((Double)TablaFrecA[(IndiceNuevo-1)][1]).doubleValue()){
-               TablaFrecA[IndiceNuevo][1]=new Double(Suma);
-               IndiceNuevo++;
-            }
-        }
-        else{
-           TablaFrecA[IndiceNuevo][1]=new Double(Suma);
-           IndiceNuevo++;
-        }
-        this.TotalX=new Double(Suma).intValue();
-     }     
+  TablaDistribucion Tabla=GetTablaDistribucion(TipoDist);
+  Object[][] TablaFrecA=new Object[Tabla.GetFilas()][2];
+  for(int i=0; i<Tabla.GetFilas(); i++){
+     TablaFrecA[i][0]=Double.valueOf(Tabla.GetYi(i));
+     TablaFrecA[i][1]=Double.valueOf(Tabla.GetAcum(i));
   }
   return TablaFrecA;
   }
 
+  /******************************************************************************/
+  /*Tabla de frecuencias acumuladas en arreglos primitivos, sin objetos por fila*/
+  /******************************************************************************/
+
+  public TablaDistribucion GetTablaDistribucion(int TipoDist) {
+  TablaDistribucion Tabla=new TablaDistribucion(GetHistograma(TipoDist), TipoDist);
+  this.TotalX=Tabla.GetTotal();
+  return Tabla;
+  }
+
   /************************************************************************/
-  /*Grafica la distribucion de probabilidad a partir tabla de probabilidad*/
+  /*Almacena los resultados obtenidos de las observaciones en el          */
+  /*siguiente archivo de la secuencia de la distribucion (Geo.001,        */
+  /*Geo.002...), en el formato binario (ver ArchivoObs). Monitor recibe   */
+  /*las observaciones escritas. Retorna el archivo; si la escritura falla */
+  /*o se cancela, el archivo reservado se borra.                          */
   /************************************************************************/
-  
-  public void GrafDist(String Titulo, int TipoDist) {
-        Histogram histograma= new Histogram(); 
-        PlotFrame frame = new PlotFrame("Observación", "Probabilidad", Titulo ); 
-        frame.setSize(400, 400);                   
-        Object[][] TablaPro;
-        TablaPro=GetPxDis(TipoDist); /*Obtenemos la tabla de Probabilidad*/
-
-        double XObs;
-        double Prob;
-        for(int i=0; i<TablaPro.length; i++)
-        {   
-            if(TablaPro[i][0]!=null){
-               XObs=((Double)TablaPro[i][0]).doubleValue();
-               Prob=((Double)TablaPro[i][1]).doubleValue();
-               /*Graficamos ya sea un histograma o un valor de puntos continuos*/
-               if(TipoDist==1)
-                  histograma.append( XObs , Prob);
-               else {
-                   frame.append(0, XObs, Prob);                   
-                   frame.setConnected(true);
-                   if(TipoDist==3)
-                     frame.setPreferredMinMax(this.XMin, this.XMax, 0, 1);
-               }
-            }
-        }      
-        histograma.setDiscrete(false);
-        
-        histograma.setBinColor(Color.GREEN, Color.RED);  
-        histograma.setBinWidth(1);
-        frame.setRowNumberVisible(true);
-        frame.addDrawable(histograma);           
-        frame.setVisible(true);         
-  }
-
-   /************************************************************************/
-  /*Grafica la distribucion de probabilidad acumulada                     */
+
+  public File Guardar(MonitorProgreso Monitor) throws IOException {
+      File Archivo=SecuenciaArchivos.Reservar(this.TipoDistr);
+      boolean Listo=false;
+      try{
+         GuardarBinario(Archivo, Monitor);
+         Listo=true;
+      }
+      finally{
+         if(!Listo)
+            Archivo.delete();
+      }
+      return Archivo;
+  }
+
+  /************************************************************************/
+  /*Guarda las observaciones en Archivo en el formato binario             */
   /************************************************************************/
 
-  public void GrafAcum(String Titulo, int TipoDist) {
-       
-        PlotFrame frame = new PlotFrame("Observación", "Probabilidad", Titulo );
-        frame.setSize(400, 400);
-        Object[][] TablaPro;       
-        TablaPro=GetFxDis(TipoDist);   /*Obtenemos la tabla Acumulada */
-        double XObs;
-        double Prob;
-        for(int i=0; i<TablaPro.length; i++)
-        {
-            if(TablaPro[i][0]!=null){
-               XObs=((Double)TablaPro[i][0]).doubleValue();
-               Prob=((Double)TablaPro[i][1]).doubleValue()/this.TotalX;
-               frame.append(0, XObs , Prob);
-               frame.setConnected(true);
+  public void GuardarBinario(File Archivo) throws IOException {
+      GuardarBinario(Archivo, null);
+  }
+
+  /************************************************************************/
+  /*Igual que el anterior; se escribe por tramos y entre uno y otro se    */
+  /*avisa al monitor. Si el hilo es interrumpido se borra el archivo a    */
+  /*medio escribir y se lanza CancellationException.                      */
+  /************************************************************************/
+
+  public void GuardarBinario(File Archivo, MonitorProgreso Monitor) throws IOException {
+      int Tam=this.ObsDistrib.GetTamano();
+      double[] Datos=this.ObsDistrib.GetArreglo();
+      int Tramo=LOTE*BLOQUE;
+      EscritorObs Escritor=EscritorObs.Crear(Archivo, GetCabecera(Tam));
+      boolean Completo=false;
+      try{
+         for(int i=0; i<Tam; i+=Tramo){
+            if(Thread.currentThread().isInterrupted())
+               throw new CancellationException("Se cancelo la escritura de "+Archivo);
+            int Cant=Math.min(Tramo, Tam-i);
+            Escritor.Consumir(Datos, i, Cant);
+            if(Monitor!=null)
+               Monitor.Progreso(i+Cant, Tam);
+         }
+         Completo=true;
+      }
+      finally{
+         if(Completo)
+            Escritor.Cerrar();
+         else{
+            try{
+               Escritor.Cerrar();
             }
-        }       
-        frame.setRowNumberVisible(true);       
-        frame.setVisible(true);
+            catch(IOException ioe){
+            }
+            Archivo.delete();
+         }
+      }
+  }
+
+  /************************************************************************/
+  /*Guarda las observaciones en Archivo en el formato de texto de las     */
+  /*versiones anteriores (ver EscritorTextoObs)                           */
+  /************************************************************************/
+
+  public void GuardarTexto(File Archivo) throws IOException {
+      int Tam=this.ObsDistrib.GetTamano();
+      EscritorTextoObs Escritor=new EscritorTextoObs(Archivo, GetCabecera(Tam));
+      Escritor.Consumir(this.ObsDistrib.GetArreglo(), 0, Tam);
+      Escritor.Cerrar();
   }
 
   /************************************************************************/
-  /*Almacena los resultados obtenidos de las observaciones en un archivo  */
-  /*de texto. Se le proporciona el correlativo de la extencion a generar. */
+  /*Creamos un titulo con los parametros de la distribucion               */
   /************************************************************************/
 
-  public boolean Guardar(int Correlativo){
-      String Ruta="", Titulo="";
-      this.FechaCrea=new Date();
-      /*Creamos un titulo y almacenamos los parametros de estos*/
+  public String GetTitulo(){
+      if(this.TituloArchivo!=null)
+         return this.TituloArchivo;
+      String Titulo="";
       switch(this.TipoDistr){
           case 1:
               Titulo="Resultados Distribución Geometrica -- "+
-                     "Prob Frac. "+ ((Geo)this.ObsDistrib.firstElement()).ProbFrac;
-              Ruta="Geo\\Geo";
+                     "Prob Frac. "+ this.ProbFrac;
               break;
           case 2:
               Titulo="Resultados Distribución Poisson  -- <<Media>>" +
-                      ((Poi)this.ObsDistrib.firstElement()).Media;
-              Ruta="Poi\\Poi";
+                      this.Media;
               break;
           case 3:
               Titulo="Resultados Distribución Uniforme -- <<Lim. Inferior>>  "+
-                       ((Uni)this.ObsDistrib.firstElement()).LimInf +
-                       " <<Lim. Superior>> "+  ((Uni)this.ObsDistrib.firstElement()).LimSup;
-              Ruta="Uni\\Uni";
+                       this.LimInf +
+                       " <<Lim. Superior>> "+  this.LimSup;
               break;
           case 4:
               Titulo="Resultados Distribución Exponencial -- <<Media>>" +
-                      ((Exp)this.ObsDistrib.firstElement()).Media;
-              Ruta="Exp\\Exp";
+                      this.Media;
               break;
           case 5:
               Titulo="Resultados Distribución Normal -- <<Media>> " +
-                       ((Nor)this.ObsDistrib.firstElement()).Media +
-                       " <<Desv. Estandar>>"+((Nor)this.ObsDistrib.firstElement()).DStd;
-                      ;
-              Ruta="Nor\\Nor";
+                       this.Media +
+                       " <<Desv. Estandar>>"+this.DStd;
+              break;
+          case 6:
+              Titulo="Resultados Distribución Empírica -- <<Categorias>> " +
+                       (this.Tabla!=null ? this.Tabla.GetNumCategorias() : 0) +
+                       " <<Media>> "+this.Media;
               break;
       }
-      
-      if(Correlativo<=999){
-          if(Correlativo<10){
-              Ruta=Ruta+".00";
-          }
-          if(Correlativo>=10 & Correlativo<100){
-              Ruta=Ruta+".0";
-          }
-      }
+      if(this.TipoQMC!=SecuenciaQMC.NINGUNA)
+          Titulo+=" -- QMC "+SecuenciaQMC.NOMBRES[this.TipoQMC];
+      if(this.TipoReduccion!=ReduccionVarianza.NINGUNA)
+          Titulo+=" -- "+ReduccionVarianza.NOMBRES[this.TipoReduccion];
+      return Titulo;
+  }
 
-      if(Correlativo<=999){//IF DE VALIACION(SOLO SE PUEDEN GENERAR 999 ARCHIVOS)
-          try//Asigna numero de correlativo y extension
-          {//inicio try
-
-                 String Guardar ="C:\\SimulDP\\ObsData\\"+Ruta+Correlativo;
-                 FileWriter  Guardx=new FileWriter(Guardar);
-                 String Cadena=new String();
-                 Object[][] TablaObs;
-                 TablaObs=GetObser();
-                 double XObs, Prob;
-                 /*Almacenamos un encabezado*/
-                 Guardx.write("/**************************************************/\n");
-                 Guardx.write(""+Titulo+"\n"+this.FechaCrea+"\n"+this.TipoDistr);
-                 Guardx.write("\nArchivo: "+Correlativo);
-                 Guardx.write("\n/************************************************/");
-
-                 /*Guardamos los datos numericos */
-                 for(int i=0; i<TablaObs.length; i++)
-                 {
-                    if(TablaObs[i][0]!=null){
-                       XObs=((Double)TablaObs[i][0]).doubleValue();
-                       Prob=((Double)TablaObs[i][1]).doubleValue();
-                       Cadena="\n"+XObs+"\t"+Prob;
-                       Guardx.write(Cadena);
-                    }
-                }
-                Guardx.close();            
-      }
-      catch(IOException ioe)
-      {
-            System.out.println(ioe);
-      }     
+  /************************************************************************/
+  /*Cabecera del archivo binario de la corrida; CantObs es -1 cuando no   */
+  /*se conoce de antemano (modo flujo) y se completa al cerrar.           */
+  /************************************************************************/
+
+  ArchivoObs GetCabecera(long CantObs){
+      ArchivoObs Cab=new ArchivoObs(this.TipoDistr, CantObs, this.Semilla,
+                                    this.Motor.GetTipo(), GetTitulo());
+      Cab.SetParametros(this.ProbFrac, this.Media, this.LimInf, this.LimSup, this.DStd);
+      Cab.SetMetodos(this.InicioGeo, this.MetodoNormal);
+      Cab.SetCompresion(this.Comprimir);
+      Cab.SetQMC(this.TipoQMC);
+      Cab.SetReduccion(this.TipoReduccion);
+      this.FechaCrea=Cab.GetFecha();
+      return Cab;
   }
-      return true;
-  } 
 
 }
\ No newline at end of file
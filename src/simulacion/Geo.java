@@ -1,21 +1,44 @@
 package simulacion;
-import java.lang.*;
 
 public class Geo extends DistProb {
 
+  /* Convencion del soporte: numero de fracasos (desde 0) o de ensayos (desde 1) */
+  public static final int INICIO_CERO=0;
+  public static final int INICIO_UNO=1;
+
   public double ProbFrac;
   /**************************************************************************/
   /*Clase que genera una observación aleatoria de la distribucion Geometrica */
+  /*q es la probabilidad de fracaso: P(X=k)=(1-q)q^(k-Inicio), k>=Inicio.   */
+  /*Se genera por inversion, X=Inicio+floor(ln U/ln q), con un solo         */
+  /*uniforme y un logaritmo por observacion.                                */
   /**************************************************************************/
   public Geo(double q) 
   {     
+  this(q, null);
+  }
+
+  public Geo(double q, MotorAleatorio Motor) 
+  {     
+  this(q, Motor, INICIO_UNO);
+  }
+
+  public Geo(double q, MotorAleatorio Motor, int Inicio) 
+  {     
+  this(q, InvLogQ(q), Motor, Inicio);
+  }
+
+  /**************************************************************************/
+  /*Igual que el anterior pero con 1/ln(q) ya calculado, para no repetir el */
+  /*logaritmo de q en cada observacion.                                     */
+  /**************************************************************************/
+  public Geo(double q, double InvLogQ, MotorAleatorio Motor, int Inicio) 
+  {     
+  this.Motor=Motor;
   this.ProbFrac=q;
-  double NumAleaR=Aleatorio();
-  if(NumAleaR==0.0000)
-     NumAleaR=0.0001;
-  while(NumAleaR>q) /* Si no se hace esto generaria observaciones para x=0*/
-     NumAleaR=Aleatorio();  
-  this.Observacion=new Double(Math.log(NumAleaR)/Math.log(q)).intValue();
+  double NumAleaR=1-Aleatorio();   /* en (0,1] para que el logaritmo sea finito */
+  this.ProbExito=NumAleaR;
+  this.Observacion=Inicio+Math.floor(Math.log(NumAleaR)*InvLogQ);
   }
 
   /***************************************************************************************/
@@ -27,4 +50,57 @@ public class Geo extends DistProb {
       this.Observacion=Obs;
       this.NumObs=Num;
    }
-}
\ No newline at end of file
+
+  /**************************************************************************/
+  /*Retorna 1/ln(q), la constante de la inversion                           */
+  /**************************************************************************/
+  public static double InvLogQ(double q)
+  {
+  return 1/Math.log(q);
+  }
+
+  /**************************************************************************/
+  /*Muestreador por lotes con 1/ln(q) calculado una sola vez                */
+  /**************************************************************************/
+  public static Muestreador CrearMuestreador(double q, final int Inicio)
+  {
+  final double Inv=InvLogQ(q);
+  return new Muestreador() {
+     public double Muestra(MotorAleatorio Motor){
+        return Inicio+Math.floor(Math.log(1-Motor.SigDouble())*Inv);
+     }
+
+     public void Llenar(double[] Datos, int Ini, int Cant, MotorAleatorio Motor){
+        for(int i=Ini; i<Ini+Cant; i++)
+           Datos[i]=Inicio+Math.floor(Math.log(1-Motor.SigDouble())*Inv);
+     }
+  };
+  }
+
+  /**************************************************************************/
+  /*Funcion de distribucion: P(X<=x)=1-q^(floor(x)-Inicio+1) desde Inicio   */
+  /**************************************************************************/
+  public static FdaTeorica CrearFda(final double q, final int Inicio)
+  {
+  final double LogQ=Math.log(q);
+  return new FdaTeorica() {
+     public double Acumulada(double x){
+        double k=Math.floor(x)-Inicio+1;
+        return k<=0 ? 0 : -Math.expm1(k*LogQ);
+     }
+
+     public double Cola(double x){
+        double k=Math.floor(x)-Inicio+1;
+        return k<=0 ? 1 : Math.exp(k*LogQ);
+     }
+
+     /* El menor k con 1-q^k >= p es ceil(ln(1-p)/ln q) */
+     public double Inversa(double p){
+        double k=Math.max(1, Math.ceil(Math.log1p(-p)/LogQ));
+        if(k>1 && -Math.expm1((k-1)*LogQ)>=p)
+           k--;
+        return Inicio+k-1;
+     }
+  };
+  }
+}
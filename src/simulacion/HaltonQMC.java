@@ -0,0 +1,94 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase HaltonQMC: sucesion de Halton, la dimension d es el inverso radical */
+/* del indice en la base del primo d+1 (2, 3, 5, ...). Sin mezcla se empieza */
+/* en el indice 1, porque el punto 0 es el origen.                           */
+/*                                                                           */
+/* La mezcla de Owen permuta cada digito segun la dimension, la posicion y   */
+/* los digitos anteriores (el nodo del arbol de Owen), tambien despues del   */
+/* ultimo digito del indice, hasta la precision del double. La permutacion   */
+/* de cada nodo es afin, d -> (A d + C) mod base con A distinto de 0, sacada */
+/* de un hash del nodo; en base 2 es la mezcla de Owen completa.             */
+/*****************************************************************************/
+
+public class HaltonQMC extends SecuenciaQMC {
+
+  private static final int[] PRIMOS={ 2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31,
+                                      37, 41, 43, 47, 53, 59, 61, 67, 71, 73 };
+
+  public static final int DIMENSIONES=PRIMOS.length;
+
+  /* Digitos que se permutan en cada base: los que distingue un double */
+  private static final int[] DIGITOS=new int[DIMENSIONES];
+  static{
+     for(int d=0; d<DIMENSIONES; d++)
+        DIGITOS[d]=(int)Math.ceil(53/(Math.log(PRIMOS[d])/Math.log(2)));
+  }
+
+  private final boolean Owen;
+  private final long[] SemillaOwen;
+
+  HaltonQMC(boolean Owen, long Semilla)
+  {
+  this.Owen=Owen;
+  this.SemillaOwen=new long[DIMENSIONES];
+  for(int d=0; d<DIMENSIONES; d++)
+     this.SemillaOwen[d]=SemillaDim(Semilla, d);
+  }
+
+  public int GetDimensiones(){
+      return DIMENSIONES;
+  }
+
+  /* Mas alla de 2^53 el inverso radical en base 2 ya no cabe en un double */
+  public long GetMaxPuntos(){
+      return 1L<<53;
+  }
+
+  public int GetTipo(){
+      return this.Owen ? HALTON_OWEN : HALTON;
+  }
+
+  public double Coordenada(long Indice, int Dim)
+  {
+  Validar(Indice, 1, Dim);
+  if(this.Owen)
+     return Abierto(Mezclado(Indice, Dim));
+  return Radical(Indice+1, PRIMOS[Dim]);
+  }
+
+  /* Inverso radical de n en la base b */
+  private static double Radical(long n, int b)
+  {
+  if(b==2)
+     return (Long.reverse(n)>>>11)*0x1.0p-53;
+  double Inv=1.0/b, Factor=Inv, u=0;
+  while(n>0){
+     u+=(n%b)*Factor;
+     n/=b;
+     Factor*=Inv;
+  }
+  return u;
+  }
+
+  /* Inverso radical con la mezcla anidada de Owen */
+  private double Mezclado(long n, int Dim)
+  {
+  int b=PRIMOS[Dim];
+  double Inv=1.0/b, Factor=Inv, u=0;
+  long Nodo=this.SemillaOwen[Dim];
+  for(int k=0; k<DIGITOS[Dim]; k++){
+     int Digito=(int)(n%b);
+     n/=b;
+     long h=MotorAleatorio.MezclaSplitMix(Nodo+k);
+     int A=1+(int)((h>>>32)%(b-1));
+     int C=(int)((h&0xFFFFFFFFL)%b);
+     u+=((A*Digito+C)%b)*Factor;
+     Factor*=Inv;
+     /* El nodo hijo depende de los digitos originales del prefijo */
+     Nodo=MotorAleatorio.MezclaSplitMix(Nodo^(Digito+1L)*0x9E3779B97F4A7C15L);
+  }
+  return u;
+  }
+}
@@ -0,0 +1,166 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase HistogramaObs: cuenta observaciones en NumClases intervalos de      */
+/* igual ancho sobre [LimInf, LimSup) en una sola pasada. Las observaciones  */
+/* fuera del rango se cuentan aparte (Bajo y Alto) para no perderlas.        */
+/* La cantidad de clases puede elegirse con las reglas de Sturges, Scott o   */
+/* Freedman-Diaconis (ver NumClases).                                        */
+/*****************************************************************************/
+
+public class HistogramaObs implements ConsumidorObs {
+
+  /* Reglas para elegir la cantidad de clases */
+  public static final int STURGES=1;
+  public static final int SCOTT=2;
+  public static final int FREEDMAN=3;
+  public static final String[] NOMBRES_REGLAS={ "Sturges", "Scott", "Freedman-Diaconis" };
+
+  /* Tope de clases para que una regla no genere tablas gigantes */
+  public static final int MAX_CLASES=10000;
+
+  private double LimInf;
+  private double LimSup;
+  private double Ancho;
+  private double Escala;
+  private long[] Frec;
+  private long Bajo, Alto;
+
+  public HistogramaObs(double LimInf, double LimSup, int NumClases)
+  {
+  if(NumClases<1)
+     NumClases=1;
+  if(!(LimSup>LimInf))
+     LimSup=LimInf+1;
+  this.LimInf=LimInf;
+  this.LimSup=LimSup;
+  this.Ancho=(LimSup-LimInf)/NumClases;
+  this.Escala=NumClases/(LimSup-LimInf);
+  this.Frec=new long[NumClases];
+  }
+
+  /************************************************************************/
+  /* Retorna un histograma vacio con los mismos intervalos que este; se   */
+  /* usa para que cada hilo cuente por separado y luego se combinen.      */
+  /************************************************************************/
+  public HistogramaObs CrearVacio()
+  {
+  return new HistogramaObs(this.LimInf, this.LimSup, this.Frec.length);
+  }
+
+  /************************************************************************/
+  /* Cantidad de clases para n observaciones en un rango dado segun la    */
+  /* regla elegida:                                                       */
+  /*   Sturges:           1+log2(n)                                       */
+  /*   Scott:             ancho 3.49*DesvEst*n^(-1/3)                     */
+  /*   Freedman-Diaconis: ancho 2*RIC*n^(-1/3), RIC rango intercuartil    */
+  /* Si el ancho resulta nulo (datos constantes) se usa Sturges.          */
+  /************************************************************************/
+  public static int NumClases(int Regla, long n, double Rango, double DesvEst, double RIC)
+  {
+  return (int)Math.ceil(Rango/AnchoClase(Regla, n, Rango, DesvEst, RIC));
+  }
+
+  public static double AnchoClase(int Regla, long n, double Rango, double DesvEst, double RIC)
+  {
+  if(n<1)
+     n=1;
+  double Ancho=0;
+  switch(Regla){
+     case SCOTT:
+        Ancho=3.49*DesvEst/Math.cbrt(n);
+        break;
+     case FREEDMAN:
+        Ancho=2*RIC/Math.cbrt(n);
+        break;
+  }
+  if(!(Rango>0))
+     return 1;
+  if(!(Ancho>0))
+     Ancho=Rango/(Math.ceil(Math.log(n)/Math.log(2))+1);
+  if(Rango/Ancho>MAX_CLASES)
+     Ancho=Rango/MAX_CLASES;
+  return Ancho;
+  }
+
+  public void Agregar(double x)
+  {
+  if(x<this.LimInf){
+     this.Bajo++;
+     return;
+  }
+  int i=(int)((x-this.LimInf)*this.Escala);
+  if(i>=this.Frec.length){
+     if(x<=this.LimSup)
+        i=this.Frec.length-1; /* El limite superior entra en la ultima clase */
+     else{
+        this.Alto++;
+        return;
+     }
+  }
+  this.Frec[i]++;
+  }
+
+  public void Consumir(double[] Datos, int Ini, int Cant)
+  {
+  for(int i=Ini; i<Ini+Cant; i++)
+     Agregar(Datos[i]);
+  }
+
+  /************************************************************************/
+  /* Suma las frecuencias de Otro, que debe tener los mismos intervalos   */
+  /************************************************************************/
+  public void Combinar(HistogramaObs Otro)
+  {
+  if(Otro.Frec.length!=this.Frec.length || Otro.LimInf!=this.LimInf || Otro.LimSup!=this.LimSup)
+     throw new IllegalArgumentException("Los histogramas no tienen los mismos intervalos");
+  for(int i=0; i<this.Frec.length; i++)
+     this.Frec[i]+=Otro.Frec[i];
+  this.Bajo+=Otro.Bajo;
+  this.Alto+=Otro.Alto;
+  }
+
+  public void Reiniciar()
+  {
+  java.util.Arrays.fill(this.Frec, 0);
+  this.Bajo=this.Alto=0;
+  }
+
+  public int GetNumClases(){
+      return this.Frec.length;
+  }
+
+  public double GetLimInf(int i){
+      return this.LimInf+i*this.Ancho;
+  }
+
+  public double GetLimSup(int i){
+      return i==this.Frec.length-1 ? this.LimSup : this.LimInf+(i+1)*this.Ancho;
+  }
+
+  public double GetAncho(){
+      return this.Ancho;
+  }
+
+  public long GetFrec(int i){
+      return this.Frec[i];
+  }
+
+  public long GetBajo(){
+      return this.Bajo;
+  }
+
+  public long GetAlto(){
+      return this.Alto;
+  }
+
+  /************************************************************************/
+  /* Total de observaciones dentro del rango del histograma               */
+  /************************************************************************/
+  public long GetTotal(){
+      long Total=0;
+      for(int i=0; i<this.Frec.length; i++)
+         Total+=this.Frec[i];
+      return Total;
+  }
+}
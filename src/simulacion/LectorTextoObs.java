@@ -0,0 +1,377 @@
+package simulacion;
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/*****************************************************************************/
+/* Clase LectorTextoObs: lee los archivos de observaciones en el formato de  */
+/* texto de las versiones anteriores en una sola pasada. El archivo se lee   */
+/* por un FileChannel con un buffer grande y cada linea "i<TAB>x" se         */
+/* convierte sin crear Strings: ParsearDouble trabaja sobre los bytes y el   */
+/* valor va directo al AlmacenObs. Las seis primeras lineas son el           */
+/* encabezado (titulo en la linea 1, tipo de distribucion en la 3 y, desde   */
+/* que existen los motores, semilla y motor en la 4, seguidos de la sucesion */
+/* QMC y la reduccion de varianza si la corrida las uso).                    */
+/*****************************************************************************/
+
+public class LectorTextoObs {
+
+  private static final int TAM_BUFFER=1<<20;
+  private static final int LINEAS_ENCABEZADO=6;
+
+  private String Titulo="";
+  private int TipoDistr;
+  private long Semilla;
+  private int TipoMotor;   /* 0 si el archivo no indica el motor */
+  private int TipoQMC=SecuenciaQMC.NINGUNA;
+  private int TipoReduccion=ReduccionVarianza.NINGUNA;
+
+  /************************************************************************/
+  /* Lee el archivo al final de Destino. Monitor puede ser null; si no,   */
+  /* recibe los bytes leidos de cada buffer sobre el largo del archivo.   */
+  /************************************************************************/
+  public void Leer(File Archivo, AlmacenObs Destino, MonitorProgreso Monitor) throws IOException
+  {
+  try(FileChannel Canal=FileChannel.open(Archivo.toPath())){
+     long Largo=Canal.size(), Leidos=0;
+     /* Una linea "i<TAB>x" ocupa unos 25 bytes; se reserva de una vez */
+     Destino.Reservar((int)Math.min(GenObsAlet.MAX_EN_MEMORIA, Destino.GetTamano()+Largo/25));
+     ByteBuffer Buf=ByteBuffer.allocate(TAM_BUFFER);
+     byte[] b=Buf.array();
+     int Linea=0;
+     boolean Fin=false;
+     while(!Fin){
+        int n=Canal.read(Buf);
+        if(n<0){
+           Fin=true;
+           if(Buf.position()==0)
+              break;
+           Buf.put((byte)'\n');   /* la ultima linea no trae salto */
+        }
+        else
+           Leidos+=n;
+        int Tope=Buf.position(), Ini=0;
+        for(int i=0; i<Tope; i++){
+           if(b[i]!='\n')
+              continue;
+           int FinLinea=(i>Ini && b[i-1]=='\r') ? i-1 : i;
+           if(Linea<LINEAS_ENCABEZADO)
+              Encabezado(Linea, new String(b, Ini, FinLinea-Ini, Charset.defaultCharset()));
+           else if(FinLinea>Ini)
+              Destino.Agregar(ParsearDato(b, Ini, FinLinea, Linea));
+           Linea++;
+           Ini=i+1;
+        }
+        if(Ini==0 && Tope==b.length)
+           throw new IOException(Archivo+": linea "+(Linea+1)+" demasiado larga");
+        /* La linea incompleta pasa al inicio del buffer */
+        Buf.position(Ini);
+        Buf.limit(Tope);
+        Buf.compact();
+        if(Monitor!=null)
+           Monitor.Progreso(Leidos, Largo);
+     }
+  }
+  }
+
+  /************************************************************************/
+  /* Lee solo el encabezado y cuenta las lineas de datos sin convertirlas */
+  /* (para el catalogo de archivos). Retorna la cantidad de observaciones */
+  /************************************************************************/
+  public long LeerEncabezado(File Archivo) throws IOException
+  {
+  try(FileChannel Canal=FileChannel.open(Archivo.toPath())){
+     ByteBuffer Buf=ByteBuffer.allocate(TAM_BUFFER);
+     byte[] b=Buf.array();
+     int Linea=0;
+     long Cant=0;
+     boolean Vacia=true;
+     ByteArrayOutputStream Texto=new ByteArrayOutputStream();
+     int n;
+     while((n=Canal.read(Buf))>=0){
+        for(int i=0; i<n; i++){
+           byte c=b[i];
+           if(c=='\n'){
+              if(Linea<LINEAS_ENCABEZADO){
+                 byte[] Lin=Texto.toByteArray();
+                 int Fin=Lin.length>0 && Lin[Lin.length-1]=='\r' ? Lin.length-1 : Lin.length;
+                 Encabezado(Linea, new String(Lin, 0, Fin, Charset.defaultCharset()));
+                 Texto.reset();
+              }
+              else if(!Vacia)
+                 Cant++;
+              Linea++;
+              Vacia=true;
+           }
+           else if(Linea<LINEAS_ENCABEZADO)
+              Texto.write(c);
+           else if(c!='\r')
+              Vacia=false;
+        }
+        Buf.clear();
+     }
+     if(Linea>=LINEAS_ENCABEZADO && !Vacia)
+        Cant++;
+     return Cant;
+  }
+  }
+
+  /************************************************************************/
+  /* Toma los datos de la corrida de las lineas del encabezado            */
+  /************************************************************************/
+  private void Encabezado(int Linea, String Texto)
+  {
+  switch(Linea){
+     case 1:
+        this.Titulo=Texto;
+        break;
+     case 3:
+        this.TipoDistr=Integer.parseInt(Texto.trim());
+        break;
+     case 4:
+        /* "Archivo: n<TAB>Semilla: s<TAB>Motor: nombre[<TAB>QMC: nombre][<TAB>Reduccion: nombre]" */
+        String[] Campos=Texto.split("\t");
+        for(int i=0; i<Campos.length; i++){
+           if(Campos[i].startsWith("Semilla: "))
+              this.Semilla=Long.parseLong(Campos[i].substring(9).trim());
+           if(Campos[i].startsWith("Motor: ")){
+              try{
+                 this.TipoMotor=MotorAleatorio.TipoDeNombre(Campos[i].substring(7).trim());
+              }
+              catch(IllegalArgumentException iae){
+                 this.TipoMotor=0;
+              }
+           }
+           if(Campos[i].startsWith("QMC: "))
+              this.TipoQMC=SecuenciaQMC.TipoDeNombre(Campos[i].substring(5).trim());
+           if(Campos[i].startsWith("Reduccion: "))
+              this.TipoReduccion=ReduccionVarianza.TipoDeNombre(Campos[i].substring(11).trim());
+        }
+        break;
+  }
+  }
+
+  /************************************************************************/
+  /* Valor de una linea de datos: lo que sigue al tabulador, o la linea   */
+  /* completa si no lo hay                                                */
+  /************************************************************************/
+  private static double ParsearDato(byte[] b, int Ini, int Fin, int Linea) throws IOException
+  {
+  for(int i=Ini; i<Fin; i++){
+     if(b[i]=='\t'){
+        Ini=i+1;
+        break;
+     }
+  }
+  while(Fin>Ini && (b[Fin-1]==' ' || b[Fin-1]=='\t'))
+     Fin--;
+  try{
+     return ParsearDouble(b, Ini, Fin);
+  }
+  catch(NumberFormatException nfe){
+     throw new IOException("Linea "+(Linea+1)+": valor invalido", nfe);
+  }
+  }
+
+  /************************************************************************/
+  /* Convierte los bytes [Ini, Fin) en un double con el mismo resultado   */
+  /* que Double.parseDouble. Se junta la mantisa decimal (hasta 19        */
+  /* digitos) en un long y se prueba primero el camino rapido de Clinger  */
+  /* (mantisa y potencia de 10 exactas en double) y luego el algoritmo de */
+  /* Eisel-Lemire, que multiplica por una potencia de 5 de 128 bits. Los  */
+  /* casos que ninguno resuelve con certeza (empates, subnormales, mas de */
+  /* 19 digitos, NaN, Infinity) pasan a Double.parseDouble.               */
+  /************************************************************************/
+  public static double ParsearDouble(byte[] b, int Ini, int Fin)
+  {
+  int i=Ini;
+  boolean Negativo=false;
+  if(i<Fin && (b[i]=='-' || b[i]=='+')){
+     Negativo=b[i]=='-';
+     i++;
+  }
+  long Mantisa=0;
+  int Digitos=0, Exp10=0;
+  boolean HayDigitos=false;
+  while(i<Fin && b[i]>='0' && b[i]<='9'){
+     HayDigitos=true;
+     if(Mantisa!=0 || b[i]!='0'){
+        if(Digitos<19)
+           Mantisa=Mantisa*10+(b[i]-'0');
+        else
+           Exp10++;   /* se pierde el digito: ya no es exacto */
+        Digitos++;
+     }
+     i++;
+  }
+  if(i<Fin && b[i]=='.'){
+     i++;
+     while(i<Fin && b[i]>='0' && b[i]<='9'){
+        HayDigitos=true;
+        if(Mantisa!=0 || b[i]!='0'){
+           if(Digitos<19){
+              Mantisa=Mantisa*10+(b[i]-'0');
+              Exp10--;
+           }
+           Digitos++;
+        }
+        else
+           Exp10--;
+        i++;
+     }
+  }
+  if(HayDigitos && i<Fin && (b[i]=='e' || b[i]=='E')){
+     i++;
+     boolean ExpNeg=false;
+     if(i<Fin && (b[i]=='-' || b[i]=='+')){
+        ExpNeg=b[i]=='-';
+        i++;
+     }
+     int Exp=0;
+     boolean HayExp=false;
+     while(i<Fin && b[i]>='0' && b[i]<='9'){
+        HayExp=true;
+        if(Exp<100000)
+           Exp=Exp*10+(b[i]-'0');
+        i++;
+     }
+     if(!HayExp)
+        return Lento(b, Ini, Fin);
+     Exp10+=ExpNeg ? -Exp : Exp;
+  }
+  if(!HayDigitos || i!=Fin || Digitos>19)
+     return Lento(b, Ini, Fin);
+  if(Mantisa==0)
+     return Negativo ? -0.0 : 0.0;
+
+  /* Camino rapido de Clinger */
+  if(Mantisa>0 && Mantisa<=(1L<<53) && Exp10>=-22 && Exp10<=22){
+     double x=Mantisa;
+     x=Exp10<0 ? x/POT10[-Exp10] : x*POT10[Exp10];
+     return Negativo ? -x : x;
+  }
+  long Bits=EiselLemire(Mantisa, Exp10);
+  if(Bits<0)
+     return Lento(b, Ini, Fin);
+  double x=Double.longBitsToDouble(Bits);
+  return Negativo ? -x : x;
+  }
+
+  private static double Lento(byte[] b, int Ini, int Fin)
+  {
+  return Double.parseDouble(new String(b, Ini, Fin-Ini, java.nio.charset.StandardCharsets.ISO_8859_1));
+  }
+
+  /************************************************************************/
+  /* Eisel-Lemire para Mantisa*10^Exp10 (Mantisa sin signo, no nula).     */
+  /* Retorna los bits del double positivo, o -1 si el resultado no puede  */
+  /* decidirse con 128 bits y hay que usar el camino lento.               */
+  /************************************************************************/
+  private static long EiselLemire(long Mantisa, int Exp10)
+  {
+  if(Exp10<MIN_EXP10 || Exp10>MAX_EXP10)
+     return -1;
+  int Clz=Long.numberOfLeadingZeros(Mantisa);
+  long Man=Mantisa<<Clz;
+  long Exp2=((217706L*Exp10)>>16)+64+1023-Clz;
+  int k=Exp10-MIN_EXP10;
+  long XHi=MulAlta(Man, POT5_ALTA[k]);
+  long XLo=Man*POT5_ALTA[k];
+  if((XHi&0x1FF)==0x1FF && Long.compareUnsigned(XLo+Man, Man)<0){
+     long YHi=MulAlta(Man, POT5_BAJA[k]);
+     long YLo=Man*POT5_BAJA[k];
+     long MHi=XHi, MLo=XLo+YHi;
+     if(Long.compareUnsigned(MLo, XLo)<0)
+        MHi++;
+     if((MHi&0x1FF)==0x1FF && MLo+1==0 && Long.compareUnsigned(YLo+Man, Man)<0)
+        return -1;
+     XHi=MHi;
+     XLo=MLo;
+  }
+  long Msb=XHi>>>63;
+  long Res=XHi>>>(Msb+9);
+  Exp2-=1^Msb;
+  if(XLo==0 && (XHi&0x1FF)==0 && (Res&3)==1)
+     return -1;   /* empate exacto entre dos doubles */
+  Res+=Res&1;
+  Res>>>=1;
+  if((Res>>>53)>0){
+     Res>>>=1;
+     Exp2++;
+  }
+  if(Exp2-1<0 || Exp2-1>=0x7FF-1)
+     return -1;   /* subnormal, cero o infinito */
+  return (Exp2<<52)|(Res&0x000FFFFFFFFFFFFFL);
+  }
+
+  /************************************************************************/
+  /* Parte alta del producto sin signo de 64x64 bits                      */
+  /************************************************************************/
+  private static long MulAlta(long a, long b)
+  {
+  long a0=a&0xFFFFFFFFL, a1=a>>>32, b0=b&0xFFFFFFFFL, b1=b>>>32;
+  long p01=a0*b1, p10=a1*b0;
+  long Medio=((a0*b0)>>>32)+(p01&0xFFFFFFFFL)+(p10&0xFFFFFFFFL);
+  return a1*b1+(p01>>>32)+(p10>>>32)+(Medio>>>32);
+  }
+
+  /* Potencias exactas de 10 para el camino rapido */
+  private static final double[] POT10=new double[23];
+
+  /* 5^q normalizado a 128 bits (truncado para q>=0, por exceso para q<0) */
+  private static final int MIN_EXP10=-342;
+  private static final int MAX_EXP10=308;
+  private static final long[] POT5_ALTA=new long[MAX_EXP10-MIN_EXP10+1];
+  private static final long[] POT5_BAJA=new long[MAX_EXP10-MIN_EXP10+1];
+
+  static {
+     POT10[0]=1;
+     for(int i=1; i<POT10.length; i++)
+        POT10[i]=POT10[i-1]*10;
+     BigInteger Dos128=BigInteger.ONE.shiftLeft(128);
+     for(int q=MIN_EXP10; q<=MAX_EXP10; q++){
+        BigInteger c;
+        if(q<0){
+           BigInteger p=BigInteger.valueOf(5).pow(-q);
+           int z=p.bitLength();
+           int Bits=q>=-27 ? z+127 : 2*z+128;
+           c=BigInteger.ONE.shiftLeft(Bits).divide(p).add(BigInteger.ONE);
+           while(c.compareTo(Dos128)>=0)
+              c=c.shiftRight(1);
+        }
+        else{
+           c=BigInteger.valueOf(5).pow(q);
+           int Largo=c.bitLength();
+           c=Largo<128 ? c.shiftLeft(128-Largo) : c.shiftRight(Largo-128);
+        }
+        POT5_ALTA[q-MIN_EXP10]=c.shiftRight(64).longValue();
+        POT5_BAJA[q-MIN_EXP10]=c.longValue();
+     }
+  }
+
+  public String GetTitulo(){
+      return this.Titulo;
+  }
+
+  public int GetTipoDistr(){
+      return this.TipoDistr;
+  }
+
+  public long GetSemilla(){
+      return this.Semilla;
+  }
+
+  public int GetTipoMotor(){
+      return this.TipoMotor;
+  }
+
+  public int GetQMC(){
+      return this.TipoQMC;
+  }
+
+  public int GetReduccion(){
+      return this.TipoReduccion;
+  }
+}
@@ -0,0 +1,170 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase MomentosObs: media, varianza, asimetria y curtosis calculadas en    */
+/* linea (Welford/Terriberry), ademas del minimo y maximo exactos. Ocupa     */
+/* memoria constante y dos acumuladores pueden combinarse (Chan/Pebay), por  */
+/* lo que cada hilo puede llevar el suyo y unirlos al final.                 */
+/*****************************************************************************/
+
+public class MomentosObs implements ConsumidorObs {
+
+  private long Cantidad;
+  private double Media, M2, M3, M4;
+  private double Min=Double.POSITIVE_INFINITY;
+  private double Max=Double.NEGATIVE_INFINITY;
+
+  /************************************************************************/
+  /* Agrega una observacion a los acumuladores                            */
+  /************************************************************************/
+  public void Agregar(double x)
+  {
+  long n1=this.Cantidad;
+  long n=++this.Cantidad;
+  double Delta=x-this.Media;
+  double DeltaN=Delta/n;
+  double DeltaN2=DeltaN*DeltaN;
+  double Term1=Delta*DeltaN*n1;
+  this.Media+=DeltaN;
+  this.M4+=Term1*DeltaN2*((double)n*n-3.0*n+3)+6*DeltaN2*this.M2-4*DeltaN*this.M3;
+  this.M3+=Term1*DeltaN*(n-2)-3*DeltaN*this.M2;
+  this.M2+=Term1;
+  if(x<this.Min)
+     this.Min=x;
+  if(x>this.Max)
+     this.Max=x;
+  }
+
+  /************************************************************************/
+  /* Un bloque grande se resume aparte en dos pasadas sobre el bloque,    */
+  /* que ya esta en cache (media y luego sumas centradas), y se combina   */
+  /* con Combinar; evita una division por observacion y es mas exacto.   */
+  /************************************************************************/
+  public void Consumir(double[] Datos, int Ini, int Cant)
+  {
+  if(Cant<64){
+     for(int i=Ini; i<Ini+Cant; i++)
+        Agregar(Datos[i]);
+     return;
+  }
+  double Suma=0, Min=Double.POSITIVE_INFINITY, Max=Double.NEGATIVE_INFINITY;
+  for(int i=Ini; i<Ini+Cant; i++){
+     double x=Datos[i];
+     Suma+=x;
+     if(x<Min)
+        Min=x;
+     if(x>Max)
+        Max=x;
+  }
+  double Media=Suma/Cant, S2=0, S3=0, S4=0;
+  for(int i=Ini; i<Ini+Cant; i++){
+     double d=Datos[i]-Media, d2=d*d;
+     S2+=d2;
+     S3+=d2*d;
+     S4+=d2*d2;
+  }
+  MomentosObs Bloque=new MomentosObs();
+  Bloque.Cantidad=Cant;
+  Bloque.Media=Media;
+  Bloque.M2=S2;
+  Bloque.M3=S3;
+  Bloque.M4=S4;
+  Bloque.Min=Min;
+  Bloque.Max=Max;
+  Combinar(Bloque);
+  }
+
+  /************************************************************************/
+  /* Combina los acumuladores de Otro con los de este objeto              */
+  /************************************************************************/
+  public void Combinar(MomentosObs Otro)
+  {
+  if(Otro.Cantidad==0)
+     return;
+  if(this.Cantidad==0){
+     Copiar(Otro);
+     return;
+  }
+  double na=this.Cantidad, nb=Otro.Cantidad, n=na+nb;
+  double Delta=Otro.Media-this.Media;
+  double D2=Delta*Delta, D3=D2*Delta, D4=D2*D2;
+  double Media=this.Media+Delta*nb/n;
+  double M2=this.M2+Otro.M2+D2*na*nb/n;
+  double M3=this.M3+Otro.M3+D3*na*nb*(na-nb)/(n*n)
+            +3*Delta*(na*Otro.M2-nb*this.M2)/n;
+  double M4=this.M4+Otro.M4+D4*na*nb*(na*na-na*nb+nb*nb)/(n*n*n)
+            +6*D2*(na*na*Otro.M2+nb*nb*this.M2)/(n*n)
+            +4*Delta*(na*Otro.M3-nb*this.M3)/n;
+  this.Cantidad+=Otro.Cantidad;
+  this.Media=Media;
+  this.M2=M2;
+  this.M3=M3;
+  this.M4=M4;
+  this.Min=Math.min(this.Min, Otro.Min);
+  this.Max=Math.max(this.Max, Otro.Max);
+  }
+
+  private void Copiar(MomentosObs Otro)
+  {
+  this.Cantidad=Otro.Cantidad;
+  this.Media=Otro.Media;
+  this.M2=Otro.M2;
+  this.M3=Otro.M3;
+  this.M4=Otro.M4;
+  this.Min=Otro.Min;
+  this.Max=Otro.Max;
+  }
+
+  public void Reiniciar()
+  {
+  this.Cantidad=0;
+  this.Media=this.M2=this.M3=this.M4=0;
+  this.Min=Double.POSITIVE_INFINITY;
+  this.Max=Double.NEGATIVE_INFINITY;
+  }
+
+  public long GetCantidad(){
+      return this.Cantidad;
+  }
+
+  public double GetMedia(){
+      return this.Media;
+  }
+
+  /************************************************************************/
+  /* Varianza muestral (divisor n-1)                                      */
+  /************************************************************************/
+  public double GetVarianza(){
+      return this.Cantidad>1 ? this.M2/(this.Cantidad-1) : 0;
+  }
+
+  public double GetDesvEst(){
+      return Math.sqrt(GetVarianza());
+  }
+
+  /************************************************************************/
+  /* Coeficiente de asimetria g1 = sqrt(n) M3 / M2^1.5                    */
+  /************************************************************************/
+  public double GetAsimetria(){
+      if(this.M2==0)
+         return 0;
+      return Math.sqrt((double)this.Cantidad)*this.M3/Math.pow(this.M2, 1.5);
+  }
+
+  /************************************************************************/
+  /* Exceso de curtosis g2 = n M4 / M2^2 - 3                              */
+  /************************************************************************/
+  public double GetCurtosis(){
+      if(this.M2==0)
+         return 0;
+      return (double)this.Cantidad*this.M4/(this.M2*this.M2)-3;
+  }
+
+  public double GetMin(){
+      return this.Min;
+  }
+
+  public double GetMax(){
+      return this.Max;
+  }
+}
@@ -0,0 +1,17 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Interfaz MonitorGeneracion: ademas del avance recibe los momentos de lo   */
+/* generado hasta el momento, cada vez que termina un lote de bloques. Se    */
+/* llama en el hilo que genera y los momentos siguen cambiando despues de la */
+/* llamada: quien la implemente debe copiar lo que necesite antes de         */
+/* retornar. La generacion se cancela interrumpiendo ese hilo.               */
+/*****************************************************************************/
+
+public interface MonitorGeneracion extends MonitorProgreso {
+
+  /************************************************************************/
+  /* Momentos de las observaciones generadas hasta ahora                  */
+  /************************************************************************/
+  void Parcial(MomentosObs Momentos);
+}
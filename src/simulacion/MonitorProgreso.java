@@ -0,0 +1,16 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Interfaz MonitorProgreso: recibe el avance de una operacion larga (leer   */
+/* un archivo grande, generar una corrida) en las unidades que la operacion  */
+/* elija. Se llama desde el hilo que hace el trabajo; quien la implementa en */
+/* la interfaz grafica debe pasar el valor al hilo de Swing.                 */
+/*****************************************************************************/
+
+public interface MonitorProgreso {
+
+  /************************************************************************/
+  /* Hecho de Total unidades completadas                                  */
+  /************************************************************************/
+  void Progreso(long Hecho, long Total);
+}
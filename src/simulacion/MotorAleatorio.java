@@ -0,0 +1,127 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase abstracta MotorAleatorio: fuente de numeros pseudoaleatorios que    */
+/* comparten todas las distribuciones de una corrida. Cada GenObsAlet posee  */
+/* un solo motor, creado a partir de una semilla explicita, de modo que una  */
+/* corrida puede reproducirse exactamente con la misma semilla.              */
+/* Los motores NO son seguros para hilos: cada hilo usa su propio motor.     */
+/*****************************************************************************/
+
+public abstract class MotorAleatorio {
+
+  /* Codigos de los motores disponibles */
+  public static final int SPLITTABLE=1;
+  public static final int XOSHIRO=2;
+  public static final int PCG64=3;
+  public static final int PHILOX=4;
+
+  /* Nombres para mostrar, indexados por codigo-1 */
+  public static final String[] NOMBRES={ "SplittableRandom", "xoshiro256**", "PCG64", "Philox4x32-10" };
+
+  protected long Semilla;
+
+  /************************************************************************/
+  /* Retorna los siguientes 64 bits aleatorios del motor                  */
+  /************************************************************************/
+  public abstract long SigLong();
+
+  /************************************************************************/
+  /* Retorna el codigo del motor (SPLITTABLE, XOSHIRO, PCG64 o PHILOX)   */
+  /************************************************************************/
+  public abstract int GetTipo();
+
+  /************************************************************************/
+  /* Retorna un numero uniforme en [0,1) con 53 bits de precision         */
+  /************************************************************************/
+  public double SigDouble(){
+      return (SigLong()>>>11)*0x1.0p-53;
+  }
+
+  /************************************************************************/
+  /* Llena Cant posiciones de Datos desde Ini con uniformes en [0,1);     */
+  /* equivale a llamar Cant veces a SigDouble. Los motores que pueden     */
+  /* generar muchos valores a la vez (MotorPhilox) la redefinen.          */
+  /************************************************************************/
+  public void LlenarUniformes(double[] Datos, int Ini, int Cant){
+      for(int i=Ini; i<Ini+Cant; i++)
+         Datos[i]=SigDouble();
+  }
+
+  public long GetSemilla(){
+      return this.Semilla;
+  }
+
+  public String GetNombre(){
+      return NOMBRES[GetTipo()-1];
+  }
+
+  /************************************************************************/
+  /* Retorna un motor nuevo del mismo tipo para el subflujo Indice. La    */
+  /* semilla del subflujo depende solo de la semilla maestra y del indice,*/
+  /* nunca del estado actual, asi cada bloque de generacion obtiene la    */
+  /* misma secuencia sin importar el orden o el hilo en que se genere.    */
+  /************************************************************************/
+  public MotorAleatorio Subflujo(long Indice){
+      long Sub=MezclaSplitMix(this.Semilla^MezclaSplitMix(Indice+0x9E3779B97F4A7C15L));
+      return Crear(GetTipo(), Sub);
+  }
+
+  /************************************************************************/
+  /* Crea un motor del tipo indicado a partir de una semilla              */
+  /************************************************************************/
+  public static MotorAleatorio Crear(int Tipo, long Semilla){
+      switch(Tipo){
+         case XOSHIRO:
+            return new MotorXoshiro(Semilla);
+         case PCG64:
+            return new MotorPCG64(Semilla);
+         case PHILOX:
+            return new MotorPhilox(Semilla);
+         default:
+            return new MotorSplittable(Semilla);
+      }
+  }
+
+  /************************************************************************/
+  /* Retorna el codigo de motor que corresponde a un nombre, o al codigo  */
+  /* escrito como numero. Se usa al leer encabezados y parametros.        */
+  /************************************************************************/
+  public static int TipoDeNombre(String Nombre){
+      for(int i=0; i<NOMBRES.length; i++){
+         if(NOMBRES[i].equalsIgnoreCase(Nombre))
+            return i+1;
+      }
+      if(Nombre.equalsIgnoreCase("xoshiro"))
+         return XOSHIRO;
+      if(Nombre.equalsIgnoreCase("splittable"))
+         return SPLITTABLE;
+      if(Nombre.equalsIgnoreCase("philox"))
+         return PHILOX;
+      try{
+         int Tipo=Integer.parseInt(Nombre);
+         if(Tipo>=SPLITTABLE && Tipo<=PHILOX)
+            return Tipo;
+      }
+      catch(NumberFormatException e){
+      }
+      throw new IllegalArgumentException("Motor aleatorio desconocido: "+Nombre);
+  }
+
+  /************************************************************************/
+  /* Genera una semilla nueva cuando el usuario no proporciona una        */
+  /************************************************************************/
+  public static long SemillaNueva(){
+      return MezclaSplitMix(System.nanoTime()^System.currentTimeMillis()*0x9E3779B97F4A7C15L);
+  }
+
+  /************************************************************************/
+  /* Funcion de mezcla de SplitMix64; convierte una semilla cualquiera en */
+  /* 64 bits bien distribuidos para inicializar el estado de los motores. */
+  /************************************************************************/
+  static long MezclaSplitMix(long z){
+      z=(z^(z>>>30))*0xBF58476D1CE4E5B9L;
+      z=(z^(z>>>27))*0x94D049BB133111EBL;
+      return z^(z>>>31);
+  }
+}
@@ -0,0 +1,70 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Motor PCG64 (O'Neill): generador congruencial lineal de 128 bits con      */
+/* salida XSL-RR de 64 bits. El estado de 128 bits se maneja como dos long   */
+/* (parte alta y parte baja).                                                */
+/*****************************************************************************/
+
+public class MotorPCG64 extends MotorAleatorio {
+
+  /* Multiplicador de 128 bits 0x2360ED051FC65DA44385DF649FCCF645 */
+  private static final long MULT_ALTO=0x2360ED051FC65DA4L;
+  private static final long MULT_BAJO=0x4385DF649FCCF645L;
+
+  private long EstadoAlto, EstadoBajo;
+  private long IncAlto, IncBajo;
+
+  public MotorPCG64(long Semilla) {
+      this.Semilla=Semilla;
+      long z=Semilla;
+      long SemAlto=MezclaSplitMix(z+=0x9E3779B97F4A7C15L);
+      long SemBajo=MezclaSplitMix(z+=0x9E3779B97F4A7C15L);
+      long SecAlto=MezclaSplitMix(z+=0x9E3779B97F4A7C15L);
+      long SecBajo=MezclaSplitMix(z+=0x9E3779B97F4A7C15L);
+      /* El incremento debe ser impar: (secuencia<<1)|1 */
+      this.IncAlto=(SecAlto<<1)|(SecBajo>>>63);
+      this.IncBajo=(SecBajo<<1)|1L;
+      /* Inicializacion estandar de PCG: paso, suma de la semilla, paso */
+      this.EstadoAlto=0;
+      this.EstadoBajo=0;
+      Paso();
+      long Bajo=this.EstadoBajo+SemBajo;
+      this.EstadoAlto=this.EstadoAlto+SemAlto+(Long.compareUnsigned(Bajo, this.EstadoBajo)<0 ? 1 : 0);
+      this.EstadoBajo=Bajo;
+      Paso();
+  }
+
+  /************************************************************************/
+  /* Avanza el estado: estado = estado*MULT + INC (mod 2^128)             */
+  /************************************************************************/
+  private void Paso(){
+      long Alto=MultAltoSinSigno(this.EstadoBajo, MULT_BAJO)
+                +this.EstadoBajo*MULT_ALTO+this.EstadoAlto*MULT_BAJO;
+      long Bajo=this.EstadoBajo*MULT_BAJO;
+      long Suma=Bajo+this.IncBajo;
+      Alto=Alto+this.IncAlto+(Long.compareUnsigned(Suma, Bajo)<0 ? 1 : 0);
+      this.EstadoAlto=Alto;
+      this.EstadoBajo=Suma;
+  }
+
+  public long SigLong(){
+      Paso();
+      return Long.rotateRight(this.EstadoAlto^this.EstadoBajo, (int)(this.EstadoAlto>>>58));
+  }
+
+  public int GetTipo(){
+      return PCG64;
+  }
+
+  /************************************************************************/
+  /* Parte alta (64 bits) del producto sin signo de 128 bits de a y b     */
+  /************************************************************************/
+  static long MultAltoSinSigno(long a, long b){
+      long a0=a&0xFFFFFFFFL, a1=a>>>32;
+      long b0=b&0xFFFFFFFFL, b1=b>>>32;
+      long p00=a0*b0, p01=a0*b1, p10=a1*b0, p11=a1*b1;
+      long Medio=(p00>>>32)+(p10&0xFFFFFFFFL)+p01;
+      return p11+(p10>>>32)+(Medio>>>32);
+  }
+}
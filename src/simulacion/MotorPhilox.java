@@ -0,0 +1,104 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Motor Philox4x32-10 (Salmon et al., Random123): generador basado en un    */
+/* contador. La salida para el contador c de 128 bits es una funcion fija de */
+/* c y de la clave de 64 bits (10 rondas de multiplicaciones de 32 bits), no */
+/* hay estado que avanzar: cada contador da 128 bits, dos long. Por eso los  */
+/* valores de muchos contadores se calculan a la vez (ver NucleosLote) y un  */
+/* subflujo es solo otra mitad alta del contador, con la misma clave.        */
+/*                                                                           */
+/* La clave sale de la semilla con SplitMix64. La mitad baja del contador es */
+/* la posicion en el flujo; la alta es el indice del subflujo, o -1 para el  */
+/* motor de la corrida.                                                      */
+/*****************************************************************************/
+
+public class MotorPhilox extends MotorAleatorio {
+
+  /* Multiplicadores y constantes de la clave de Philox4x32 */
+  static final long M0=0xD2511F53L;
+  static final long M1=0xCD9E8D57L;
+  static final int W0=0x9E3779B9;
+  static final int W1=0xBB67AE85;
+  static final int RONDAS=10;
+
+  private final int k0, k1;
+  private final long Flujo;
+  private long Contador;
+
+  /* Salida del ultimo contador; el segundo long queda pendiente */
+  private final long[] Salida=new long[2];
+  private boolean HayPendiente;
+
+  public MotorPhilox(long Semilla) {
+      this(Semilla, -1L);
+  }
+
+  private MotorPhilox(long Semilla, long Flujo) {
+      this.Semilla=Semilla;
+      long Clave=MezclaSplitMix(Semilla);
+      this.k0=(int)Clave;
+      this.k1=(int)(Clave>>>32);
+      this.Flujo=Flujo;
+  }
+
+  /************************************************************************/
+  /* Aplica Philox4x32-10 al contador (Bajo, Alto) y deja los dos long de */
+  /* salida en Salida[Pos] y Salida[Pos+1]                                */
+  /************************************************************************/
+  static void Bloque(long Bajo, long Alto, int k0, int k1, long[] Salida, int Pos){
+      int x0=(int)Bajo, x1=(int)(Bajo>>>32), x2=(int)Alto, x3=(int)(Alto>>>32);
+      for(int r=0; r<RONDAS; r++){
+         long p0=(x0&0xFFFFFFFFL)*M0;
+         long p1=(x2&0xFFFFFFFFL)*M1;
+         int y0=(int)(p1>>>32)^x1^k0;
+         int y2=(int)(p0>>>32)^x3^k1;
+         x1=(int)p1;
+         x3=(int)p0;
+         x0=y0;
+         x2=y2;
+         k0+=W0;
+         k1+=W1;
+      }
+      Salida[Pos]=((long)x1<<32)|(x0&0xFFFFFFFFL);
+      Salida[Pos+1]=((long)x3<<32)|(x2&0xFFFFFFFFL);
+  }
+
+  public long SigLong(){
+      if(this.HayPendiente){
+         this.HayPendiente=false;
+         return this.Salida[1];
+      }
+      Bloque(this.Contador++, this.Flujo, this.k0, this.k1, this.Salida, 0);
+      this.HayPendiente=true;
+      return this.Salida[0];
+  }
+
+  /************************************************************************/
+  /* Los contadores completos se calculan por lotes con NucleosLote; da   */
+  /* los mismos valores que SigDouble uno por uno                         */
+  /************************************************************************/
+  public void LlenarUniformes(double[] Datos, int Ini, int Cant){
+      int i=Ini, Fin=Ini+Cant;
+      if(i<Fin && this.HayPendiente)
+         Datos[i++]=SigDouble();
+      int Pares=(Fin-i)/2;
+      NucleosLote.Get().Philox(Datos, i, Pares, this.Contador, this.Flujo, this.k0, this.k1);
+      this.Contador+=Pares;
+      i+=2*Pares;
+      if(i<Fin)
+         Datos[i]=SigDouble();
+  }
+
+  /************************************************************************/
+  /* El subflujo usa la misma clave y el indice como mitad alta del       */
+  /* contador: los flujos de los bloques nunca se superponen              */
+  /************************************************************************/
+  public MotorAleatorio Subflujo(long Indice){
+      return new MotorPhilox(this.Semilla, Indice);
+  }
+
+  public int GetTipo(){
+      return PHILOX;
+  }
+}
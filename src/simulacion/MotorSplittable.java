@@ -0,0 +1,28 @@
+package simulacion;
+import java.util.SplittableRandom;
+
+/*****************************************************************************/
+/* Motor basado en java.util.SplittableRandom (SplitMix64).                  */
+/*****************************************************************************/
+
+public class MotorSplittable extends MotorAleatorio {
+
+  private SplittableRandom Generador;
+
+  public MotorSplittable(long Semilla) {
+      this.Semilla=Semilla;
+      this.Generador=new SplittableRandom(Semilla);
+  }
+
+  public long SigLong(){
+      return this.Generador.nextLong();
+  }
+
+  public double SigDouble(){
+      return this.Generador.nextDouble();
+  }
+
+  public int GetTipo(){
+      return SPLITTABLE;
+  }
+}
@@ -0,0 +1,36 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Motor xoshiro256** de Blackman y Vigna. Estado de 256 bits, periodo       */
+/* 2^256-1. El estado se inicializa con SplitMix64 a partir de la semilla.   */
+/*****************************************************************************/
+
+public class MotorXoshiro extends MotorAleatorio {
+
+  private long s0, s1, s2, s3;
+
+  public MotorXoshiro(long Semilla) {
+      this.Semilla=Semilla;
+      long z=Semilla;
+      this.s0=MezclaSplitMix(z+=0x9E3779B97F4A7C15L);
+      this.s1=MezclaSplitMix(z+=0x9E3779B97F4A7C15L);
+      this.s2=MezclaSplitMix(z+=0x9E3779B97F4A7C15L);
+      this.s3=MezclaSplitMix(z+=0x9E3779B97F4A7C15L);
+  }
+
+  public long SigLong(){
+      long Resultado=Long.rotateLeft(this.s1*5, 7)*9;
+      long t=this.s1<<17;
+      this.s2^=this.s0;
+      this.s3^=this.s1;
+      this.s1^=this.s2;
+      this.s0^=this.s3;
+      this.s2^=t;
+      this.s3=Long.rotateLeft(this.s3, 45);
+      return Resultado;
+  }
+
+  public int GetTipo(){
+      return XOSHIRO;
+  }
+}
@@ -0,0 +1,23 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Interfaz Muestreador: generador por lotes de una distribucion con sus     */
+/* parametros ya fijados. Las constantes que dependen de los parametros      */
+/* (exp(-Media), 1/ln(q), b-a, ...) se calculan una sola vez al crearlo y    */
+/* Llenar recorre el arreglo sin crear objetos. Cada distribucion entrega el */
+/* suyo con CrearMuestreador. Un muestreador no guarda estado aleatorio: el  */
+/* motor se pasa en cada llamada, por lo que puede compartirse entre hilos.  */
+/*****************************************************************************/
+
+public interface Muestreador {
+
+  /************************************************************************/
+  /* Retorna una observacion usando el motor indicado                     */
+  /************************************************************************/
+  double Muestra(MotorAleatorio Motor);
+
+  /************************************************************************/
+  /* Llena Cant posiciones de Datos a partir de Ini                       */
+  /************************************************************************/
+  void Llenar(double[] Datos, int Ini, int Cant, MotorAleatorio Motor);
+}
@@ -3,21 +3,69 @@ public class Nor extends DistProb {
 
   public double DStd; /*Desviación estandar*/
 
+  /* Metodos para generar la normal estandar */
+  public static final int ZIGGURAT=1;
+  public static final int BOX_MULLER=2;
+  public static final int POLAR=3;
+  public static final int SUMA12=4;
+  public static final String[] NOMBRES_METODOS={ "Ziggurat", "Box-Muller", "Polar (Marsaglia)", "Suma de 12 uniformes" };
+
+  /**************************************************************************/
+  /*Tablas del Ziggurat de Marsaglia y Tsang con 256 capas. R es el borde   */
+  /*de la cola y V el area comun de cada capa. K[i] es el umbral de acepta- */
+  /*cion rapida de la capa i, W[i] su ancho escalado y F[i] la densidad en  */
+  /*su borde.                                                               */
+  /**************************************************************************/
+  private static final int CAPAS=256;
+  private static final double R=3.6541528853610088;
+  private static final double V=0.00492867323399;
+  private static final double ESCALA=0x1.0p55;   /* los enteros son de 56 bits con signo */
+  private static final long[] K=new long[CAPAS];
+  private static final double[] W=new double[CAPAS];
+  private static final double[] F=new double[CAPAS];
+
+  static {
+     double dn=R, tn=R;
+     double q=V/Math.exp(-0.5*dn*dn);
+     K[0]=(long)((dn/q)*ESCALA);
+     K[1]=0;
+     W[0]=q/ESCALA;
+     W[CAPAS-1]=dn/ESCALA;
+     F[0]=1.0;
+     F[CAPAS-1]=Math.exp(-0.5*dn*dn);
+     for(int i=CAPAS-2; i>=1; i--){
+        dn=Math.sqrt(-2*Math.log(V/dn+Math.exp(-0.5*dn*dn)));
+        K[i+1]=(long)((dn/tn)*ESCALA);
+        tn=dn;
+        F[i]=Math.exp(-0.5*dn*dn);
+        W[i]=dn/ESCALA;
+     }
+  }
+
   /**************************************************************************/
   /*Clase que genera una observación aleatoria de la distribucion Normal  */
   /**************************************************************************/
 
-  public Nor(double Media, double DStd) 
+  public Nor(double Media, double DStd)
+  {
+  this(Media, DStd, null);
+  }
+
+  public Nor(double Media, double DStd, MotorAleatorio Motor)
   {
-  double Suma=0, NumR;
-  for(int i=1; i<=12; i++){
-     NumR=Aleatorio();
-     Suma=Suma+NumR;
+  this(Media, DStd, Motor, ZIGGURAT);
   }
-  this.ProbExito=Suma;
+
+  /**************************************************************************/
+  /*Genera la observacion con el metodo indicado; Ziggurat es el mas rapido */
+  /*y todos salvo SUMA12 son exactos, incluso en las colas.                 */
+  /**************************************************************************/
+  public Nor(double Media, double DStd, MotorAleatorio Motor, int Metodo)
+  {
+  this.Motor=Motor;
   this.DStd=DStd;
   this.Media=Media;
-  this.Observacion=DStd*(Suma-6)+Media;     
+  this.Observacion=CrearMuestreador(Media, DStd, Metodo).Muestra(GetMotor());
   }
 
   /***************************************************************************************/
@@ -27,4 +75,128 @@ public class Nor extends DistProb {
   public Nor(double Obs){
      this.Observacion=Obs;
   }
-}
\ No newline at end of file
+
+  /**************************************************************************/
+  /*Muestreador por lotes de N(Media, DStd^2) con el metodo indicado        */
+  /**************************************************************************/
+  public static Muestreador CrearMuestreador(final double Media, final double DStd, final int Metodo)
+  {
+  return new Muestreador() {
+     public double Muestra(MotorAleatorio Motor){
+        return Media+DStd*Estandar(Motor, Metodo);
+     }
+
+     public void Llenar(double[] Datos, int Ini, int Cant, MotorAleatorio Motor){
+        if(Metodo==ZIGGURAT || Metodo<1 || Metodo>SUMA12){
+           for(int i=Ini; i<Ini+Cant; i++)
+              Datos[i]=Media+DStd*Ziggurat(Motor);
+        }
+        else{
+           for(int i=Ini; i<Ini+Cant; i++)
+              Datos[i]=Media+DStd*Estandar(Motor, Metodo);
+        }
+     }
+  };
+  }
+
+  /**************************************************************************/
+  /*Funcion de distribucion de N(Media, DStd^2); la cola se calcula directo */
+  /**************************************************************************/
+  public static FdaTeorica CrearFda(final double Media, final double DStd)
+  {
+  return new FdaTeorica() {
+     public double Acumulada(double x){
+        return FuncionesEspeciales.Normal((x-Media)/DStd);
+     }
+
+     public double Cola(double x){
+        return FuncionesEspeciales.ColaNormal((x-Media)/DStd);
+     }
+
+     public double Inversa(double p){
+        return Media+DStd*FuncionesEspeciales.InversaNormal(p);
+     }
+  };
+  }
+
+  /**************************************************************************/
+  /*Una normal estandar con el metodo indicado                              */
+  /**************************************************************************/
+  public static double Estandar(MotorAleatorio Motor, int Metodo)
+  {
+  switch(Metodo){
+     case BOX_MULLER:
+        return BoxMuller(Motor);
+     case POLAR:
+        return Polar(Motor);
+     case SUMA12:
+        return Suma12(Motor);
+     default:
+        return Ziggurat(Motor);
+  }
+  }
+
+  /**************************************************************************/
+  /*Ziggurat: con un solo entero aleatorio se elige la capa (8 bits bajos)  */
+  /*y la abscisa (56 bits altos); en el ~99% de los casos se acepta de      */
+  /*inmediato. La capa 0 muestrea la cola exacta mas alla de R.             */
+  /**************************************************************************/
+  private static double Ziggurat(MotorAleatorio Motor)
+  {
+  while(true){
+     long j=Motor.SigLong();
+     int i=(int)(j&(CAPAS-1));
+     long u=j>>8;
+     if(Math.abs(u)<K[i])
+        return u*W[i];
+     double x=u*W[i];
+     if(i==0){
+        /* Cola: metodo de Marsaglia sobre la exponencial mas alla de R */
+        double y;
+        do{
+           x=-Math.log(1-Motor.SigDouble())/R;
+           y=-Math.log(1-Motor.SigDouble());
+        }while(y+y<x*x);
+        return u>0 ? R+x : -(R+x);
+     }
+     if(F[i]+Motor.SigDouble()*(F[i-1]-F[i])<Math.exp(-0.5*x*x))
+        return x;
+  }
+  }
+
+  /**************************************************************************/
+  /*Box-Muller: usa dos uniformes y descarta la segunda normal              */
+  /**************************************************************************/
+  private static double BoxMuller(MotorAleatorio Motor)
+  {
+  double U1=1-Motor.SigDouble();   /* en (0,1] para que el logaritmo sea finito */
+  double U2=Motor.SigDouble();
+  return Math.sqrt(-2*Math.log(U1))*Math.cos(2*Math.PI*U2);
+  }
+
+  /**************************************************************************/
+  /*Metodo polar de Marsaglia: evita el coseno rechazando puntos fuera del  */
+  /*circulo unitario                                                        */
+  /**************************************************************************/
+  private static double Polar(MotorAleatorio Motor)
+  {
+  double X, Y, S;
+  do{
+     X=2*Motor.SigDouble()-1;
+     Y=2*Motor.SigDouble()-1;
+     S=X*X+Y*Y;
+  }while(S>=1 || S==0);
+  return X*Math.sqrt(-2*Math.log(S)/S);
+  }
+
+  /**************************************************************************/
+  /*Metodo original: suma de 12 uniformes menos 6 (aproximado, |Z|<=6)      */
+  /**************************************************************************/
+  private static double Suma12(MotorAleatorio Motor)
+  {
+  double Suma=0;
+  for(int i=1; i<=12; i++)
+     Suma=Suma+Motor.SigDouble();
+  return Suma-6;
+  }
+}
@@ -0,0 +1,323 @@
+package simulacion;
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*****************************************************************************/
+/* Clase NorMultivariada: distribucion normal multivariada N(Media, Cov) de  */
+/* dimension Dim. La covarianza se factoriza una sola vez, Cov=L*L' con L    */
+/* triangular inferior (Cholesky), y cada vector sale de X=Media+L*Z con Z   */
+/* normales estandar independientes de Nor. Se aceptan covarianzas           */
+/* semidefinidas (variables que son combinacion lineal de otras): la columna */
+/* de L de un pivote nulo queda en cero.                                     */
+/*                                                                           */
+/* La muestra se guarda por columnas: Columnas[j][i] es la componente j del  */
+/* vector i, asi cada componente es una muestra univariada como las de       */
+/* AlmacenObs. Los vectores se transforman por paneles de Ancho vectores: el */
+/* panel de normales Z (Dim x Ancho) cabe en la cache L2 y L*Z lo calcula    */
+/* NucleosLote.Triangular, de a NucleosLote.FILAS filas y varios vectores a  */
+/* la vez con las sumas en registros (con la Vector API si esta disponible). */
+/*                                                                           */
+/* Como en GenObsAlet, el bloque b de VectoresBloque vectores usa siempre el */
+/* subflujo b del motor, por lo que el resultado es identico bit a bit sin   */
+/* importar cuantos hilos se usen.                                           */
+/*****************************************************************************/
+
+public class NorMultivariada {
+
+  /* Tolerancia relativa para la simetria y los pivotes nulos del factor */
+  public static final double TOLERANCIA=1e-10;
+
+  /* Bytes del panel de normales: se busca que quepa en la cache L2 */
+  private static final int BYTES_PANEL=256*1024;
+
+  private final int Dim;
+  private final double[] Media;
+  private final double[][] L;    /* fila j de L, con ceros hasta un multiplo de FILAS */
+  private final int Filas;       /* filas de Z: Dim redondeado a un multiplo de FILAS */
+  private final int Ancho;
+  private final int VectoresBloque;
+  private final Muestreador Estandar;
+
+  public NorMultivariada(double[] Media, double[][] Cov)
+  {
+  this(Media, Cov, Nor.ZIGGURAT);
+  }
+
+  /**************************************************************************/
+  /* Factoriza Cov; Metodo es el de las normales estandar (ver Nor). Lanza  */
+  /* IllegalArgumentException si las dimensiones no coinciden o si Cov no   */
+  /* es simetrica semidefinida positiva.                                    */
+  /**************************************************************************/
+  public NorMultivariada(double[] Media, double[][] Cov, int Metodo)
+  {
+  if(Media.length==0 || Cov.length!=Media.length)
+     throw new IllegalArgumentException("La media tiene "+Media.length+" componentes y la covarianza "+Cov.length+" filas");
+  for(int j=0; j<Media.length; j++){
+     if(Double.isNaN(Media[j]) || Double.isInfinite(Media[j]))
+        throw new IllegalArgumentException("Media invalida en la componente "+j+": "+Media[j]);
+  }
+  this.Dim=Media.length;
+  this.Media=Media.clone();
+  double[][] Factor=Cholesky(Cov);
+  int f=NucleosLote.FILAS;
+  this.Filas=(this.Dim+f-1)/f*f;
+  this.L=new double[this.Dim][];
+  for(int j=0; j<this.Dim; j++)
+     this.L[j]=Arrays.copyOf(Factor[j], (j/f+1)*f);
+  int a=BYTES_PANEL/(8*this.Filas);
+  this.Ancho=Math.max(16, Math.min(512, a-a%16));
+  this.VectoresBloque=Math.max(1, GenObsAlet.BLOQUE/this.Dim);
+  this.Estandar=Nor.CrearMuestreador(0, 1, Metodo);
+  }
+
+  /**************************************************************************/
+  /* Factor de Cholesky de Cov por filas (Cholesky-Banachiewicz): cada      */
+  /* entrada es un producto escalar de dos filas ya calculadas, contiguas   */
+  /* en memoria. Se usa el triangulo inferior de Cov y se verifica que el   */
+  /* superior sea igual. Un pivote menor que TOLERANCIA por la varianza     */
+  /* deja la columna en cero; si la fila que tendria que dividirse por el   */
+  /* no da cero, la matriz no es semidefinida positiva.                     */
+  /**************************************************************************/
+  public static double[][] Cholesky(double[][] Cov)
+  {
+  int n=Cov.length;
+  for(int j=0; j<n; j++){
+     if(Cov[j].length!=n)
+        throw new IllegalArgumentException("La covarianza no es cuadrada: la fila "+j+" tiene "+Cov[j].length+" columnas");
+     if(!(Cov[j][j]>=0) || Double.isInfinite(Cov[j][j]))
+        throw new IllegalArgumentException("Varianza invalida en la componente "+j+": "+Cov[j][j]);
+  }
+  for(int j=0; j<n; j++){
+     for(int k=0; k<j; k++){
+        double Escala=Math.max(Math.sqrt(Cov[j][j]*Cov[k][k]), Math.abs(Cov[j][k]));
+        if(!(Math.abs(Cov[j][k]-Cov[k][j])<=TOLERANCIA*Escala))
+           throw new IllegalArgumentException("La covarianza no es simetrica en ("+j+", "+k+")");
+     }
+  }
+  double[][] L=new double[n][];
+  for(int j=0; j<n; j++){
+     double[] Fila=new double[j+1];
+     for(int k=0; k<j; k++){
+        double[] Otra=L[k];
+        double s=Cov[j][k];
+        for(int m=0; m<k; m++)
+           s-=Fila[m]*Otra[m];
+        if(Otra[k]>0)
+           Fila[k]=s/Otra[k];
+        else if(Math.abs(s)>TOLERANCIA*Math.sqrt(Cov[j][j]*Cov[k][k]))
+           throw new IllegalArgumentException("La covarianza no es semidefinida positiva (componentes "+k+" y "+j+")");
+     }
+     double s=Cov[j][j];
+     for(int m=0; m<j; m++)
+        s-=Fila[m]*Fila[m];
+     if(s<-TOLERANCIA*Cov[j][j])
+        throw new IllegalArgumentException("La covarianza no es semidefinida positiva (componente "+j+")");
+     Fila[j]=s>TOLERANCIA*Cov[j][j] ? Math.sqrt(s) : 0;
+     L[j]=Fila;
+  }
+  return L;
+  }
+
+  /************************************************************************/
+  /* Dimension, media y factor de Cholesky (copias)                       */
+  /************************************************************************/
+  public int GetDimension(){
+      return this.Dim;
+  }
+
+  public double[] GetMedia(){
+      return this.Media.clone();
+  }
+
+  public double[][] GetFactor(){
+      double[][] Copia=new double[this.Dim][];
+      for(int j=0; j<this.Dim; j++)
+         Copia[j]=Arrays.copyOf(this.L[j], j+1);
+      return Copia;
+  }
+
+  /************************************************************************/
+  /* Covarianza de las componentes j y k, (L*L')[j][k]                    */
+  /************************************************************************/
+  public double GetCovarianza(int j, int k){
+      int m=Math.min(j, k);
+      double s=0;
+      for(int i=0; i<=m; i++)
+         s+=this.L[j][i]*this.L[k][i];
+      return s;
+  }
+
+  /************************************************************************/
+  /* Vectores por subflujo: el bloque b son los vectores desde            */
+  /* b*VectoresBloque                                                     */
+  /************************************************************************/
+  public int GetVectoresBloque(){
+      return this.VectoresBloque;
+  }
+
+  /**************************************************************************/
+  /* Un vector aleatorio con el motor indicado                              */
+  /**************************************************************************/
+  public double[] Muestra(MotorAleatorio Motor)
+  {
+  double[] Z=new double[this.Dim];
+  this.Estandar.Llenar(Z, 0, this.Dim, Motor);
+  double[] X=new double[this.Dim];
+  for(int j=0; j<this.Dim; j++){
+     double[] Fila=this.L[j];
+     double s=this.Media[j];
+     for(int k=0; k<=j; k++)
+        s+=Fila[k]*Z[k];
+     X[j]=s;
+  }
+  return X;
+  }
+
+  /**************************************************************************/
+  /* Genera N vectores en columnas nuevas (Dim arreglos de N) con Hilos     */
+  /* hilos                                                                  */
+  /**************************************************************************/
+  public double[][] Generar(int N, MotorAleatorio Motor, int Hilos)
+  {
+  double[][] Columnas=new double[this.Dim][N];
+  Generar(Columnas, 0, N, Motor, Hilos);
+  return Columnas;
+  }
+
+  /**************************************************************************/
+  /* Genera N vectores en las posiciones [Ini, Ini+N) de las columnas. El   */
+  /* bloque b usa el subflujo b de Motor, que no se avanza; con mas de un   */
+  /* hilo los bloques se reparten en un ForkJoinPool y cada uno escribe su  */
+  /* propio rango de cada columna.                                          */
+  /**************************************************************************/
+  public void Generar(double[][] Columnas, int Ini, int N, MotorAleatorio Motor, int Hilos)
+  {
+  if(Columnas.length!=this.Dim)
+     throw new IllegalArgumentException("Se esperaban "+this.Dim+" columnas y hay "+Columnas.length);
+  int Bloques=(int)((N+(long)this.VectoresBloque-1)/this.VectoresBloque);
+  if(Hilos<=1 || Bloques<=1){
+     for(int b=0; b<Bloques; b++)
+        LlenarBloque(Columnas, Ini, N, b, Motor);
+     return;
+  }
+  ForkJoinPool Pool=new ForkJoinPool(Hilos);
+  try{
+     Pool.invoke(new TareaBloques(Columnas, Ini, N, Motor, 0, Bloques));
+  }
+  finally{
+     Pool.shutdown();
+  }
+  }
+
+  /* Bloque b de los N vectores que empiezan en Ini, con su subflujo */
+  private void LlenarBloque(double[][] Columnas, int Ini, int N, long b, MotorAleatorio Motor)
+  {
+  int Pos=(int)(b*this.VectoresBloque);
+  Llenar(Columnas, Ini+Pos, Math.min(this.VectoresBloque, N-Pos), Motor.Subflujo(b));
+  }
+
+  /**************************************************************************/
+  /* Llena los vectores [Ini, Ini+Cant) de las columnas con Motor, panel a  */
+  /* panel: primero las Dim filas de normales del panel y luego L*Z; las    */
+  /* filas de relleno de Z quedan en cero                                   */
+  /**************************************************************************/
+  public void Llenar(double[][] Columnas, int Ini, int Cant, MotorAleatorio Motor)
+  {
+  double[][] Z=new double[this.Filas][Math.min(this.Ancho, Cant)];
+  NucleosLote Nucleos=NucleosLote.Get();
+  for(int p=0; p<Cant; p+=this.Ancho){
+     int w=Math.min(this.Ancho, Cant-p);
+     for(int k=0; k<this.Dim; k++)
+        this.Estandar.Llenar(Z[k], 0, w, Motor);
+     Nucleos.Triangular(this.L, this.Media, Z, 0, w, Columnas, Ini+p);
+  }
+  }
+
+  /**************************************************************************/
+  /* Guarda los vectores [0, N) de las columnas en texto, un vector por     */
+  /* linea con las componentes separadas por tabuladores                    */
+  /**************************************************************************/
+  public static void GuardarTexto(double[][] Columnas, int N, File Archivo) throws IOException
+  {
+  File Padre=Archivo.getAbsoluteFile().getParentFile();
+  if(Padre!=null)
+     Padre.mkdirs();
+  try(Writer Salida=new BufferedWriter(new OutputStreamWriter(new FileOutputStream(Archivo),
+                                       Charset.defaultCharset()), 1<<20)){
+     for(int i=0; i<N; i++){
+        for(int j=0; j<Columnas.length; j++){
+           if(j>0)
+              Salida.write('\t');
+           Salida.write(Double.toString(Columnas[j][i]));
+        }
+        Salida.write('\n');
+     }
+  }
+  }
+
+  /**************************************************************************/
+  /* Lee una matriz de texto: una fila por linea, con los numeros separados */
+  /* por espacios, tabuladores, comas o punto y coma. Las lineas vacias y   */
+  /* las que empiezan con # se saltan.                                      */
+  /**************************************************************************/
+  public static double[][] LeerMatriz(File Archivo) throws IOException
+  {
+  ArrayList<double[]> Filas=new ArrayList<double[]>();
+  try(BufferedReader Ent=new BufferedReader(new InputStreamReader(new FileInputStream(Archivo), "UTF-8"))){
+     String Linea;
+     while((Linea=Ent.readLine())!=null){
+        Linea=Linea.trim();
+        if(Linea.length()==0 || Linea.startsWith("#"))
+           continue;
+        String[] Campos=Linea.split("[\\s,;]+");
+        double[] Fila=new double[Campos.length];
+        for(int k=0; k<Campos.length; k++){
+           try{
+              Fila[k]=Double.parseDouble(Campos[k]);
+           }
+           catch(NumberFormatException nfe){
+              throw new IllegalArgumentException(Archivo.getName()+", fila "+(Filas.size()+1)+": no es un numero: "+Campos[k]);
+           }
+        }
+        Filas.add(Fila);
+     }
+  }
+  return Filas.toArray(new double[Filas.size()][]);
+  }
+
+  /******************************************************************************************/
+  /*Tarea ForkJoin que divide el rango de bloques [Desde, Hasta) a la mitad hasta llegar    */
+  /*a un solo bloque, que se genera con su subflujo en el hilo que lo toma.                 */
+  /******************************************************************************************/
+  private class TareaBloques extends RecursiveAction {
+
+     private static final long serialVersionUID=1L;
+
+     private final double[][] Columnas;
+     private final int Ini, N, Desde, Hasta;
+     private final MotorAleatorio Motor;
+
+     TareaBloques(double[][] Columnas, int Ini, int N, MotorAleatorio Motor, int Desde, int Hasta){
+        this.Columnas=Columnas;
+        this.Ini=Ini;
+        this.N=N;
+        this.Motor=Motor;
+        this.Desde=Desde;
+        this.Hasta=Hasta;
+     }
+
+     protected void compute(){
+        if(this.Hasta-this.Desde<=1){
+           LlenarBloque(this.Columnas, this.Ini, this.N, this.Desde, this.Motor);
+           return;
+        }
+        int Medio=(this.Desde+this.Hasta)>>>1;
+        invokeAll(new TareaBloques(this.Columnas, this.Ini, this.N, this.Motor, this.Desde, Medio),
+                  new TareaBloques(this.Columnas, this.Ini, this.N, this.Motor, Medio, this.Hasta));
+     }
+  }
+}
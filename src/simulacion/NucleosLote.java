@@ -0,0 +1,184 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase NucleosLote: transformaciones por lote de uniformes a observaciones */
+/* (Exp y Uni), generacion de uniformes de Philox para muchos contadores a   */
+/* la vez y el producto L*Z de NorMultivariada. Hay dos implementaciones con */
+/* los mismos resultados:                                                    */
+/*                                                                           */
+/*   escalar    un valor por vez, en Java 8                                  */
+/*   vectorial  NucleosVector (directorio vector), con la Vector API de      */
+/*              jdk.incubator.vector; se compila solo con un JDK 16 o        */
+/*              posterior y se usa si la JVM se inicio con                   */
+/*              --add-modules jdk.incubator.vector                           */
+/*                                                                           */
+/* Get elige la vectorial cuando se puede cargar y el procesador tiene al    */
+/* menos dos lanes de double; si no, la escalar. -Dsimuldp.vector=false      */
+/* obliga a usar la escalar. Los logaritmos vectoriales pueden diferir de    */
+/* Math.log en el ultimo bit, como Math.log entre procesadores distintos.    */
+/*****************************************************************************/
+
+public abstract class NucleosLote {
+
+  /* Filas del producto triangular que se calculan juntas */
+  public static final int FILAS=4;
+
+  private static final NucleosLote ACTIVO=Cargar();
+
+  NucleosLote()
+  {
+  }
+
+  /************************************************************************/
+  /* Implementacion que usan los muestreadores y los motores              */
+  /************************************************************************/
+  public static NucleosLote Get(){
+      return ACTIVO;
+  }
+
+  /************************************************************************/
+  /* La implementacion escalar, para comparar resultados y tiempos        */
+  /************************************************************************/
+  public static NucleosLote GetEscalar(){
+      return Escalar.UNICO;
+  }
+
+  private static NucleosLote Cargar()
+  {
+  if(!Boolean.parseBoolean(System.getProperty("simuldp.vector", "true")))
+     return Escalar.UNICO;
+  try{
+     return (NucleosLote)Class.forName("simulacion.NucleosVector").getDeclaredConstructor().newInstance();
+  }
+  catch(Throwable t){
+     /* Sin la clase (Java 8), sin el modulo o sin registros vectoriales */
+     return Escalar.UNICO;
+  }
+  }
+
+  /************************************************************************/
+  /* Nombre para los informes: escalar o vectorial con su ancho           */
+  /************************************************************************/
+  public abstract String GetNombre();
+
+  /************************************************************************/
+  /* Datos[i]=-Media ln(1-Datos[i]) para las Cant posiciones desde Ini    */
+  /************************************************************************/
+  public abstract void Exponencial(double[] Datos, int Ini, int Cant, double Media);
+
+  /************************************************************************/
+  /* Datos[i]=a+(b-a)Datos[i]; retorna false si algun resultado quedo     */
+  /* fuera del intervalo abierto (a,b) por redondeo                       */
+  /************************************************************************/
+  public abstract boolean Uniforme(double[] Datos, int Ini, int Cant, double a, double b);
+
+  /************************************************************************/
+  /* Llena 2*Pares posiciones desde Ini con las uniformes de Philox de    */
+  /* los contadores (Contador, Flujo), (Contador+1, Flujo), ...: dos por  */
+  /* contador, en el orden en que las da MotorPhilox.SigDouble            */
+  /************************************************************************/
+  public abstract void Philox(double[] Datos, int Ini, int Pares, long Contador, long Flujo, int k0, int k1);
+
+  /************************************************************************/
+  /* X[j][Pos+i]=Media[j]+suma de L[j][k]*Z[k][i] para i en [Desde,Hasta) */
+  /* y cada fila j de X. La suma recorre k=0..L[j].length-1 en orden, asi */
+  /* el resultado no depende del reparto en lanes. Las filas de L tienen  */
+  /* largo multiplo de FILAS (con ceros despues de la diagonal): las      */
+  /* FILAS filas de un grupo que empieza en un multiplo de FILAS tienen   */
+  /* el mismo largo y se calculan juntas, leyendo cada Z[k] una sola vez  */
+  /************************************************************************/
+  public abstract void Triangular(double[][] L, double[] Media, double[][] Z, int Desde, int Hasta,
+                                  double[][] X, int Pos);
+
+  /************************************************************************/
+  /* Implementacion escalar; la vectorial la usa para los restos          */
+  /************************************************************************/
+  static final class Escalar extends NucleosLote {
+
+     static final Escalar UNICO=new Escalar();
+
+     public String GetNombre(){
+        return "escalar";
+     }
+
+     public void Exponencial(double[] Datos, int Ini, int Cant, double Media){
+        final double MenosMedia=-Media;
+        for(int i=Ini; i<Ini+Cant; i++)
+           Datos[i]=MenosMedia*Math.log(1-Datos[i]);
+     }
+
+     public boolean Uniforme(double[] Datos, int Ini, int Cant, double a, double b){
+        final double Ancho=b-a;
+        boolean Validos=true;
+        for(int i=Ini; i<Ini+Cant; i++){
+           double x=a+Ancho*Datos[i];
+           Validos&=x>a && x<b;
+           Datos[i]=x;
+        }
+        return Validos;
+     }
+
+     public void Philox(double[] Datos, int Ini, int Pares, long Contador, long Flujo, int k0, int k1){
+        long[] Salida=new long[2];
+        for(int j=0; j<Pares; j++){
+           MotorPhilox.Bloque(Contador+j, Flujo, k0, k1, Salida, 0);
+           Datos[Ini+2*j]=(Salida[0]>>>11)*0x1.0p-53;
+           Datos[Ini+2*j+1]=(Salida[1]>>>11)*0x1.0p-53;
+        }
+     }
+
+     /* Dos vectores por FILAS filas: ocho sumas en registros por cada k */
+     public void Triangular(double[][] L, double[] Media, double[][] Z, int Desde, int Hasta,
+                            double[][] X, int Pos){
+        int Dim=X.length;
+        int i=Desde;
+        for(; i+2<=Hasta; i+=2){
+           int j=0;
+           for(; j+FILAS<=Dim; j+=FILAS){
+              double[] l0=L[j], l1=L[j+1], l2=L[j+2], l3=L[j+3];
+              double s00=0, s01=0, s10=0, s11=0, s20=0, s21=0, s30=0, s31=0;
+              for(int k=0; k<l0.length; k++){
+                 double[] z=Z[k];
+                 double z0=z[i], z1=z[i+1];
+                 s00+=l0[k]*z0;
+                 s01+=l0[k]*z1;
+                 s10+=l1[k]*z0;
+                 s11+=l1[k]*z1;
+                 s20+=l2[k]*z0;
+                 s21+=l2[k]*z1;
+                 s30+=l3[k]*z0;
+                 s31+=l3[k]*z1;
+              }
+              int p=Pos+i;
+              X[j][p]=Media[j]+s00;
+              X[j][p+1]=Media[j]+s01;
+              X[j+1][p]=Media[j+1]+s10;
+              X[j+1][p+1]=Media[j+1]+s11;
+              X[j+2][p]=Media[j+2]+s20;
+              X[j+2][p+1]=Media[j+2]+s21;
+              X[j+3][p]=Media[j+3]+s30;
+              X[j+3][p+1]=Media[j+3]+s31;
+           }
+           for(; j<Dim; j++){
+              double[] l=L[j];
+              double s0=0, s1=0;
+              for(int k=0; k<l.length; k++){
+                 s0+=l[k]*Z[k][i];
+                 s1+=l[k]*Z[k][i+1];
+              }
+              X[j][Pos+i]=Media[j]+s0;
+              X[j][Pos+i+1]=Media[j]+s1;
+           }
+        }
+        for(; i<Hasta; i++){
+           for(int j=0; j<Dim; j++){
+              double[] l=L[j];
+              double s=0;
+              for(int k=0; k<l.length; k++)
+                 s+=l[k]*Z[k][i];
+              X[j][Pos+i]=Media[j]+s;
+           }
+        }
+     }
+  }
+}
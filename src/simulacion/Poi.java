@@ -2,23 +2,34 @@ package simulacion;
 
   /**************************************************************************/
   /*Clase que genera una observación aleatoria de la distribucion Poisson   */
+  /*Para medias pequeñas se usa el metodo de multiplicacion de Knuth, que   */
+  /*cuesta O(Media) uniformes; desde UMBRAL se usa el rechazo transformado  */
+  /*PTRS de Hörmann, exacto y de tiempo esperado constante, que ademas no   */
+  /*depende de exp(-Media) (se anula para medias mayores que ~745).         */
   /**************************************************************************/
 
 public class Poi extends DistProb{
 
+  public static final double UMBRAL=10;
+
+  /* ln(k!) exacto para k pequeño; mas alla se usa la serie de Stirling */
+  private static final double[] LOG_FACT=new double[256];
+
+  static {
+     for(int k=1; k<LOG_FACT.length; k++)
+        LOG_FACT[k]=LOG_FACT[k-1]+Math.log(k);
+  }
+
   public Poi(double Media) 
   {
-  this.Media=Media;
-  this.Observacion=0;
-  
-  double k, Prod;
-  k=Math.exp(-Media);
-  Prod=Aleatorio();
-  while(Prod>=k){
-     this.Observacion=this.Observacion+1;
-     Prod=Prod*Aleatorio();     
+  this(Media, null);
   }
-  this.ProbExito=Prod;  
+
+  public Poi(double Media, MotorAleatorio Motor) 
+  {
+  this.Motor=Motor;
+  this.Media=Media;
+  this.Observacion=CrearMuestreador(Media).Muestra(GetMotor());
   }
 
   /***************************************************************************************/
@@ -29,5 +40,150 @@ public class Poi extends DistProb{
      this.Observacion=Observ;
      this.NumObs=Num;
   }
+
+  /**************************************************************************/
+  /*Muestreador por lotes; elige el metodo segun la media y calcula una sola*/
+  /*vez sus constantes (exp(-Media) o las de PTRS)                          */
+  /**************************************************************************/
+  public static Muestreador CrearMuestreador(double Media)
+  {
+  if(Media>=UMBRAL)
+     return new MuestreoPtrs(Media);
+  return new MuestreoKnuth(Media);
+  }
+
+  /**************************************************************************/
+  /*Knuth: multiplica uniformes hasta bajar de exp(-Media)                  */
+  /**************************************************************************/
+  private static class MuestreoKnuth implements Muestreador {
+
+     private final double Limite;
+
+     MuestreoKnuth(double Media){
+        this.Limite=Math.exp(-Media);
+     }
+
+     public double Muestra(MotorAleatorio Motor){
+        double k=0;
+        double Prod=Motor.SigDouble();
+        while(Prod>=this.Limite){
+           k=k+1;
+           Prod=Prod*Motor.SigDouble();
+        }
+        return k;
+     }
+
+     public void Llenar(double[] Datos, int Ini, int Cant, MotorAleatorio Motor){
+        final double Limite=this.Limite;
+        for(int i=Ini; i<Ini+Cant; i++){
+           double k=0;
+           double Prod=Motor.SigDouble();
+           while(Prod>=Limite){
+              k=k+1;
+              Prod=Prod*Motor.SigDouble();
+           }
+           Datos[i]=k;
+        }
+     }
+  }
+
+  /**************************************************************************/
+  /*PTRS (Hörmann, 1993): propone k con una transformacion de dos uniformes */
+  /*y lo acepta de inmediato en la region central (~90%); si no, compara    */
+  /*contra la funcion de probabilidad exacta en escala logaritmica.         */
+  /**************************************************************************/
+  private static class MuestreoPtrs implements Muestreador {
+
+     private final double Lambda, LogLam, a, b, LogInvAlfa, Vr;
+
+     MuestreoPtrs(double Lambda){
+        this.Lambda=Lambda;
+        this.LogLam=Math.log(Lambda);
+        this.b=0.931+2.53*Math.sqrt(Lambda);
+        this.a=-0.059+0.02483*this.b;
+        this.LogInvAlfa=Math.log(1.1239+1.1328/(this.b-3.4));
+        this.Vr=0.9277-3.6224/(this.b-2);
+     }
+
+     public double Muestra(MotorAleatorio Motor){
+        while(true){
+           double U=Motor.SigDouble()-0.5;
+           double V=Motor.SigDouble();
+           double Us=0.5-Math.abs(U);
+           double k=Math.floor((2*this.a/Us+this.b)*U+this.Lambda+0.43);
+           if(Us>=0.07 && V<=this.Vr)
+              return k;
+           if(k<0 || (Us<0.013 && V>Us))
+              continue;
+           if(Math.log(V)+this.LogInvAlfa-Math.log(this.a/(Us*Us)+this.b)<=
+              -this.Lambda+k*this.LogLam-LogFactorial(k))
+              return k;
+        }
+     }
+
+     public void Llenar(double[] Datos, int Ini, int Cant, MotorAleatorio Motor){
+        for(int i=Ini; i<Ini+Cant; i++)
+           Datos[i]=Muestra(Motor);
+     }
+  }
+
+  /**************************************************************************/
+  /*Funcion de distribucion: P(X<=k)=Q(k+1, Media), la gamma incompleta     */
+  /*regularizada superior                                                   */
+  /**************************************************************************/
+  public static FdaTeorica CrearFda(final double Media)
+  {
+  return new FdaTeorica() {
+     public double Acumulada(double x){
+        double k=Math.floor(x);
+        if(k<0)
+           return 0;
+        return Double.isInfinite(k) ? 1 : FuncionesEspeciales.GammaSup(k+1, Media);
+     }
+
+     public double Cola(double x){
+        double k=Math.floor(x);
+        if(k<0)
+           return 1;
+        return Double.isInfinite(k) ? 0 : FuncionesEspeciales.GammaInf(k+1, Media);
+     }
+
+     /* Parte de la aproximacion de Cornish-Fisher y se mueve con la        */
+     /* recurrencia P(X=k+1)=P(X=k) Media/(k+1), con una sola gamma         */
+     public double Inversa(double p){
+        double z=FuncionesEspeciales.InversaNormal(p);
+        double k=Math.max(0, Math.floor(Media+Math.sqrt(Media)*z+(z*z-1)/6));
+        double Pk=Math.exp(k*Math.log(Media)-Media-LogFactorial(k));
+        double F=Acumulada(k);
+        if(F>=p){
+           while(k>0 && F-Pk>=p){
+              F-=Pk;
+              Pk=Pk*k/Media;
+              k--;
+           }
+        }
+        else{
+           while(F<p && (Pk>0 || k<Media)){
+              k++;
+              Pk=Pk*Media/k;
+              F+=Pk;
+           }
+        }
+        return k;
+     }
+  };
+  }
+
+  /**************************************************************************/
+  /*ln(k!) con tabla hasta 255 y serie de Stirling para k mayores           */
+  /**************************************************************************/
+  static double LogFactorial(double k)
+  {
+  if(k<LOG_FACT.length)
+     return LOG_FACT[(int)k];
+  double Inv=1/k, Inv2=Inv*Inv;
+  return k*Math.log(k)-k+0.5*Math.log(2*Math.PI*k)
+         +Inv*(1.0/12-Inv2*(1.0/360-Inv2/1260));
+  }
  
-}
\ No newline at end of file
+}
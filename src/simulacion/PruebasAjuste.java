@@ -0,0 +1,268 @@
+package simulacion;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*****************************************************************************/
+/* Clase PruebasAjuste: pruebas de bondad de ajuste de una muestra contra    */
+/* la funcion de distribucion teorica con los parametros de la corrida       */
+/* (parametros conocidos, no estimados de la muestra):                       */
+/*                                                                           */
+/*   Chi-cuadrado:       sobre las clases del histograma de la corrida,      */
+/*                       juntando clases vecinas hasta que la frecuencia     */
+/*                       esperada sea al menos MIN_ESPERADA.                 */
+/*   Kolmogorov-Smirnov: distancia maxima entre la distribucion empirica y   */
+/*                       la teorica. En las discretas el valor p de la       */
+/*                       distribucion de Kolmogorov es conservador.          */
+/*   Anderson-Darling:   solo para distribuciones continuas; valor p de      */
+/*                       Marsaglia y Marsaglia (2004).                       */
+/*                                                                           */
+/* Las dos ultimas necesitan la muestra ordenada: se ordena una copia con    */
+/* Arrays.parallelSort y se recorre por bloques en un ForkJoinPool, siempre  */
+/* con el mismo arbol de tareas para que el resultado no dependa de los      */
+/* hilos. En modo flujo no hay muestra y solo se hace la chi-cuadrado.       */
+/*****************************************************************************/
+
+public class PruebasAjuste {
+
+  public static final double MIN_ESPERADA=5;
+
+  /* Tamaño de las hojas del recorrido de la muestra ordenada */
+  private static final int BLOQUE=GenObsAlet.BLOQUE;
+
+  private long N;
+  private boolean Discreta;
+  private double ChiCuadrado=Double.NaN, PChi=Double.NaN;
+  private int GradosLib;
+  private double Ks=Double.NaN, PKs=Double.NaN;
+  private double Ad=Double.NaN, PAd=Double.NaN;
+  private long Milisegundos;
+
+  private PruebasAjuste()
+  {
+  }
+
+  /************************************************************************/
+  /* Hace las pruebas. Hist es el histograma de la corrida; Datos puede   */
+  /* ser null (modo flujo) y entonces solo se hace la chi-cuadrado        */
+  /************************************************************************/
+  public static PruebasAjuste Probar(FdaTeorica F, boolean Discreta, HistogramaObs Hist,
+                                     double[] Datos, int Cant, int Hilos)
+  {
+  long Inicio=System.currentTimeMillis();
+  PruebasAjuste P=new PruebasAjuste();
+  P.Discreta=Discreta;
+  P.N=Datos!=null ? Cant : Hist.GetTotal()+Hist.GetBajo()+Hist.GetAlto();
+  P.ChiCuadrado(F, Hist);
+  if(Datos!=null && Cant>0){
+     double[] Orden=Arrays.copyOf(Datos, Cant);
+     if(Hilos>1)
+        Arrays.parallelSort(Orden);
+     else
+        Arrays.sort(Orden);
+     if(Thread.currentThread().isInterrupted())
+        throw new CancellationException("Se cancelaron las pruebas de ajuste");
+     ForkJoinPool Pool=new ForkJoinPool(Math.max(1, Hilos));
+     double[] Res;
+     try{
+        Res=Pool.invoke(new TareaEdf(F, Discreta, Orden, 0, Cant));
+     }
+     finally{
+        Pool.shutdown();
+     }
+     double n=Cant, Raiz=Math.sqrt(n);
+     P.Ks=Res[0];
+     P.PKs=FuncionesEspeciales.ColaKolmogorov((Raiz+0.12+0.11/Raiz)*P.Ks);
+     if(!Discreta){
+        P.Ad=-n-Res[1]/n;
+        P.PAd=Double.isInfinite(P.Ad) ? 0 : 1-FuncionesEspeciales.AndersonDarling(Cant, P.Ad);
+     }
+  }
+  P.Milisegundos=System.currentTimeMillis()-Inicio;
+  return P;
+  }
+
+  /************************************************************************/
+  /* Chi-cuadrado sobre las clases del histograma. La primera y la ultima */
+  /* clase se extienden hasta -infinito e infinito (con las observaciones */
+  /* fuera de rango) para que las probabilidades sumen 1.                 */
+  /************************************************************************/
+  private void ChiCuadrado(FdaTeorica F, HistogramaObs Hist)
+  {
+  int k=Hist.GetNumClases();
+  double Total=this.N;
+  if(Total<=0)
+     return;
+  double Chi=0, Obs=0, Esp=0;
+  int Celdas=0;
+  double UltObs=0, UltEsp=0;
+  for(int i=0; i<k; i++){
+     double Inf=i==0 ? Double.NEGATIVE_INFINITY : Hist.GetLimInf(i);
+     double Sup=i==k-1 ? Double.POSITIVE_INFINITY : Hist.GetLimSup(i);
+     Obs+=Hist.GetFrec(i)+(i==0 ? Hist.GetBajo() : 0)+(i==k-1 ? Hist.GetAlto() : 0);
+     Esp+=Total*Probabilidad(F, Inf, Sup);
+     if(Esp>=MIN_ESPERADA){
+        if(Celdas>0)
+           Chi+=Termino(UltObs, UltEsp);
+        UltObs=Obs;
+        UltEsp=Esp;
+        Celdas++;
+        Obs=Esp=0;
+     }
+  }
+  /* Lo que sobra al final se junta con la ultima celda completa */
+  UltObs+=Obs;
+  UltEsp+=Esp;
+  if(Celdas<2)
+     return;
+  Chi+=Termino(UltObs, UltEsp);
+  this.ChiCuadrado=Chi;
+  this.GradosLib=Celdas-1;
+  this.PChi=FuncionesEspeciales.GammaSup(this.GradosLib/2.0, Chi/2);
+  }
+
+  private static double Termino(double Obs, double Esp)
+  {
+  double d=Obs-Esp;
+  return d*d/Esp;
+  }
+
+  /* P(Inf < X <= Sup), por la cola cuando el intervalo esta a la derecha */
+  private static double Probabilidad(FdaTeorica F, double Inf, double Sup)
+  {
+  double FInf=F.Acumulada(Inf);
+  if(FInf<0.5)
+     return Math.max(0, F.Acumulada(Sup)-FInf);
+  return Math.max(0, F.Cola(Inf)-F.Cola(Sup));
+  }
+
+  /******************************************************************************************/
+  /*Recorre la muestra ordenada en [Desde, Hasta) y retorna {D, S}: D es la mayor distancia */
+  /*entre la distribucion empirica y la teorica, evaluada a ambos lados de cada valor       */
+  /*distinto, y S la suma de Anderson-Darling                                               */
+  /*   S = sum (2i+1) ln F(x_i) + (2(n-i)-1) ln(1-F(x_i)),  i=0..n-1                        */
+  /*de modo que A2=-n-S/n. Las hojas son de BLOQUE observaciones.                           */
+  /******************************************************************************************/
+  private static class TareaEdf extends RecursiveTask<double[]> {
+
+     private static final long serialVersionUID=1L;
+
+     private final FdaTeorica F;
+     private final boolean Discreta;
+     private final double[] x;
+     private final int Desde, Hasta;
+
+     TareaEdf(FdaTeorica F, boolean Discreta, double[] x, int Desde, int Hasta){
+        this.F=F;
+        this.Discreta=Discreta;
+        this.x=x;
+        this.Desde=Desde;
+        this.Hasta=Hasta;
+     }
+
+     protected double[] compute(){
+        if(this.Hasta-this.Desde<=BLOQUE)
+           return Recorrer();
+        int Medio=(this.Desde+this.Hasta)>>>1;
+        TareaEdf Der=new TareaEdf(this.F, this.Discreta, this.x, Medio, this.Hasta);
+        Der.fork();
+        double[] Res=new TareaEdf(this.F, this.Discreta, this.x, this.Desde, Medio).compute();
+        double[] Otro=Der.join();
+        Res[0]=Math.max(Res[0], Otro[0]);
+        Res[1]+=Otro[1];
+        return Res;
+     }
+
+     private double[] Recorrer(){
+        final double[] x=this.x;
+        final int n=x.length;
+        final double InvN=1.0/n;
+        double D=0, S=0;
+        for(int i=this.Desde; i<this.Hasta; i++){
+           double v=x[i];
+           boolean Primero=i==0 || x[i-1]<v;
+           boolean Ultimo=i==n-1 || x[i+1]>v;
+           if(this.Discreta){
+              /* Solo importan los extremos de cada grupo de valores iguales */
+              if(Primero)
+                 D=Math.max(D, Math.abs(i*InvN-this.F.Acumulada(Math.nextDown(v))));
+              if(Ultimo)
+                 D=Math.max(D, Math.abs((i+1)*InvN-this.F.Acumulada(v)));
+              continue;
+           }
+           double Fv=this.F.Acumulada(v);
+           double Cv=Fv<0.5 ? 1-Fv : this.F.Cola(v);
+           if(Fv>=0.5)
+              Fv=1-Cv;
+           if(Primero)
+              D=Math.max(D, Fv-i*InvN);
+           if(Ultimo)
+              D=Math.max(D, (i+1)*InvN-Fv);
+           S+=(2.0*i+1)*Math.log(Fv)+(2.0*(n-i)-1)*Math.log(Cv);
+        }
+        return new double[]{ D, S };
+     }
+  }
+
+  public long GetN(){
+      return this.N;
+  }
+
+  public double GetChiCuadrado(){
+      return this.ChiCuadrado;
+  }
+
+  public int GetGradosLibertad(){
+      return this.GradosLib;
+  }
+
+  public double GetPChiCuadrado(){
+      return this.PChi;
+  }
+
+  public double GetKs(){
+      return this.Ks;
+  }
+
+  public double GetPKs(){
+      return this.PKs;
+  }
+
+  public double GetAd(){
+      return this.Ad;
+  }
+
+  public double GetPAd(){
+      return this.PAd;
+  }
+
+  /************************************************************************/
+  /* Texto con los resultados, pensado para una fuente de ancho fijo      */
+  /************************************************************************/
+  public String GetTexto()
+  {
+  StringBuffer Texto=new StringBuffer();
+  Texto.append("Pruebas de ajuste (n=").append(this.N).append(", parametros de la corrida)\n");
+  Texto.append(String.format("%-24s %14s %10s\n", "Prueba", "Estadistico", "Valor p"));
+  if(!Double.isNaN(this.ChiCuadrado))
+     Texto.append(Linea("Chi-cuadrado (gl="+this.GradosLib+")", this.ChiCuadrado, this.PChi));
+  else
+     Texto.append("Chi-cuadrado: menos de dos clases con frecuencia esperada >= 5\n");
+  if(!Double.isNaN(this.Ks))
+     Texto.append(Linea("Kolmogorov-Smirnov"+(this.Discreta ? " (*)" : ""), this.Ks, this.PKs));
+  if(!Double.isNaN(this.Ad))
+     Texto.append(Linea("Anderson-Darling", this.Ad, this.PAd));
+  if(Double.isNaN(this.Ks))
+     Texto.append("Sin la muestra en memoria (modo flujo) solo se hace la chi-cuadrado\n");
+  else if(this.Discreta)
+     Texto.append("(*) distribucion discreta: valor p conservador; Anderson-Darling no aplica\n");
+  Texto.append("Tiempo: ").append(this.Milisegundos).append(" ms");
+  return Texto.toString();
+  }
+
+  private static String Linea(String Nombre, double Estadistico, double p)
+  {
+  return String.format("%-24s %14.6g %10.4f\n", Nombre, Estadistico, p);
+  }
+}
@@ -0,0 +1,364 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase ReduccionVarianza: genera los bloques de una corrida con una        */
+/* tecnica de reduccion de varianza y estima la media de la distribucion con */
+/* su error estandar. Las observaciones salen por transformacion inversa     */
+/* (FdaTeorica.Inversa) de uniformes del subflujo de cada bloque:            */
+/*                                                                           */
+/*   ANTITETICAS    pares F^-1(u), F^-1(1-u); la varianza del estimador se   */
+/*                  estima con los promedios de cada par                     */
+/*   ESTRATIFICADO  (0,1) se divide en n/2 estratos iguales con dos puntos   */
+/*                  uniformes independientes en cada uno; con dos puntos por */
+/*                  estrato la varianza se estima sin sesgo. Dentro del      */
+/*                  bloque las observaciones se desordenan                   */
+/*   CONTROL        la variable de control es la uniforme U que genera cada  */
+/*                  observacion, de media teorica 1/2: el estimador es       */
+/*                  media(X)-b(media(U)-1/2) con b=cov(X,U)/var(U)           */
+/*                                                                           */
+/* El factor de reduccion es el cociente entre la varianza del promedio      */
+/* simple (s^2/n) y la del estimador: la corrida equivale a una de Monte     */
+/* Carlo simple con ese factor por n observaciones.                          */
+/*                                                                           */
+/* Como HistogramaObs, el objeto que arma GenObsAlet es el modelo: cada      */
+/* bloque se genera en una copia vacia (CrearVacio) que acumula sus sumas y  */
+/* las copias se combinan con Combinar en el orden de los bloques.           */
+/*****************************************************************************/
+
+public class ReduccionVarianza {
+
+  /* Codigos de las tecnicas; 0 es Monte Carlo simple */
+  public static final int NINGUNA=0;
+  public static final int ANTITETICAS=1;
+  public static final int ESTRATIFICADO=2;
+  public static final int CONTROL=3;
+
+  /* Nombres para mostrar, indexados por codigo */
+  public static final String[] NOMBRES={ "Monte Carlo simple", "Variables antiteticas",
+                                         "Muestreo estratificado", "Variable de control" };
+
+  /* Nombres cortos para SimulLote, indexados por codigo */
+  public static final String[] CLAVES={ "no", "antiteticas", "estratificado", "control" };
+
+  private final int Tipo;
+  private final FdaTeorica Fda;
+  private final long Total;
+
+  /* Observaciones: cantidad, media y suma de cuadrados centrada */
+  private long n;
+  private double MediaX, Sxx;
+
+  /* Antiteticas: promedios de los pares completos */
+  private long Pares;
+  private double MediaPar, Spp;
+
+  /* Estratificado: suma de (y1-y2)^2 de los estratos con dos puntos */
+  private double SumaDif2;
+
+  /* Control: media de U, suma de cuadrados y de productos cruzados con X */
+  private double MediaU, Suu, Sxu;
+
+  /************************************************************************/
+  /* Modelo para una corrida de Total observaciones de la distribucion F  */
+  /************************************************************************/
+  public ReduccionVarianza(int Tipo, FdaTeorica F, long Total)
+  {
+  if(Tipo<ANTITETICAS || Tipo>CONTROL)
+     throw new IllegalArgumentException("tecnica de reduccion de varianza desconocida: "+Tipo);
+  this.Tipo=Tipo;
+  this.Fda=F;
+  this.Total=Total;
+  }
+
+  /************************************************************************/
+  /* Codigo de una tecnica por su nombre corto o largo, o por el numero   */
+  /************************************************************************/
+  public static int TipoDeNombre(String Nombre)
+  {
+  for(int i=0; i<CLAVES.length; i++){
+     if(CLAVES[i].equalsIgnoreCase(Nombre) || NOMBRES[i].equalsIgnoreCase(Nombre))
+        return i;
+  }
+  if(Nombre.equalsIgnoreCase("lhs"))
+     return ESTRATIFICADO;
+  try{
+     int Tipo=Integer.parseInt(Nombre);
+     if(Tipo>=NINGUNA && Tipo<=CONTROL)
+        return Tipo;
+  }
+  catch(NumberFormatException nfe){
+  }
+  throw new IllegalArgumentException("tecnica de reduccion de varianza desconocida: "+Nombre);
+  }
+
+  /************************************************************************/
+  /* Copia sin observaciones con la misma tecnica y distribucion          */
+  /************************************************************************/
+  public ReduccionVarianza CrearVacio()
+  {
+  return new ReduccionVarianza(this.Tipo, this.Fda, this.Total);
+  }
+
+  public int GetTipo(){
+      return this.Tipo;
+  }
+
+  public String GetNombre(){
+      return NOMBRES[this.Tipo];
+  }
+
+  /* Uniforme en (0,1), simetrica: 1-u tambien esta en la rejilla */
+  private static double Uniforme(MotorAleatorio Motor)
+  {
+  return ((Motor.SigLong()>>>11)+0.5)*0x1.0p-53;
+  }
+
+  /************************************************************************/
+  /* Genera Cant observaciones en Datos desde Ini, que son las de indice  */
+  /* Desde, Desde+1, ... de la corrida, y las agrega a las sumas. Desde   */
+  /* debe ser par para que los pares y estratos no crucen bloques.        */
+  /************************************************************************/
+  public void Llenar(double[] Datos, int Ini, int Cant, long Desde, MotorAleatorio Motor)
+  {
+  if(Cant<=0)
+     return;
+  FdaTeorica F=this.Fda;
+  int Fin=Ini+Cant;
+  switch(this.Tipo){
+     case ANTITETICAS:
+        for(int i=Ini; i<Fin; i+=2){
+           double u=Uniforme(Motor);
+           Datos[i]=F.Inversa(u);
+           if(i+1<Fin)
+              Datos[i+1]=F.Inversa(1-u);
+        }
+        SumarPares(Datos, Ini, Cant);
+        break;
+     case ESTRATIFICADO: {
+        double Ancho=2.0/this.Total;
+        for(int i=Ini; i<Fin; i+=2){
+           long Estrato=(Desde+i-Ini)>>>1;
+           if(i+1<Fin || Desde+Cant<this.Total){
+              Datos[i]=F.Inversa(SecuenciaQMC.Abierto((Estrato+Uniforme(Motor))*Ancho));
+              if(i+1<Fin)
+                 Datos[i+1]=F.Inversa(SecuenciaQMC.Abierto((Estrato+Uniforme(Motor))*Ancho));
+           }
+           else{
+              /* Con Total impar el ultimo estrato es de medio ancho y un solo punto */
+              Datos[i]=F.Inversa(SecuenciaQMC.Abierto((this.Total-1+Uniforme(Motor))/this.Total));
+           }
+        }
+        SumarEstratos(Datos, Ini, Cant);
+        /* Fisher-Yates: el orden no afecta al estimador pero si a la serie guardada */
+        for(int i=Cant-1; i>0; i--){
+           int j=Ini+(int)(((Motor.SigLong()>>>32)*(i+1))>>>32);
+           double t=Datos[Ini+i];
+           Datos[Ini+i]=Datos[j];
+           Datos[j]=t;
+        }
+        break;
+     }
+     case CONTROL:
+        SumarControl(Datos, Ini, Cant, Motor);
+        break;
+  }
+  }
+
+  /* Sumas del bloque de antiteticas, centradas en la primera observacion */
+  private void SumarPares(double[] Datos, int Ini, int Cant)
+  {
+  double K=Datos[Ini], Sx=0, Sx2=0, Sp=0, Sp2=0;
+  int m=Cant/2;
+  for(int i=0; i<Cant; i++){
+     double d=Datos[Ini+i]-K;
+     Sx+=d;
+     Sx2+=d*d;
+  }
+  for(int j=0; j<m; j++){
+     double d=(Datos[Ini+2*j]+Datos[Ini+2*j+1])*0.5-K;
+     Sp+=d;
+     Sp2+=d*d;
+  }
+  UnirX(Cant, K+Sx/Cant, Sx2-Sx*Sx/Cant);
+  if(m>0){
+     double Media=K+Sp/m, S=Sp2-Sp*Sp/m;
+     long Suma=this.Pares+m;
+     double Delta=Media-this.MediaPar;
+     this.Spp+=S+Delta*Delta*this.Pares*m/Suma;
+     this.MediaPar+=Delta*m/Suma;
+     this.Pares=Suma;
+  }
+  }
+
+  /* Sumas del bloque estratificado, antes de desordenarlo */
+  private void SumarEstratos(double[] Datos, int Ini, int Cant)
+  {
+  double K=Datos[Ini], Sx=0, Sx2=0, D2=0;
+  for(int i=0; i<Cant; i++){
+     double d=Datos[Ini+i]-K;
+     Sx+=d;
+     Sx2+=d*d;
+  }
+  for(int i=Ini; i+1<Ini+Cant; i+=2){
+     double d=Datos[i]-Datos[i+1];
+     D2+=d*d;
+  }
+  UnirX(Cant, K+Sx/Cant, Sx2-Sx*Sx/Cant);
+  this.SumaDif2+=D2;
+  }
+
+  /* Genera el bloque con variable de control y suma X, U y X*U */
+  private void SumarControl(double[] Datos, int Ini, int Cant, MotorAleatorio Motor)
+  {
+  double Kx=0, Sx=0, Su=0, Sx2=0, Su2=0, Sxu=0;
+  for(int i=0; i<Cant; i++){
+     double u=Uniforme(Motor);
+     double x=this.Fda.Inversa(u);
+     Datos[Ini+i]=x;
+     if(i==0)
+        Kx=x;
+     double dx=x-Kx, du=u-0.5;
+     Sx+=dx;
+     Su+=du;
+     Sx2+=dx*dx;
+     Su2+=du*du;
+     Sxu+=dx*du;
+  }
+  double MediaU=0.5+Su/Cant;
+  double MediaX=Kx+Sx/Cant;
+  double DeltaU=MediaU-this.MediaU, DeltaX=MediaX-this.MediaX;
+  double Factor=(double)this.n*Cant/(this.n+Cant);
+  this.Suu+=Su2-Su*Su/Cant+DeltaU*DeltaU*Factor;
+  this.Sxu+=Sxu-Sx*Su/Cant+DeltaX*DeltaU*Factor;
+  this.MediaU+=DeltaU*Cant/(this.n+Cant);
+  UnirX(Cant, MediaX, Sx2-Sx*Sx/Cant);
+  }
+
+  /* Une la media y la suma centrada de un bloque de X (Chan) */
+  private void UnirX(long m, double Media, double S)
+  {
+  long Suma=this.n+m;
+  double Delta=Media-this.MediaX;
+  this.Sxx+=S+Delta*Delta*this.n*m/Suma;
+  this.MediaX+=Delta*m/Suma;
+  this.n=Suma;
+  }
+
+  /************************************************************************/
+  /* Combina las sumas de Otro (bloques posteriores) con las de este      */
+  /************************************************************************/
+  public void Combinar(ReduccionVarianza Otro)
+  {
+  if(Otro.n==0)
+     return;
+  long Suma=this.n+Otro.n;
+  double Factor=(double)this.n*Otro.n/Suma;
+  double DeltaX=Otro.MediaX-this.MediaX, DeltaU=Otro.MediaU-this.MediaU;
+  this.Suu+=Otro.Suu+DeltaU*DeltaU*Factor;
+  this.Sxu+=Otro.Sxu+DeltaX*DeltaU*Factor;
+  this.MediaU+=DeltaU*Otro.n/Suma;
+  this.SumaDif2+=Otro.SumaDif2;
+  if(Otro.Pares>0){
+     long Pares=this.Pares+Otro.Pares;
+     double Delta=Otro.MediaPar-this.MediaPar;
+     this.Spp+=Otro.Spp+Delta*Delta*this.Pares*Otro.Pares/Pares;
+     this.MediaPar+=Delta*Otro.Pares/Pares;
+     this.Pares=Pares;
+  }
+  UnirX(Otro.n, Otro.MediaX, Otro.Sxx);
+  }
+
+  public void Reiniciar()
+  {
+  this.n=this.Pares=0;
+  this.MediaX=this.Sxx=this.MediaPar=this.Spp=0;
+  this.SumaDif2=this.MediaU=this.Suu=this.Sxu=0;
+  }
+
+  public long GetCantidad(){
+      return this.n;
+  }
+
+  /************************************************************************/
+  /* Estimacion de la media de la distribucion                            */
+  /************************************************************************/
+  public double GetMedia()
+  {
+  if(this.Tipo==CONTROL && this.Suu>0)
+     return this.MediaX-this.Sxu/this.Suu*(this.MediaU-0.5);
+  return this.MediaX;
+  }
+
+  /************************************************************************/
+  /* Varianza estimada del estimador de la media                          */
+  /************************************************************************/
+  public double GetVarianzaEstimador()
+  {
+  double N=this.n;
+  /* Con N impar la ultima observacion queda sola; su aporte se acota */
+  /* con la varianza de la muestra                                    */
+  double Sola=(this.n&1)!=0 && this.n>1 ? this.Sxx/(this.n-1)/(N*N) : 0;
+  switch(this.Tipo){
+     case ANTITETICAS:
+        /* La media es 2/N por la suma de los promedios de los pares */
+        return this.Pares>1 ? 4.0*this.Pares*Math.max(this.Spp/(this.Pares-1), 0)/(N*N)+Sola : Sola;
+     case ESTRATIFICADO:
+        /* Estrato de peso 2/N con s^2=(y1-y2)^2/2 y dos puntos */
+        return N>0 ? this.SumaDif2/(N*N)+Sola : 0;
+     case CONTROL:
+        if(this.n<3 || this.Suu<=0)
+           return 0;
+        return Math.max(this.Sxx-this.Sxu*this.Sxu/this.Suu, 0)/(this.n-2)/N;
+  }
+  return 0;
+  }
+
+  public double GetErrorEstandar(){
+      return Math.sqrt(GetVarianzaEstimador());
+  }
+
+  /************************************************************************/
+  /* Error estandar del promedio simple, s/sqrt(n)                        */
+  /************************************************************************/
+  public double GetErrorSimple(){
+      return this.n>1 ? Math.sqrt(this.Sxx/(this.n-1)/this.n) : 0;
+  }
+
+  /************************************************************************/
+  /* Factor de reduccion de varianza respecto de Monte Carlo simple; es   */
+  /* infinito si el estimador no tiene varianza (antiteticas de una       */
+  /* distribucion simetrica) y NaN si no hay datos suficientes            */
+  /************************************************************************/
+  public double GetFactorReduccion()
+  {
+  double Simple=GetErrorSimple();
+  if(this.n<2)
+     return Double.NaN;
+  return Simple*Simple/GetVarianzaEstimador();
+  }
+
+  /************************************************************************/
+  /* Indica si la corrida cubre todos los estratos; una corrida           */
+  /* estratificada cancelada deja estratos sin puntos y su media tiene    */
+  /* sesgo                                                                */
+  /************************************************************************/
+  public boolean EsCompleta(){
+      return this.Tipo!=ESTRATIFICADO || this.n==this.Total;
+  }
+
+  /************************************************************************/
+  /* Texto con el estimador para el resumen de la corrida                 */
+  /************************************************************************/
+  public String GetTexto()
+  {
+  double Factor=GetFactorReduccion();
+  StringBuffer Texto=new StringBuffer();
+  Texto.append(GetNombre()).append(EsCompleta() ? "" : " (incompleto, la media tiene sesgo)").append('\n');
+  Texto.append(String.format("%-10s %16.9g  +- %.3g (error est.; simple %.3g)\n", "Media",
+                             GetMedia(), GetErrorEstandar(), GetErrorSimple()));
+  Texto.append(String.format("%-10s %16.4g", "Reduccion", Factor));
+  if(Factor>1 && !Double.isInfinite(Factor))
+     Texto.append(String.format("  (equivale a %.4g obs. de Monte Carlo simple)", Factor*this.n));
+  return Texto.toString();
+  }
+}
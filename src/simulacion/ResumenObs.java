@@ -0,0 +1,151 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase ResumenObs: agrupa los consumidores en linea de una corrida         */
+/* (momentos, histograma y sketch de cuantiles). Se alimenta bloque a bloque */
+/* y ocupa memoria constante sin importar la cantidad de observaciones.      */
+/* Cuando la muestra queda en memoria no hace falta el histograma en linea   */
+/* (se cuenta despues con los intervalos definitivos) y se omite. Si la      */
+/* corrida usa reduccion de varianza lleva tambien su estimador de la media, */
+/* que se alimenta al generar (ver ReduccionVarianza).                       */
+/*****************************************************************************/
+
+public class ResumenObs implements ConsumidorObs {
+
+  /* Cuantiles que se reportan en el resumen */
+  public static final double[] ORDENES={ 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99 };
+
+  private MomentosObs Momentos;
+  private HistogramaObs Histograma;
+  private SketchCuantiles Sketch;
+  private ReduccionVarianza Reduccion;
+
+  public ResumenObs(double LimInf, double LimSup, int NumClases)
+  {
+  this.Momentos=new MomentosObs();
+  this.Histograma=new HistogramaObs(LimInf, LimSup, NumClases);
+  this.Sketch=new SketchCuantiles();
+  }
+
+  /************************************************************************/
+  /* Crea el resumen con los intervalos de un histograma ya definido      */
+  /************************************************************************/
+  public ResumenObs(HistogramaObs Modelo)
+  {
+  this.Momentos=new MomentosObs();
+  this.Histograma=Modelo.CrearVacio();
+  this.Sketch=new SketchCuantiles();
+  }
+
+  /************************************************************************/
+  /* Crea el resumen sin histograma (solo momentos y cuantiles)           */
+  /************************************************************************/
+  public ResumenObs()
+  {
+  this.Momentos=new MomentosObs();
+  this.Sketch=new SketchCuantiles();
+  }
+
+  /************************************************************************/
+  /* Ajusta el muestreador del sketch a la cantidad de observaciones que  */
+  /* se espera recibir en total; debe llamarse antes de consumir          */
+  /************************************************************************/
+  public void SetMuestreo(long CantEsperada)
+  {
+  this.Sketch.SetMuestreo(SketchCuantiles.NivelMuestreo(CantEsperada, this.Sketch.GetK()));
+  }
+
+  public void Consumir(double[] Datos, int Ini, int Cant)
+  {
+  this.Momentos.Consumir(Datos, Ini, Cant);
+  if(this.Histograma!=null)
+     this.Histograma.Consumir(Datos, Ini, Cant);
+  this.Sketch.Consumir(Datos, Ini, Cant);
+  }
+
+  public void Combinar(ResumenObs Otro)
+  {
+  this.Momentos.Combinar(Otro.Momentos);
+  if(this.Histograma!=null && Otro.Histograma!=null)
+     this.Histograma.Combinar(Otro.Histograma);
+  this.Sketch.Combinar(Otro.Sketch);
+  if(this.Reduccion!=null && Otro.Reduccion!=null)
+     this.Reduccion.Combinar(Otro.Reduccion);
+  }
+
+  public void Reiniciar()
+  {
+  this.Momentos.Reiniciar();
+  if(this.Histograma!=null)
+     this.Histograma.Reiniciar();
+  this.Sketch.Reiniciar();
+  if(this.Reduccion!=null)
+     this.Reduccion.Reiniciar();
+  }
+
+  public MomentosObs GetMomentos(){
+      return this.Momentos;
+  }
+
+  public HistogramaObs GetHistograma(){
+      return this.Histograma;
+  }
+
+  public SketchCuantiles GetSketch(){
+      return this.Sketch;
+  }
+
+  /************************************************************************/
+  /* Estimador con reduccion de varianza (null en Monte Carlo simple);    */
+  /* Consumir no lo alimenta, lo hace ReduccionVarianza.Llenar            */
+  /************************************************************************/
+  public void SetReduccion(ReduccionVarianza Reduccion){
+      this.Reduccion=Reduccion;
+  }
+
+  public ReduccionVarianza GetReduccion(){
+      return this.Reduccion;
+  }
+
+  /************************************************************************/
+  /* Texto con el resumen de la corrida para mostrarlo en pantalla        */
+  /************************************************************************/
+  public String GetTexto()
+  {
+  return GetTexto(null);
+  }
+
+  /************************************************************************/
+  /* Texto con el resumen; si Teoricos no es null (media, varianza,       */
+  /* asimetria y exceso de curtosis de la distribucion) los momentos de   */
+  /* la muestra se muestran al lado de los teoricos. Pensado para una     */
+  /* fuente de ancho fijo.                                                */
+  /************************************************************************/
+  public String GetTexto(double[] Teoricos)
+  {
+  MomentosObs M=this.Momentos;
+  String[] Nombres={ "Media", "Varianza", "Asimetria", "Curtosis" };
+  double[] Muestra={ M.GetMedia(), M.GetVarianza(), M.GetAsimetria(), M.GetCurtosis() };
+  StringBuffer Texto=new StringBuffer();
+  Texto.append("Observaciones: ").append(M.GetCantidad()).append('\n');
+  Texto.append(String.format("%-10s %16s", "", "Muestra"));
+  if(Teoricos!=null)
+     Texto.append(String.format(" %16s", "Teorico"));
+  Texto.append('\n');
+  for(int i=0; i<Nombres.length; i++){
+     Texto.append(String.format("%-10s %16.6g", Nombres[i], Muestra[i]));
+     if(Teoricos!=null)
+        Texto.append(String.format(" %16.6g", Teoricos[i]));
+     Texto.append('\n');
+  }
+  Texto.append(String.format("%-10s %16.6g\n", "Minimo", M.GetMin()));
+  Texto.append(String.format("%-10s %16.6g\n", "Maximo", M.GetMax()));
+  double[] Cuantiles=this.Sketch.GetCuantiles(ORDENES);
+  Texto.append("Cuantiles:");
+  for(int i=0; i<ORDENES.length; i++)
+     Texto.append("  P").append(Math.round(ORDENES[i]*100)).append("=").append((float)Cuantiles[i]);
+  if(this.Reduccion!=null)
+     Texto.append("\n\n").append(this.Reduccion.GetTexto());
+  return Texto.toString();
+  }
+}
@@ -0,0 +1,110 @@
+package simulacion;
+import java.io.File;
+import java.util.Locale;
+
+/*****************************************************************************/
+/* Clase RutasSim: ubicacion de los datos de la aplicacion bajo una carpeta  */
+/* raiz configurable:                                                        */
+/*                                                                           */
+/*   <raiz>/ObsData/Geo ... Emp   archivos de observaciones                  */
+/*   <raiz>/ObsData/Flujo         volcado de las corridas en modo flujo      */
+/*   <raiz>/Resultados                                                       */
+/*   <raiz>/Otros                 contador de secuencias e indice            */
+/*                                                                           */
+/* La raiz es, en orden: la propiedad del sistema simuldp.raiz, la variable  */
+/* de entorno SIMULDP_RAIZ, C:\SimulDP en Windows (donde la buscaban las     */
+/* versiones anteriores) o SimulDP en la carpeta del usuario. SimulLote la   */
+/* toma tambien de la clave raiz.                                            */
+/*****************************************************************************/
+
+public class RutasSim {
+
+  /* Prefijo de los archivos y nombre del directorio de cada distribucion, por codigo menos uno */
+  public static final String[] PREFIJOS={ "Geo", "Poi", "Uni", "Exp", "Nor", "Emp" };
+
+  private static volatile File Raiz;
+
+  private RutasSim()
+  {
+  }
+
+  public static File GetRaiz()
+  {
+  File r=Raiz;
+  if(r==null){
+     r=RaizPorDefecto();
+     Raiz=r;
+  }
+  return r;
+  }
+
+  public static void SetRaiz(File Nueva)
+  {
+  Raiz=Nueva.getAbsoluteFile();
+  }
+
+  private static File RaizPorDefecto()
+  {
+  String Valor=System.getProperty("simuldp.raiz");
+  if(Valor==null || Valor.trim().length()==0)
+     Valor=System.getenv("SIMULDP_RAIZ");
+  if(Valor!=null && Valor.trim().length()>0)
+     return new File(Valor.trim()).getAbsoluteFile();
+  if(System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows"))
+     return new File("C:\\SimulDP");
+  return new File(System.getProperty("user.home"), "SimulDP");
+  }
+
+  public static File DirObsData()
+  {
+  return new File(GetRaiz(), "ObsData");
+  }
+
+  /************************************************************************/
+  /* Directorio de los archivos de la distribucion TipoDistr (1..6)       */
+  /************************************************************************/
+  public static File DirObs(int TipoDistr)
+  {
+  return new File(DirObsData(), PREFIJOS[TipoDistr-1]);
+  }
+
+  public static File DirFlujo()
+  {
+  return new File(DirObsData(), "Flujo");
+  }
+
+  public static File DirResultados()
+  {
+  return new File(GetRaiz(), "Resultados");
+  }
+
+  public static File DirOtros()
+  {
+  return new File(GetRaiz(), "Otros");
+  }
+
+  /************************************************************************/
+  /* Directorios que muestra el arbol de archivos: los seis de            */
+  /* observaciones, por codigo de distribucion, y el de resultados        */
+  /************************************************************************/
+  public static File[] DirectoriosArchivos()
+  {
+  File[] Dirs=new File[PREFIJOS.length+1];
+  for(int i=0; i<PREFIJOS.length; i++)
+     Dirs[i]=DirObs(i+1);
+  Dirs[PREFIJOS.length]=DirResultados();
+  return Dirs;
+  }
+
+  /************************************************************************/
+  /* Crea los directorios que falten                                      */
+  /************************************************************************/
+  public static void CrearDirectorios()
+  {
+  File[] Dirs=DirectoriosArchivos();
+  for(int i=0; i<Dirs.length; i++)
+     Dirs[i].mkdirs();
+  DirFlujo().mkdirs();
+  DirOtros().mkdirs();
+  }
+}
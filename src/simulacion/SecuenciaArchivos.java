@@ -0,0 +1,154 @@
+package simulacion;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/*****************************************************************************/
+/* Clase SecuenciaArchivos: asigna el siguiente nombre de archivo de una     */
+/* distribucion (Geo.001, Geo.002, ..., Geo.999, Geo.1000, ...) de forma     */
+/* segura entre varios procesos que guardan a la vez.                        */
+/*                                                                           */
+/* El nombre se reserva creando el archivo vacio con Files.createFile, que   */
+/* es atomico: si otro proceso ya lo creo se prueba el siguiente. Para no    */
+/* recorrer todos los numeros usados, el siguiente de cada distribucion se   */
+/* guarda en Otros/Contador.txt (el mismo formato de las versiones           */
+/* anteriores: una linea por distribucion), que se lee y escribe con un      */
+/* FileLock tomado. Si el sistema de archivos no permite bloquear se sigue   */
+/* sin el bloqueo; la creacion atomica basta para no repetir nombres.        */
+/*****************************************************************************/
+
+public class SecuenciaArchivos {
+
+  /* FileLock es por proceso: dentro de la JVM se serializa con este objeto */
+  private static final Object CERROJO=new Object();
+
+  private SecuenciaArchivos()
+  {
+  }
+
+  public static File ArchivoContador()
+  {
+  return new File(RutasSim.DirOtros(), "Contador.txt");
+  }
+
+  /************************************************************************/
+  /* Nombre del archivo numero n de la distribucion TipoDistr; al menos   */
+  /* tres digitos, como los de las versiones anteriores                   */
+  /************************************************************************/
+  public static String Nombre(int TipoDistr, long n)
+  {
+  return String.format(Locale.ROOT, "%s.%03d", RutasSim.PREFIJOS[TipoDistr-1], n);
+  }
+
+  /************************************************************************/
+  /* Reserva el siguiente archivo de la distribucion: lo crea vacio y lo  */
+  /* retorna. Quien lo reserva lo sobrescribe, o lo borra si no llega a   */
+  /* guardar; el numero no se vuelve a usar.                              */
+  /************************************************************************/
+  public static File Reservar(int TipoDistr) throws IOException
+  {
+  File Dir=RutasSim.DirObs(TipoDistr);
+  Dir.mkdirs();
+  File Contador=ArchivoContador();
+  Contador.getAbsoluteFile().getParentFile().mkdirs();
+  synchronized(CERROJO){
+     try(FileChannel Canal=FileChannel.open(Contador.toPath(), StandardOpenOption.READ,
+                                            StandardOpenOption.WRITE, StandardOpenOption.CREATE)){
+        FileLock Bloqueo=Bloquear(Canal);
+        try{
+           long[] Siguiente=LeerContadores(Canal);
+           long n=Siguiente[TipoDistr-1];
+           if(n<1)
+              n=MayorExistente(Dir, TipoDistr)+1;
+           File Archivo;
+           while(true){
+              Archivo=new File(Dir, Nombre(TipoDistr, n));
+              try{
+                 Files.createFile(Archivo.toPath());
+                 break;
+              }
+              catch(FileAlreadyExistsException faee){
+                 n++;
+              }
+           }
+           Siguiente[TipoDistr-1]=n+1;
+           EscribirContadores(Canal, Siguiente);
+           return Archivo;
+        }
+        finally{
+           if(Bloqueo!=null)
+              Bloqueo.release();
+        }
+     }
+  }
+  }
+
+  private static FileLock Bloquear(FileChannel Canal)
+  {
+  try{
+     return Canal.lock();
+  }
+  catch(IOException ioe){
+     return null;
+  }
+  }
+
+  /************************************************************************/
+  /* Siguiente numero de cada distribucion; 0 si no se conoce (archivo    */
+  /* nuevo o sin la linea, como los anteriores a la empirica)             */
+  /************************************************************************/
+  private static long[] LeerContadores(FileChannel Canal) throws IOException
+  {
+  long[] Siguiente=new long[RutasSim.PREFIJOS.length];
+  ByteBuffer Buf=ByteBuffer.allocate((int)Math.min(Canal.size(), 4096));
+  Canal.position(0);
+  while(Buf.hasRemaining() && Canal.read(Buf)>=0);
+  String[] Lineas=new String(Buf.array(), 0, Buf.position(), StandardCharsets.US_ASCII).split("\r?\n");
+  for(int i=0; i<Siguiente.length && i<Lineas.length; i++){
+     try{
+        Siguiente[i]=Long.parseLong(Lineas[i].trim());
+     }
+     catch(NumberFormatException nfe){
+        Siguiente[i]=0;
+     }
+  }
+  return Siguiente;
+  }
+
+  private static void EscribirContadores(FileChannel Canal, long[] Siguiente) throws IOException
+  {
+  StringBuffer Texto=new StringBuffer();
+  for(int i=0; i<Siguiente.length; i++)
+     Texto.append(Siguiente[i]).append('\n');
+  ByteBuffer Buf=ByteBuffer.wrap(Texto.toString().getBytes(StandardCharsets.US_ASCII));
+  Canal.truncate(0);
+  Canal.position(0);
+  while(Buf.hasRemaining())
+     Canal.write(Buf);
+  Canal.force(false);
+  }
+
+  /* Mayor numero de archivo de la distribucion que ya existe en Dir */
+  private static long MayorExistente(File Dir, int TipoDistr)
+  {
+  String Prefijo=RutasSim.PREFIJOS[TipoDistr-1]+".";
+  String[] Nombres=Dir.list();
+  long Mayor=0;
+  for(int i=0; Nombres!=null && i<Nombres.length; i++){
+     if(!Nombres[i].startsWith(Prefijo))
+        continue;
+     try{
+        Mayor=Math.max(Mayor, Long.parseLong(Nombres[i].substring(Prefijo.length())));
+     }
+     catch(NumberFormatException nfe){
+     }
+  }
+  return Mayor;
+  }
+}
@@ -0,0 +1,136 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase abstracta SecuenciaQMC: sucesion de baja discrepancia (cuasi Monte  */
+/* Carlo) en el cubo [0,1)^Dimensiones. A diferencia de MotorAleatorio, el   */
+/* punto i se obtiene directamente por su indice, asi cada bloque de         */
+/* GenObsAlet salta a su tramo de la sucesion (el bloque b empieza en el     */
+/* punto b*BLOQUE) y el resultado no depende de la cantidad de hilos.        */
+/*                                                                           */
+/* Las variantes con mezcla de Owen usan la semilla de la corrida para       */
+/* permutar los digitos; las otras no dependen de la semilla. Los valores    */
+/* nunca son 0 ni 1, para poder aplicarles la inversa de cualquier           */
+/* distribucion (ver FdaTeorica.Inversa): las distribuciones que generan por */
+/* rechazo no conservan la baja discrepancia, por eso con una sucesion todas */
+/* se generan por transformacion inversa.                                    */
+/*****************************************************************************/
+
+public abstract class SecuenciaQMC {
+
+  /* Codigos de las sucesiones; 0 es el muestreo pseudoaleatorio del motor */
+  public static final int NINGUNA=0;
+  public static final int SOBOL=1;
+  public static final int SOBOL_OWEN=2;
+  public static final int HALTON=3;
+  public static final int HALTON_OWEN=4;
+
+  /* Nombres para mostrar, indexados por codigo */
+  public static final String[] NOMBRES={ "Pseudoaleatorio", "Sobol", "Sobol (Owen)", "Halton", "Halton (Owen)" };
+
+  /* Nombres cortos para SimulLote, indexados por codigo */
+  public static final String[] CLAVES={ "no", "sobol", "sobol-owen", "halton", "halton-owen" };
+
+  /************************************************************************/
+  /* Crea la sucesion indicada; Semilla solo la usan las mezcladas        */
+  /************************************************************************/
+  public static SecuenciaQMC Crear(int Tipo, long Semilla)
+  {
+  switch(Tipo){
+     case SOBOL:
+        return new SobolQMC(false, Semilla);
+     case SOBOL_OWEN:
+        return new SobolQMC(true, Semilla);
+     case HALTON:
+        return new HaltonQMC(false, Semilla);
+     case HALTON_OWEN:
+        return new HaltonQMC(true, Semilla);
+  }
+  throw new IllegalArgumentException("sucesion QMC desconocida: "+Tipo);
+  }
+
+  /************************************************************************/
+  /* Codigo de una sucesion por su nombre corto o largo, o por el numero  */
+  /************************************************************************/
+  public static int TipoDeNombre(String Nombre)
+  {
+  for(int i=0; i<CLAVES.length; i++){
+     if(CLAVES[i].equalsIgnoreCase(Nombre) || NOMBRES[i].equalsIgnoreCase(Nombre))
+        return i;
+  }
+  try{
+     int Tipo=Integer.parseInt(Nombre);
+     if(Tipo>=NINGUNA && Tipo<=HALTON_OWEN)
+        return Tipo;
+  }
+  catch(NumberFormatException nfe){
+  }
+  throw new IllegalArgumentException("sucesion QMC desconocida: "+Nombre);
+  }
+
+  /************************************************************************/
+  /* Cantidad de coordenadas disponibles                                  */
+  /************************************************************************/
+  public abstract int GetDimensiones();
+
+  /************************************************************************/
+  /* Cantidad de puntos distintos de la sucesion                          */
+  /************************************************************************/
+  public abstract long GetMaxPuntos();
+
+  public abstract int GetTipo();
+
+  /************************************************************************/
+  /* Coordenada Dim (0..GetDimensiones()-1) del punto Indice              */
+  /************************************************************************/
+  public abstract double Coordenada(long Indice, int Dim);
+
+  /************************************************************************/
+  /* Llena Cant posiciones de Datos desde Ini con la coordenada Dim de    */
+  /* los puntos Desde, Desde+1, ...; las subclases lo hacen incremental   */
+  /************************************************************************/
+  public void Llenar(double[] Datos, int Ini, int Cant, long Desde, int Dim)
+  {
+  Validar(Desde, Cant, Dim);
+  for(int i=0; i<Cant; i++)
+     Datos[Ini+i]=Coordenada(Desde+i, Dim);
+  }
+
+  public String GetNombre(){
+      return NOMBRES[GetTipo()];
+  }
+
+  void Validar(long Desde, long Cant, int Dim)
+  {
+  if(Dim<0 || Dim>=GetDimensiones())
+     throw new IllegalArgumentException(GetNombre()+": dimension "+Dim+" fuera de 0.."+(GetDimensiones()-1));
+  if(Desde<0 || Cant<0 || Desde+Cant>GetMaxPuntos())
+     throw new IllegalArgumentException(GetNombre()+": admite hasta "+GetMaxPuntos()+" puntos");
+  }
+
+  /************************************************************************/
+  /* Semilla de la mezcla de una dimension                                */
+  /************************************************************************/
+  static long SemillaDim(long Semilla, int Dim)
+  {
+  return MotorAleatorio.MezclaSplitMix(Semilla^MotorAleatorio.MezclaSplitMix(Dim+0x9E3779B97F4A7C15L));
+  }
+
+  /************************************************************************/
+  /* Lleva u al intervalo abierto (0,1)                                   */
+  /************************************************************************/
+  static double Abierto(double u)
+  {
+  return u<=0 ? 0x1.0p-54 : u>=1 ? Math.nextDown(1.0) : u;
+  }
+
+  /************************************************************************/
+  /* Observaciones por transformacion inversa: Datos[Ini+i] es F^-1 de la */
+  /* primera coordenada del punto Desde+i                                 */
+  /************************************************************************/
+  public void LlenarInversa(double[] Datos, int Ini, int Cant, long Desde, FdaTeorica F)
+  {
+  Llenar(Datos, Ini, Cant, Desde, 0);
+  for(int i=Ini; i<Ini+Cant; i++)
+     Datos[i]=F.Inversa(Datos[i]);
+  }
+}
@@ -0,0 +1,413 @@
+package simulacion;
+import java.io.*;
+import java.util.Locale;
+import java.util.Properties;
+
+/*****************************************************************************/
+/* Clase SimulLote: punto de entrada sin interfaz grafica para correr una    */
+/* generacion en un servidor. La corrida se describe con pares clave=valor   */
+/* en los argumentos y/o en un archivo de propiedades (config=archivo o      */
+/* -f archivo); los argumentos tienen prioridad sobre el archivo:            */
+/*                                                                           */
+/*   dist     geo, poi, uni, exp, nor, emp (o el codigo 1..6) o normv        */
+/*   n        cantidad de observaciones (acepta 1e8)                         */
+/*   q        probabilidad de fracaso (geo)     inicio  0 o 1 (geo)          */
+/*   media    media (poi, exp, nor)             dstd    desv. estandar (nor) */
+/*   inf,sup  limites (uni)                     metodo  de la normal (1..4)  */
+/*   tabla    archivo guardado del que se toma la tabla (emp)                */
+/*   semilla  semilla (si falta se genera una)  motor   nombre o codigo      */
+/*   hilos    hilos de generacion               flujo   true: no guarda la   */
+/*   salida   archivo de salida (opcional)              muestra en memoria   */
+/*   formato  bin (defecto) o txt               pruebas true: pruebas de     */
+/*                                                      ajuste               */
+/*   guardar  true: guarda en el siguiente archivo de la secuencia           */
+/*            (Geo.001, Geo.002...) en vez de salida; varios procesos a la   */
+/*            vez no repiten numeros (ver SecuenciaArchivos)                 */
+/*   raiz     carpeta de datos (ver RutasSim)                                */
+/*   qmc      sobol, sobol-owen, halton o halton-owen: muestreo cuasi Monte  */
+/*            Carlo por transformacion inversa (ver SecuenciaQMC)            */
+/*   comprimir true: el archivo binario se guarda comprimido por bloques     */
+/*            (ver ColumnaComprimida)                                        */
+/*   reduccion antiteticas, estratificado (o lhs) o control: reduccion de    */
+/*            varianza; el informe agrega la media estimada, su error y el   */
+/*            factor de reduccion (ver ReduccionVarianza)                    */
+/*                                                                           */
+/* Con dist=normv se generan n vectores normales correlacionados (ver        */
+/* NorMultivariada) con las claves n, semilla, motor, hilos y metodo y:      */
+/*                                                                           */
+/*   cov      archivo de texto con la matriz de covarianza, una fila por     */
+/*            linea                                                          */
+/*   media    un valor para todas las componentes o la lista separada por    */
+/*            comas (0 si falta)                                             */
+/*   salida   archivo de texto con un vector por linea (opcional)            */
+/*                                                                           */
+/* Ejemplo:                                                                  */
+/*   java -cp SimulDP.jar simulacion.SimulLote dist=nor media=0 dstd=1       */
+/*        n=1e8 hilos=8 semilla=42 salida=nor.obs                            */
+/*   java -cp SimulDP.jar simulacion.SimulLote dist=normv cov=cov.txt        */
+/*        n=1e6 hilos=8 semilla=42                                           */
+/*                                                                           */
+/* Usa ControlSim y GenObsAlet directamente y no carga clases de Swing ni de */
+/* Open Source Physics. Imprime los tiempos y el rendimiento de cada etapa.  */
+/*****************************************************************************/
+
+public class SimulLote {
+
+  private static final String[] DISTRIBUCIONES={ "geo", "poi", "uni", "exp", "nor", "emp" };
+
+  private Properties Spec;
+
+  public SimulLote(Properties Spec)
+  {
+  this.Spec=Spec;
+  }
+
+  public static void main(String[] args)
+  {
+  try{
+     new SimulLote(LeerSpec(args)).Correr(System.out);
+  }
+  catch(IllegalArgumentException iae){
+     System.err.println("Error: "+iae.getMessage());
+     System.err.println("Uso: java simulacion.SimulLote [-f archivo.properties] clave=valor ...");
+     System.err.println("Claves: dist n semilla motor hilos q inicio media dstd inf sup metodo tabla");
+     System.err.println("        salida formato flujo pruebas guardar raiz comprimir qmc reduccion");
+     System.err.println("        dist=normv: n semilla motor hilos metodo cov media salida");
+     System.exit(2);
+  }
+  catch(IOException ioe){
+     System.err.println("Error: "+ioe.getMessage());
+     System.exit(1);
+  }
+  catch(UncheckedIOException uioe){
+     System.err.println("Error: "+uioe.getCause().getMessage());
+     System.exit(1);
+  }
+  }
+
+  /************************************************************************/
+  /* Junta el archivo de propiedades (si se indica) y los pares clave=    */
+  /* valor de la linea de comandos                                        */
+  /************************************************************************/
+  public static Properties LeerSpec(String[] args) throws IOException
+  {
+  Properties Arg=new Properties();
+  String Config=null;
+  for(int i=0; i<args.length; i++){
+     String a=args[i];
+     if(a.equals("-f") && i+1<args.length){
+        Config=args[++i];
+        continue;
+     }
+     while(a.startsWith("-"))
+        a=a.substring(1);
+     int Igual=a.indexOf('=');
+     if(Igual<=0)
+        throw new IllegalArgumentException("se esperaba clave=valor: "+args[i]);
+     Arg.setProperty(a.substring(0, Igual).trim().toLowerCase(Locale.ROOT), a.substring(Igual+1).trim());
+  }
+  if(Config==null)
+     Config=Arg.getProperty("config");
+  Properties Spec=new Properties();
+  if(Config!=null){
+     try(Reader Ent=new InputStreamReader(new FileInputStream(Config), "UTF-8")){
+        Spec.load(Ent);
+     }
+  }
+  Spec.putAll(Arg);
+  return Spec;
+  }
+
+  /************************************************************************/
+  /* Genera la corrida descrita, la guarda si se pidio y escribe el       */
+  /* informe en Salida                                                    */
+  /************************************************************************/
+  public void Correr(PrintStream Salida) throws IOException
+  {
+  if(this.Spec.getProperty("raiz")!=null)
+     RutasSim.SetRaiz(new File(this.Spec.getProperty("raiz")));
+  if(Requerido("dist").equalsIgnoreCase("normv")){
+     CorrerMultivariada(Salida);
+     return;
+  }
+  int Dist=TipoDistribucion(Requerido("dist"));
+  long n=Entero("n", -1);
+  if(n<0)
+     throw new IllegalArgumentException("falta n");
+  long Semilla=this.Spec.getProperty("semilla")!=null ? Entero("semilla", 0) : MotorAleatorio.SemillaNueva();
+  int Motor=MotorAleatorio.TipoDeNombre(this.Spec.getProperty("motor", "1"));
+  int Hilos=(int)Entero("hilos", Runtime.getRuntime().availableProcessors());
+  String Formato=this.Spec.getProperty("formato", "bin").toLowerCase(Locale.ROOT);
+  if(!Formato.equals("bin") && !Formato.equals("txt"))
+     throw new IllegalArgumentException("formato debe ser bin o txt: "+Formato);
+  String NomSalida=this.Spec.getProperty("salida");
+  File Archivo=NomSalida!=null ? new File(NomSalida) : null;
+  boolean Flujo=Boolean.parseBoolean(this.Spec.getProperty("flujo", "false"));
+  if(Flujo && Archivo!=null && Formato.equals("txt"))
+     throw new IllegalArgumentException("en modo flujo la salida solo puede ser binaria");
+  boolean Guardar=Boolean.parseBoolean(this.Spec.getProperty("guardar", "false"));
+  if(Guardar && (Archivo!=null || Formato.equals("txt")))
+     throw new IllegalArgumentException("guardar escribe el archivo binario de la secuencia; no se usa con salida ni formato=txt");
+  boolean Comprimir=Boolean.parseBoolean(this.Spec.getProperty("comprimir", "false"));
+  if(Comprimir && Formato.equals("txt"))
+     throw new IllegalArgumentException("comprimir solo se usa con el formato binario");
+
+  ControlSim Control=new ControlSim();
+  TablaAlias Tabla=null;
+  if(Dist==6){
+     String NomTabla=Requerido("tabla");
+     try{
+        Tabla=Control.TablaDeArchivo(NomTabla);
+     }
+     catch(IOException ioe){
+        throw new IllegalArgumentException("no se pudo leer la tabla de "+NomTabla+": "+ioe.getMessage());
+     }
+     catch(IllegalArgumentException iae){
+        throw new IllegalArgumentException("no se pudo leer la tabla de "+NomTabla+": "+iae.getMessage());
+     }
+  }
+  Control.CrearObs(Dist, n, Motor, Semilla);
+  GenObsAlet Obs=Control.GetObs();
+  Obs.SetHilos(Hilos);
+  Obs.SetComprimir(Comprimir);
+  int QMC=SecuenciaQMC.TipoDeNombre(this.Spec.getProperty("qmc", "no"));
+  Obs.SetQMC(QMC);
+  int Reduccion=ReduccionVarianza.TipoDeNombre(this.Spec.getProperty("reduccion", "no"));
+  if(Reduccion!=ReduccionVarianza.NINGUNA && QMC!=SecuenciaQMC.NINGUNA)
+     throw new IllegalArgumentException("reduccion no se combina con qmc");
+  Obs.SetReduccion(Reduccion);
+  /* En modo flujo el archivo se escribe mientras se genera: se reserva antes */
+  if(Guardar && Flujo)
+     Archivo=SecuenciaArchivos.Reservar(Dist);
+  Obs.SetFlujo(Flujo, Archivo);
+  Obs.SetInicioGeo((int)Entero("inicio", Geo.INICIO_UNO));
+  Obs.SetMetodoNormal((int)Entero("metodo", Nor.ZIGGURAT));
+
+  Salida.println("n="+n+"  semilla="+Semilla+"  motor="+MotorAleatorio.NOMBRES[Motor-1]+"  hilos="+Hilos+
+                 "  nucleos="+NucleosLote.Get().GetNombre()+
+                 (QMC!=SecuenciaQMC.NINGUNA ? "  qmc="+SecuenciaQMC.NOMBRES[QMC] : "")+
+                 (Reduccion!=ReduccionVarianza.NINGUNA ? "  reduccion="+ReduccionVarianza.NOMBRES[Reduccion] : ""));
+  long t0=System.nanoTime();
+  switch(Dist){
+     case 1:
+        Obs.GenObsDisc(Real("q"), 0);
+        break;
+     case 2:
+        Obs.GenObsDisc(0, Real("media"));
+        break;
+     case 3:
+        Obs.GenObsCont(Real("inf"), Real("sup"), 0, 0);
+        break;
+     case 4:
+        Obs.GenObsCont(0, 0, Real("media"), 0);
+        break;
+     case 5:
+        Obs.GenObsCont(0, 0, Real("media"), Real("dstd"));
+        break;
+     case 6:
+        Obs.GenObsEmp(Tabla);
+        break;
+  }
+  long t1=System.nanoTime();
+  Salida.println(Obs.GetTitulo());
+  Informe(Salida, Obs.EsFlujo() && Archivo!=null ? "Generacion y escritura" : "Generacion", n, t1-t0);
+
+  if(Guardar && !Obs.EsFlujo()){
+     t0=System.nanoTime();
+     Archivo=Obs.Guardar(null);
+     t1=System.nanoTime();
+     Informe(Salida, "Escritura ("+(Comprimir ? "comprimido" : "bin")+", "+(Archivo.length()>>20)+" MB)", n, t1-t0);
+  }
+  else if(Archivo!=null && !Obs.EsFlujo()){
+     t0=System.nanoTime();
+     if(Formato.equals("txt"))
+        Obs.GuardarTexto(Archivo);
+     else
+        Obs.GuardarBinario(Archivo);
+     t1=System.nanoTime();
+     Informe(Salida, "Escritura ("+(Comprimir ? "comprimido" : Formato)+", "+(Archivo.length()>>20)+" MB)", n, t1-t0);
+  }
+  if(Archivo!=null)
+     Salida.println("Archivo: "+Archivo.getAbsolutePath());
+
+  Salida.println();
+  Salida.println(Obs.GetResumen().GetTexto(Obs.GetMomentosTeoricos()));
+  if(Boolean.parseBoolean(this.Spec.getProperty("pruebas", "false"))){
+     PruebasAjuste Pruebas=Obs.ProbarAjuste(Obs.EsDiscreta() ? 1 : 2);
+     if(Pruebas!=null){
+        Salida.println();
+        Salida.println(Pruebas.GetTexto());
+     }
+  }
+  }
+
+  /************************************************************************/
+  /* dist=normv: factoriza la covarianza, genera los n vectores por       */
+  /* columnas, los guarda si hay salida y compara los momentos de la      */
+  /* muestra con los de la distribucion                                   */
+  /************************************************************************/
+  private void CorrerMultivariada(PrintStream Salida) throws IOException
+  {
+  if(Boolean.parseBoolean(this.Spec.getProperty("flujo", "false")) || Boolean.parseBoolean(this.Spec.getProperty("guardar", "false"))
+     || Boolean.parseBoolean(this.Spec.getProperty("comprimir", "false"))
+     || SecuenciaQMC.TipoDeNombre(this.Spec.getProperty("qmc", "no"))!=SecuenciaQMC.NINGUNA
+     || ReduccionVarianza.TipoDeNombre(this.Spec.getProperty("reduccion", "no"))!=ReduccionVarianza.NINGUNA)
+     throw new IllegalArgumentException("normv no admite flujo, guardar, comprimir, qmc ni reduccion");
+  if(!this.Spec.getProperty("formato", "txt").equalsIgnoreCase("txt"))
+     throw new IllegalArgumentException("normv guarda la salida solo en texto");
+  long n=Entero("n", -1);
+  if(n<0)
+     throw new IllegalArgumentException("falta n");
+  if(n>GenObsAlet.MAX_EN_MEMORIA)
+     throw new IllegalArgumentException("normv admite hasta "+GenObsAlet.MAX_EN_MEMORIA+" vectores");
+  long Semilla=this.Spec.getProperty("semilla")!=null ? Entero("semilla", 0) : MotorAleatorio.SemillaNueva();
+  int Motor=MotorAleatorio.TipoDeNombre(this.Spec.getProperty("motor", "1"));
+  int Hilos=(int)Entero("hilos", Runtime.getRuntime().availableProcessors());
+  String NomSalida=this.Spec.getProperty("salida");
+  File Archivo=NomSalida!=null ? new File(NomSalida) : null;
+
+  double[][] Cov=NorMultivariada.LeerMatriz(new File(Requerido("cov")));
+  if(Cov.length==0)
+     throw new IllegalArgumentException("no hay filas en "+this.Spec.getProperty("cov"));
+  int Dim=Cov.length;
+  long t0=System.nanoTime();
+  NorMultivariada Dist=new NorMultivariada(Media(Dim), Cov, (int)Entero("metodo", Nor.ZIGGURAT));
+  long t1=System.nanoTime();
+  Salida.println("n="+n+"  dim="+Dim+"  semilla="+Semilla+"  motor="+MotorAleatorio.NOMBRES[Motor-1]+"  hilos="+Hilos+
+                 "  nucleos="+NucleosLote.Get().GetNombre());
+  Salida.println(String.format(Locale.ROOT, "%-34s %9.3f s", "Factorizacion (Cholesky):", (t1-t0)/1e9));
+  t0=System.nanoTime();
+  double[][] Columnas=Dist.Generar((int)n, MotorAleatorio.Crear(Motor, Semilla), Hilos);
+  t1=System.nanoTime();
+  Informe(Salida, "Generacion ("+Dim+" componentes)", n*Dim, t1-t0);
+  if(Archivo!=null){
+     t0=System.nanoTime();
+     NorMultivariada.GuardarTexto(Columnas, (int)n, Archivo);
+     t1=System.nanoTime();
+     Informe(Salida, "Escritura (txt, "+(Archivo.length()>>20)+" MB)", n*Dim, t1-t0);
+     Salida.println("Archivo: "+Archivo.getAbsolutePath());
+  }
+  Salida.println();
+  InformeMomentos(Salida, Dist, Columnas, (int)n);
+  }
+
+  /* Media de normv: un valor para todas las componentes o uno por componente */
+  private double[] Media(int Dim)
+  {
+  double[] Media=new double[Dim];
+  String Valor=this.Spec.getProperty("media");
+  if(Valor==null || Valor.trim().length()==0)
+     return Media;
+  String[] Campos=Valor.trim().split("[\\s,;]+");
+  if(Campos.length!=1 && Campos.length!=Dim)
+     throw new IllegalArgumentException("media debe tener 1 o "+Dim+" valores y tiene "+Campos.length);
+  try{
+     for(int j=0; j<Dim; j++)
+        Media[j]=Double.parseDouble(Campos[Campos.length==1 ? 0 : j]);
+  }
+  catch(NumberFormatException nfe){
+     throw new IllegalArgumentException("media no es una lista de numeros: "+Valor);
+  }
+  return Media;
+  }
+
+  /************************************************************************/
+  /* Mayor diferencia entre la muestra y la distribucion en las medias    */
+  /* (en desviaciones estandar), las varianzas (relativa) y las           */
+  /* correlaciones de componentes consecutivas, con el error estandar de  */
+  /* referencia de cada una                                               */
+  /************************************************************************/
+  private static void InformeMomentos(PrintStream Salida, NorMultivariada Dist, double[][] Columnas, int n)
+  {
+  int Dim=Columnas.length;
+  double[] Media=Dist.GetMedia();
+  double[] Prom=new double[Dim], Var=new double[Dim];
+  double ErrMedia=0, ErrVar=0, ErrCorr=0;
+  for(int j=0; j<Dim; j++){
+     double[] x=Columnas[j];
+     double s=0;
+     for(int i=0; i<n; i++)
+        s+=x[i];
+     Prom[j]=n>0 ? s/n : 0;
+     double v=0;
+     for(int i=0; i<n; i++)
+        v+=(x[i]-Prom[j])*(x[i]-Prom[j]);
+     Var[j]=n>1 ? v/(n-1) : 0;
+     double Sigma2=Dist.GetCovarianza(j, j);
+     if(Sigma2>0){
+        ErrMedia=Math.max(ErrMedia, Math.abs(Prom[j]-Media[j])/Math.sqrt(Sigma2));
+        ErrVar=Math.max(ErrVar, Math.abs(Var[j]/Sigma2-1));
+     }
+  }
+  for(int j=0; j+1<Dim; j++){
+     double Sigma2=Dist.GetCovarianza(j, j)*Dist.GetCovarianza(j+1, j+1);
+     if(!(Sigma2>0) || !(Var[j]*Var[j+1]>0))
+        continue;
+     double[] x=Columnas[j], y=Columnas[j+1];
+     double c=0;
+     for(int i=0; i<n; i++)
+        c+=(x[i]-Prom[j])*(y[i]-Prom[j+1]);
+     double r=c/(n-1)/Math.sqrt(Var[j]*Var[j+1]);
+     ErrCorr=Math.max(ErrCorr, Math.abs(r-Dist.GetCovarianza(j, j+1)/Math.sqrt(Sigma2)));
+  }
+  double Raiz=Math.sqrt(Math.max(n, 1));
+  Salida.println(String.format(Locale.ROOT, "Max |media-mu|/sigma:        %.6f   (error estandar %.6f)", ErrMedia, 1/Raiz));
+  Salida.println(String.format(Locale.ROOT, "Max |varianza/sigma^2-1|:    %.6f   (error estandar %.6f)", ErrVar, Math.sqrt(2)/Raiz));
+  Salida.println(String.format(Locale.ROOT, "Max |r-rho| (j, j+1):        %.6f   (error estandar <= %.6f)", ErrCorr, 1/Raiz));
+  }
+
+  /* Tiempo y rendimiento de una etapa */
+  private static void Informe(PrintStream Salida, String Etapa, long n, long Nanos)
+  {
+  double Seg=Nanos/1e9;
+  Salida.println(String.format(Locale.ROOT, "%-34s %9.3f s  %10.2f Mobs/s  %7.2f ns/obs  %8.1f MB/s",
+                               Etapa+":", Seg, n/Seg/1e6, n>0 ? (double)Nanos/n : 0, 8.0*n/Seg/(1<<20)));
+  }
+
+  private String Requerido(String Clave)
+  {
+  String Valor=this.Spec.getProperty(Clave);
+  if(Valor==null || Valor.length()==0)
+     throw new IllegalArgumentException("falta "+Clave);
+  return Valor;
+  }
+
+  private double Real(String Clave)
+  {
+  try{
+     return Double.parseDouble(Requerido(Clave));
+  }
+  catch(NumberFormatException nfe){
+     throw new IllegalArgumentException(Clave+" no es un numero: "+this.Spec.getProperty(Clave));
+  }
+  }
+
+  /* Entero; acepta notacion 1e8 para las cantidades */
+  private long Entero(String Clave, long Defecto)
+  {
+  String Valor=this.Spec.getProperty(Clave);
+  if(Valor==null)
+     return Defecto;
+  try{
+     return Long.parseLong(Valor);
+  }
+  catch(NumberFormatException nfe){
+     try{
+        double d=Double.parseDouble(Valor);
+        if(d==Math.rint(d) && Math.abs(d)<9e18)
+           return (long)d;
+     }
+     catch(NumberFormatException nfe2){
+     }
+     throw new IllegalArgumentException(Clave+" no es un entero: "+Valor);
+  }
+  }
+
+  private static int TipoDistribucion(String Nombre)
+  {
+  for(int i=0; i<DISTRIBUCIONES.length; i++)
+     if(DISTRIBUCIONES[i].equalsIgnoreCase(Nombre) || Nombre.equals(Integer.toString(i+1)))
+        return i+1;
+  throw new IllegalArgumentException("distribucion desconocida: "+Nombre);
+  }
+}
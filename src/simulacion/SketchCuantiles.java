@@ -0,0 +1,311 @@
+package simulacion;
+import java.util.Arrays;
+
+/*****************************************************************************/
+/* Clase SketchCuantiles: resumen aproximado de cuantiles tipo KLL (Karnin,  */
+/* Lang y Liberty). Guarda las observaciones en niveles; un elemento del     */
+/* nivel h representa 2^h observaciones. Cuando un nivel se llena se ordena  */
+/* y se promueve la mitad de sus elementos al nivel siguiente. La memoria es */
+/* O(K log(N/K)) y dos sketches pueden combinarse.                           */
+/* La eleccion de la mitad que se promueve usa un generador propio con       */
+/* semilla fija, de modo que el resultado es reproducible.                   */
+/* Para corridas grandes se puede activar un muestreador (SetMuestreo): de   */
+/* cada grupo de 2^s observaciones se toma una al azar y entra directo al    */
+/* nivel s con su peso. Es el muestreador del articulo de KLL; hace que el   */
+/* costo por observacion sea casi nulo cuando s se elige segun la cantidad   */
+/* esperada (ver NivelMuestreo).                                             */
+/*****************************************************************************/
+
+public class SketchCuantiles implements ConsumidorObs {
+
+  public static final int K_DEFECTO=1024;
+  private static final int ANCHO_MINIMO=8;
+
+  private final int K;
+  private AlmacenObs[] Niveles;
+  private int NumNiveles;
+  private int[] Capacidades;
+  private long Cantidad;
+  private long Moneda=0x5DEECE66DL;
+
+  /* Muestreador: nivel s y el grupo incompleto de observaciones */
+  private int Muestreo;
+  private double[] Pendientes;
+  private int NumPendientes;
+
+  public SketchCuantiles()
+  {
+  this(K_DEFECTO);
+  }
+
+  public SketchCuantiles(int K)
+  {
+  this.K=Math.max(K, ANCHO_MINIMO);
+  this.Niveles=new AlmacenObs[4];
+  this.Niveles[0]=new AlmacenObs(this.K);
+  this.NumNiveles=1;
+  CalcularCapacidades();
+  }
+
+  /************************************************************************/
+  /* Nivel del muestreador para unas N observaciones esperadas: se deja   */
+  /* que lleguen al sketch unas 64K muestras, lo que mantiene el error de */
+  /* rango del muestreo en el orden del error propio del sketch.          */
+  /************************************************************************/
+  public static int NivelMuestreo(long N, int K)
+  {
+  int s=0;
+  while(s<20 && (N>>(s+1))>=64L*K)
+     s++;
+  return s;
+  }
+
+  /************************************************************************/
+  /* Activa el muestreador de nivel s; debe llamarse con el sketch vacio  */
+  /************************************************************************/
+  public void SetMuestreo(int s)
+  {
+  if(this.Cantidad>0 || this.NumPendientes>0)
+     throw new IllegalStateException("El muestreo se fija con el sketch vacio");
+  this.Muestreo=Math.max(0, s);
+  this.Pendientes=this.Muestreo>0 ? new double[1<<this.Muestreo] : null;
+  }
+
+  public int GetMuestreo(){
+      return this.Muestreo;
+  }
+
+  public int GetK(){
+      return this.K;
+  }
+
+  public void Agregar(double x)
+  {
+  if(x!=x)
+     return; /* NaN no tiene posicion en el orden */
+  if(this.Muestreo==0){
+     AgregarEnNivel(0, x);
+     return;
+  }
+  this.Pendientes[this.NumPendientes++]=x;
+  if(this.NumPendientes==this.Pendientes.length){
+     AgregarEnNivel(this.Muestreo, this.Pendientes[Elegir()]);
+     this.NumPendientes=0;
+  }
+  }
+
+  public void Consumir(double[] Datos, int Ini, int Cant)
+  {
+  int Fin=Ini+Cant;
+  if(this.Muestreo>0){
+     /* Primero se completa el grupo pendiente; luego se elige una     */
+     /* observacion de cada grupo completo sin copiarlo                */
+     while(Ini<Fin && this.NumPendientes>0)
+        Agregar(Datos[Ini++]);
+     int Grupo=1<<this.Muestreo;
+     for(; Ini+Grupo<=Fin; Ini+=Grupo){
+        double x=Datos[Ini+Elegir()];
+        if(x==x)
+           AgregarEnNivel(this.Muestreo, x);
+        else  /* si la elegida es NaN el grupo se procesa de a una */
+           for(int i=Ini; i<Ini+Grupo; i++)
+              Agregar(Datos[i]);
+     }
+  }
+  for(int i=Ini; i<Fin; i++)
+     Agregar(Datos[i]);
+  }
+
+  private void AgregarEnNivel(int h, double x)
+  {
+  while(h>=this.NumNiveles){
+     if(this.NumNiveles==this.Niveles.length)
+        this.Niveles=Arrays.copyOf(this.Niveles, this.NumNiveles*2);
+     this.Niveles[this.NumNiveles++]=new AlmacenObs(this.K);
+     CalcularCapacidades();
+  }
+  this.Niveles[h].Agregar(x);
+  this.Cantidad+=1L<<h;
+  if(this.Niveles[h].GetTamano()>=this.Capacidades[h])
+     Comprimir();
+  }
+
+  /************************************************************************/
+  /* Pasa el grupo incompleto del muestreador al nivel 0, con peso 1      */
+  /************************************************************************/
+  private void VaciarPendientes()
+  {
+  for(int i=0; i<this.NumPendientes; i++)
+     AgregarEnNivel(0, this.Pendientes[i]);
+  this.NumPendientes=0;
+  }
+
+  private int Elegir()
+  {
+  SigMoneda();
+  return (int)(this.Moneda>>>(64-this.Muestreo));
+  }
+
+  /************************************************************************/
+  /* Capacidad del nivel h: K en el nivel mas alto y decreciendo por un   */
+  /* factor 2/3 hacia los niveles inferiores. Se recalculan solo cuando  */
+  /* cambia la cantidad de niveles.                                       */
+  /************************************************************************/
+  private void CalcularCapacidades()
+  {
+  if(this.Capacidades==null || this.Capacidades.length<this.NumNiveles)
+     this.Capacidades=new int[this.Niveles.length];
+  for(int h=0; h<this.NumNiveles; h++){
+     int Cap=(int)Math.ceil(this.K*Math.pow(2.0/3.0, this.NumNiveles-h-1));
+     this.Capacidades[h]=Math.max(Cap, ANCHO_MINIMO);
+  }
+  }
+
+  private int Capacidad(int h)
+  {
+  return this.Capacidades[h];
+  }
+
+  /************************************************************************/
+  /* Compacta de abajo hacia arriba todos los niveles que excedan su      */
+  /* capacidad.                                                           */
+  /************************************************************************/
+  private void Comprimir()
+  {
+  for(int h=0; h<this.NumNiveles; h++){
+     if(this.Niveles[h].GetTamano()>=Capacidad(h))
+        CompactarNivel(h);
+  }
+  }
+
+  private void CompactarNivel(int h)
+  {
+  if(h+1==this.NumNiveles){
+     if(this.NumNiveles==this.Niveles.length)
+        this.Niveles=Arrays.copyOf(this.Niveles, this.NumNiveles*2);
+     this.Niveles[this.NumNiveles++]=new AlmacenObs(this.K);
+     CalcularCapacidades();
+  }
+  AlmacenObs Nivel=this.Niveles[h];
+  AlmacenObs Superior=this.Niveles[h+1];
+  double[] Datos=Nivel.GetArreglo();
+  int Tam=Nivel.GetTamano();
+  Arrays.sort(Datos, 0, Tam);
+  /* Con tamaño impar el mayor elemento se queda en este nivel */
+  int Pares=Tam&~1;
+  int Desp=SigMoneda();
+  for(int i=Desp; i<Pares; i+=2)
+     Superior.Agregar(Datos[i]);
+  double Resto=Datos[Tam-1];
+  Nivel.Limpiar();
+  if(Pares<Tam)
+     Nivel.Agregar(Resto);
+  }
+
+  private int SigMoneda()
+  {
+  this.Moneda^=this.Moneda<<13;
+  this.Moneda^=this.Moneda>>>7;
+  this.Moneda^=this.Moneda<<17;
+  return (int)(this.Moneda>>>63);
+  }
+
+  /************************************************************************/
+  /* Combina Otro en este sketch, nivel por nivel                         */
+  /************************************************************************/
+  public void Combinar(SketchCuantiles Otro)
+  {
+  VaciarPendientes();
+  for(int i=0; i<Otro.NumPendientes; i++)
+     AgregarEnNivel(0, Otro.Pendientes[i]);
+  for(int h=0; h<Otro.NumNiveles; h++){
+     while(h>=this.NumNiveles){
+        if(this.NumNiveles==this.Niveles.length)
+           this.Niveles=Arrays.copyOf(this.Niveles, this.NumNiveles*2);
+        this.Niveles[this.NumNiveles++]=new AlmacenObs(this.K);
+     }
+     CalcularCapacidades();
+     AlmacenObs Nivel=Otro.Niveles[h];
+     this.Niveles[h].Agregar(Nivel.GetArreglo(), 0, Nivel.GetTamano());
+  }
+  this.Cantidad+=Otro.Cantidad;
+  /* Una pasada puede llenar el nivel siguiente; se repite hasta cumplir */
+  boolean Lleno=true;
+  while(Lleno){
+     Comprimir();
+     Lleno=false;
+     for(int h=0; h<this.NumNiveles; h++)
+        if(this.Niveles[h].GetTamano()>=Capacidad(h))
+           Lleno=true;
+  }
+  }
+
+  public void Reiniciar()
+  {
+  this.Niveles[0].Limpiar();
+  this.NumNiveles=1;
+  CalcularCapacidades();
+  this.Cantidad=0;
+  this.NumPendientes=0;
+  this.Moneda=0x5DEECE66DL;
+  }
+
+  public long GetCantidad(){
+      return this.Cantidad+this.NumPendientes;
+  }
+
+  /************************************************************************/
+  /* Retorna el cuantil aproximado de orden p (0<=p<=1). Los niveles se   */
+  /* ordenan y se mezclan acumulando el peso 2^h de cada elemento.        */
+  /************************************************************************/
+  public double GetCuantil(double p)
+  {
+  return GetCuantiles(new double[]{ p })[0];
+  }
+
+  public double[] GetCuantiles(double[] p)
+  {
+  VaciarPendientes();
+  double[] Resultado=new double[p.length];
+  if(this.Cantidad==0){
+     Arrays.fill(Resultado, Double.NaN);
+     return Resultado;
+  }
+  double[][] Ordenados=new double[this.NumNiveles][];
+  int[] Pos=new int[this.NumNiveles];
+  for(int h=0; h<this.NumNiveles; h++){
+     Ordenados[h]=this.Niveles[h].GetCopia();
+     Arrays.sort(Ordenados[h]);
+  }
+  boolean[] Listo=new boolean[p.length];
+  double[] Objetivo=new double[p.length];
+  for(int j=0; j<p.length; j++)
+     Objetivo[j]=Math.min(Math.max(p[j], 0), 1)*this.Cantidad;
+  long Acumulado=0;
+  double Ultimo=Double.NaN;
+  while(true){
+     /* Siguiente elemento menor entre las cabezas de los niveles */
+     int Menor=-1;
+     for(int h=0; h<this.NumNiveles; h++){
+        if(Pos[h]<Ordenados[h].length &&
+           (Menor<0 || Ordenados[h][Pos[h]]<Ordenados[Menor][Pos[Menor]]))
+           Menor=h;
+     }
+     if(Menor<0)
+        break;
+     Ultimo=Ordenados[Menor][Pos[Menor]++];
+     Acumulado+=1L<<Menor;
+     for(int j=0; j<p.length; j++){
+        if(!Listo[j] && Objetivo[j]<=Acumulado){
+           Resultado[j]=Ultimo;
+           Listo[j]=true;
+        }
+     }
+  }
+  /* Por redondeo el objetivo p=1 puede no alcanzarse: se usa el maximo */
+  for(int j=0; j<p.length; j++)
+     if(!Listo[j])
+        Resultado[j]=Ultimo;
+  return Resultado;
+  }
+}
@@ -0,0 +1,145 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase SobolQMC: sucesion de Sobol de 32 bits con los numeros directores   */
+/* de Joe y Kuo (new-joe-kuo-6.21201) para las primeras 21 dimensiones; la   */
+/* primera es la de van der Corput en base 2. Los puntos van en el orden del */
+/* codigo de Gray, asi el punto i+1 sale del i con un solo XOR (Antonov y    */
+/* Saleev) y el punto i se obtiene directo para saltar a cualquier tramo.    */
+/*                                                                           */
+/* La mezcla de Owen es la de Burley (2020): se invierten los bits, se les   */
+/* aplica la permutacion de Laine y Karras con una semilla por dimension y   */
+/* se vuelven a invertir, lo que equivale a una mezcla anidada uniforme.     */
+/* El valor es el centro de la celda de 2^-32, por eso nunca es 0 ni 1.      */
+/*****************************************************************************/
+
+public class SobolQMC extends SecuenciaQMC {
+
+  private static final int BITS=32;
+
+  /* Dimensiones 2 en adelante: grado s del polinomio primitivo, sus       */
+  /* coeficientes a y los numeros directores iniciales m_1..m_s            */
+  private static final int[][] DIRECTORES={
+     { 1, 0, 1 },
+     { 2, 1, 1, 3 },
+     { 3, 1, 1, 3, 1 },
+     { 3, 2, 1, 1, 1 },
+     { 4, 1, 1, 1, 3, 3 },
+     { 4, 4, 1, 3, 5, 13 },
+     { 5, 2, 1, 1, 5, 5, 17 },
+     { 5, 4, 1, 1, 5, 5, 5 },
+     { 5, 7, 1, 1, 7, 11, 19 },
+     { 5, 11, 1, 1, 5, 1, 1 },
+     { 5, 13, 1, 1, 1, 3, 11 },
+     { 5, 14, 1, 3, 5, 5, 31 },
+     { 6, 1, 1, 3, 3, 9, 7, 49 },
+     { 6, 13, 1, 1, 1, 15, 21, 21 },
+     { 6, 16, 1, 3, 1, 13, 27, 49 },
+     { 6, 19, 1, 1, 1, 15, 7, 5 },
+     { 6, 22, 1, 3, 1, 15, 13, 25 },
+     { 6, 25, 1, 1, 5, 5, 19, 61 },
+     { 7, 1, 1, 3, 7, 11, 23, 15, 103 },
+     { 7, 4, 1, 3, 7, 13, 13, 15, 69 }
+  };
+
+  public static final int DIMENSIONES=DIRECTORES.length+1;
+
+  /* V[d][k]: numero director k de la dimension d, alineado a 32 bits */
+  private static final int[][] V=CrearDirectores();
+
+  private final boolean Owen;
+  private final int[] SemillaOwen;
+
+  SobolQMC(boolean Owen, long Semilla)
+  {
+  this.Owen=Owen;
+  this.SemillaOwen=new int[DIMENSIONES];
+  for(int d=0; d<DIMENSIONES; d++)
+     this.SemillaOwen[d]=(int)SemillaDim(Semilla, d);
+  }
+
+  private static int[][] CrearDirectores()
+  {
+  int[][] Dir=new int[DIMENSIONES][BITS];
+  for(int k=0; k<BITS; k++)
+     Dir[0][k]=1<<(BITS-1-k);
+  for(int d=1; d<DIMENSIONES; d++){
+     int[] P=DIRECTORES[d-1];
+     int s=P[0], a=P[1];
+     for(int k=0; k<s && k<BITS; k++)
+        Dir[d][k]=P[2+k]<<(BITS-1-k);
+     /* v_k = v_{k-s} ^ (v_{k-s} >> s) ^ sum a_j v_{k-j} */
+     for(int k=s; k<BITS; k++){
+        int v=Dir[d][k-s]^(Dir[d][k-s]>>>s);
+        for(int j=1; j<s; j++){
+           if(((a>>>(s-1-j))&1)!=0)
+              v^=Dir[d][k-j];
+        }
+        Dir[d][k]=v;
+     }
+  }
+  return Dir;
+  }
+
+  public int GetDimensiones(){
+      return DIMENSIONES;
+  }
+
+  public long GetMaxPuntos(){
+      return 1L<<BITS;
+  }
+
+  public int GetTipo(){
+      return this.Owen ? SOBOL_OWEN : SOBOL;
+  }
+
+  /* Bits del punto Indice (en el orden de Gray) en la dimension Dim */
+  private static int Entero(long Indice, int Dim)
+  {
+  long g=Indice^(Indice>>>1);
+  int x=0;
+  for(int k=0; g!=0; k++, g>>>=1){
+     if((g&1)!=0)
+        x^=V[Dim][k];
+  }
+  return x;
+  }
+
+  private double Valor(int x, int Dim)
+  {
+  if(this.Owen)
+     x=Integer.reverse(LaineKarras(Integer.reverse(x), this.SemillaOwen[Dim]));
+  return ((x&0xFFFFFFFFL)+0.5)*0x1.0p-32;
+  }
+
+  /* Permutacion de Laine y Karras con las constantes de Burley */
+  private static int LaineKarras(int x, int Semilla)
+  {
+  x^=x*0x3d20adea;
+  x+=Semilla;
+  x*=(Semilla>>>16)|1;
+  x^=x*0x05526c56;
+  x^=x*0x53a22864;
+  return x;
+  }
+
+  public double Coordenada(long Indice, int Dim)
+  {
+  Validar(Indice, 1, Dim);
+  return Valor(Entero(Indice, Dim), Dim);
+  }
+
+  public void Llenar(double[] Datos, int Ini, int Cant, long Desde, int Dim)
+  {
+  Validar(Desde, Cant, Dim);
+  if(Cant==0)
+     return;
+  int[] Dir=V[Dim];
+  int x=Entero(Desde, Dim);
+  Datos[Ini]=Valor(x, Dim);
+  for(int i=1; i<Cant; i++){
+     x^=Dir[Long.numberOfTrailingZeros(Desde+i)];
+     Datos[Ini+i]=Valor(x, Dim);
+  }
+  }
+}
@@ -0,0 +1,226 @@
+package simulacion;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*****************************************************************************/
+/* Clase TablaAlias: distribucion discreta tabulada (valores y probabilidades*/
+/* dados por el usuario o tomados de una muestra guardada) muestreada con el */
+/* metodo de alias de Walker en la construccion estable de Vose. Armar la    */
+/* tabla cuesta O(n) y cada observacion O(1), sin importar cuantas           */
+/* categorias tenga.                                                         */
+/*****************************************************************************/
+
+public class TablaAlias implements Muestreador {
+
+  private final double[] Valores;
+  private final double[] Probabilidades;
+  private final double[] Umbral;
+  private final int[] Alias;
+
+  /**************************************************************************/
+  /* Construye la tabla; los pesos no necesitan sumar 1 pero deben ser      */
+  /* finitos, no negativos y al menos uno positivo.                         */
+  /**************************************************************************/
+  public TablaAlias(double[] Valores, double[] Pesos)
+  {
+  int n=Valores.length;
+  if(n==0 || Pesos.length!=n)
+     throw new IllegalArgumentException("La tabla debe tener el mismo numero de valores y probabilidades");
+  double Total=0;
+  for(int i=0; i<n; i++){
+     if(!(Pesos[i]>=0) || Double.isInfinite(Pesos[i]))
+        throw new IllegalArgumentException("Probabilidad invalida para el valor "+Valores[i]+": "+Pesos[i]);
+     Total+=Pesos[i];
+  }
+  if(!(Total>0))
+     throw new IllegalArgumentException("Las probabilidades no pueden ser todas cero");
+
+  this.Valores=Valores.clone();
+  this.Probabilidades=new double[n];
+  this.Umbral=new double[n];
+  this.Alias=new int[n];
+
+  /* Vose: las categorias se separan en pequeñas (p*n<1) y grandes; cada  */
+  /* pequeña se completa con masa de una grande, que pasa a ser su alias. */
+  double[] Escalada=new double[n];
+  int[] Pequenas=new int[n], Grandes=new int[n];
+  int NumPeq=0, NumGra=0;
+  for(int i=0; i<n; i++){
+     this.Probabilidades[i]=Pesos[i]/Total;
+     Escalada[i]=this.Probabilidades[i]*n;
+     if(Escalada[i]<1)
+        Pequenas[NumPeq++]=i;
+     else
+        Grandes[NumGra++]=i;
+  }
+  while(NumPeq>0 && NumGra>0){
+     int Peq=Pequenas[--NumPeq];
+     int Gra=Grandes[NumGra-1];
+     this.Umbral[Peq]=Escalada[Peq];
+     this.Alias[Peq]=Gra;
+     Escalada[Gra]=(Escalada[Gra]+Escalada[Peq])-1;
+     if(Escalada[Gra]<1){
+        NumGra--;
+        Pequenas[NumPeq++]=Gra;
+     }
+  }
+  /* Lo que queda tiene probabilidad 1 por redondeo */
+  while(NumGra>0){
+     int i=Grandes[--NumGra];
+     this.Umbral[i]=1;
+     this.Alias[i]=i;
+  }
+  while(NumPeq>0){
+     int i=Pequenas[--NumPeq];
+     this.Umbral[i]=1;
+     this.Alias[i]=i;
+  }
+  }
+
+  /**************************************************************************/
+  /* Tabla empirica de una muestra: cada valor distinto con su frecuencia   */
+  /* relativa.                                                              */
+  /**************************************************************************/
+  public static TablaAlias DesdeObservaciones(double[] Datos, int Cant)
+  {
+  if(Cant==0)
+     throw new IllegalArgumentException("La muestra no tiene observaciones");
+  double[] Orden=Arrays.copyOf(Datos, Cant);
+  Arrays.sort(Orden);
+  double[] Valores=new double[Cant];
+  double[] Frec=new double[Cant];
+  int n=0;
+  for(int i=0; i<Cant; i++){
+     if(n>0 && Orden[i]==Valores[n-1])
+        Frec[n-1]++;
+     else{
+        Valores[n]=Orden[i];
+        Frec[n++]=1;
+     }
+  }
+  return new TablaAlias(Arrays.copyOf(Valores, n), Arrays.copyOf(Frec, n));
+  }
+
+  /**************************************************************************/
+  /* Una observacion: un uniforme elige la columna con su parte entera y    */
+  /* decide entre la categoria y su alias con la parte fraccionaria.        */
+  /**************************************************************************/
+  public double Muestra(double U)
+  {
+  double x=U*this.Umbral.length;
+  int i=(int)x;
+  return (x-i)<this.Umbral[i] ? this.Valores[i] : this.Valores[this.Alias[i]];
+  }
+
+  public double Muestra(MotorAleatorio Motor)
+  {
+  return Muestra(Motor.SigDouble());
+  }
+
+  /**************************************************************************/
+  /* Llena Cant posiciones de Datos desde Ini. Sin motor se usa             */
+  /* ThreadLocalRandom.                                                     */
+  /**************************************************************************/
+  public void Llenar(double[] Datos, int Ini, int Cant, MotorAleatorio Motor)
+  {
+  if(Motor!=null){
+     for(int i=Ini; i<Ini+Cant; i++)
+        Datos[i]=Muestra(Motor.SigDouble());
+  }
+  else{
+     ThreadLocalRandom Tlr=ThreadLocalRandom.current();
+     for(int i=Ini; i<Ini+Cant; i++)
+        Datos[i]=Muestra(Tlr.nextDouble());
+  }
+  }
+
+  /**************************************************************************/
+  /* Funcion de distribucion escalonada de la tabla: los valores se ordenan */
+  /* una vez y cada evaluacion es una busqueda binaria                      */
+  /**************************************************************************/
+  public FdaTeorica CrearFda()
+  {
+  int n=this.Valores.length;
+  Integer[] Orden=new Integer[n];
+  for(int i=0; i<n; i++)
+     Orden[i]=i;
+  Arrays.sort(Orden, new java.util.Comparator<Integer>() {
+     public int compare(Integer i, Integer j){
+        return Double.compare(Valores[i], Valores[j]);
+     }
+  });
+  final double[] x=new double[n], Acum=new double[n+1];
+  for(int i=0; i<n; i++){
+     x[i]=this.Valores[Orden[i]];
+     Acum[i+1]=Acum[i]+this.Probabilidades[Orden[i]];
+  }
+  return new FdaTeorica() {
+     /* Cantidad de valores <= v */
+     private int Hasta(double v){
+        int Pos=Arrays.binarySearch(x, v);
+        if(Pos<0)
+           return -Pos-1;
+        while(Pos+1<x.length && x[Pos+1]==v)
+           Pos++;
+        return Pos+1;
+     }
+
+     public double Acumulada(double v){
+        return Math.min(1, Acum[Hasta(v)]);
+     }
+
+     public double Cola(double v){
+        int k=Hasta(v);
+        return Math.max(0, Acum[x.length]-Acum[k]);
+     }
+
+     /* El primer valor cuya acumulada alcanza p */
+     public double Inversa(double p){
+        double Meta=p*Acum[x.length];
+        int Inf=0, Sup=x.length-1;
+        while(Inf<Sup){
+           int Medio=(Inf+Sup)>>>1;
+           if(Acum[Medio+1]>=Meta)
+              Sup=Medio;
+           else
+              Inf=Medio+1;
+        }
+        return x[Inf];
+     }
+  };
+  }
+
+  public int GetNumCategorias(){
+      return this.Valores.length;
+  }
+
+  public double GetValor(int i){
+      return this.Valores[i];
+  }
+
+  public double GetProbabilidad(int i){
+      return this.Probabilidades[i];
+  }
+
+  /**************************************************************************/
+  /* Indica si todos los valores son enteros (se tabula como discreta)      */
+  /**************************************************************************/
+  public boolean EsEntera()
+  {
+  for(int i=0; i<this.Valores.length; i++)
+     if(this.Valores[i]!=Math.rint(this.Valores[i]))
+        return false;
+  return true;
+  }
+
+  /**************************************************************************/
+  /* Media de la distribucion tabulada                                      */
+  /**************************************************************************/
+  public double GetMedia()
+  {
+  double Media=0;
+  for(int i=0; i<this.Valores.length; i++)
+     Media+=this.Valores[i]*this.Probabilidades[i];
+  return Media;
+  }
+}
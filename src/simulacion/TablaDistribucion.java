@@ -0,0 +1,73 @@
+package simulacion;
+
+/*****************************************************************************/
+/* Clase TablaDistribucion: tabla de frecuencias acumuladas de una muestra   */
+/* en arreglos primitivos. Cada fila es una clase no vacia del histograma    */
+/* con su marca Yi y la frecuencia acumulada hasta ella; la probabilidad de  */
+/* la fila se obtiene de la diferencia con la anterior. La usan GetFxDis,    */
+/* GetPxDis y las tablas de ResDialog sin crear objetos por fila.            */
+/*****************************************************************************/
+
+public class TablaDistribucion {
+
+  private double[] Yi;
+  private long[] Acum;
+  private int Filas;
+  private long Total;
+
+  /************************************************************************/
+  /* Arma la tabla con las clases de Hist. En las distribuciones          */
+  /* discretas (TipoDist 1) la marca se redondea al entero.               */
+  /************************************************************************/
+  public TablaDistribucion(HistogramaObs Hist, int TipoDist)
+  {
+  int Clases=Hist.GetNumClases();
+  this.Yi=new double[Clases];
+  this.Acum=new long[Clases];
+  long Suma=0;
+  int IndiceNuevo=0;
+  for(int i=0; i<Clases; i++)
+  {
+     Suma+=Hist.GetFrec(i);
+     /*Las clases vacias no cambian el acumulado y se omiten, salvo la primera*/
+     if(i!=0 && Suma==this.Acum[IndiceNuevo-1])
+        continue;
+     /*Obtenemos el Yi para la tabla */
+     if(TipoDist==1)
+        this.Yi[IndiceNuevo]=Math.round((Hist.GetLimInf(i)+Hist.GetLimSup(i))/2);
+     else
+        this.Yi[IndiceNuevo]=(Hist.GetLimInf(i)+Hist.GetLimSup(i))/2.0;
+     this.Acum[IndiceNuevo]=Suma;
+     IndiceNuevo++;
+  }
+  this.Filas=IndiceNuevo;
+  this.Total=Suma;
+  }
+
+  public int GetFilas(){
+      return this.Filas;
+  }
+
+  public double GetYi(int i){
+      return this.Yi[i];
+  }
+
+  public long GetAcum(int i){
+      return this.Acum[i];
+  }
+
+  public long GetTotal(){
+      return this.Total;
+  }
+
+  /************************************************************************/
+  /* Frecuencia y probabilidad de la fila i                               */
+  /************************************************************************/
+  public long GetFrec(int i){
+      return i==0 ? this.Acum[0] : this.Acum[i]-this.Acum[i-1];
+  }
+
+  public double GetProb(int i){
+      return (double)GetFrec(i)/this.Total;
+  }
+}
@@ -11,16 +11,15 @@ public class Uni extends DistProb{
 
   public Uni(double a, double b) 
   {
+  this(a, b, null);
+  }
+
+  public Uni(double a, double b, MotorAleatorio Motor) 
+  {
+  this.Motor=Motor;
   this.LimInf=a;
   this.LimSup=b;
-  double NumAleaR;
-  boolean bandera=false;
-  this.Observacion=a-1;/*Hacemos que entre el while*/
-  /*Comprobamos que la observacion este en el rango */
-  while(!(this.Observacion > a && this.Observacion < b )) {
-      NumAleaR=Aleatorio();
-      this.Observacion=a+(b-a)*NumAleaR;      
-  }
+  this.Observacion=CrearMuestreador(a, b).Muestra(GetMotor());
   }
   /***************************************************************************************/
   /*Contructor para generar las observaciones a partir de datos cargados desde un archivo*/
@@ -30,4 +29,54 @@ public class Uni extends DistProb{
      this.Observacion=Obs;
   }
 
-}
\ No newline at end of file
+  /**************************************************************************/
+  /*Muestreador por lotes: X=a+(b-a)U con el ancho b-a calculado una vez.   */
+  /*Como antes, la observacion queda en el intervalo abierto (a,b): los     */
+  /*casos que caen en un extremo por redondeo se vuelven a generar. El lote */
+  /*se llena de uniformes y se transforma entero con NucleosLote.           */
+  /**************************************************************************/
+  public static Muestreador CrearMuestreador(final double a, final double b) 
+  {
+  return new Muestreador() {
+     private final double Ancho=b-a;
+
+     public double Muestra(MotorAleatorio Motor){
+        double x;
+        do{
+           x=a+this.Ancho*Motor.SigDouble();
+        }while(!(x>a && x<b));
+        return x;
+     }
+
+     public void Llenar(double[] Datos, int Ini, int Cant, MotorAleatorio Motor){
+        Motor.LlenarUniformes(Datos, Ini, Cant);
+        if(NucleosLote.Get().Uniforme(Datos, Ini, Cant, a, b))
+           return;
+        for(int i=Ini; i<Ini+Cant; i++){
+           if(!(Datos[i]>a && Datos[i]<b))
+              Datos[i]=Muestra(Motor);
+        }
+     }
+  };
+  }
+
+  /**************************************************************************/
+  /*Funcion de distribucion: F(x)=(x-a)/(b-a) en [a,b]                      */
+  /**************************************************************************/
+  public static FdaTeorica CrearFda(final double a, final double b) 
+  {
+  return new FdaTeorica() {
+     public double Acumulada(double x){
+        return x<=a ? 0 : x>=b ? 1 : (x-a)/(b-a);
+     }
+
+     public double Cola(double x){
+        return x<=a ? 1 : x>=b ? 0 : (b-x)/(b-a);
+     }
+
+     public double Inversa(double p){
+        return a+(b-a)*p;
+     }
+  };
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * EmpDialog.java
+ */
+
+package simuldp;
+import org.jdesktop.application.Action;
+import simulacion.ControlSim;
+import simulacion.GenObsAlet;
+import simulacion.RutasSim;
+import simulacion.TablaAlias;
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Dialogo de la distribucion empirica: el usuario escribe una tabla de
+ * valores y probabilidades (una pareja por linea) o la toma de un archivo
+ * de observaciones guardado, y se generan observaciones con la tabla de
+ * alias.
+ */
+public class EmpDialog extends javax.swing.JDialog {
+
+    private static final long serialVersionUID=1L;
+
+    /** Creates new form EmpDialog */
+    public EmpDialog(java.awt.Frame parent, boolean modal, ControlSim control, SimulDPView aThis) {
+        super(parent, modal);
+        this.control=control;
+        this.SimulDPView=aThis;
+        initComponents();
+        textTabla.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent evt) { OlvidarArchivo(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent evt) { OlvidarArchivo(); }
+            public void changedUpdate(javax.swing.event.DocumentEvent evt) { }
+        });
+    }
+
+    @Action public void cierreDia() {
+        setVisible(false);
+    }
+
+    /** This method is called from within the constructor to
+     * initialize the form.
+     * WARNING: Do NOT modify this code. The content of this method is
+     * always regenerated by the Form Editor.
+     */
+    @SuppressWarnings("unchecked")
+   // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
+   private void initComponents() {
+
+      jLabel1 = new javax.swing.JLabel();
+      jLabel2 = new javax.swing.JLabel();
+      jScrollPane1 = new javax.swing.JScrollPane();
+      textTabla = new javax.swing.JTextArea();
+      jButton3 = new javax.swing.JButton();
+      labelArchivo = new javax.swing.JLabel();
+      jLabel3 = new javax.swing.JLabel();
+      NumObs = new javax.swing.JTextField();
+      opcionesGen = new simuldp.OpcionesGenPanel();
+      jButton1 = new javax.swing.JButton();
+      jButton2 = new javax.swing.JButton();
+
+      setDefaultCloseOperation(javax.swing.WindowConstants.DISPOSE_ON_CLOSE);
+      org.jdesktop.application.ResourceMap resourceMap = org.jdesktop.application.Application.getInstance(simuldp.SimulDPApp.class).getContext().getResourceMap(EmpDialog.class);
+      setTitle(resourceMap.getString("Form.title")); // NOI18N
+      setName("Form"); // NOI18N
+      setResizable(false);
+
+      jLabel1.setFont(resourceMap.getFont("jLabel1.font")); // NOI18N
+      jLabel1.setText(resourceMap.getString("jLabel1.text")); // NOI18N
+      jLabel1.setName("jLabel1"); // NOI18N
+
+      jLabel2.setText(resourceMap.getString("jLabel2.text")); // NOI18N
+      jLabel2.setName("jLabel2"); // NOI18N
+
+      jScrollPane1.setName("jScrollPane1"); // NOI18N
+
+      textTabla.setColumns(24);
+      textTabla.setRows(12);
+      textTabla.setToolTipText(resourceMap.getString("textTabla.toolTipText")); // NOI18N
+      textTabla.setName("textTabla"); // NOI18N
+      jScrollPane1.setViewportView(textTabla);
+
+      jButton3.setText(resourceMap.getString("jButton3.text")); // NOI18N
+      jButton3.setName("jButton3"); // NOI18N
+      jButton3.addActionListener(new java.awt.event.ActionListener() {
+         public void actionPerformed(java.awt.event.ActionEvent evt) {
+            jButton3ActionPerformed(evt);
+         }
+      });
+
+      labelArchivo.setText(resourceMap.getString("labelArchivo.text")); // NOI18N
+      labelArchivo.setName("labelArchivo"); // NOI18N
+
+      jLabel3.setText(resourceMap.getString("jLabel3.text")); // NOI18N
+      jLabel3.setName("jLabel3"); // NOI18N
+
+      NumObs.setHorizontalAlignment(javax.swing.JTextField.RIGHT);
+      NumObs.setText(resourceMap.getString("NumObs.text")); // NOI18N
+      NumObs.setName("NumObs"); // NOI18N
+
+      opcionesGen.setName("opcionesGen"); // NOI18N
+
+      jButton1.setText(resourceMap.getString("jButton1.text")); // NOI18N
+      jButton1.setName("jButton1"); // NOI18N
+      jButton1.addActionListener(new java.awt.event.ActionListener() {
+         public void actionPerformed(java.awt.event.ActionEvent evt) {
+            jButton1ActionPerformed(evt);
+         }
+      });
+
+      jButton2.setText(resourceMap.getString("jButton2.text")); // NOI18N
+      jButton2.setName("jButton2"); // NOI18N
+      jButton2.addActionListener(new java.awt.event.ActionListener() {
+         public void actionPerformed(java.awt.event.ActionEvent evt) {
+            jButton2ActionPerformed(evt);
+         }
+      });
+
+      org.jdesktop.layout.GroupLayout layout = new org.jdesktop.layout.GroupLayout(getContentPane());
+      getContentPane().setLayout(layout);
+      layout.setHorizontalGroup(
+         layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+         .add(layout.createSequentialGroup()
+            .addContainerGap()
+            .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+               .add(jLabel1)
+               .add(jLabel2)
+               .add(jScrollPane1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, 320, Short.MAX_VALUE)
+               .add(layout.createSequentialGroup()
+                  .add(jButton3)
+                  .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+                  .add(labelArchivo, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+               .add(layout.createSequentialGroup()
+                  .add(jLabel3)
+                  .add(18, 18, 18)
+                  .add(NumObs, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, 100, Short.MAX_VALUE))
+               .add(opcionesGen, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+               .add(org.jdesktop.layout.GroupLayout.TRAILING, layout.createSequentialGroup()
+                  .add(jButton1)
+                  .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+                  .add(jButton2)))
+            .addContainerGap())
+      );
+      layout.setVerticalGroup(
+         layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+         .add(layout.createSequentialGroup()
+            .addContainerGap()
+            .add(jLabel1)
+            .add(18, 18, 18)
+            .add(jLabel2)
+            .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+            .add(jScrollPane1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, 200, Short.MAX_VALUE)
+            .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+            .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.BASELINE)
+               .add(jButton3)
+               .add(labelArchivo))
+            .add(18, 18, 18)
+            .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.BASELINE)
+               .add(jLabel3)
+               .add(NumObs, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))
+            .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+            .add(opcionesGen, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+            .add(18, 18, 18)
+            .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.BASELINE)
+               .add(jButton1)
+               .add(jButton2))
+            .addContainerGap())
+      );
+
+      pack();
+   }// </editor-fold>//GEN-END:initComponents
+
+/* Toma la tabla empirica de un archivo de observaciones guardado; se abre */
+/* con la ruta completa que eligio el usuario.                             */
+private void jButton3ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton3ActionPerformed
+JFileChooser Selector=new JFileChooser(RutasSim.DirObsData());
+if(Selector.showOpenDialog(this)!=JFileChooser.APPROVE_OPTION)
+   return;
+File Archivo=Selector.getSelectedFile();
+try {
+   TablaAlias Tabla=control.TablaDeArchivo(Archivo.getAbsolutePath());
+   textTabla.setText("");
+   TablaCargada=Tabla;
+   labelArchivo.setText(Tabla.GetNumCategorias()+" categorías de "+Archivo.getName());
+}
+catch(IOException ioe) {
+   JOptionPane.showMessageDialog(null, "No se pudo abrir "+Archivo.getName()+": "+ioe.getMessage(), "ERROR", JOptionPane.ERROR_MESSAGE);
+}
+catch(IllegalArgumentException iae) {
+   JOptionPane.showMessageDialog(null, "No se pudo leer "+Archivo.getName()+": "+iae.getMessage(), "ERROR", JOptionPane.ERROR_MESSAGE);
+}
+}//GEN-LAST:event_jButton3ActionPerformed
+
+private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
+if(this.Tarea!=null && !this.Tarea.isDone()){
+   this.Tarea.cancel(true);
+   return;
+}
+if(!opcionesGen.SemillaValida()){
+   JOptionPane.showMessageDialog(null,"La semilla debe ser un numero entero", "ERROR",JOptionPane.ERROR_MESSAGE);
+   return;
+}
+Validaciones DatoValido= new Validaciones();
+if(!DatoValido.EsEntero(NumObs.getText())){
+   JOptionPane.showMessageDialog(null,"Numero de Observaciones es Incorrecto", "ERROR",JOptionPane.ERROR_MESSAGE);
+   return;
+}
+long NumOb;
+try {
+   NumOb=(long)Double.parseDouble(NumObs.getText());
+}
+catch(NumberFormatException nfe) {
+   JOptionPane.showMessageDialog(null,"Numero de Observaciones es Incorrecto", "ERROR",JOptionPane.ERROR_MESSAGE);
+   return;
+}
+TablaAlias Tabla=TablaCargada;
+try {
+   if(Tabla==null)
+      Tabla=LeerTabla(textTabla.getText());
+}
+catch(IllegalArgumentException iae) {
+   JOptionPane.showMessageDialog(null, iae.getMessage(), "ERROR", JOptionPane.ERROR_MESSAGE);
+   return;
+}
+this.control.CrearObs(6, NumOb, opcionesGen.GetTipoMotor(), opcionesGen.GetSemilla());
+opcionesGen.Aplicar(control.GetObs());
+final TablaAlias TablaGen=Tabla;
+this.Tarea = new TareaGeneracion(control, "Observaciones Aleatorias - Distribución Empírica",
+                                 Tabla.EsEntera() ? 1 : 2, this.SimulDPView, jButton1) {
+   protected void Generar(GenObsAlet Obs) {
+      Obs.GenObsEmp(TablaGen);
+   }
+};
+this.Tarea.Ejecutar();
+}//GEN-LAST:event_jButton1ActionPerformed
+
+private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton2ActionPerformed
+this.cierreDia();
+}//GEN-LAST:event_jButton2ActionPerformed
+
+    /**
+     * Al editar la tabla escrita se descarta la que se cargo de archivo.
+     */
+    private void OlvidarArchivo() {
+        TablaCargada=null;
+        labelArchivo.setText("");
+    }
+
+    /**
+     * Lee la tabla escrita: un valor y su probabilidad (o peso) por linea,
+     * separados por espacios, tabuladores o punto y coma.
+     */
+    private TablaAlias LeerTabla(String Texto) {
+        String[] Lineas=Texto.split("\n");
+        double[] Valores=new double[Lineas.length];
+        double[] Pesos=new double[Lineas.length];
+        int n=0;
+        for(int i=0; i<Lineas.length; i++) {
+            String Linea=Lineas[i].trim();
+            if(Linea.equals(""))
+                continue;
+            String[] Campos=Linea.split("[\\s;]+");
+            if(Campos.length!=2)
+                throw new IllegalArgumentException("Linea "+(i+1)+": se esperaba un valor y una probabilidad");
+            try {
+                Valores[n]=Double.parseDouble(Campos[0]);
+                Pesos[n]=Double.parseDouble(Campos[1]);
+            }
+            catch(NumberFormatException nfe) {
+                throw new IllegalArgumentException("Linea "+(i+1)+": numero invalido");
+            }
+            n++;
+        }
+        if(n==0)
+            throw new IllegalArgumentException("Escriba la tabla o carguela de un archivo");
+        return new TablaAlias(java.util.Arrays.copyOf(Valores, n), java.util.Arrays.copyOf(Pesos, n));
+    }
+
+   // Variables declaration - do not modify//GEN-BEGIN:variables
+   private javax.swing.JTextField NumObs;
+   private javax.swing.JButton jButton1;
+   private javax.swing.JButton jButton2;
+   private javax.swing.JButton jButton3;
+   private javax.swing.JLabel jLabel1;
+   private javax.swing.JLabel jLabel2;
+   private javax.swing.JLabel jLabel3;
+   private javax.swing.JScrollPane jScrollPane1;
+   private javax.swing.JLabel labelArchivo;
+   private simuldp.OpcionesGenPanel opcionesGen;
+   private javax.swing.JTextArea textTabla;
+   // End of variables declaration//GEN-END:variables
+   private ControlSim control;
+   private SimulDPView SimulDPView;
+   private TareaSim Tarea;
+   private TablaAlias TablaCargada;
+}
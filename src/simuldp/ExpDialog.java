@@ -7,6 +7,7 @@
 package simuldp;
 import org.jdesktop.application.Action;
 import simulacion.ControlSim;
+import simulacion.GenObsAlet;
 import javax.swing.*;
 /**
  *
@@ -36,6 +37,7 @@ public class ExpDialog extends javax.swing.JDialog {
    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
    private void initComponents() {
 
+      opcionesGen = new simuldp.OpcionesGenPanel();
       jPanel1 = new javax.swing.JPanel();
       jLabel1 = new javax.swing.JLabel();
       jPanel2 = new javax.swing.JPanel();
@@ -181,13 +183,17 @@ public class ExpDialog extends javax.swing.JDialog {
             .add(20, 20, 20))
       );
 
+      opcionesGen.setName("opcionesGen"); // NOI18N
+
       org.jdesktop.layout.GroupLayout layout = new org.jdesktop.layout.GroupLayout(getContentPane());
       getContentPane().setLayout(layout);
       layout.setHorizontalGroup(
          layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
          .add(layout.createSequentialGroup()
             .addContainerGap()
-            .add(jPanel1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+            .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+               .add(jPanel1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+               .add(opcionesGen, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
             .addContainerGap())
       );
       layout.setVerticalGroup(
@@ -195,6 +201,8 @@ public class ExpDialog extends javax.swing.JDialog {
          .add(layout.createSequentialGroup()
             .addContainerGap()
             .add(jPanel1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+            .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+            .add(opcionesGen, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
             .addContainerGap())
       );
 
@@ -202,6 +210,14 @@ public class ExpDialog extends javax.swing.JDialog {
    }// </editor-fold>//GEN-END:initComponents
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
+if(this.Tarea!=null && !this.Tarea.isDone()){
+   this.Tarea.cancel(true);
+   return;
+}
+if(!opcionesGen.SemillaValida()){
+   JOptionPane.showMessageDialog(null,"La semilla debe ser un numero entero", "ERROR",JOptionPane.ERROR_MESSAGE);
+   return;
+}
     String Error;
    Validaciones DatoValido= new Validaciones();
 if((!DatoValido.EsEntero(jTextField2.getText()))){
@@ -216,13 +232,15 @@ else{
    else{
       Double Media=new Double(this.jTextField1.getText());
       Double NumOb=new Double(this.jTextField2.getText());
-      this.control.CrearObs(4, NumOb.intValue());
-      control.GetObs().GenObsCont(0, 0, Media.doubleValue(), 0);
-      control.GetObs().ObsMaxMin();
-      JFrame mainFrame = SimulDPApp.getApplication().getMainFrame();
-      ResDialog = new ResDialog(mainFrame, false, control, "Observaciones Aleatorias - Distribución Exponencial", 2, this.SimulDPView);
-      ResDialog.setLocationRelativeTo(mainFrame);
-      SimulDPApp.getApplication().show(ResDialog);}}
+      this.control.CrearObs(4, NumOb.longValue(), opcionesGen.GetTipoMotor(), opcionesGen.GetSemilla());
+      opcionesGen.Aplicar(control.GetObs());
+      final double Med=Media.doubleValue();
+      this.Tarea = new TareaGeneracion(control, "Observaciones Aleatorias - Distribución Exponencial", 2, this.SimulDPView, jButton1) {
+         protected void Generar(GenObsAlet Obs) {
+            Obs.GenObsCont(0, 0, Med, 0);
+         }
+      };
+      this.Tarea.Ejecutar();}}
 }//GEN-LAST:event_jButton1ActionPerformed
 
 private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton2ActionPerformed
@@ -243,9 +261,10 @@ this.cierreDia();
    private javax.swing.JTextField jTextField1;
    private javax.swing.JTextField jTextField2;
    private javax.swing.JTextPane jTextPane1;
+   private simuldp.OpcionesGenPanel opcionesGen;
    // End of variables declaration//GEN-END:variables
    private ControlSim control;
-   private ResDialog ResDialog;
+   private TareaSim Tarea;
    private SimulDPView SimulDPView;
    
 }
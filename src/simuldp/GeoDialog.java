@@ -7,6 +7,7 @@
 package simuldp;
 import org.jdesktop.application.Action;
 import simulacion.ControlSim;
+import simulacion.GenObsAlet;
 import javax.swing.*;
 /**
  *
@@ -38,6 +39,7 @@ public class GeoDialog extends javax.swing.JDialog {
    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
    private void initComponents() {
 
+      opcionesGen = new simuldp.OpcionesGenPanel();
       jPanel1 = new javax.swing.JPanel();
       jButton1 = new javax.swing.JButton();
       jButton2 = new javax.swing.JButton();
@@ -182,13 +184,17 @@ public class GeoDialog extends javax.swing.JDialog {
             .addContainerGap())
       );
 
+      opcionesGen.setName("opcionesGen"); // NOI18N
+
       org.jdesktop.layout.GroupLayout layout = new org.jdesktop.layout.GroupLayout(getContentPane());
       getContentPane().setLayout(layout);
       layout.setHorizontalGroup(
          layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
          .add(layout.createSequentialGroup()
             .addContainerGap()
-            .add(jPanel1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+            .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+               .add(jPanel1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+               .add(opcionesGen, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
             .addContainerGap(org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
       );
       layout.setVerticalGroup(
@@ -196,6 +202,8 @@ public class GeoDialog extends javax.swing.JDialog {
          .add(layout.createSequentialGroup()
             .addContainerGap()
             .add(jPanel1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+            .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+            .add(opcionesGen, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
             .addContainerGap())
       );
 
@@ -203,6 +211,14 @@ public class GeoDialog extends javax.swing.JDialog {
    }// </editor-fold>//GEN-END:initComponents
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
+if(this.Tarea!=null && !this.Tarea.isDone()){
+   this.Tarea.cancel(true);
+   return;
+}
+if(!opcionesGen.SemillaValida()){
+   JOptionPane.showMessageDialog(null,"La semilla debe ser un numero entero", "ERROR",JOptionPane.ERROR_MESSAGE);
+   return;
+}
    String Error;
    Validaciones DatoValido= new Validaciones();
 if(!DatoValido.EntreCeroyUno(ProbFrac.getText())){
@@ -219,13 +235,15 @@ else
  {
    Double ProbEx=new Double(this.ProbFrac.getText());
    Double NumOb=new Double(this.NumObs.getText());
-   this.control.CrearObs(1, NumOb.intValue());
-   control.GetObs().GenObsDisc(ProbEx.doubleValue(), 0);
-   control.GetObs().ObsMaxMin();
-   JFrame mainFrame = SimulDPApp.getApplication().getMainFrame();
-   ResDialog = new ResDialog(mainFrame, false, control, "Observaciones Aleatorias - Distribución Geometrica", 1, this.SimulDPView);
-   ResDialog.setLocationRelativeTo(mainFrame);
-   SimulDPApp.getApplication().show(ResDialog);
+   this.control.CrearObs(1, NumOb.longValue(), opcionesGen.GetTipoMotor(), opcionesGen.GetSemilla());
+   opcionesGen.Aplicar(control.GetObs());
+   final double Prob=ProbEx.doubleValue();
+   this.Tarea = new TareaGeneracion(control, "Observaciones Aleatorias - Distribución Geometrica", 1, this.SimulDPView, jButton1) {
+      protected void Generar(GenObsAlet Obs) {
+         Obs.GenObsDisc(Prob, 0);
+      }
+   };
+   this.Tarea.Ejecutar();
  }
 }
 
@@ -249,8 +267,9 @@ this.cierreDia();
    private javax.swing.JPanel jPanel3;
    private javax.swing.JScrollPane jScrollPane2;
    private javax.swing.JTextPane jTextPane1;
+   private simuldp.OpcionesGenPanel opcionesGen;
    // End of variables declaration//GEN-END:variables
    private ControlSim control;
-   private ResDialog ResDialog;
+   private TareaSim Tarea;
    private SimulDPView SimulDPView;
 }
@@ -0,0 +1,70 @@
+package simuldp;
+
+import java.awt.Color;
+import org.opensourcephysics.display.Histogram;
+import org.opensourcephysics.frames.PlotFrame;
+import simulacion.GenObsAlet;
+import simulacion.MomentosObs;
+import simulacion.TablaDistribucion;
+
+/**
+ * Graficas de una corrida con Open Source Physics. Estaban en GenObsAlet;
+ * se separaron para que el paquete simulacion no dependa de Swing ni de OSP
+ * y pueda usarse sin pantalla (ver simulacion.SimulLote).
+ */
+public class GraficasObs {
+
+    private GraficasObs() {
+    }
+
+    /**
+     * Grafica la distribucion de probabilidad a partir de la tabla de
+     * probabilidad: histograma si es discreta (TipoDist 1) o una curva.
+     */
+    public static void GrafDist(GenObsAlet Obs, String Titulo, int TipoDist) {
+        Histogram histograma= new Histogram();
+        PlotFrame frame = new PlotFrame("Observación", "Probabilidad", Titulo );
+        frame.setSize(400, 400);
+        TablaDistribucion Tabla=Obs.GetTablaDistribucion(TipoDist);
+        MomentosObs Mom=Obs.GetResumen().GetMomentos();
+        for(int i=0; i<Tabla.GetFilas(); i++)
+        {
+            double XObs=Tabla.GetYi(i);
+            double Prob=Tabla.GetProb(i);
+            /*Graficamos ya sea un histograma o un valor de puntos continuos*/
+            if(TipoDist==1)
+                histograma.append( XObs , Prob);
+            else {
+                frame.append(0, XObs, Prob);
+                frame.setConnected(true);
+                if(TipoDist==3)
+                    frame.setPreferredMinMax(Mom.GetMin(), Mom.GetMax(), 0, 1);
+            }
+        }
+        histograma.setDiscrete(false);
+
+        histograma.setBinColor(Color.GREEN, Color.RED);
+        histograma.setBinWidth(1);
+        frame.setRowNumberVisible(true);
+        frame.addDrawable(histograma);
+        frame.setVisible(true);
+    }
+
+    /**
+     * Grafica la distribucion de probabilidad acumulada.
+     */
+    public static void GrafAcum(GenObsAlet Obs, String Titulo, int TipoDist) {
+        PlotFrame frame = new PlotFrame("Observación", "Probabilidad", Titulo );
+        frame.setSize(400, 400);
+        TablaDistribucion Tabla=Obs.GetTablaDistribucion(TipoDist);
+        for(int i=0; i<Tabla.GetFilas(); i++)
+        {
+            double XObs=Tabla.GetYi(i);
+            double Prob=(double)Tabla.GetAcum(i)/Tabla.GetTotal();
+            frame.append(0, XObs , Prob);
+            frame.setConnected(true);
+        }
+        frame.setRowNumberVisible(true);
+        frame.setVisible(true);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * ModeloDistribucion.java
+ */
+
+package simuldp;
+import javax.swing.table.AbstractTableModel;
+import simulacion.TablaDistribucion;
+
+/**
+ * Modelo de las tablas de frecuencia acumulada (Yi, Frec. Acum) y de
+ * probabilidad (x, P(x)); ambas leen la misma TablaDistribucion.
+ */
+public class ModeloDistribucion extends AbstractTableModel {
+
+    private static final long serialVersionUID=1L;
+
+    private TablaDistribucion Tabla;
+    private boolean Probabilidad;
+    private String[] Columnas;
+
+    /**
+     * Con Probabilidad en false muestra la frecuencia acumulada; en true,
+     * la probabilidad de cada fila.
+     */
+    public ModeloDistribucion(TablaDistribucion Tabla, boolean Probabilidad) {
+        this.Tabla=Tabla;
+        this.Probabilidad=Probabilidad;
+        this.Columnas=Probabilidad ? new String[] {"x", "P(x)"} : new String[] {"Yi", "Frec. Acum"};
+    }
+
+    public int getRowCount() {
+        return this.Tabla.GetFilas();
+    }
+
+    public int getColumnCount() {
+        return this.Columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int Col) {
+        return this.Columnas[Col];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int Col) {
+        return Col==1 && !this.Probabilidad ? Long.class : Double.class;
+    }
+
+    public Object getValueAt(int Fila, int Col) {
+        if(Col==0)
+            return Double.valueOf(this.Tabla.GetYi(Fila));
+        if(this.Probabilidad)
+            return Double.valueOf(this.Tabla.GetProb(Fila));
+        return Long.valueOf(this.Tabla.GetAcum(Fila));
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * ModeloFrecuencia.java
+ */
+
+package simuldp;
+import javax.swing.table.AbstractTableModel;
+import simulacion.HistogramaObs;
+
+/**
+ * Modelo de la tabla de frecuencias (LimInf, LimSup, Frecuencia) que lee
+ * cada clase del histograma de la corrida al momento de mostrarla.
+ */
+public class ModeloFrecuencia extends AbstractTableModel {
+
+    private static final long serialVersionUID=1L;
+
+    private static final String[] COLUMNAS={ "LimInf", "LimSup", "Frecuencia" };
+
+    private HistogramaObs Hist;
+
+    public ModeloFrecuencia(HistogramaObs Hist) {
+        this.Hist=Hist;
+    }
+
+    public int getRowCount() {
+        return this.Hist.GetNumClases();
+    }
+
+    public int getColumnCount() {
+        return COLUMNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int Col) {
+        return COLUMNAS[Col];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int Col) {
+        return Col==2 ? Long.class : Double.class;
+    }
+
+    public Object getValueAt(int Fila, int Col) {
+        switch(Col) {
+            case 0:
+                return Double.valueOf(this.Hist.GetLimInf(Fila));
+            case 1:
+                return Double.valueOf(this.Hist.GetLimSup(Fila));
+            default:
+                return Long.valueOf(this.Hist.GetFrec(Fila));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * ModeloObs.java
+ */
+
+package simuldp;
+import javax.swing.table.AbstractTableModel;
+import simulacion.AlmacenObs;
+
+/**
+ * Modelo de la tabla de observaciones (i, Xi). Lee directamente del arreglo
+ * primitivo del AlmacenObs: la JTable solo pide las celdas visibles, por lo
+ * que abrir la tabla no depende de la cantidad de observaciones.
+ */
+public class ModeloObs extends AbstractTableModel {
+
+    private static final long serialVersionUID=1L;
+
+    private static final String[] COLUMNAS={ "i", "Xi" };
+
+    private AlmacenObs Obs;
+
+    public ModeloObs(AlmacenObs Obs) {
+        this.Obs=Obs;
+    }
+
+    public int getRowCount() {
+        return this.Obs.GetTamano();
+    }
+
+    public int getColumnCount() {
+        return COLUMNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int Col) {
+        return COLUMNAS[Col];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int Col) {
+        return Col==0 ? Integer.class : Double.class;
+    }
+
+    public Object getValueAt(int Fila, int Col) {
+        if(Col==0)
+            return Integer.valueOf(Fila+1);
+        return Double.valueOf(this.Obs.GetArreglo()[Fila]);
+    }
+}
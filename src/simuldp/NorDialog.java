@@ -7,6 +7,7 @@
 package simuldp;
 import org.jdesktop.application.Action;
 import simulacion.ControlSim;
+import simulacion.GenObsAlet;
 import javax.swing.*;
 
 /**
@@ -38,6 +39,7 @@ public class NorDialog extends javax.swing.JDialog {
    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
    private void initComponents() {
 
+      opcionesGen = new simuldp.OpcionesGenPanel();
       jPanel1 = new javax.swing.JPanel();
       jLabel1 = new javax.swing.JLabel();
       jScrollPane1 = new javax.swing.JScrollPane();
@@ -195,19 +197,25 @@ public class NorDialog extends javax.swing.JDialog {
                   .addContainerGap())))
       );
 
+      opcionesGen.setName("opcionesGen"); // NOI18N
+
       org.jdesktop.layout.GroupLayout layout = new org.jdesktop.layout.GroupLayout(getContentPane());
       getContentPane().setLayout(layout);
       layout.setHorizontalGroup(
          layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
          .add(layout.createSequentialGroup()
             .addContainerGap()
-            .add(jPanel1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+            .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+               .add(jPanel1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+               .add(opcionesGen, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
       );
       layout.setVerticalGroup(
          layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
          .add(layout.createSequentialGroup()
             .addContainerGap()
             .add(jPanel1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, 298, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+            .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+            .add(opcionesGen, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
             .addContainerGap(org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
       );
 
@@ -215,6 +223,14 @@ public class NorDialog extends javax.swing.JDialog {
    }// </editor-fold>//GEN-END:initComponents
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
+if(this.Tarea!=null && !this.Tarea.isDone()){
+   this.Tarea.cancel(true);
+   return;
+}
+if(!opcionesGen.SemillaValida()){
+   JOptionPane.showMessageDialog(null,"La semilla debe ser un numero entero", "ERROR",JOptionPane.ERROR_MESSAGE);
+   return;
+}
 Validaciones DatoValido= new Validaciones();
 String Error;
 if((!DatoValido.EsEntero(jTextField3.getText()))){
@@ -235,13 +251,15 @@ else{
       Double Media=new Double(this.jTextField1.getText());
       Double DStd=new Double(this.jTextField2.getText());
       Double NumOb=new Double(this.jTextField3.getText());
-      this.control.CrearObs(5, NumOb.intValue());
-      control.GetObs().GenObsCont(0, 0, Media.doubleValue(), DStd.doubleValue());
-      control.GetObs().ObsMaxMin();
-      JFrame mainFrame = SimulDPApp.getApplication().getMainFrame();
-      ResDialog = new ResDialog(mainFrame, false, control, "Observaciones Aleatorias - Distribución Normal", 2, this.SimulDPView);
-      ResDialog.setLocationRelativeTo(mainFrame);
-      SimulDPApp.getApplication().show(ResDialog);
+      this.control.CrearObs(5, NumOb.longValue(), opcionesGen.GetTipoMotor(), opcionesGen.GetSemilla());
+      opcionesGen.Aplicar(control.GetObs());
+      final double Med=Media.doubleValue(), Desv=DStd.doubleValue();
+      this.Tarea = new TareaGeneracion(control, "Observaciones Aleatorias - Distribución Normal", 2, this.SimulDPView, jButton1) {
+         protected void Generar(GenObsAlet Obs) {
+            Obs.GenObsCont(0, 0, Med, Desv);
+         }
+      };
+      this.Tarea.Ejecutar();
    }}}
 }//GEN-LAST:event_jButton1ActionPerformed
 
@@ -265,8 +283,9 @@ this.CierreDia();
    private javax.swing.JTextField jTextField2;
    private javax.swing.JTextField jTextField3;
    private javax.swing.JTextPane jTextPane1;
+   private simuldp.OpcionesGenPanel opcionesGen;
    // End of variables declaration//GEN-END:variables
    private ControlSim control; 
-   private ResDialog ResDialog;
+   private TareaSim Tarea;
    private SimulDPView SimulDPView;
 }
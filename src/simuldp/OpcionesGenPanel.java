@@ -0,0 +1,216 @@
+/*
+ * OpcionesGenPanel.java
+ */
+
+package simuldp;
+import simulacion.GenObsAlet;
+import simulacion.HistogramaObs;
+import simulacion.MotorAleatorio;
+import simulacion.ReduccionVarianza;
+import simulacion.RutasSim;
+import simulacion.SecuenciaQMC;
+import java.io.File;
+
+/**
+ * Panel comun de los dialogos de generacion con las opciones del
+ * generador: motor aleatorio, muestreo cuasi Monte Carlo o reduccion de varianza, semilla de la corrida, hilos de generacion,
+ * regla de clases del histograma, modo flujo (solo resumen, con la muestra opcionalmente volcada a archivo)
+ * y compresion de los archivos binarios.
+ */
+public class OpcionesGenPanel extends javax.swing.JPanel {
+
+    private static final long serialVersionUID=1L;
+
+    public OpcionesGenPanel() {
+        initComponents();
+    }
+
+    private void initComponents() {
+        jLabelMotor = new javax.swing.JLabel("Motor aleatorio:");
+        comboMotor = new javax.swing.JComboBox<String>(MotorAleatorio.NOMBRES);
+        jLabelQMC = new javax.swing.JLabel("Muestreo:");
+        comboQMC = new javax.swing.JComboBox<String>(SecuenciaQMC.NOMBRES);
+        jLabelReduccion = new javax.swing.JLabel("Reduccion de varianza:");
+        comboReduccion = new javax.swing.JComboBox<String>(ReduccionVarianza.NOMBRES);
+        jLabelSemilla = new javax.swing.JLabel("Semilla (vacio = automatica):");
+        textSemilla = new javax.swing.JTextField();
+        jLabelHilos = new javax.swing.JLabel("Hilos de generacion:");
+        int Nucleos=Runtime.getRuntime().availableProcessors();
+        spinnerHilos = new javax.swing.JSpinner(new javax.swing.SpinnerNumberModel(Nucleos, 1, Math.max(Nucleos, 256), 1));
+        jLabelClases = new javax.swing.JLabel("Clases del histograma:");
+        comboClases = new javax.swing.JComboBox<String>(HistogramaObs.NOMBRES_REGLAS);
+        checkFlujo = new javax.swing.JCheckBox("Solo resumen (modo flujo, memoria constante)");
+        checkDerrame = new javax.swing.JCheckBox("Guardar las observaciones en archivo");
+        checkComprimir = new javax.swing.JCheckBox("Comprimir los archivos guardados");
+
+        setBorder(javax.swing.BorderFactory.createTitledBorder("Generador aleatorio"));
+        comboMotor.setName("comboMotor"); // NOI18N
+        comboQMC.setName("comboQMC"); // NOI18N
+        comboQMC.setToolTipText("Sobol y Halton generan por la inversa de la distribucion; la mezcla de Owen usa la semilla");
+        comboReduccion.setName("comboReduccion"); // NOI18N
+        comboReduccion.setToolTipText("El resumen muestra la media estimada, su error y el factor de reduccion");
+        textSemilla.setHorizontalAlignment(javax.swing.JTextField.RIGHT);
+        textSemilla.setName("textSemilla"); // NOI18N
+        spinnerHilos.setName("spinnerHilos"); // NOI18N
+        comboClases.setName("comboClases"); // NOI18N
+        checkFlujo.setName("checkFlujo"); // NOI18N
+        checkFlujo.setToolTipText("No guarda la muestra en memoria; necesario para corridas muy grandes");
+        checkDerrame.setName("checkDerrame"); // NOI18N
+        checkDerrame.setToolTipText("Escribe las observaciones en "+RutasSim.DirFlujo());
+        checkDerrame.setEnabled(false);
+        checkComprimir.setName("checkComprimir"); // NOI18N
+        checkComprimir.setToolTipText("Archivos mas chicos; la compresion corre en hilos de fondo");
+        checkFlujo.addItemListener(new java.awt.event.ItemListener() {
+            public void itemStateChanged(java.awt.event.ItemEvent evt) {
+                checkDerrame.setEnabled(checkFlujo.isSelected());
+            }
+        });
+        /* QMC y reduccion de varianza se excluyen */
+        java.awt.event.ItemListener Excluir=new java.awt.event.ItemListener() {
+            public void itemStateChanged(java.awt.event.ItemEvent evt) {
+                comboReduccion.setEnabled(comboQMC.getSelectedIndex()==SecuenciaQMC.NINGUNA);
+                comboQMC.setEnabled(comboReduccion.getSelectedIndex()==ReduccionVarianza.NINGUNA);
+            }
+        };
+        comboQMC.addItemListener(Excluir);
+        comboReduccion.addItemListener(Excluir);
+
+        org.jdesktop.layout.GroupLayout layout = new org.jdesktop.layout.GroupLayout(this);
+        setLayout(layout);
+        layout.setHorizontalGroup(
+           layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+           .add(layout.createSequentialGroup()
+              .addContainerGap()
+              .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+                 .add(layout.createSequentialGroup()
+                    .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+                       .add(jLabelMotor)
+                       .add(jLabelQMC)
+                       .add(jLabelReduccion)
+                       .add(jLabelSemilla)
+                       .add(jLabelHilos)
+                       .add(jLabelClases))
+                    .add(18, 18, 18)
+                    .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING, false)
+                       .add(comboMotor, 0, 160, Short.MAX_VALUE)
+                       .add(comboQMC, 0, 160, Short.MAX_VALUE)
+                       .add(comboReduccion, 0, 160, Short.MAX_VALUE)
+                       .add(textSemilla)
+                       .add(spinnerHilos)
+                       .add(comboClases, 0, 160, Short.MAX_VALUE)))
+                 .add(checkFlujo)
+                 .add(checkDerrame)
+                 .add(checkComprimir))
+              .addContainerGap(org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+        );
+        layout.setVerticalGroup(
+           layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+           .add(layout.createSequentialGroup()
+              .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.BASELINE)
+                 .add(jLabelMotor)
+                 .add(comboMotor, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))
+              .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+              .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.BASELINE)
+                 .add(jLabelQMC)
+                 .add(comboQMC, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))
+              .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+              .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.BASELINE)
+                 .add(jLabelReduccion)
+                 .add(comboReduccion, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))
+              .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+              .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.BASELINE)
+                 .add(jLabelSemilla)
+                 .add(textSemilla, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))
+              .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+              .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.BASELINE)
+                 .add(jLabelHilos)
+                 .add(spinnerHilos, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))
+              .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+              .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.BASELINE)
+                 .add(jLabelClases)
+                 .add(comboClases, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))
+              .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+              .add(checkFlujo)
+              .add(checkDerrame)
+              .add(checkComprimir)
+              .addContainerGap(org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+        );
+    }
+
+    /**
+     * Retorna el codigo del motor seleccionado (ver MotorAleatorio).
+     */
+    public int GetTipoMotor() {
+        return comboMotor.getSelectedIndex()+1;
+    }
+
+    /**
+     * Indica si la semilla escrita es valida: vacia o un entero de 64 bits.
+     */
+    public boolean SemillaValida() {
+        String Texto=textSemilla.getText().trim();
+        if(Texto.equals(""))
+            return true;
+        try {
+            Long.parseLong(Texto);
+            return true;
+        }
+        catch(NumberFormatException nfe) {
+            return false;
+        }
+    }
+
+    /**
+     * Retorna la semilla escrita por el usuario, o una nueva si el campo esta
+     * vacio. La semilla generada se muestra para poder repetir la corrida.
+     */
+    public long GetSemilla() {
+        String Texto=textSemilla.getText().trim();
+        if(Texto.equals("")) {
+            long Semilla=MotorAleatorio.SemillaNueva();
+            textSemilla.setToolTipText("Ultima semilla: "+Semilla);
+            return Semilla;
+        }
+        return Long.parseLong(Texto);
+    }
+
+    /**
+     * Retorna la cantidad de hilos de generacion seleccionada.
+     */
+    public int GetHilos() {
+        return ((Number)spinnerHilos.getValue()).intValue();
+    }
+
+    /**
+     * Aplica al generador recien creado las opciones que no forman parte de
+     * su constructor.
+     */
+    public void Aplicar(GenObsAlet Generador) {
+        Generador.SetHilos(GetHilos());
+        Generador.SetReglaClases(comboClases.getSelectedIndex()+1);
+        File Derrame=null;
+        if(checkFlujo.isSelected() && checkDerrame.isSelected())
+            Derrame=new File(RutasSim.DirFlujo(), "Flujo"+Generador.GetTipoDist()+"_"+Generador.GetSemilla()+".obs");
+        Generador.SetFlujo(checkFlujo.isSelected(), Derrame);
+        Generador.SetComprimir(checkComprimir.isSelected());
+        Generador.SetQMC(comboQMC.getSelectedIndex());
+        Generador.SetReduccion(comboReduccion.getSelectedIndex());
+    }
+
+    private javax.swing.JCheckBox checkComprimir;
+    private javax.swing.JCheckBox checkDerrame;
+    private javax.swing.JComboBox<String> comboClases;
+    private javax.swing.JLabel jLabelClases;
+    private javax.swing.JCheckBox checkFlujo;
+
+    private javax.swing.JComboBox<String> comboMotor;
+    private javax.swing.JComboBox<String> comboQMC;
+    private javax.swing.JComboBox<String> comboReduccion;
+    private javax.swing.JLabel jLabelHilos;
+    private javax.swing.JLabel jLabelMotor;
+    private javax.swing.JLabel jLabelQMC;
+    private javax.swing.JLabel jLabelReduccion;
+    private javax.swing.JLabel jLabelSemilla;
+    private javax.swing.JSpinner spinnerHilos;
+    private javax.swing.JTextField textSemilla;
+}
@@ -6,6 +6,7 @@
 package simuldp;
 import org.jdesktop.application.Action;
 import simulacion.ControlSim;
+import simulacion.GenObsAlet;
 import javax.swing.*;
 /**
  *
@@ -35,6 +36,7 @@ public class PoiDialog extends javax.swing.JDialog {
    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
    private void initComponents() {
 
+      opcionesGen = new simuldp.OpcionesGenPanel();
       jPanel1 = new javax.swing.JPanel();
       jLabel1 = new javax.swing.JLabel();
       jScrollPane1 = new javax.swing.JScrollPane();
@@ -179,13 +181,17 @@ public class PoiDialog extends javax.swing.JDialog {
             .add(40, 40, 40))
       );
 
+      opcionesGen.setName("opcionesGen"); // NOI18N
+
       org.jdesktop.layout.GroupLayout layout = new org.jdesktop.layout.GroupLayout(getContentPane());
       getContentPane().setLayout(layout);
       layout.setHorizontalGroup(
          layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
          .add(layout.createSequentialGroup()
             .addContainerGap()
-            .add(jPanel1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+            .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+               .add(jPanel1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+               .add(opcionesGen, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
             .addContainerGap())
       );
       layout.setVerticalGroup(
@@ -193,6 +199,8 @@ public class PoiDialog extends javax.swing.JDialog {
          .add(org.jdesktop.layout.GroupLayout.TRAILING, layout.createSequentialGroup()
             .addContainerGap()
             .add(jPanel1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, 338, Short.MAX_VALUE)
+            .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+            .add(opcionesGen, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
             .addContainerGap())
       );
 
@@ -200,6 +208,14 @@ public class PoiDialog extends javax.swing.JDialog {
    }// </editor-fold>//GEN-END:initComponents
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
+if(this.Tarea!=null && !this.Tarea.isDone()){
+   this.Tarea.cancel(true);
+   return;
+}
+if(!opcionesGen.SemillaValida()){
+   JOptionPane.showMessageDialog(null,"La semilla debe ser un numero entero", "ERROR",JOptionPane.ERROR_MESSAGE);
+   return;
+}
    String Error;
    Validaciones DatoValido= new Validaciones();
 if((!DatoValido.EsEntero(jTextField2.getText()))){
@@ -212,13 +228,15 @@ else{
    else{
     Double Media=new Double(this.jTextField1.getText());
    Double NumOb=new Double(this.jTextField2.getText());
-   this.control.CrearObs(2, NumOb.intValue());
-   control.GetObs().GenObsDisc(0, Media);
-   control.GetObs().ObsMaxMin();
-   JFrame mainFrame = SimulDPApp.getApplication().getMainFrame();
-   ResDialog = new ResDialog(mainFrame, false, control, "Observaciones Aleatorias - Distribución Poisson", 1, this.SimulDPView);
-   ResDialog.setLocationRelativeTo(mainFrame);
-   SimulDPApp.getApplication().show(ResDialog);
+   this.control.CrearObs(2, NumOb.longValue(), opcionesGen.GetTipoMotor(), opcionesGen.GetSemilla());
+   opcionesGen.Aplicar(control.GetObs());
+   final double Med=Media.doubleValue();
+   this.Tarea = new TareaGeneracion(control, "Observaciones Aleatorias - Distribución Poisson", 1, this.SimulDPView, jButton1) {
+      protected void Generar(GenObsAlet Obs) {
+         Obs.GenObsDisc(0, Med);
+      }
+   };
+   this.Tarea.Ejecutar();
    }
 }
 }//GEN-LAST:event_jButton1ActionPerformed
@@ -241,8 +259,9 @@ this.cierreDia();
    private javax.swing.JTextField jTextField1;
    private javax.swing.JTextField jTextField2;
    private javax.swing.JTextPane jTextPane1;
+   private simuldp.OpcionesGenPanel opcionesGen;
    // End of variables declaration//GEN-END:variables
    ControlSim control;
-   private ResDialog ResDialog;
+   private TareaSim Tarea;
    private  SimulDPView  SimulDPView;
 }
@@ -7,6 +7,9 @@
 package simuldp;
 import javax.swing.tree.DefaultMutableTreeNode;
 import simulacion.ControlSim;
+import simulacion.GenObsAlet;
+import simulacion.PruebasAjuste;
+import simulacion.TablaDistribucion;
 import org.jdesktop.application.Action;
 import javax.swing.JOptionPane;
 /**
@@ -16,14 +19,17 @@ import javax.swing.JOptionPane;
 public class ResDialog extends javax.swing.JDialog {
 
     /** Creates new form ResDialog */
-    public ResDialog(java.awt.Frame parent, boolean modal, ControlSim control, String TituloResul, int TipoDist, SimulDPView aThis) {
+    public ResDialog(java.awt.Frame parent, boolean modal, ControlSim control, GenObsAlet Obs, String TituloResul, int TipoDist, SimulDPView aThis) {
         super(parent, modal);
         this.control=control;
+        this.Obs=Obs;
         this.TipoDist=TipoDist;
         this.Titulo=TituloResul;
         this.SimulDPView=aThis;
+        this.TablaDist=Obs.GetTablaDistribucion(TipoDist);
         initComponents();           
         this.jLabel1.setText(TituloResul);
+        MostrarResumen();
     }
 
     @Action public void cierreDia() {
@@ -59,6 +65,9 @@ public class ResDialog extends javax.swing.JDialog {
       jButton2 = new javax.swing.JButton();
       jButton3 = new javax.swing.JButton();
       jButton4 = new javax.swing.JButton();
+      jPanel7 = new javax.swing.JPanel();
+      jScrollPane5 = new javax.swing.JScrollPane();
+      jTextArea1 = new javax.swing.JTextArea();
 
       setDefaultCloseOperation(javax.swing.WindowConstants.DISPOSE_ON_CLOSE);
       org.jdesktop.application.ResourceMap resourceMap = org.jdesktop.application.Application.getInstance(simuldp.SimulDPApp.class).getContext().getResourceMap(ResDialog.class);
@@ -80,10 +89,9 @@ public class ResDialog extends javax.swing.JDialog {
 
       jScrollPane1.setName("jScrollPane1"); // NOI18N
 
-      jTable1.setModel(new javax.swing.table.DefaultTableModel(control.GetObs().GetObser() , new String [] {"i", "Xi"}));
+      jTable1.setModel(new ModeloObs(Obs.ObsDistrib));
       jTable1.setMaximumSize(new java.awt.Dimension(30, 64));
       jTable1.setName("jTable1"); // NOI18N
-      jTable1.setPreferredSize(new java.awt.Dimension(80, 2000000000));
       jScrollPane1.setViewportView(jTable1);
 
       org.jdesktop.layout.GroupLayout jPanel2Layout = new org.jdesktop.layout.GroupLayout(jPanel2);
@@ -108,11 +116,8 @@ public class ResDialog extends javax.swing.JDialog {
 
       jScrollPane2.setName("jScrollPane2"); // NOI18N
 
-      jTable2.setModel(new javax.swing.table.DefaultTableModel(control.GetObs().CrearTFrec(TipoDist) , new String [] {"LimInf", "LimSup","Frecuencia"}));
-      jTable2.setMaximumSize(new java.awt.Dimension(300, 600));
-      jTable2.setMinimumSize(new java.awt.Dimension(300, 600));
+      jTable2.setModel(new ModeloFrecuencia(Obs.GetHistograma(TipoDist)));
       jTable2.setName("jTable2"); // NOI18N
-      jTable2.setPreferredSize(new java.awt.Dimension(80, 270));
       jScrollPane2.setViewportView(jTable2);
 
       org.jdesktop.layout.GroupLayout jPanel3Layout = new org.jdesktop.layout.GroupLayout(jPanel3);
@@ -137,11 +142,9 @@ public class ResDialog extends javax.swing.JDialog {
 
       jScrollPane3.setName("jScrollPane3"); // NOI18N
 
-      jTable3.setModel(new javax.swing.table.DefaultTableModel(control.GetObs().GetFxDis(TipoDist) , new String [] {"Yi","Frec. Acum"})
-      );
+      jTable3.setModel(new ModeloDistribucion(TablaDist, false));
       jTable3.setMaximumSize(new java.awt.Dimension(60, 64));
       jTable3.setName("jTable3"); // NOI18N
-      jTable3.setPreferredSize(new java.awt.Dimension(80, 250));
       jScrollPane3.setViewportView(jTable3);
 
       org.jdesktop.layout.GroupLayout jPanel4Layout = new org.jdesktop.layout.GroupLayout(jPanel4);
@@ -166,9 +169,8 @@ public class ResDialog extends javax.swing.JDialog {
 
       jScrollPane4.setName("jScrollPane4"); // NOI18N
 
-      jTable4.setModel(new javax.swing.table.DefaultTableModel(control.GetObs().GetPxDis(TipoDist) , new String [] {"x", "P(x)"}));
+      jTable4.setModel(new ModeloDistribucion(TablaDist, true));
       jTable4.setName("jTable4"); // NOI18N
-      jTable4.setPreferredSize(new java.awt.Dimension(80, 250));
       jScrollPane4.setViewportView(jTable4);
 
       org.jdesktop.layout.GroupLayout jPanel5Layout = new org.jdesktop.layout.GroupLayout(jPanel5);
@@ -250,6 +252,33 @@ public class ResDialog extends javax.swing.JDialog {
             .addContainerGap(16, Short.MAX_VALUE))
       );
 
+      jPanel7.setBorder(javax.swing.BorderFactory.createTitledBorder(resourceMap.getString("jPanel7.border.title"))); // NOI18N
+      jPanel7.setName("jPanel7"); // NOI18N
+
+      jScrollPane5.setName("jScrollPane5"); // NOI18N
+
+      jTextArea1.setColumns(20);
+      jTextArea1.setEditable(false);
+      jTextArea1.setRows(4);
+      jTextArea1.setName("jTextArea1"); // NOI18N
+      jScrollPane5.setViewportView(jTextArea1);
+
+      org.jdesktop.layout.GroupLayout jPanel7Layout = new org.jdesktop.layout.GroupLayout(jPanel7);
+      jPanel7.setLayout(jPanel7Layout);
+      jPanel7Layout.setHorizontalGroup(
+         jPanel7Layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+         .add(jPanel7Layout.createSequentialGroup()
+            .addContainerGap()
+            .add(jScrollPane5, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, 300, Short.MAX_VALUE)
+            .addContainerGap())
+      );
+      jPanel7Layout.setVerticalGroup(
+         jPanel7Layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+         .add(jPanel7Layout.createSequentialGroup()
+            .add(jScrollPane5, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, 80, Short.MAX_VALUE)
+            .addContainerGap())
+      );
+
       org.jdesktop.layout.GroupLayout jPanel1Layout = new org.jdesktop.layout.GroupLayout(jPanel1);
       jPanel1.setLayout(jPanel1Layout);
       jPanel1Layout.setHorizontalGroup(
@@ -269,7 +298,9 @@ public class ResDialog extends javax.swing.JDialog {
                         .add(jPanel5, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
                      .add(jPanel1Layout.createSequentialGroup()
                         .add(104, 104, 104)
-                        .add(jPanel6, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))))
+                        .add(jPanel6, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+                        .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+                        .add(jPanel7, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))))
                .add(jSeparator1, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, 1070, Short.MAX_VALUE)
                .add(jLabel1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, 887, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))
             .addContainerGap())
@@ -290,7 +321,9 @@ public class ResDialog extends javax.swing.JDialog {
                      .add(org.jdesktop.layout.GroupLayout.LEADING, jPanel4, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                      .add(org.jdesktop.layout.GroupLayout.LEADING, jPanel5, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
                   .addPreferredGap(org.jdesktop.layout.LayoutStyle.UNRELATED)
-                  .add(jPanel6, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)))
+                  .add(jPanel1Layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+                     .add(jPanel6, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+                     .add(jPanel7, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))))
             .addContainerGap())
       );
 
@@ -314,7 +347,7 @@ public class ResDialog extends javax.swing.JDialog {
    }// </editor-fold>//GEN-END:initComponents
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
-   control.GetObs().GrafDist(Titulo, TipoDist);
+   GraficasObs.GrafDist(Obs, Titulo, TipoDist);
 }//GEN-LAST:event_jButton1ActionPerformed
 
 private void jButton4ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton4ActionPerformed
@@ -322,16 +355,50 @@ this.cierreDia();
 }//GEN-LAST:event_jButton4ActionPerformed
 
 private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton2ActionPerformed
-control.GetObs().GrafAcum(Titulo, TipoDist);
+GraficasObs.GrafAcum(Obs, Titulo, TipoDist);
 }//GEN-LAST:event_jButton2ActionPerformed
 
 private void jButton3ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton3ActionPerformed
-if(control.GuardarObs()){
-         this.SimulDPView.CrearArbol();
+if(this.TareaGuardar!=null && !this.TareaGuardar.isDone()){
+   this.TareaGuardar.cancel(true);
+   return;
 }
-this.jButton3.setEnabled(false);
-JOptionPane.showMessageDialog(null, "El archivo se guardo correctamente","Atención", JOptionPane.INFORMATION_MESSAGE);
+this.TareaGuardar=new TareaSim("Guardando observaciones", jButton3) {
+   protected void Trabajo() throws Exception {
+      control.GuardarObs(Obs, this);
+   }
+
+   protected void succeeded(Void Resultado) {
+      setMessage(getTitle()+": listo");
+      SimulDPView.CrearArbol();
+      jButton3.setEnabled(false);
+      JOptionPane.showMessageDialog(null, "El archivo se guardo correctamente","Atención", JOptionPane.INFORMATION_MESSAGE);
+   }
+};
+this.TareaGuardar.Ejecutar();
 }//GEN-LAST:event_jButton3ActionPerformed
+
+    /**
+     * Muestra el resumen de la corrida: momentos de la muestra junto a los
+     * teoricos, extremos y cuantiles, calculados mientras se genero, y las
+     * pruebas de ajuste contra la distribucion teorica. En modo
+     * flujo la muestra no esta en memoria, por lo que no hay tabla de
+     * observaciones ni se puede guardar desde aqui.
+     */
+    private void MostrarResumen() {
+        this.jTextArea1.setFont(new java.awt.Font(java.awt.Font.MONOSPACED, java.awt.Font.PLAIN,
+                                                  this.jTextArea1.getFont().getSize()));
+        String Texto=Obs.GetResumen().GetTexto(Obs.GetMomentosTeoricos());
+        PruebasAjuste Pruebas=Obs.ProbarAjuste(TipoDist);
+        if(Pruebas!=null)
+            Texto+="\n\n"+Pruebas.GetTexto();
+        this.jTextArea1.setText(Texto);
+        if(Obs.EsFlujo()) {
+            this.jButton3.setEnabled(false);
+            this.jButton3.setToolTipText("La corrida en modo flujo no guarda la muestra en memoria");
+        }
+        this.jTextArea1.setCaretPosition(0);
+    }
   
 
    // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -346,18 +413,24 @@ JOptionPane.showMessageDialog(null, "El archivo se guardo correctamente","Atenci
    private javax.swing.JPanel jPanel4;
    private javax.swing.JPanel jPanel5;
    private javax.swing.JPanel jPanel6;
+   private javax.swing.JPanel jPanel7;
    private javax.swing.JScrollPane jScrollPane1;
    private javax.swing.JScrollPane jScrollPane2;
    private javax.swing.JScrollPane jScrollPane3;
    private javax.swing.JScrollPane jScrollPane4;
+   private javax.swing.JScrollPane jScrollPane5;
    private javax.swing.JSeparator jSeparator1;
    private javax.swing.JTable jTable1;
    private javax.swing.JTable jTable2;
    private javax.swing.JTable jTable3;
    private javax.swing.JTable jTable4;
+   private javax.swing.JTextArea jTextArea1;
    // End of variables declaration//GEN-END:variables
    private ControlSim control;
+   private GenObsAlet Obs;
    private int TipoDist;
    private String Titulo;
    private SimulDPView SimulDPView;
+   private TablaDistribucion TablaDist;
+   private TareaSim TareaGuardar;
 }
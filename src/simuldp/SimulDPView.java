@@ -12,11 +12,19 @@ import org.jdesktop.application.TaskMonitor;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeCellRenderer;
+import javax.swing.tree.DefaultTreeModel;
 import javax.swing.Timer;
 import javax.swing.Icon;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
+import javax.swing.JTree;
+import javax.swing.SwingUtilities;
+import javax.swing.ToolTipManager;
+import simulacion.CatalogoObs;
 import simulacion.ControlSim;
+import simulacion.EntradaCatalogo;
+import simulacion.GenObsAlet;
 import java.io.File;
 
 /**
@@ -99,80 +107,109 @@ public class SimulDPView extends FrameView {
         SimulDPApp.getApplication().show(aboutBox);
     }
 
+    /**
+     * Arma el arbol de archivos la primera vez, desde el catalogo de
+     * ControlSim, y lo deja vigilando los directorios: cada archivo que se
+     * guarda o se borra agrega o quita solo su nodo, sin rehacer el modelo
+     * ni cerrar las ramas abiertas. Las llamadas siguientes solo ponen el
+     * catalogo al dia, por si el sistema de archivos no se puede vigilar.
+     */
     public void CrearArbol(){
-        File Directorio=new File("C:\\SimulDP\\ObsData\\Poi\\");
-        String[] Direct;
-        Direct=Directorio.list();
-
-        javax.swing.tree.DefaultMutableTreeNode treeNode1 = new javax.swing.tree.DefaultMutableTreeNode("Distribuciones");
-        
-        javax.swing.tree.DefaultMutableTreeNode treeNode2 = new javax.swing.tree.DefaultMutableTreeNode("Poisson");
-         treeNode1.add(treeNode2);
-        javax.swing.tree.DefaultMutableTreeNode treeNode3 = new javax.swing.tree.DefaultMutableTreeNode("Geometrica");
-        treeNode1.add(treeNode3);
-        javax.swing.tree.DefaultMutableTreeNode treeNode4 = new javax.swing.tree.DefaultMutableTreeNode("Uniforme");
-        treeNode1.add(treeNode4);
-        javax.swing.tree.DefaultMutableTreeNode treeNode5 = new javax.swing.tree.DefaultMutableTreeNode("Exponencial");
-        treeNode1.add(treeNode5);
-        javax.swing.tree.DefaultMutableTreeNode treeNode6 = new javax.swing.tree.DefaultMutableTreeNode("Normal");
-        treeNode1.add(treeNode6);
-
-        javax.swing.tree.DefaultMutableTreeNode treeNode8 = new javax.swing.tree.DefaultMutableTreeNode("Resultados");
-        treeNode1.add(treeNode8);
-        javax.swing.tree.DefaultMutableTreeNode treeNode7 = new javax.swing.tree.DefaultMutableTreeNode("");
-
-        for(int i=0; i<Direct.length; i++)
-        {
-            treeNode7 = new javax.swing.tree.DefaultMutableTreeNode(Direct[i]);
-            treeNode2.add(treeNode7);
+        CatalogoObs Catalogo=control.GetCatalogo();
+        if(this.ModeloArbol!=null){
+            Catalogo.Sincronizar();
+            return;
         }
+        /* Los nodos van en el orden de los directorios de ControlSim */
+        String[] Nombres={ "Geometrica", "Poisson", "Uniforme", "Exponencial", "Normal", "Empirica", "Resultados" };
+        int[] Orden={ 1, 0, 2, 3, 4, 5, 6 };
+        DefaultMutableTreeNode Raiz = new DefaultMutableTreeNode("Distribuciones");
+        this.NodosDir = new DefaultMutableTreeNode[Nombres.length];
+        for(int d=0; d<Nombres.length; d++)
+            this.NodosDir[d] = new DefaultMutableTreeNode(Nombres[d]);
+        for(int i=0; i<Orden.length; i++)
+            Raiz.add(this.NodosDir[Orden[i]]);
+
+        /* Se vigila antes de tomar las entradas para no perder ningun cambio;
+           los avisos que se crucen con la copia no duplican nodos */
+        Catalogo.Vigilar(new CatalogoObs.Oyente() {
+            public void Agregado(final int Dir, final EntradaCatalogo Entrada) {
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        InsertarNodo(Dir, Entrada);
+                    }
+                });
+            }
 
-        Directorio=new File("C:\\SimulDP\\ObsData\\Geo\\");
-        Direct=Directorio.list();
-
-        for(int i=0; i<Direct.length; i++)
-        {
-            treeNode7 = new javax.swing.tree.DefaultMutableTreeNode(Direct[i]);
-            treeNode3.add(treeNode7);
-        }
-
-        Directorio=new File("C:\\SimulDP\\ObsData\\Uni\\");
-        Direct=Directorio.list();
-
-        for(int i=0; i<Direct.length; i++)
-        {
-            treeNode7 = new javax.swing.tree.DefaultMutableTreeNode(Direct[i]);
-            treeNode4.add(treeNode7);
-        }
+            public void Quitado(final int Dir, final EntradaCatalogo Entrada) {
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        QuitarNodo(Dir, Entrada);
+                    }
+                });
+            }
 
-        Directorio=new File("C:\\SimulDP\\ObsData\\Exp\\");
-        Direct=Directorio.list();
+            public void Error(final String Mensaje) {
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        statusMessageLabel.setText(Mensaje);
+                        messageTimer.restart();
+                    }
+                });
+            }
+        });
+        for(int d=0; d<this.NodosDir.length && d<Catalogo.GetNumDirectorios(); d++)
+            for(EntradaCatalogo Entrada : Catalogo.GetEntradas(d))
+                this.NodosDir[d].add(new DefaultMutableTreeNode(Entrada, false));
+        this.ModeloArbol = new DefaultTreeModel(Raiz);
+        ListaObservaciones.setModel(this.ModeloArbol);
+        ListaObservaciones.setCellRenderer(new DefaultTreeCellRenderer() {
+            public java.awt.Component getTreeCellRendererComponent(JTree tree, Object value, boolean sel,
+                    boolean expanded, boolean leaf, int row, boolean hasFocus) {
+                super.getTreeCellRendererComponent(tree, value, sel, expanded, leaf, row, hasFocus);
+                Object Dato = ((DefaultMutableTreeNode) value).getUserObject();
+                setToolTipText(Dato instanceof EntradaCatalogo ? DescripcionHtml((EntradaCatalogo) Dato) : null);
+                return this;
+            }
+        });
+        ToolTipManager.sharedInstance().registerComponent(ListaObservaciones);
+    }
 
-        for(int i=0; i<Direct.length; i++)
-        {
-            treeNode7 = new javax.swing.tree.DefaultMutableTreeNode(Direct[i]);
-            treeNode5.add(treeNode7);
+    /** Inserta el nodo de Entrada en orden de nombre; si ya estaba lo reemplaza. */
+    private void InsertarNodo(int Dir, EntradaCatalogo Entrada){
+        DefaultMutableTreeNode Padre = this.NodosDir[Dir];
+        int Ini = 0, Fin = Padre.getChildCount();
+        while(Ini < Fin){
+            int Medio = (Ini + Fin) >>> 1;
+            int c = EntradaCatalogo.ORDEN_NOMBRES.compare(Padre.getChildAt(Medio).toString(), Entrada.GetNombre());
+            if(c == 0){
+                ((DefaultMutableTreeNode) Padre.getChildAt(Medio)).setUserObject(Entrada);
+                this.ModeloArbol.nodeChanged(Padre.getChildAt(Medio));
+                return;
+            }
+            if(c < 0)
+                Ini = Medio + 1;
+            else
+                Fin = Medio;
         }
+        this.ModeloArbol.insertNodeInto(new DefaultMutableTreeNode(Entrada, false), Padre, Ini);
+    }
 
-        Directorio=new File("C:\\SimulDP\\ObsData\\Nor\\");
-        Direct=Directorio.list();
-
-        for(int i=0; i<Direct.length; i++)
-        {
-            treeNode7 = new javax.swing.tree.DefaultMutableTreeNode(Direct[i]);
-            treeNode6.add(treeNode7);
+    /** Quita el nodo de Entrada si sigue en el arbol. */
+    private void QuitarNodo(int Dir, EntradaCatalogo Entrada){
+        DefaultMutableTreeNode Padre = this.NodosDir[Dir];
+        for(int i=0; i<Padre.getChildCount(); i++){
+            DefaultMutableTreeNode Nodo = (DefaultMutableTreeNode) Padre.getChildAt(i);
+            if(Nodo.getUserObject() == Entrada){
+                this.ModeloArbol.removeNodeFromParent(Nodo);
+                return;
+            }
         }
+    }
 
-        Directorio=new File("C:\\SimulDP\\Resultados\\");
-        Direct=Directorio.list();
-
-        for(int i=0; i<Direct.length; i++)
-        {
-            treeNode7 = new javax.swing.tree.DefaultMutableTreeNode(Direct[i]);
-            treeNode8.add(treeNode7);
-        }
-         ListaObservaciones.setModel(new javax.swing.tree.DefaultTreeModel(treeNode1));
-       
+    private static String DescripcionHtml(EntradaCatalogo Entrada){
+        String Texto = Entrada.GetDescripcion().replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        return "<html>" + Texto.replace("\n", "<br>") + "</html>";
     }
 
     /** This method is called from within the constructor to
@@ -189,6 +226,7 @@ public class SimulDPView extends FrameView {
       jPanel2 = new javax.swing.JPanel();
       jButton1 = new javax.swing.JButton();
       jButton2 = new javax.swing.JButton();
+      jButton8 = new javax.swing.JButton();
       jLabel1 = new javax.swing.JLabel();
       jPanel3 = new javax.swing.JPanel();
       jButton3 = new javax.swing.JButton();
@@ -237,6 +275,14 @@ public class SimulDPView extends FrameView {
          }
       });
 
+      jButton8.setText(resourceMap.getString("jButton8.text")); // NOI18N
+      jButton8.setName("jButton8"); // NOI18N
+      jButton8.addActionListener(new java.awt.event.ActionListener() {
+         public void actionPerformed(java.awt.event.ActionEvent evt) {
+            jButton8ActionPerformed(evt);
+         }
+      });
+
       jLabel1.setIcon(resourceMap.getIcon("jLabel1.icon")); // NOI18N
       jLabel1.setText(resourceMap.getString("jLabel1.text")); // NOI18N
       jLabel1.setName("jLabel1"); // NOI18N
@@ -250,11 +296,13 @@ public class SimulDPView extends FrameView {
             .add(jLabel1)
             .addContainerGap(18, Short.MAX_VALUE))
          .add(org.jdesktop.layout.GroupLayout.TRAILING, jPanel2Layout.createSequentialGroup()
-            .addContainerGap(37, Short.MAX_VALUE)
-            .add(jButton1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, 128, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
-            .add(18, 18, 18)
-            .add(jButton2, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, 129, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
-            .add(32, 32, 32))
+            .addContainerGap(16, Short.MAX_VALUE)
+            .add(jButton1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, 104, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+            .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+            .add(jButton2, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, 104, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+            .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+            .add(jButton8, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, 104, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+            .add(16, 16, 16))
       );
       jPanel2Layout.setVerticalGroup(
          jPanel2Layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
@@ -264,7 +312,8 @@ public class SimulDPView extends FrameView {
             .add(18, 18, 18)
             .add(jPanel2Layout.createParallelGroup(org.jdesktop.layout.GroupLayout.BASELINE)
                .add(jButton2, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, 37, Short.MAX_VALUE)
-               .add(jButton1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, 36, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))
+               .add(jButton1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, 36, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+               .add(jButton8, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, 36, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE))
             .addContainerGap())
       );
 
@@ -499,23 +548,37 @@ public class SimulDPView extends FrameView {
    }// </editor-fold>//GEN-END:initComponents
 
 private void jButton6ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton6ActionPerformed
-String Titulo="";
-Titulo=control.AbrirArc((String)((this.ListaObservaciones.getSelectionPath()).getPathComponent(2)).toString());
-control.GetObs().ObsMaxMin();
-JFrame mainFrame = SimulDPApp.getApplication().getMainFrame();
-System.out.print("\n"+control.GetObs().GetTipoDist());
-
-if(control.GetObs().GetTipoDist()==1 || control.GetObs().GetTipoDist()==2)
-   ResDialog = new ResDialog(mainFrame, false, control, Titulo, 1, this);
-
-if(control.GetObs().GetTipoDist()==3)
-   ResDialog = new ResDialog(mainFrame, false, control, Titulo, 3, this);
-
-if(control.GetObs().GetTipoDist()==4 || control.GetObs().GetTipoDist()==5)
-   ResDialog = new ResDialog(mainFrame, false, control, Titulo, 2, this);
-
-ResDialog.setLocationRelativeTo(mainFrame);
-SimulDPApp.getApplication().show(ResDialog);
+final String NomArc=(String)((this.ListaObservaciones.getSelectionPath()).getPathComponent(2)).toString();
+final SimulDPView Vista=this;
+TareaSim Tarea=new TareaSim("Abriendo "+NomArc, null) {
+   private String Titulo;
+   private GenObsAlet Obs;
+   private int TipoDist;
+
+   protected void Trabajo() throws java.io.IOException {
+      Obs=control.AbrirArc(NomArc, this);
+      Titulo=Obs.GetTitulo();
+      if(Obs.GetTipoDist()==1 || Obs.GetTipoDist()==2)
+         TipoDist=1;
+      else if(Obs.GetTipoDist()==6)
+         TipoDist=Obs.EsDiscreta() ? 1 : 2;
+      else if(Obs.GetTipoDist()==3)
+         TipoDist=3;
+      else
+         TipoDist=2;
+      Preparar(Obs, TipoDist);
+   }
+
+   protected void succeeded(Void Resultado) {
+      setMessage(getTitle()+": listo");
+      control.Activar(Obs);
+      JFrame mainFrame = SimulDPApp.getApplication().getMainFrame();
+      ResDialog = new ResDialog(mainFrame, false, control, Obs, Titulo, TipoDist, Vista);
+      ResDialog.setLocationRelativeTo(mainFrame);
+      SimulDPApp.getApplication().show(ResDialog);
+   }
+};
+Tarea.Ejecutar();
 }//GEN-LAST:event_jButton6ActionPerformed
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
@@ -567,6 +630,15 @@ SimulDPApp.getApplication().show(ExpDialog);
 
 }//GEN-LAST:event_jButton4ActionPerformed
 
+private void jButton8ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton8ActionPerformed
+if (EmpDialog == null) {
+   JFrame mainFrame = SimulDPApp.getApplication().getMainFrame();
+   EmpDialog = new EmpDialog(mainFrame, false, control, this);
+   EmpDialog.setLocationRelativeTo(mainFrame);            
+}
+SimulDPApp.getApplication().show(EmpDialog);
+}//GEN-LAST:event_jButton8ActionPerformed
+
 private void jButton7ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton7ActionPerformed
    control.Borrador(((this.ListaObservaciones.getSelectionPath()).getPathComponent(2)).toString());
    this.CrearArbol();
@@ -581,6 +653,7 @@ private void jButton7ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
    private javax.swing.JButton jButton5;
    private javax.swing.JButton jButton6;
    private javax.swing.JButton jButton7;
+   private javax.swing.JButton jButton8;
    private javax.swing.JLabel jLabel1;
    private javax.swing.JLabel jLabel2;
    private javax.swing.JLabel jLabel3;
@@ -609,6 +682,9 @@ private void jButton7ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
     private JDialog UniDialog;
     private JDialog NorDialog;
     private JDialog ExpDialog;
+    private JDialog EmpDialog;
     private ControlSim control;
     private ResDialog ResDialog;
+    private DefaultMutableTreeNode[] NodosDir;
+    private DefaultTreeModel ModeloArbol;
 }
@@ -0,0 +1,71 @@
+/*
+ * TareaGeneracion.java
+ */
+
+package simuldp;
+
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import simulacion.ControlSim;
+import simulacion.GenObsAlet;
+
+/**
+ * Genera en segundo plano la ultima corrida creada en ControlSim y, al
+ * terminar, muestra los resultados en un ResDialog. Cada dialogo de
+ * parametros implementa Generar() con la llamada de su distribucion. El
+ * ResDialog recibe esta corrida y no la ultima de ControlSim, que puede ser
+ * otra que se este generando. Si se cancela o falla, la corrida se quita de
+ * ControlSim y no se abre el dialogo de resultados.
+ */
+public abstract class TareaGeneracion extends TareaSim {
+
+    private final ControlSim control;
+    private final GenObsAlet Obs;
+    private final String TituloResul;
+    private final int TipoDist;
+    private final SimulDPView SimulDPView;
+
+    public TareaGeneracion(ControlSim control, String TituloResul, int TipoDist, SimulDPView aThis, JButton Boton) {
+        super(TituloResul, Boton);
+        this.control = control;
+        this.Obs = control.GetObs();
+        this.TituloResul = TituloResul;
+        this.TipoDist = TipoDist;
+        this.SimulDPView = aThis;
+    }
+
+    /** La llamada de generacion de la distribucion, en el hilo de fondo. */
+    protected abstract void Generar(GenObsAlet Obs);
+
+    protected void Trabajo() {
+        this.Obs.SetMonitor(this);
+        try {
+            Generar(this.Obs);
+        } finally {
+            this.Obs.SetMonitor(null);
+        }
+        Preparar(this.Obs, this.TipoDist);
+    }
+
+    @Override
+    protected void succeeded(Void Resultado) {
+        setMessage(getTitle() + ": listo");
+        this.control.Activar(this.Obs);
+        JFrame mainFrame = SimulDPApp.getApplication().getMainFrame();
+        ResDialog ResDialog = new ResDialog(mainFrame, false, this.control, this.Obs, this.TituloResul, this.TipoDist, this.SimulDPView);
+        ResDialog.setLocationRelativeTo(mainFrame);
+        SimulDPApp.getApplication().show(ResDialog);
+    }
+
+    @Override
+    protected void cancelled() {
+        setMessage(getTitle() + ": cancelado con " + this.Obs.GetCantObs() + " observaciones");
+        this.control.Quitar(this.Obs);
+    }
+
+    @Override
+    protected void failed(Throwable Causa) {
+        super.failed(Causa);
+        this.control.Quitar(this.Obs);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * TareaSim.java
+ */
+
+package simuldp;
+
+import java.util.List;
+import javax.swing.JButton;
+import javax.swing.JOptionPane;
+import org.jdesktop.application.Task;
+import simulacion.GenObsAlet;
+import simulacion.MomentosObs;
+import simulacion.MonitorGeneracion;
+
+/**
+ * Tarea de fondo de la aplicacion: generar, abrir o guardar una corrida.
+ * Trabajo() corre fuera del hilo de Swing; el avance y los momentos parciales
+ * de la generacion llegan a la barra de estado de SimulDPView por el
+ * TaskMonitor. Se cancela con cancel(true): el modelo revisa la interrupcion
+ * entre lotes de bloques y termina con CancellationException.
+ */
+public abstract class TareaSim extends Task<Void, String> implements MonitorGeneracion {
+
+    private final JButton Boton;
+    private final String TextoBoton;
+
+    /**
+     * Boton puede ser null; si no, mientras la tarea corre dice "Cancelar"
+     * y al terminar vuelve a su texto.
+     */
+    public TareaSim(String Titulo, JButton Boton) {
+        super(SimulDPApp.getApplication());
+        setTitle(Titulo);
+        setUserCanCancel(true);
+        this.Boton = Boton;
+        this.TextoBoton = Boton != null ? Boton.getText() : null;
+        if (Boton != null)
+            Boton.setText("Cancelar");
+    }
+
+    /** El trabajo de la tarea, en el hilo de fondo. */
+    protected abstract void Trabajo() throws Exception;
+
+    /** Ejecuta la tarea en el TaskService de la aplicacion. */
+    public void Ejecutar() {
+        SimulDPApp.getApplication().getContext().getTaskService().execute(this);
+    }
+
+    /**
+     * Deja calculado lo que ResDialog muestra (extremos, tabla de
+     * frecuencias y pruebas de ajuste) para que el dialogo abra sin esperar.
+     */
+    protected static void Preparar(GenObsAlet Obs, int TipoDist) {
+        Obs.ObsMaxMin();
+        if (!Obs.EsFlujo())
+            Obs.GetTablaDistribucion(TipoDist);
+        Obs.ProbarAjuste(TipoDist);
+    }
+
+    @Override
+    protected Void doInBackground() throws Exception {
+        setMessage(getTitle() + "...");
+        Trabajo();
+        return null;
+    }
+
+    public void Progreso(long Hecho, long Total) {
+        if (Total > 0)
+            setProgress((float) Hecho / Total);
+    }
+
+    public void Parcial(MomentosObs Momentos) {
+        publish(String.format("%s: %,d obs.  media %.6g  desv. est. %.6g  min %.6g  max %.6g",
+                getTitle(), Momentos.GetCantidad(), Momentos.GetMedia(), Momentos.GetDesvEst(),
+                Momentos.GetMin(), Momentos.GetMax()));
+    }
+
+    @Override
+    protected void process(List<String> Mensajes) {
+        setMessage(Mensajes.get(Mensajes.size() - 1));
+    }
+
+    @Override
+    protected void cancelled() {
+        setMessage(getTitle() + ": cancelado");
+    }
+
+    @Override
+    protected void failed(Throwable Causa) {
+        setMessage(getTitle() + ": error");
+        JOptionPane.showMessageDialog(null, getTitle() + "\n" + Causa, "ERROR", JOptionPane.ERROR_MESSAGE);
+    }
+
+    @Override
+    protected void finished() {
+        if (this.Boton != null)
+            this.Boton.setText(this.TextoBoton);
+    }
+}
@@ -8,6 +8,7 @@ package simuldp;
 import javax.swing.*;
 import org.jdesktop.application.Action;
 import simulacion.ControlSim;
+import simulacion.GenObsAlet;
 
 /**
  *
@@ -39,6 +40,7 @@ public class UniDialog extends javax.swing.JDialog {
    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
    private void initComponents() {
 
+      opcionesGen = new simuldp.OpcionesGenPanel();
       jPanel1 = new javax.swing.JPanel();
       jLabel1 = new javax.swing.JLabel();
       jScrollPane1 = new javax.swing.JScrollPane();
@@ -206,13 +208,17 @@ public class UniDialog extends javax.swing.JDialog {
             .addContainerGap(24, Short.MAX_VALUE))
       );
 
+      opcionesGen.setName("opcionesGen"); // NOI18N
+
       org.jdesktop.layout.GroupLayout layout = new org.jdesktop.layout.GroupLayout(getContentPane());
       getContentPane().setLayout(layout);
       layout.setHorizontalGroup(
          layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
          .add(layout.createSequentialGroup()
             .addContainerGap()
-            .add(jPanel1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+            .add(layout.createParallelGroup(org.jdesktop.layout.GroupLayout.LEADING)
+               .add(jPanel1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+               .add(opcionesGen, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
             .addContainerGap(13, Short.MAX_VALUE))
       );
       layout.setVerticalGroup(
@@ -220,6 +226,8 @@ public class UniDialog extends javax.swing.JDialog {
          .add(layout.createSequentialGroup()
             .addContainerGap()
             .add(jPanel1, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
+            .addPreferredGap(org.jdesktop.layout.LayoutStyle.RELATED)
+            .add(opcionesGen, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE, org.jdesktop.layout.GroupLayout.DEFAULT_SIZE, org.jdesktop.layout.GroupLayout.PREFERRED_SIZE)
             .addContainerGap(38, Short.MAX_VALUE))
       );
 
@@ -227,6 +235,14 @@ public class UniDialog extends javax.swing.JDialog {
    }// </editor-fold>//GEN-END:initComponents
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
+if(this.Tarea!=null && !this.Tarea.isDone()){
+   this.Tarea.cancel(true);
+   return;
+}
+if(!opcionesGen.SemillaValida()){
+   JOptionPane.showMessageDialog(null,"La semilla debe ser un numero entero", "ERROR",JOptionPane.ERROR_MESSAGE);
+   return;
+}
    String Resultado,Error;
    Resultado="Verifique Sus Limites";
    Validaciones DatoValido= new Validaciones();
@@ -250,13 +266,15 @@ else{
         Double LimA=new Double(this.jTextField1.getText());
         Double LimB=new Double(this.jTextField2.getText());
         Double NumOb=new Double(this.jTextField3.getText());
-        this.control.CrearObs(3, NumOb.intValue());
-        control.GetObs().GenObsCont(LimA.doubleValue(), LimB.doubleValue(), 0, 0);
-        control.GetObs().ObsMaxMin();
-        JFrame mainFrame = SimulDPApp.getApplication().getMainFrame();
-        ResDialog = new ResDialog(mainFrame, false, control, "Observaciones Aleatorias - Distribución Uniforme", 2, this.SimulDPView);
-        ResDialog.setLocationRelativeTo(mainFrame);
-         SimulDPApp.getApplication().show(ResDialog); }
+        this.control.CrearObs(3, NumOb.longValue(), opcionesGen.GetTipoMotor(), opcionesGen.GetSemilla());
+        opcionesGen.Aplicar(control.GetObs());
+        final double Inf=LimA.doubleValue(), Sup=LimB.doubleValue();
+        this.Tarea = new TareaGeneracion(control, "Observaciones Aleatorias - Distribución Uniforme", 2, this.SimulDPView, jButton1) {
+           protected void Generar(GenObsAlet Obs) {
+              Obs.GenObsCont(Inf, Sup, 0, 0);
+           }
+        };
+        this.Tarea.Ejecutar(); }
          else{
          JOptionPane.showMessageDialog(null,Resultado, "ERROR",JOptionPane.ERROR_MESSAGE);}
    }}
@@ -284,8 +302,9 @@ this.CierreDia();
    private javax.swing.JTextField jTextField2;
    private javax.swing.JTextField jTextField3;
    private javax.swing.JTextPane jTextPane1;
+   private simuldp.OpcionesGenPanel opcionesGen;
    // End of variables declaration//GEN-END:variables
    private ControlSim control;
-   private ResDialog ResDialog;
+   private TareaSim Tarea;
    private SimulDPView SimulDPView;
 }
@@ -0,0 +1,171 @@
+package simulacion;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/*****************************************************************************/
+/* Clase NucleosVector: implementacion de NucleosLote con la Vector API      */
+/* (jdk.incubator.vector, JDK 16 o posterior). Usa el ancho preferido del    */
+/* procesador (256 bits con AVX2, 512 con AVX-512) y deja los restos que no  */
+/* llenan un vector a la implementacion escalar.                             */
+/*                                                                           */
+/* Philox se calcula con los cuatro enteros de 32 bits de cada contador en   */
+/* lanes de 64 bits, donde el producto de 32x32 bits cabe entero: la parte   */
+/* alta es p>>>32 y la baja p&0xFFFFFFFF. Los dos double de cada contador se */
+/* intercalan para guardarlos en el orden de SigDouble: cada vector se       */
+/* duplica lane a lane con rearrange y se mezclan con blend (el rearrange de */
+/* dos vectores no es intrinseco en el JDK 17 y crea objetos).               */
+/*                                                                           */
+/* Triangular guarda en registros las sumas de FILAS filas por dos vectores  */
+/* de columnas; multiplica y suma por separado, sin fma, para dar los mismos */
+/* bits que la escalar.                                                      */
+/*****************************************************************************/
+
+final class NucleosVector extends NucleosLote {
+
+  private static final VectorSpecies<Double> SD=DoubleVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Long> SL=LongVector.SPECIES_PREFERRED;
+  private static final int LANES=SD.length();
+  private static final long MASCARA=0xFFFFFFFFL;
+
+  /* Intercalado de (a0..aL-1) y (b0..bL-1): primera y segunda mitad */
+  private static final VectorShuffle<Double> PRIMERA=Duplicar(0);
+  private static final VectorShuffle<Double> SEGUNDA=Duplicar(LANES/2);
+  private static final VectorMask<Double> IMPARES=VectorMask.fromLong(SD, 0xAAAAAAAAAAAAAAAAL);
+
+  NucleosVector()
+  {
+  if(LANES<2 || SL.length()!=LANES)
+     throw new UnsupportedOperationException("sin registros vectoriales de double");
+  }
+
+  /* Lanes 2k y 2k+1 toman el lane Desde+k */
+  private static VectorShuffle<Double> Duplicar(int Desde)
+  {
+  int[] Indices=new int[LANES];
+  for(int k=0; k<LANES; k++)
+     Indices[k]=Desde+k/2;
+  return VectorShuffle.fromArray(SD, Indices, 0);
+  }
+
+  public String GetNombre(){
+      return "vectorial ("+SD.vectorBitSize()+" bits)";
+  }
+
+  public void Exponencial(double[] Datos, int Ini, int Cant, double Media)
+  {
+  final double MenosMedia=-Media;
+  int i=Ini, Limite=Ini+SD.loopBound(Cant);
+  for(; i<Limite; i+=LANES){
+     DoubleVector u=DoubleVector.fromArray(SD, Datos, i);
+     u.neg().add(1.0).lanewise(VectorOperators.LOG).mul(MenosMedia).intoArray(Datos, i);
+  }
+  GetEscalar().Exponencial(Datos, i, Ini+Cant-i, Media);
+  }
+
+  public boolean Uniforme(double[] Datos, int Ini, int Cant, double a, double b)
+  {
+  final double Ancho=b-a;
+  boolean Validos=true;
+  int i=Ini, Limite=Ini+SD.loopBound(Cant);
+  for(; i<Limite; i+=LANES){
+     /* Producto y suma por separado, sin fma, para redondear como el escalar */
+     DoubleVector x=DoubleVector.fromArray(SD, Datos, i).mul(Ancho).add(a);
+     VectorMask<Double> Dentro=x.compare(VectorOperators.GT, a).and(x.compare(VectorOperators.LT, b));
+     Validos&=Dentro.allTrue();
+     x.intoArray(Datos, i);
+  }
+  return GetEscalar().Uniforme(Datos, i, Ini+Cant-i, a, b) && Validos;
+  }
+
+  public void Philox(double[] Datos, int Ini, int Pares, long Contador, long Flujo, int k0, int k1)
+  {
+  LongVector Iota=LongVector.zero(SL).addIndex(1);
+  LongVector Alto2=LongVector.broadcast(SL, Flujo&MASCARA);
+  LongVector Alto3=LongVector.broadcast(SL, Flujo>>>32);
+  int j=0;
+  for(; j+LANES<=Pares; j+=LANES){
+     LongVector c=Iota.add(Contador+j);
+     LongVector x0=c.and(MASCARA);
+     LongVector x1=c.lanewise(VectorOperators.LSHR, 32);
+     LongVector x2=Alto2, x3=Alto3;
+     long c0=k0&MASCARA, c1=k1&MASCARA;
+     for(int r=0; r<MotorPhilox.RONDAS; r++){
+        LongVector p0=x0.mul(MotorPhilox.M0);
+        LongVector p1=x2.mul(MotorPhilox.M1);
+        LongVector y0=p1.lanewise(VectorOperators.LSHR, 32).lanewise(VectorOperators.XOR, x1).lanewise(VectorOperators.XOR, c0);
+        LongVector y2=p0.lanewise(VectorOperators.LSHR, 32).lanewise(VectorOperators.XOR, x3).lanewise(VectorOperators.XOR, c1);
+        x1=p1.and(MASCARA);
+        x3=p0.and(MASCARA);
+        x0=y0;
+        x2=y2;
+        c0=(c0+(MotorPhilox.W0&MASCARA))&MASCARA;
+        c1=(c1+(MotorPhilox.W1&MASCARA))&MASCARA;
+     }
+     DoubleVector d0=ADouble(x1.lanewise(VectorOperators.LSHL, 32).or(x0));
+     DoubleVector d1=ADouble(x3.lanewise(VectorOperators.LSHL, 32).or(x2));
+     int Pos=Ini+2*j;
+     d0.rearrange(PRIMERA).blend(d1.rearrange(PRIMERA), IMPARES).intoArray(Datos, Pos);
+     d0.rearrange(SEGUNDA).blend(d1.rearrange(SEGUNDA), IMPARES).intoArray(Datos, Pos+LANES);
+  }
+  GetEscalar().Philox(Datos, Ini+2*j, Pares-j, Contador+j, Flujo, k0, k1);
+  }
+
+  public void Triangular(double[][] L, double[] Media, double[][] Z, int Desde, int Hasta,
+                         double[][] X, int Pos)
+  {
+  int Dim=X.length;
+  int i=Desde;
+  for(; i+2*LANES<=Hasta; i+=2*LANES){
+     int i1=i+LANES;
+     int j=0;
+     for(; j+FILAS<=Dim; j+=FILAS){
+        double[] l0=L[j], l1=L[j+1], l2=L[j+2], l3=L[j+3];
+        DoubleVector s00=DoubleVector.zero(SD), s01=s00, s10=s00, s11=s00;
+        DoubleVector s20=s00, s21=s00, s30=s00, s31=s00;
+        for(int k=0; k<l0.length; k++){
+           double[] z=Z[k];
+           DoubleVector z0=DoubleVector.fromArray(SD, z, i);
+           DoubleVector z1=DoubleVector.fromArray(SD, z, i1);
+           s00=s00.add(z0.mul(l0[k]));
+           s01=s01.add(z1.mul(l0[k]));
+           s10=s10.add(z0.mul(l1[k]));
+           s11=s11.add(z1.mul(l1[k]));
+           s20=s20.add(z0.mul(l2[k]));
+           s21=s21.add(z1.mul(l2[k]));
+           s30=s30.add(z0.mul(l3[k]));
+           s31=s31.add(z1.mul(l3[k]));
+        }
+        int p=Pos+i, p1=Pos+i1;
+        s00.add(Media[j]).intoArray(X[j], p);
+        s01.add(Media[j]).intoArray(X[j], p1);
+        s10.add(Media[j+1]).intoArray(X[j+1], p);
+        s11.add(Media[j+1]).intoArray(X[j+1], p1);
+        s20.add(Media[j+2]).intoArray(X[j+2], p);
+        s21.add(Media[j+2]).intoArray(X[j+2], p1);
+        s30.add(Media[j+3]).intoArray(X[j+3], p);
+        s31.add(Media[j+3]).intoArray(X[j+3], p1);
+     }
+     for(; j<Dim; j++){
+        double[] l=L[j];
+        DoubleVector s0=DoubleVector.zero(SD), s1=s0;
+        for(int k=0; k<l.length; k++){
+           s0=s0.add(DoubleVector.fromArray(SD, Z[k], i).mul(l[k]));
+           s1=s1.add(DoubleVector.fromArray(SD, Z[k], i1).mul(l[k]));
+        }
+        s0.add(Media[j]).intoArray(X[j], Pos+i);
+        s1.add(Media[j]).intoArray(X[j], Pos+i1);
+     }
+  }
+  GetEscalar().Triangular(L, Media, Z, i, Hasta, X, Pos);
+  }
+
+  /* (x>>>11)*2^-53 en cada lane; x>>>11 < 2^53 se convierte exacto */
+  private static DoubleVector ADouble(LongVector x)
+  {
+  return ((DoubleVector)x.lanewise(VectorOperators.LSHR, 11).convert(VectorOperators.L2D, 0)).mul(0x1.0p-53);
+  }
+}